@@ -0,0 +1,111 @@
+package com.example.cli;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * JSON Lines 출력 (한 줄에 JSON 객체 하나)
+ * - 목록은 행을 받는 대로 한 줄씩 내보내므로 전체 결과를 메모리에 모으지 않고, 받는 쪽(jq, 다른 스크립트)도 바로 처리할 수 있음
+ * - 값은 String, Number, Boolean, null, Map(객체), Collection(배열)만 지원
+ * - 출력은 버퍼에 모았다가 명령이 끝날 때와 FLUSH_ROWS 줄마다 내보냄
+ */
+final class JsonLines {
+    private static final int FLUSH_ROWS = 256;
+
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(256);
+    private int unflushed;
+
+    JsonLines(OutputStream stream) {
+        this.out = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    /**
+     * 객체 한 줄 출력
+     */
+    synchronized void write(Map<String, ?> object) {
+        line.setLength(0);
+        appendValue(line, object);
+        line.append('\n');
+        try {
+            out.append(line);
+            if (++unflushed >= FLUSH_ROWS) flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized void flush() {
+        try {
+            out.flush();
+            unflushed = 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendValue(StringBuilder json, Object value) {
+        if (value == null) {
+            json.append("null");
+        } else if (value instanceof String) {
+            appendString(json, (String) value);
+        } else if (value instanceof Double || value instanceof Float) {
+            double number = ((Number) value).doubleValue();
+            // JSON에는 NaN/Infinity가 없음
+            if (Double.isNaN(number) || Double.isInfinite(number)) json.append("null");
+            else json.append(BigDecimal.valueOf(number).stripTrailingZeros().toPlainString());
+        } else if (value instanceof BigDecimal) {
+            json.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else if (value instanceof Map) {
+            json.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (!first) json.append(',');
+                first = false;
+                appendString(json, String.valueOf(entry.getKey()));
+                json.append(':');
+                appendValue(json, entry.getValue());
+            }
+            json.append('}');
+        } else if (value instanceof Collection) {
+            json.append('[');
+            boolean first = true;
+            for (Object element : (Collection<?>) value) {
+                if (!first) json.append(',');
+                first = false;
+                appendValue(json, element);
+            }
+            json.append(']');
+        } else {
+            appendString(json, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder json, String text) {
+        json.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"': json.append("\\\""); break;
+                case '\\': json.append("\\\\"); break;
+                case '\n': json.append("\\n"); break;
+                case '\r': json.append("\\r"); break;
+                case '\t': json.append("\\t"); break;
+                default:
+                    if (c < 0x20) json.append(String.format("\\u%04x", (int) c));
+                    else json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
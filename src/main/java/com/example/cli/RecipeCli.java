@@ -0,0 +1,505 @@
+package com.example.cli;
+
+import com.example.dao.IngredientDAO;
+import com.example.dao.RecipeDAO;
+import com.example.dao.impl.IngredientDAOImpl;
+import com.example.dao.impl.RecipeDAOImpl;
+import com.example.dao.impl.SubstitutionDAOImpl;
+import com.example.db.CatalogSnapshot;
+import com.example.db.DatabaseConnection;
+import com.example.db.OfflineWriteQueue;
+import com.example.model.Ingredient;
+import com.example.model.Price;
+import com.example.model.Recipe;
+import com.example.service.SubstitutionGraph;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * RecipeCli
+ * - 화면 없이 레시피/재료를 다루는 명령행 진입점 (AWT/Swing 클래스를 불러오지 않음)
+ * - 사용법:
+ *     java -cp recipe-manager.jar com.example.cli.RecipeCli list recipes
+ *     java -cp recipe-manager.jar com.example.cli.RecipeCli [--keep-going] --batch commands.txt   (- 이면 표준 입력)
+ * - 명령: list recipes|ingredients|favorites, search name=|ingredient=, add recipe|ingredient, update recipe|ingredient,
+ *   delete recipe|ingredient, cook, favorite, unfavorite (인자는 key=value, 공백이 있으면 따옴표로 감쌈)
+ * - 결과는 JSON Lines로 표준 출력에 씀: 목록 행은 읽는 대로 한 줄씩, 명령마다 마지막에 "type":"result" 한 줄
+ * - 일괄 실행은 한 프로세스에서 DAO와 주 서버 커넥션 하나(DatabaseConnection.pinPrimary)를 계속 쓰므로
+ *   명령 하나의 비용이 DAO 호출 비용에 가까움
+ * - 대기열을 재실행할 주체가 없고 출력이 DB 결과여야 하므로 오프라인 대기열과 스냅샷 대신 읽기를 끔
+ *   (DB에 연결할 수 없으면 쓰기/읽기 모두 그 명령의 실패로 보고)
+ * - 종료 코드: 0 모두 성공, 1 실패한 명령이 있음, 2 사용법 오류
+ */
+public class RecipeCli {
+    private static final String USAGE = String.join("\n",
+        "사용법: RecipeCli [--keep-going] (--batch <파일|-> | <명령> [key=value ...])",
+        "  list recipes|ingredients|favorites",
+        "  search name=<이름 일부> | ingredient=<재료 이름>",
+        "  add recipe name=<이름> instructions=<조리 방법> ingredients=<재료:수량,재료:수량>",
+        "  add ingredient name=<이름> quantity=<수량> [price=<단가>]",
+        "  update recipe id=<id> [name=<이름>] [instructions=<조리 방법>]",
+        "  update ingredient id=<id> [name=<이름>] [quantity=<수량>] [price=<단가>]",
+        "  delete recipe|ingredient id=<id>",
+        "  cook id=<레시피 id>",
+        "  favorite id=<레시피 id> [rating=<1-5>] [note=<메모>]",
+        "  unfavorite id=<레시피 id>");
+
+    /**
+     * 잘못된 명령/인자 (사용자에게 그대로 보여 줄 메시지)
+     */
+    static class CommandException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        CommandException(String message) {
+            super(message);
+        }
+    }
+
+    private final RecipeDAO recipeDAO;
+    private final IngredientDAO ingredientDAO;
+    private final JsonLines out;
+    // 요리하기에서 처음 필요할 때 불러옴
+    private SubstitutionGraph substitutionGraph;
+
+    RecipeCli(RecipeDAO recipeDAO, IngredientDAO ingredientDAO, JsonLines out) {
+        this.recipeDAO = recipeDAO;
+        this.ingredientDAO = ingredientDAO;
+        this.out = out;
+    }
+
+    public static void main(String[] args) {
+        // 폰트/툴킷 초기화가 일어나지 않도록 (화면 클래스는 참조하지 않지만 혹시 불리더라도)
+        System.setProperty("java.awt.headless", "true");
+        List<String> command = new ArrayList<>(Arrays.asList(args));
+        boolean keepGoing = command.remove("--keep-going");
+        String batch = null;
+        int batchIndex = command.indexOf("--batch");
+        if (batchIndex >= 0) {
+            if (batchIndex + 1 >= command.size()) usageError("--batch 다음에 파일 이름(또는 -)이 필요합니다.");
+            batch = command.get(batchIndex + 1);
+            command.subList(batchIndex, batchIndex + 2).clear();
+            if (!command.isEmpty()) usageError("--batch와 명령을 함께 쓸 수 없습니다.");
+        } else if (command.isEmpty() || command.get(0).equals("help") || command.get(0).equals("--help")) {
+            System.err.println(USAGE);
+            System.exit(command.isEmpty() ? 2 : 0);
+        }
+
+        DatabaseConnection dbConnection = DatabaseConnection.getInstance();
+        dbConnection.pinPrimary();
+        OfflineWriteQueue.getInstance().setEnabled(false);
+        CatalogSnapshot.getInstance().setFallbackEnabled(false);
+        JsonLines out = new JsonLines(System.out);
+        RecipeCli cli = new RecipeCli(new RecipeDAOImpl(), new IngredientDAOImpl(), out);
+        int failures;
+        try {
+            failures = batch == null ? (cli.run(String.join(" ", quoteAll(command))) ? 0 : 1) : cli.runBatch(batch, keepGoing);
+        } catch (IOException e) {
+            System.err.println("명령 파일을 읽을 수 없습니다: " + e.getMessage());
+            failures = 1;
+        } finally {
+            out.flush();
+            dbConnection.unpinPrimary();
+        }
+        System.exit(failures == 0 ? 0 : 1);
+    }
+
+    /**
+     * 명령 파일(또는 표준 입력)을 한 줄에 명령 하나씩 실행 (빈 줄과 #으로 시작하는 줄은 건너뜀)
+     * @return 실패한 명령 수 (keepGoing이 아니면 첫 실패에서 멈춤)
+     */
+    int runBatch(String source, boolean keepGoing) throws IOException {
+        int failures = 0;
+        try (BufferedReader reader = source.equals("-")
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8))
+                : Files.newBufferedReader(Paths.get(source), StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) continue;
+                if (!run(trimmed)) {
+                    failures++;
+                    if (!keepGoing) break;
+                }
+            }
+        }
+        return failures;
+    }
+
+    /**
+     * 명령 한 줄 실행 후 결과 줄 출력
+     * @return 성공 여부
+     */
+    boolean run(String line) {
+        long started = System.nanoTime();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("type", "result");
+        result.put("command", line);
+        result.put("ok", false);
+        try {
+            execute(tokenize(line), result);
+            result.put("ok", true);
+        } catch (CommandException | IllegalStateException | IllegalArgumentException e) {
+            result.put("error", e.getMessage());
+        } catch (RuntimeException e) {
+            result.put("error", e.getCause() != null ? e.getMessage() + ": " + e.getCause().getMessage() : String.valueOf(e.getMessage()));
+        }
+        result.put("millis", BigDecimal.valueOf((System.nanoTime() - started) / 1000).movePointLeft(3));
+        out.write(result);
+        out.flush();
+        return Boolean.TRUE.equals(result.get("ok"));
+    }
+
+    private void execute(List<String> tokens, Map<String, Object> result) {
+        if (tokens.isEmpty()) throw new CommandException("빈 명령입니다.");
+        String verb = tokens.get(0);
+        String noun = tokens.size() > 1 && !tokens.get(1).contains("=") ? tokens.get(1) : null;
+        Map<String, String> options = options(tokens.subList(noun == null ? 1 : 2, tokens.size()));
+        switch (verb + (noun == null ? "" : " " + noun)) {
+            case "list recipes":
+                result.put("count", stream(recipeDAO.streamAll(), recipe -> out.write(recipeRow(recipe))));
+                break;
+            case "list ingredients":
+                result.put("count", stream(ingredientDAO.streamAll(), ingredient -> out.write(ingredientRow(ingredient))));
+                break;
+            case "list favorites": {
+                List<Recipe> favorites = recipeDAO.findAllFavorites();
+                favorites.forEach(recipe -> out.write(recipeRow(recipe)));
+                result.put("count", favorites.size());
+                break;
+            }
+            case "search":
+                search(options, result);
+                break;
+            case "add recipe":
+                result.put("id", addRecipe(options));
+                break;
+            case "add ingredient":
+                result.put("id", addIngredient(options));
+                break;
+            case "update recipe":
+                updateRecipe(options);
+                break;
+            case "update ingredient":
+                updateIngredient(options);
+                break;
+            case "delete recipe":
+                recipeDAO.delete(intOption(options, "id"));
+                break;
+            case "delete ingredient":
+                ingredientDAO.delete(intOption(options, "id"));
+                break;
+            case "cook":
+                cook(intOption(options, "id"), result);
+                break;
+            case "favorite":
+                favorite(options);
+                break;
+            case "unfavorite":
+                recipeDAO.removeFromFavorites(intOption(options, "id"));
+                break;
+            default:
+                throw new CommandException("알 수 없는 명령입니다: " + String.join(" ", tokens.subList(0, noun == null ? 1 : 2)));
+        }
+    }
+
+    // ---- 명령 ----
+
+    private void search(Map<String, String> options, Map<String, Object> result) {
+        if (options.containsKey("ingredient")) {
+            // 메모리 역인덱스 (처음 한 번만 전체를 읽음)
+            String ingredientName = options.get("ingredient");
+            List<Recipe> recipes = recipeDAO.findRecipesUsing(ingredientName);
+            for (Recipe recipe : recipes) {
+                Map<String, Object> row = new LinkedHashMap<>();
+                row.put("type", "recipe");
+                row.put("id", recipe.getId());
+                row.put("name", recipe.getName());
+                row.put("requiredQuantity", recipe.getRequiredIngredientNames().get(ingredientName));
+                out.write(row);
+            }
+            result.put("count", recipes.size());
+        } else if (options.containsKey("name")) {
+            String part = options.get("name").toLowerCase(Locale.ROOT);
+            int[] count = {0};
+            stream(recipeDAO.streamAll(), recipe -> {
+                if (recipe.getName().toLowerCase(Locale.ROOT).contains(part)) {
+                    out.write(recipeRow(recipe));
+                    count[0]++;
+                }
+            });
+            result.put("count", count[0]);
+        } else {
+            throw new CommandException("search에는 name= 또는 ingredient=가 필요합니다.");
+        }
+    }
+
+    private int addRecipe(Map<String, String> options) {
+        Recipe recipe = new Recipe(requiredOption(options, "name"), requiredOption(options, "instructions"));
+        for (String pair : requiredOption(options, "ingredients").split(",")) {
+            int colon = pair.lastIndexOf(':');
+            if (colon <= 0) throw new CommandException("재료는 이름:수량 형식이어야 합니다: " + pair);
+            String name = pair.substring(0, colon).trim();
+            int quantity = parseInt("ingredients", pair.substring(colon + 1).trim());
+            if (name.isEmpty() || quantity <= 0) throw new CommandException("재료 이름과 1 이상의 수량이 필요합니다: " + pair);
+            recipe.addIngredientNameAndQuantity(name, quantity);
+        }
+        recipeDAO.save(recipe);
+        return recipe.getId();
+    }
+
+    private int addIngredient(Map<String, String> options) {
+        Ingredient ingredient = new Ingredient(requiredOption(options, "name"), intOption(options, "quantity"));
+        ingredientDAO.save(ingredient);
+        if (options.containsKey("price")) {
+            ingredientDAO.updateUnitPrice(ingredient.getId(), Price.parse(options.get("price")));
+        }
+        return ingredient.getId();
+    }
+
+    private void updateRecipe(Map<String, String> options) {
+        int id = intOption(options, "id");
+        Recipe recipe = recipeDAO.findById(id);
+        if (recipe == null) throw new CommandException("레시피가 없습니다: " + id);
+        if (options.containsKey("name")) recipe.setName(options.get("name"));
+        if (options.containsKey("instructions")) recipe.setInstructions(options.get("instructions"));
+        recipeDAO.update(recipe);
+    }
+
+    private void updateIngredient(Map<String, String> options) {
+        int id = intOption(options, "id");
+        Ingredient ingredient = ingredientDAO.findById(id);
+        if (ingredient == null) throw new CommandException("재료가 없습니다: " + id);
+        if (options.containsKey("name") || options.containsKey("quantity")) {
+            if (options.containsKey("name")) ingredient.setName(options.get("name"));
+            if (options.containsKey("quantity")) ingredient.setAvailableQuantity(intOption(options, "quantity"));
+            ingredientDAO.update(ingredient);
+        }
+        if (options.containsKey("price")) {
+            ingredientDAO.updateUnitPrice(id, Price.parse(options.get("price")));
+        }
+    }
+
+    /**
+     * 요리하기 (화면과 같이 대체 재료까지 고려한 차감 계획을 세워 한 트랜잭션으로 차감)
+     */
+    private void cook(int id, Map<String, Object> result) {
+        Recipe recipe = recipeDAO.findById(id);
+        if (recipe == null) throw new CommandException("레시피가 없습니다: " + id);
+        if (substitutionGraph == null) {
+            substitutionGraph = SubstitutionGraph.getInstance();
+            substitutionGraph.load(new SubstitutionDAOImpl());
+        }
+        Map<String, Integer> stock = new HashMap<>();
+        for (Ingredient ingredient : ingredientDAO.findAll()) {
+            stock.put(ingredient.getName(), ingredient.getAvailableQuantity());
+        }
+        SubstitutionGraph.CookPlan plan = substitutionGraph.plan(recipe.getRequiredIngredientNames(), stock);
+        if (!plan.isFeasible()) {
+            result.put("missing", plan.getMissing());
+            throw new CommandException("재료가 부족합니다.");
+        }
+        recipe.cookedNow();
+        recipeDAO.cook(recipe.getId(), plan.getDeductions(), recipe.getLastCookedAt());
+        result.put("deducted", plan.getDeductions());
+        if (!plan.getSubstitutions().isEmpty()) result.put("substitutions", plan.getSubstitutions());
+    }
+
+    /**
+     * 즐겨찾기 등록 (메모를 주면 평점과 함께 저장, 아니면 메모는 그대로 두고 평점만)
+     */
+    private void favorite(Map<String, String> options) {
+        int id = intOption(options, "id");
+        boolean rated = options.containsKey("rating");
+        int rating = rated ? intOption(options, "rating") : 1;
+        if (rated && (rating < 1 || rating > 5)) throw new CommandException("평점은 1에서 5 사이여야 합니다.");
+        if (options.containsKey("note")) {
+            recipeDAO.saveFavorite(id, rating, options.get("note"));
+        } else if (rated || !recipeDAO.isFavorite(id)) {
+            recipeDAO.saveFavorites(Map.of(id, rating));
+        }
+    }
+
+    // ---- 출력 행 ----
+
+    private static Map<String, Object> recipeRow(Recipe recipe) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("type", "recipe");
+        row.put("id", recipe.getId());
+        row.put("name", recipe.getName());
+        row.put("ingredients", recipe.getRequiredIngredientNames());
+        row.put("favorite", recipe.isFavorite());
+        if (recipe.isFavorite()) {
+            row.put("rating", recipe.getRating());
+            row.put("note", recipe.getNote());
+        }
+        row.put("lastCookedAt", recipe.getLastCookedAt() == null ? null : recipe.getLastCookedAt().toInstant().toString());
+        return row;
+    }
+
+    private static Map<String, Object> ingredientRow(Ingredient ingredient) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("type", "ingredient");
+        row.put("id", ingredient.getId());
+        row.put("name", ingredient.getName());
+        row.put("quantity", ingredient.getAvailableQuantity());
+        // 원 단위 (Price 고정소수점, 없으면 null)
+        row.put("unitPrice", ingredient.getUnitPrice() == 0 ? null : BigDecimal.valueOf(ingredient.getUnitPrice(), 2));
+        return row;
+    }
+
+    /**
+     * 스트리밍 조회를 끝까지 받아 행마다 action 실행 (요청은 묶음 단위, 호출 스레드는 끝날 때까지 기다림)
+     * @return 받은 행 수
+     */
+    private static <T> int stream(Flow.Publisher<T> publisher, Consumer<T> action) {
+        final int batch = 256;
+        CountDownLatch done = new CountDownLatch(1);
+        RuntimeException[] failure = new RuntimeException[1];
+        int[] count = {0};
+        publisher.subscribe(new Flow.Subscriber<T>() {
+            private Flow.Subscription subscription;
+            private int received;
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                this.subscription = subscription;
+                subscription.request(batch);
+            }
+
+            @Override
+            public void onNext(T item) {
+                try {
+                    action.accept(item);
+                } catch (RuntimeException e) {
+                    failure[0] = e;
+                    subscription.cancel();
+                    done.countDown();
+                    return;
+                }
+                count[0]++;
+                if (++received == batch) {
+                    received = 0;
+                    subscription.request(batch);
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+                failure[0] = throwable instanceof RuntimeException ? (RuntimeException) throwable : new RuntimeException(throwable);
+                done.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                done.countDown();
+            }
+        });
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CommandException("중단되었습니다.");
+        }
+        if (failure[0] != null) throw failure[0];
+        return count[0];
+    }
+
+    // ---- 인자 ----
+
+    /**
+     * 명령 한 줄을 단어로 나눔 (공백 구분, 작은/큰따옴표 안의 공백은 유지, 큰따옴표 안에서 \" \\ \n 사용 가능)
+     */
+    static List<String> tokenize(String line) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder token = new StringBuilder();
+        boolean inToken = false;
+        char quote = 0;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                } else if (c == '\\' && quote == '"' && i + 1 < line.length()) {
+                    char next = line.charAt(++i);
+                    token.append(next == 'n' ? '\n' : next);
+                } else {
+                    token.append(c);
+                }
+            } else if (c == '"' || c == '\'') {
+                quote = c;
+                inToken = true;
+            } else if (Character.isWhitespace(c)) {
+                if (inToken) {
+                    tokens.add(token.toString());
+                    token.setLength(0);
+                    inToken = false;
+                }
+            } else {
+                token.append(c);
+                inToken = true;
+            }
+        }
+        if (quote != 0) throw new CommandException("따옴표가 닫히지 않았습니다.");
+        if (inToken) tokens.add(token.toString());
+        return tokens;
+    }
+
+    private static Map<String, String> options(List<String> tokens) {
+        Map<String, String> options = new HashMap<>();
+        for (String token : tokens) {
+            int equals = token.indexOf('=');
+            if (equals <= 0) throw new CommandException("인자는 key=value 형식이어야 합니다: " + token);
+            options.put(token.substring(0, equals), token.substring(equals + 1));
+        }
+        return options;
+    }
+
+    private static String requiredOption(Map<String, String> options, String key) {
+        String value = options.get(key);
+        if (value == null || value.trim().isEmpty()) throw new CommandException(key + "= 인자가 필요합니다.");
+        return value.trim();
+    }
+
+    private static int intOption(Map<String, String> options, String key) {
+        return parseInt(key, requiredOption(options, key));
+    }
+
+    private static int parseInt(String key, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new CommandException(key + " 값이 숫자가 아닙니다: " + value);
+        }
+    }
+
+    // 명령행 인자를 한 줄 명령으로 다시 합칠 때 공백/따옴표가 있는 인자는 따옴표로 감쌈
+    private static List<String> quoteAll(List<String> args) {
+        List<String> quoted = new ArrayList<>(args.size());
+        for (String arg : args) {
+            boolean plain = !arg.isEmpty() && arg.chars().noneMatch(c -> Character.isWhitespace(c) || c == '"' || c == '\'' || c == '\\');
+            quoted.add(plain ? arg : '"' + arg.replace("\\", "\\\\").replace("\"", "\\\"") + '"');
+        }
+        return quoted;
+    }
+
+    private static void usageError(String message) {
+        System.err.println(message);
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+}
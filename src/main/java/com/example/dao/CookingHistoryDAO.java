@@ -0,0 +1,33 @@
+package com.example.dao;
+
+import com.example.model.CookingEvent;
+import com.example.model.RollupCount;
+import com.example.model.RollupPeriod;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * CookingHistoryDAO
+ * - 요리 기록(추가 전용 로그)과 집계 테이블 접근을 위한 인터페이스
+ * - 집계는 기록 추가 시 증분으로 유지되므로 조회 비용이 기록 길이와 무관
+ */
+public interface CookingHistoryDAO {
+    /** 호출자의 트랜잭션 안에서 요리 기록 추가 + 일/주/월 집계 증가 */
+    void recordCook(Connection conn, int recipeId, Timestamp cookedAt, Map<String, Integer> deductions) throws SQLException;
+    /** 기간 내 가장 많이 만든 레시피 (횟수 내림차순) */
+    List<RollupCount> findMostCooked(RollupPeriod period, LocalDate date, int limit);
+    /** 기간 내 가장 많이 소비한 재료 (수량 내림차순) */
+    List<RollupCount> findTopConsumption(RollupPeriod period, LocalDate date, int limit);
+    /** 기간 내 특정 재료 소비량 */
+    long findConsumption(String ingredientName, RollupPeriod period, LocalDate date);
+    /** 날짜 이후(포함) 재료별 총 소비량 (일 단위 집계 합) */
+    Map<String, Long> findConsumptionSince(LocalDate from);
+    /** 날짜 이후(포함) 재료별 마지막 소비 시각 (그 뒤로 소비하지 않은 재료는 없음) */
+    Map<String, Timestamp> findLastConsumedSince(LocalDate from);
+    /** 최근 요리 기록 (최신순) */
+    List<CookingEvent> findRecentEvents(int limit);
+}
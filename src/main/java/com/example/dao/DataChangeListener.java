@@ -0,0 +1,39 @@
+package com.example.dao;
+
+import com.example.model.Ingredient;
+import com.example.model.Nutrition;
+import com.example.model.Recipe;
+import com.example.model.Substitution;
+import java.sql.Timestamp;
+
+/**
+ * DataChangeListener
+ * - DAO 쓰기가 일어났을 때 메모리 인덱스/캐시가 알림을 받기 위한 인터페이스
+ * - 필요한 메서드만 골라 구현할 수 있도록 모두 기본 구현(아무것도 안 함)을 제공
+ */
+public interface DataChangeListener {
+    /** 레시피 저장/수정 (재료 목록 포함) */
+    default void recipeSaved(Recipe recipe) {}
+    /** 레시피 삭제 */
+    default void recipeDeleted(int recipeId) {}
+    /** 즐겨찾기 등록/해제 */
+    default void favoriteChanged(int recipeId, boolean favorite) {}
+    /** 즐겨찾기 평점 변경 (레시피 전체 저장 없이 즐겨찾기 정보만 바뀐 경우) */
+    default void favoriteRated(int recipeId, int rating) {}
+    /** 레시피 요리 (마지막 요리 일자 갱신) */
+    default void recipeCooked(int recipeId, Timestamp cookedAt) {}
+    /** 재료 저장/수정 (이름, 보유 수량 변경 포함) */
+    default void ingredientSaved(Ingredient ingredient) {}
+    /** 재료 단가 변경 (Price 고정소수점) */
+    default void ingredientPriced(int ingredientId, String name, long unitPrice) {}
+    /** 재료 삭제 */
+    default void ingredientDeleted(int ingredientId) {}
+    /** 대체 재료 저장/비율 수정 */
+    default void substitutionSaved(Substitution substitution) {}
+    /** 대체 재료 삭제 */
+    default void substitutionDeleted(String ingredientName, String substituteName) {}
+    /** 재료 영양 정보 저장/수정 */
+    default void nutritionSaved(String ingredientName, Nutrition nutrition) {}
+    /** 재료 영양 정보 삭제 */
+    default void nutritionDeleted(String ingredientName) {}
+}
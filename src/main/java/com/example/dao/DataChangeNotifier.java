@@ -0,0 +1,109 @@
+package com.example.dao;
+
+import com.example.model.Ingredient;
+import com.example.model.Nutrition;
+import com.example.model.Recipe;
+import com.example.model.Substitution;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * DataChangeNotifier
+ * - DAO 구현체가 쓰기 후 호출하는 알림 허브 (싱글톤)
+ * - 등록된 DataChangeListener에게 변경 내용을 순서대로 전달
+ * - 리스너에는 복사본을 넘기므로 호출자가 객체를 계속 수정해도 영향 없음
+ */
+public class DataChangeNotifier {
+    private static DataChangeNotifier instance;
+    private final List<DataChangeListener> listeners = new CopyOnWriteArrayList<>();
+
+    private DataChangeNotifier() {}
+
+    public static synchronized DataChangeNotifier getInstance() {
+        if (instance == null) {
+            instance = new DataChangeNotifier();
+        }
+        return instance;
+    }
+
+    public void addListener(DataChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(DataChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    public void fireRecipeSaved(Recipe recipe) {
+        for (DataChangeListener listener : listeners) {
+            listener.recipeSaved(recipe.copy());
+        }
+    }
+
+    public void fireRecipeDeleted(int recipeId) {
+        for (DataChangeListener listener : listeners) {
+            listener.recipeDeleted(recipeId);
+        }
+    }
+
+    public void fireFavoriteChanged(int recipeId, boolean favorite) {
+        for (DataChangeListener listener : listeners) {
+            listener.favoriteChanged(recipeId, favorite);
+        }
+    }
+
+    public void fireFavoriteRated(int recipeId, int rating) {
+        for (DataChangeListener listener : listeners) {
+            listener.favoriteRated(recipeId, rating);
+        }
+    }
+
+    public void fireRecipeCooked(int recipeId, Timestamp cookedAt) {
+        for (DataChangeListener listener : listeners) {
+            listener.recipeCooked(recipeId, cookedAt);
+        }
+    }
+
+    public void fireIngredientSaved(Ingredient ingredient) {
+        for (DataChangeListener listener : listeners) {
+            listener.ingredientSaved(ingredient.copy());
+        }
+    }
+
+    public void fireIngredientPriced(int ingredientId, String name, long unitPrice) {
+        for (DataChangeListener listener : listeners) {
+            listener.ingredientPriced(ingredientId, name, unitPrice);
+        }
+    }
+
+    public void fireIngredientDeleted(int ingredientId) {
+        for (DataChangeListener listener : listeners) {
+            listener.ingredientDeleted(ingredientId);
+        }
+    }
+
+    public void fireSubstitutionSaved(Substitution substitution) {
+        for (DataChangeListener listener : listeners) {
+            listener.substitutionSaved(substitution.copy());
+        }
+    }
+
+    public void fireSubstitutionDeleted(String ingredientName, String substituteName) {
+        for (DataChangeListener listener : listeners) {
+            listener.substitutionDeleted(ingredientName, substituteName);
+        }
+    }
+
+    public void fireNutritionSaved(String ingredientName, Nutrition nutrition) {
+        for (DataChangeListener listener : listeners) {
+            listener.nutritionSaved(ingredientName, nutrition);
+        }
+    }
+
+    public void fireNutritionDeleted(String ingredientName) {
+        for (DataChangeListener listener : listeners) {
+            listener.nutritionDeleted(ingredientName);
+        }
+    }
+}
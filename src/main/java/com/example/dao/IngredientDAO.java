@@ -1,7 +1,10 @@
 package com.example.dao;
 
 import com.example.model.Ingredient;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
 
 /**
  * IngredientDAO
@@ -15,12 +18,18 @@ public interface IngredientDAO {
     Ingredient findById(int id);
     /** 전체 재료 목록 조회 (SELECT) */
     List<Ingredient> findAll();
+    /** 전체 재료를 id 순으로 한 건씩 흘려보냄 (구독자 요청만큼만 DB에서 읽음) */
+    Flow.Publisher<Ingredient> streamAll();
     /** 재료 정보 수정 (UPDATE) */
     void update(Ingredient ingredient);
+    /** 재료 단가만 변경 (Price 고정소수점, 이름/수량은 그대로) */
+    void updateUnitPrice(int ingredientId, long unitPrice);
     /** 재료 삭제 (DELETE) */
     void delete(int id);
     /** 특정 레시피에 사용된 재료 목록 조회 (JOIN) */
     List<Ingredient> findByRecipeId(int recipeId);
     /** 재료 이름으로 단건 조회 (SELECT) */
     Ingredient findByName(String name);
+    /** 이름 목록에 해당하는 재료의 보유 수량 (이름 → 수량, 없는 이름은 빠짐, IN 조회 한 번) */
+    Map<String, Integer> findStockByNames(Collection<String> names);
 } 
\ No newline at end of file
@@ -0,0 +1,50 @@
+package com.example.dao;
+
+import com.example.model.IngredientLot;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * IngredientLotDAO
+ * - 재료 로트(구매 묶음, 유통기한) 관련 DB 접근을 위한 인터페이스
+ * - 구현체(IngredientLotDAOImpl)는 로트를 메모리 우선순위 인덱스로도 유지
+ */
+public interface IngredientLotDAO {
+    /**
+     * 트랜잭션 안에서 꺼낸 로트 차감 내역
+     * - 커밋/롤백 결과에 맞춰 메모리 인덱스를 확정하거나 되돌림
+     */
+    interface PendingDeduction {
+        /** 로트에서 실제로 차감된 수량 (나머지는 로트 없이 들어온 기존 재고에서 차감) */
+        int getDeductedFromLots();
+        void committed();
+        void rolledBack();
+    }
+
+    /**
+     * DB 로트 수량이 메모리 인덱스와 달라 차감하지 못함 (다른 클라이언트가 로트를 바꾼 경우 등)
+     * - 인덱스는 이미 무효화되어 있으므로 호출자는 롤백 후 다시 시도하면 DB에서 새로 읽은 로트로 차감함
+     */
+    class StaleLotsException extends SQLException {
+        private static final long serialVersionUID = 1L;
+
+        public StaleLotsException(String message) {
+            super(message);
+        }
+    }
+
+    /** 로트 입고 (INSERT + 재료 보유 수량 합계 증가, 한 트랜잭션) */
+    void addLot(IngredientLot lot);
+    /** 재료의 로트 목록 (먼저 써야 할 순서) */
+    List<IngredientLot> findByIngredientId(int ingredientId);
+    /** 오늘부터 N일 안에 유통기한이 끝나는 로트 목록 (이미 지난 로트 포함, 유통기한 순) */
+    List<IngredientLot> findExpiringWithin(int days);
+    /** 최근 N일 안에 구매한(입고한) 로트 목록 (아직 남아 있는 것만) */
+    List<IngredientLot> findPurchasedWithin(int days);
+    /** 호출자의 트랜잭션 안에서 재료를 유통기한이 빠른 로트부터 차감 (재료 보유 수량 합계는 호출자가 갱신, 인덱스가 어긋나면 StaleLotsException) */
+    PendingDeduction deductOldestFirst(Connection conn, int ingredientId, int quantity) throws SQLException;
+    /** 호출자의 트랜잭션 안에서 여러 재료의 로트를 한 재료로 옮김 (재료 합치기, 메모리 인덱스는 다음 조회 때 다시 읽음) */
+    void moveLots(Connection conn, Collection<Integer> fromIngredientIds, int toIngredientId) throws SQLException;
+}
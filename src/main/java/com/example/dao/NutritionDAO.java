@@ -0,0 +1,19 @@
+package com.example.dao;
+
+import com.example.model.Nutrition;
+import java.util.Map;
+
+/**
+ * NutritionDAO
+ * - 재료 영양 정보(ingredient_nutrition) 관련 DB 접근을 위한 인터페이스
+ */
+public interface NutritionDAO {
+    /** 영양 정보 저장 (이미 있으면 수정) */
+    void save(String ingredientName, Nutrition nutrition);
+    /** 영양 정보 삭제 */
+    void delete(String ingredientName);
+    /** 재료 이름으로 조회 (없으면 null) */
+    Nutrition findByIngredientName(String ingredientName);
+    /** 전체 영양 정보 (재료 이름 → 영양 정보) */
+    Map<String, Nutrition> findAll();
+}
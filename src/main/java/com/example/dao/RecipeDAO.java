@@ -1,7 +1,11 @@
 package com.example.dao;
 
+import com.example.model.CompactRecipe;
 import com.example.model.Recipe;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
 
 /**
  * RecipeDAO
@@ -9,12 +13,38 @@ import java.util.List;
  * - 구현체(RecipeDAOImpl)에서 실제 DB 연동 처리
  */
 public interface RecipeDAO {
+    /**
+     * 재료 합치기에서 일부 샤드의 레시피 재료 이름 변경이 끝나지 않음 (재고 쪽과 나머지 샤드는 이미 커밋됨)
+     * - 같은 합치기를 다시 실행하면 남은 샤드만 바뀜 (이미 바뀐 샤드에는 바꿀 행이 없음)
+     */
+    class MergeIncompleteException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+        private final List<Integer> pendingShards;
+
+        public MergeIncompleteException(List<Integer> pendingShards, Throwable cause) {
+            super("레시피 재료 이름 변경이 샤드 " + pendingShards.stream().map(shard -> String.valueOf(shard + 1))
+                .collect(java.util.stream.Collectors.joining(", ")) + "에서 끝나지 않았습니다. 같은 합치기를 다시 실행하면 남은 샤드만 처리합니다.", cause);
+            this.pendingShards = List.copyOf(pendingShards);
+        }
+
+        /** 끝나지 않은 샤드 번호 (0부터) */
+        public List<Integer> getPendingShards() {
+            return pendingShards;
+        }
+    }
+
     /** 레시피 저장 (INSERT) */
     void save(Recipe recipe);
     /** id로 레시피 단건 조회 (SELECT) */
     Recipe findById(int id);
-    /** 전체 레시피 목록 조회 (SELECT) */
+    /** 레시피 조리 방법만 조회 (목록 조회에는 포함되지 않음, 없으면 null) */
+    String findInstructions(int recipeId);
+    /** 전체 레시피 목록 조회 (SELECT, 조리 방법 제외) */
     List<Recipe> findAll();
+    /** 전체 레시피를 id 순으로 한 건씩 흘려보냄 (구독자 요청만큼만 DB에서 읽음, 재료/즐겨찾기 포함) */
+    Flow.Publisher<Recipe> streamAll();
+    /** 전체 레시피를 압축 모델로 조회 (재료 이름은 공유 사전 id, 조리 방법 제외) */
+    List<CompactRecipe> findAllCompact();
     /** 레시피 정보 수정 (UPDATE) */
     void update(Recipe recipe);
     /** 레시피 삭제 (DELETE) */
@@ -23,16 +53,34 @@ public interface RecipeDAO {
     void addIngredientToRecipe(int recipeId, int ingredientId);
     /** 레시피에서 재료 제거 (DELETE) */
     void removeIngredientFromRecipe(int recipeId, int ingredientId);
+    /** 재료를 쓰는 레시피 (메모리 역인덱스, id 순, 이름과 그 재료의 필요 수량만 채움) */
+    List<Recipe> findRecipesUsing(String ingredientName);
+    /** 재료 이름별 사용 레시피 수 (메모리 역인덱스) */
+    Map<String, Integer> findIngredientUsageCounts();
+    /** 재료 역인덱스를 미리 채움 (시작 시 백그라운드에서 호출) */
+    void loadUsageIndex();
+    /** 비슷한 재료 이름을 하나로 합침 (레시피 재료 이름 변경과 같은 레시피의 수량 합산, 재고/로트/단가 통합을 배치 한 트랜잭션으로, 샤드 일부가 실패하면 MergeIncompleteException) */
+    void mergeIngredients(Collection<String> sourceNames, String targetName);
     
     // 즐겨찾기 관련 메소드
     /** 즐겨찾기 추가 (INSERT) */
     void addToFavorites(int recipeId);
+    /** 즐겨찾기 등록 또는 평점/메모 변경 (upsert 한 문장) */
+    void saveFavorite(int recipeId, int rating, String note);
+    /** 여러 레시피 즐겨찾기 등록/평점 변경 (recipe id → 평점, 메모는 유지, 샤드마다 한 트랜잭션의 배치) */
+    void saveFavorites(Map<Integer, Integer> ratings);
     /** 즐겨찾기 해제 (DELETE) */
     void removeFromFavorites(int recipeId);
-    /** 즐겨찾기 레시피 전체 조회 (JOIN) */
+    /** 여러 레시피 즐겨찾기 해제 (샤드마다 한 트랜잭션의 배치) */
+    void removeFromFavorites(Collection<Integer> recipeIds);
+    /** 즐겨찾기 레시피 전체 조회 (평점/메모/재료 포함, 쿼리 한 번) */
     List<Recipe> findAllFavorites();
-    /** 해당 레시피가 즐겨찾기인지 여부 확인 */
+    /** 해당 레시피가 즐겨찾기인지 여부 확인 (메모리 비트맵, DB를 거치지 않음) */
     boolean isFavorite(int recipeId);
+    /** 즐겨찾기 레시피 수 (메모리 비트맵) */
+    int getFavoriteCount();
     /** 마지막 요리 일자만 갱신 (favorite_recipes에 upsert) */
     void updateLastCookedAt(int recipeId, java.sql.Timestamp lastCookedAt);
+    /** 요리하기: 재료 차감(유통기한 빠른 로트부터) + 마지막 요리 일자 갱신을 한 트랜잭션으로 처리 (재고 부족 시 IllegalStateException) */
+    void cook(int recipeId, Map<String, Integer> deductions, java.sql.Timestamp cookedAt);
 } 
\ No newline at end of file
@@ -0,0 +1,17 @@
+package com.example.dao;
+
+import com.example.model.Substitution;
+import java.util.List;
+
+/**
+ * SubstitutionDAO
+ * - 대체 재료(ingredient_substitutions) 관련 DB 접근을 위한 인터페이스
+ */
+public interface SubstitutionDAO {
+    /** 대체 재료 저장 (이미 있으면 비율만 수정) */
+    void save(Substitution substitution);
+    /** 대체 재료 삭제 */
+    void delete(String ingredientName, String substituteName);
+    /** 전체 대체 재료 목록 */
+    List<Substitution> findAll();
+}
@@ -0,0 +1,327 @@
+package com.example.dao.impl;
+
+import com.example.dao.CookingHistoryDAO;
+import com.example.db.DatabaseConnection;
+import com.example.db.ShardRouter;
+import com.example.model.CookingEvent;
+import com.example.model.RollupCount;
+import com.example.model.RollupPeriod;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CookingHistoryDAOImpl
+ * - 요리 기록(cooking_events, cooking_event_items)과 집계 테이블 구현체
+ * - 기록을 추가할 때 같은 트랜잭션에서 recipe_cook_rollups / ingredient_consumption_rollups를
+ *   INSERT ... ON DUPLICATE KEY UPDATE로 증가시켜, 조회는 (기간, 시작일) 키로 바로 찾음
+ * - 레시피가 여러 샤드에 나뉘어 있으면 recipes와 JOIN할 수 없으므로 레시피 이름은 샤드별로 따로 조회해 채움
+ */
+public class CookingHistoryDAOImpl implements CookingHistoryDAO {
+    private static final RollupPeriod[] PERIODS = RollupPeriod.values();
+
+    private final DatabaseConnection dbConnection;
+    private final ShardRouter shards;
+
+    /**
+     * 생성자 - 싱글톤 DB 커넥션 초기화
+     */
+    public CookingHistoryDAOImpl() {
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.shards = ShardRouter.getInstance();
+    }
+
+    /**
+     * 요리 기록 추가 + 집계 증가 (호출자가 커밋/롤백)
+     */
+    @Override
+    public void recordCook(Connection conn, int recipeId, Timestamp cookedAt, Map<String, Integer> deductions) throws SQLException {
+        String eventSql = "INSERT INTO cooking_events (recipe_id, cooked_at) VALUES (?, ?)";
+        String itemSql = "INSERT INTO cooking_event_items (event_id, ingredient_name, quantity) VALUES (?, ?, ?)";
+        String recipeRollupSql = "INSERT INTO recipe_cook_rollups (period_type, period_start, recipe_id, cook_count) VALUES (?, ?, ?, 1) " +
+                                 "ON DUPLICATE KEY UPDATE cook_count = cook_count + 1";
+        String ingredientRollupSql = "INSERT INTO ingredient_consumption_rollups (period_type, period_start, ingredient_name, consumed_quantity) VALUES (?, ?, ?, ?) " +
+                                     "ON DUPLICATE KEY UPDATE consumed_quantity = consumed_quantity + VALUES(consumed_quantity)";
+        long eventId;
+        try (PreparedStatement pstmt = conn.prepareStatement(eventSql, Statement.RETURN_GENERATED_KEYS)) {
+            pstmt.setInt(1, recipeId);
+            pstmt.setTimestamp(2, cookedAt);
+            pstmt.executeUpdate();
+            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                if (!generatedKeys.next()) {
+                    throw new SQLException("요리 기록 id를 받지 못했습니다.");
+                }
+                eventId = generatedKeys.getLong(1);
+            }
+        }
+        LocalDate day = cookedAt.toLocalDateTime().toLocalDate();
+        try (PreparedStatement items = conn.prepareStatement(itemSql);
+             PreparedStatement recipeRollup = conn.prepareStatement(recipeRollupSql);
+             PreparedStatement ingredientRollup = conn.prepareStatement(ingredientRollupSql)) {
+            for (Map.Entry<String, Integer> entry : deductions.entrySet()) {
+                items.setLong(1, eventId);
+                items.setString(2, entry.getKey());
+                items.setInt(3, entry.getValue());
+                items.addBatch();
+            }
+            for (RollupPeriod period : PERIODS) {
+                recipeRollup.setString(1, period.getCode());
+                recipeRollup.setObject(2, period.startOf(day));
+                recipeRollup.setInt(3, recipeId);
+                recipeRollup.addBatch();
+                for (Map.Entry<String, Integer> entry : deductions.entrySet()) {
+                    ingredientRollup.setString(1, period.getCode());
+                    ingredientRollup.setObject(2, period.startOf(day));
+                    ingredientRollup.setString(3, entry.getKey());
+                    ingredientRollup.setLong(4, entry.getValue());
+                    ingredientRollup.addBatch();
+                }
+            }
+            items.executeBatch();
+            recipeRollup.executeBatch();
+            ingredientRollup.executeBatch();
+        }
+    }
+
+    /**
+     * 기간 내 가장 많이 만든 레시피
+     */
+    @Override
+    public List<RollupCount> findMostCooked(RollupPeriod period, LocalDate date, int limit) {
+        if (shards.isSharded()) {
+            return findMostCookedSharded(period, date, limit);
+        }
+        String sql = "SELECT r.name, c.cook_count FROM recipe_cook_rollups c " +
+                    "JOIN recipes r ON r.id = c.recipe_id " +
+                    "WHERE c.period_type = ? AND c.period_start = ? " +
+                    "ORDER BY c.cook_count DESC LIMIT ?";
+        List<RollupCount> result = new ArrayList<>();
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, period.getCode());
+            pstmt.setObject(2, period.startOf(date));
+            pstmt.setInt(3, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    result.add(new RollupCount(rs.getString("name"), rs.getLong("cook_count")));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("요리 횟수 집계 조회 중 오류 발생", e);
+        }
+        return result;
+    }
+
+    /**
+     * 샤드 구성에서의 요리 횟수 집계 - 집계 행을 먼저 읽고 레시피 이름은 샤드에서 채움 (삭제된 레시피는 제외)
+     */
+    private List<RollupCount> findMostCookedSharded(RollupPeriod period, LocalDate date, int limit) {
+        String sql = "SELECT recipe_id, cook_count FROM recipe_cook_rollups " +
+                    "WHERE period_type = ? AND period_start = ? " +
+                    "ORDER BY cook_count DESC LIMIT ?";
+        Map<Integer, Long> counts = new LinkedHashMap<>();
+        List<RollupCount> result = new ArrayList<>();
+        try {
+            try (Connection conn = dbConnection.getReadConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, period.getCode());
+                pstmt.setObject(2, period.startOf(date));
+                pstmt.setInt(3, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        counts.put(rs.getInt("recipe_id"), rs.getLong("cook_count"));
+                    }
+                }
+            }
+            Map<Integer, String> names = findRecipeNames(counts.keySet());
+            for (Map.Entry<Integer, Long> entry : counts.entrySet()) {
+                String name = names.get(entry.getKey());
+                if (name != null) {
+                    result.add(new RollupCount(name, entry.getValue()));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("요리 횟수 집계 조회 중 오류 발생", e);
+        }
+        return result;
+    }
+
+    /**
+     * 기간 내 가장 많이 소비한 재료
+     */
+    @Override
+    public List<RollupCount> findTopConsumption(RollupPeriod period, LocalDate date, int limit) {
+        String sql = "SELECT ingredient_name, consumed_quantity FROM ingredient_consumption_rollups " +
+                    "WHERE period_type = ? AND period_start = ? " +
+                    "ORDER BY consumed_quantity DESC LIMIT ?";
+        List<RollupCount> result = new ArrayList<>();
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, period.getCode());
+            pstmt.setObject(2, period.startOf(date));
+            pstmt.setInt(3, limit);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    result.add(new RollupCount(rs.getString("ingredient_name"), rs.getLong("consumed_quantity")));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("재료 소비 집계 조회 중 오류 발생", e);
+        }
+        return result;
+    }
+
+    /**
+     * 기간 내 특정 재료 소비량 (기본키 조회 한 번)
+     */
+    @Override
+    public long findConsumption(String ingredientName, RollupPeriod period, LocalDate date) {
+        String sql = "SELECT consumed_quantity FROM ingredient_consumption_rollups " +
+                    "WHERE period_type = ? AND period_start = ? AND ingredient_name = ?";
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, period.getCode());
+            pstmt.setObject(2, period.startOf(date));
+            pstmt.setString(3, ingredientName);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : 0L;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("재료 소비량 조회 중 오류 발생", e);
+        }
+    }
+
+    /**
+     * 날짜 이후 재료별 총 소비량 (일 단위 집계 행만 읽음)
+     */
+    @Override
+    public Map<String, Long> findConsumptionSince(LocalDate from) {
+        String sql = "SELECT ingredient_name, SUM(consumed_quantity) AS total FROM ingredient_consumption_rollups " +
+                    "WHERE period_type = ? AND period_start >= ? GROUP BY ingredient_name";
+        Map<String, Long> totals = new LinkedHashMap<>();
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, RollupPeriod.DAY.getCode());
+            pstmt.setObject(2, from);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    totals.put(rs.getString("ingredient_name"), rs.getLong("total"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("재료 소비량 합계 조회 중 오류 발생", e);
+        }
+        return totals;
+    }
+
+    /**
+     * 날짜 이후(포함) 재료별 마지막 소비 시각 (요리 기록과 차감 내역에서 재료별 최신 요리 시각)
+     */
+    @Override
+    public Map<String, Timestamp> findLastConsumedSince(LocalDate from) {
+        String sql = "SELECT i.ingredient_name, MAX(e.cooked_at) AS last_at FROM cooking_events e " +
+                    "JOIN cooking_event_items i ON i.event_id = e.id " +
+                    "WHERE e.cooked_at >= ? GROUP BY i.ingredient_name";
+        Map<String, Timestamp> lastAt = new LinkedHashMap<>();
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setTimestamp(1, Timestamp.valueOf(from.atStartOfDay()));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    lastAt.put(rs.getString("ingredient_name"), rs.getTimestamp("last_at"));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("재료 마지막 소비 시각 조회 중 오류 발생", e);
+        }
+        return lastAt;
+    }
+
+    /**
+     * 최근 요리 기록 (최신순, 재료 차감 내역 포함)
+     */
+    @Override
+    public List<CookingEvent> findRecentEvents(int limit) {
+        boolean sharded = shards.isSharded();
+        String sql = sharded
+                    ? "SELECT e.id, e.recipe_id, e.cooked_at, NULL AS name FROM cooking_events e ORDER BY e.id DESC LIMIT ?"
+                    : "SELECT e.id, e.recipe_id, e.cooked_at, r.name FROM cooking_events e " +
+                      "LEFT JOIN recipes r ON r.id = e.recipe_id " +
+                      "ORDER BY e.id DESC LIMIT ?";
+        String itemSql = "SELECT ingredient_name, quantity FROM cooking_event_items WHERE event_id = ?";
+        Map<Long, CookingEvent> events = new LinkedHashMap<>();
+        try (Connection conn = dbConnection.getReadConnection()) {
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, limit);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        CookingEvent event = new CookingEvent();
+                        event.setId(rs.getLong("id"));
+                        event.setRecipeId(rs.getInt("recipe_id"));
+                        event.setCookedAt(rs.getTimestamp("cooked_at"));
+                        event.setRecipeName(rs.getString("name"));
+                        events.put(event.getId(), event);
+                    }
+                }
+            }
+            try (PreparedStatement pstmt = conn.prepareStatement(itemSql)) {
+                for (CookingEvent event : events.values()) {
+                    pstmt.setLong(1, event.getId());
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        while (rs.next()) {
+                            event.addDeduction(rs.getString("ingredient_name"), rs.getInt("quantity"));
+                        }
+                    }
+                }
+            }
+            if (sharded) {
+                Set<Integer> recipeIds = new LinkedHashSet<>();
+                for (CookingEvent event : events.values()) {
+                    recipeIds.add(event.getRecipeId());
+                }
+                Map<Integer, String> names = findRecipeNames(recipeIds);
+                for (CookingEvent event : events.values()) {
+                    event.setRecipeName(names.get(event.getRecipeId()));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("요리 기록 조회 중 오류 발생", e);
+        }
+        return new ArrayList<>(events.values());
+    }
+
+    /**
+     * 레시피 id -> 이름 (모든 샤드에 IN 조회 한 번씩)
+     */
+    private Map<Integer, String> findRecipeNames(Collection<Integer> recipeIds) throws SQLException {
+        Map<Integer, String> names = new HashMap<>();
+        if (recipeIds.isEmpty()) return names;
+        StringBuilder sql = new StringBuilder("SELECT id, name FROM recipes WHERE id IN (");
+        for (int i = 0; i < recipeIds.size(); i++) {
+            sql.append(i == 0 ? "?" : ", ?");
+        }
+        sql.append(")");
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            try (Connection conn = shards.getReadConnection(shard);
+                 PreparedStatement pstmt = conn.prepareStatement(sql.toString())) {
+                int index = 1;
+                for (int recipeId : recipeIds) {
+                    pstmt.setInt(index++, recipeId);
+                }
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        names.put(rs.getInt("id"), rs.getString("name"));
+                    }
+                }
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.dao.impl;
+
+import com.example.db.TableVersions;
+import java.util.BitSet;
+import java.util.Collection;
+
+/**
+ * FavoriteIndex
+ * - favorite_recipes에 있는 레시피 id를 비트맵(BitSet)으로 메모리에 보관 (싱글톤, RecipeDAOImpl 전용)
+ * - 처음 확인할 때 recipe_id만 한 번 읽어 채우고, 이후 즐겨찾기 쓰기는 DAO가 바로 반영하므로 확인할 때 DB를 거치지 않음
+ * - id 하나당 1비트라 레시피 10만 건이어도 약 12KB
+ * - 전체 즐겨찾기를 다시 읽으면 읽는 동안 즐겨찾기 쓰기가 없었을 때만(테이블 버전이 같을 때만) 읽은 결과로 교체
+ *   (다른 클라이언트가 바꾼 내용을 따라가되, 읽는 사이 이 프로세스가 쓴 내용을 예전 값으로 덮어쓰지 않음)
+ */
+final class FavoriteIndex {
+    private static final String TABLE = "favorite_recipes";
+    private static FavoriteIndex instance;
+
+    private final TableVersions versions = TableVersions.getInstance();
+    private final BitSet ids = new BitSet();
+    private boolean loaded;
+
+    private FavoriteIndex() {}
+
+    static synchronized FavoriteIndex getInstance() {
+        if (instance == null) {
+            instance = new FavoriteIndex();
+        }
+        return instance;
+    }
+
+    /** 전체 목록을 한 번이라도 읽어 채웠는지 여부 */
+    synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /** favorite_recipes 테이블 버전 (전체 목록을 읽기 전에 받아 두고 replace에 넘김) */
+    long stamp() {
+        return versions.stamp(TABLE);
+    }
+
+    synchronized boolean contains(int recipeId) {
+        return recipeId >= 0 && ids.get(recipeId);
+    }
+
+    /** 즐겨찾기 레시피 수 */
+    synchronized int size() {
+        return ids.cardinality();
+    }
+
+    /** 즐겨찾기 id 비트맵 복사본 */
+    synchronized BitSet copy() {
+        return (BitSet) ids.clone();
+    }
+
+    /** 쓰기 한 건 반영 */
+    synchronized void set(int recipeId, boolean favorite) {
+        if (recipeId >= 0) ids.set(recipeId, favorite);
+    }
+
+    /** 일괄 쓰기 반영 */
+    synchronized void setAll(Collection<Integer> recipeIds, boolean favorite) {
+        for (int recipeId : recipeIds) {
+            set(recipeId, favorite);
+        }
+    }
+
+    /**
+     * DB에서 읽은 전체 목록으로 교체 (stamp 이후 즐겨찾기 쓰기가 있었으면 버림)
+     */
+    synchronized void replace(BitSet favorites, long stamp) {
+        if (stamp() != stamp) return;
+        ids.clear();
+        ids.or(favorites);
+        loaded = true;
+    }
+}
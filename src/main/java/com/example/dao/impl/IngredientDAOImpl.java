@@ -1,11 +1,22 @@
 package com.example.dao.impl;
 
+import com.example.dao.DataChangeNotifier;
 import com.example.dao.IngredientDAO;
+import com.example.db.CatalogSnapshot;
 import com.example.db.DatabaseConnection;
+import com.example.db.OfflineWriteQueue;
+import com.example.db.RowPublisher;
+import com.example.db.TableVersions;
 import com.example.model.Ingredient;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Flow;
+import java.util.function.IntConsumer;
 
 /**
  * IngredientDAOImpl
@@ -13,14 +24,32 @@ import java.util.List;
  * - MySQL과 연동하여 재료 저장, 조회, 수정, 삭제, 검색 등 처리
  */
 public class IngredientDAOImpl implements IngredientDAO {
+    /**
+     * 재료 하나를 대상으로 하는 쓰기 (ingredientId는 임시 id를 실제 id로 바꾼 값)
+     */
+    private interface IngredientWrite {
+        void run(int ingredientId) throws SQLException;
+    }
+
     // DB 커넥션 관리 객체
     private final DatabaseConnection dbConnection;
+    // DB 연결이 끊겼을 때 읽기를 대신하는 로컬 스냅샷과 쓰기 대기열
+    private final CatalogSnapshot snapshot;
+    private final OfflineWriteQueue offlineWrites;
+    // 쓰기 후 메모리 인덱스에 변경을 알리는 허브
+    private final DataChangeNotifier notifier;
+    // 쓰기 후 조회 캐시를 무효화하기 위한 테이블 버전
+    private final TableVersions versions;
 
     /**
-     * 생성자 - 싱글톤 DB 커넥션 객체 초기화
+     * 생성자 - 싱글톤 DB 커넥션, 스냅샷, 오프라인 쓰기 대기열 초기화
      */
     public IngredientDAOImpl() {
         this.dbConnection = DatabaseConnection.getInstance();
+        this.snapshot = CatalogSnapshot.getInstance();
+        this.offlineWrites = OfflineWriteQueue.getInstance();
+        this.notifier = DataChangeNotifier.getInstance();
+        this.versions = TableVersions.getInstance();
     }
 
     /**
@@ -28,30 +57,76 @@ public class IngredientDAOImpl implements IngredientDAO {
      */
     @Override
     public void save(Ingredient ingredient) {
-        String sql = "INSERT INTO ingredients (name, available_quantity) VALUES (?, ?)";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, ingredient.getName());
-            pstmt.setInt(2, ingredient.getAvailableQuantity());
-            pstmt.executeUpdate();
-            // 생성된 PK(id) 세팅
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    ingredient.setId(generatedKeys.getInt(1));
+        // 대기열에 들어갈 수 있으므로 호출 시점의 값을 고정
+        Ingredient values = ingredient.copy();
+        // 대기열에 들어가면 받는 임시 id (재실행으로 실제 id가 정해지면 연결)
+        int[] temporaryId = {0};
+        String sql = "INSERT INTO ingredients (name, available_quantity, unit_price) VALUES (?, ?, ?)";
+        offlineWrites.run("재료 저장", () -> {
+            try (Connection conn = dbConnection.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setString(1, values.getName());
+                pstmt.setInt(2, values.getAvailableQuantity());
+                pstmt.setLong(3, values.getUnitPrice());
+                pstmt.executeUpdate();
+                // 생성된 PK(id) 세팅
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        values.setId(generatedKeys.getInt(1));
+                    }
                 }
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("재료 저장 중 오류 발생", e);
+            versions.bump("ingredients");
+            if (temporaryId[0] < 0) {
+                // 대기열에서 반영됨: 뒤에 쌓인 수정/삭제가 실제 id를 쓰도록 연결하고 인덱스에 이제 알림
+                offlineWrites.bindId(temporaryId[0], values.getId());
+                snapshot.updateIngredient(temporaryId[0], i -> i.setId(values.getId()));
+                ingredientInserted(values);
+            }
+        }, () -> {
+            temporaryId[0] = offlineWrites.nextTemporaryId();
+            values.setId(temporaryId[0]);
+            snapshot.putIngredient(values);
+        });
+        ingredient.setId(values.getId());
+        if (values.getId() > 0) {
+            ingredientInserted(values);
+        }
+    }
+
+    // 새 재료를 메모리 인덱스에 알림
+    private void ingredientInserted(Ingredient ingredient) {
+        notifier.fireIngredientSaved(ingredient);
+        if (ingredient.getUnitPrice() != 0) {
+            notifier.fireIngredientPriced(ingredient.getId(), ingredient.getName(), ingredient.getUnitPrice());
         }
     }
 
+    /**
+     * 재료 하나를 대상으로 하는 쓰기를 대기열을 거쳐 실행하고 메모리 인덱스에 알림
+     * - 기존 재료는 대기열에 들어가도 바로 알림
+     * - 임시 id(대기열에 있는 새 재료)는 재실행으로 실제 id가 정해진 뒤 알림
+     * - whenQueued는 대기열에 들어갈 때 스냅샷에 같은 변경을 미리 적용
+     */
+    private void writeIngredient(String operation, int id, IngredientWrite write, Runnable whenQueued, IntConsumer applied) {
+        offlineWrites.run(operation, () -> {
+            int target = offlineWrites.resolve(id);
+            if (target <= 0) {
+                throw new SQLException("DB에 저장되지 않은 새 재료입니다. (임시 id " + id + ")");
+            }
+            write.run(target);
+            if (id < 0) applied.accept(target);
+        }, whenQueued);
+        if (id > 0) applied.accept(id);
+    }
+
     /**
      * id로 재료 단건 조회 (SELECT)
      */
     @Override
     public Ingredient findById(int id) {
         String sql = "SELECT * FROM ingredients WHERE id = ?";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, id);
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -60,6 +135,9 @@ public class IngredientDAOImpl implements IngredientDAO {
                 }
             }
         } catch (SQLException e) {
+            if (DatabaseConnection.isConnectionFailure(e) && snapshot.isLoaded()) {
+                return snapshot.findIngredient(id);
+            }
             throw new RuntimeException("재료 조회 중 오류 발생", e);
         }
         return null;
@@ -72,33 +150,106 @@ public class IngredientDAOImpl implements IngredientDAO {
     public List<Ingredient> findAll() {
         List<Ingredient> ingredients = new ArrayList<>();
         String sql = "SELECT * FROM ingredients";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getReadConnection();
              Statement stmt = conn.createStatement();
              ResultSet rs = stmt.executeQuery(sql)) {
             while (rs.next()) {
                 ingredients.add(createIngredientFromResultSet(rs));
             }
         } catch (SQLException e) {
+            if (DatabaseConnection.isConnectionFailure(e) && snapshot.isLoaded()) {
+                return snapshot.getIngredients();
+            }
             throw new RuntimeException("재료 목록 조회 중 오류 발생", e);
         }
+        // 동기화된 최신 목록을 스냅샷에 반영
+        snapshot.updateIngredients(ingredients);
         return ingredients;
     }
 
+    /**
+     * 전체 재료 스트리밍 조회 (전진 전용 스트리밍 ResultSet, 구독자 요청만큼만 읽음)
+     * - DB에 연결할 수 없고 아직 한 건도 보내지 않았으면 스냅샷 목록을 대신 보냄
+     * - 내보낸 재료를 한 건씩 스냅샷에 반영 (결과 목록을 따로 모으지 않음)
+     */
+    @Override
+    public Flow.Publisher<Ingredient> streamAll() {
+        String sql = "SELECT * FROM ingredients ORDER BY id";
+        return new RowPublisher<>("ingredient.list", sink -> {
+            CatalogSnapshot.Refresh<Ingredient> refresh = snapshot.refreshIngredients();
+            boolean sent = false;
+            try (Connection conn = dbConnection.getReadConnection();
+                 Statement stmt = DatabaseConnection.streamingStatement(conn);
+                 ResultSet rs = stmt.executeQuery(sql)) {
+                while (rs.next()) {
+                    Ingredient ingredient = createIngredientFromResultSet(rs);
+                    sent = true;
+                    refresh.accept(ingredient);
+                    sink.accept(ingredient);
+                }
+            } catch (SQLException e) {
+                if (!sent && DatabaseConnection.isConnectionFailure(e) && snapshot.isLoaded()) {
+                    snapshot.getIngredients().forEach(sink);
+                    return;
+                }
+                throw new RuntimeException("재료 목록 조회 중 오류 발생", e);
+            }
+            refresh.finish();
+        });
+    }
+
     /**
      * 재료 정보 수정 (UPDATE)
      */
     @Override
     public void update(Ingredient ingredient) {
         String sql = "UPDATE ingredients SET name = ?, available_quantity = ? WHERE id = ?";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, ingredient.getName());
-            pstmt.setInt(2, ingredient.getAvailableQuantity());
-            pstmt.setInt(3, ingredient.getId());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("재료 수정 중 오류 발생", e);
+        // 대기열에 들어갈 수 있으므로 호출 시점의 값을 고정
+        String name = ingredient.getName();
+        int quantity = ingredient.getAvailableQuantity();
+        Ingredient values = ingredient.copy();
+        writeIngredient("재료 수정", values.getId(), ingredientId -> {
+            try (Connection conn = dbConnection.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setString(1, name);
+                pstmt.setInt(2, quantity);
+                pstmt.setInt(3, ingredientId);
+                pstmt.executeUpdate();
+            }
+            versions.bump("ingredients");
+        }, () -> snapshot.updateIngredient(values.getId(), i -> {
+            i.setName(name);
+            i.setAvailableQuantity(quantity);
+        }), ingredientId -> {
+            values.setId(ingredientId);
+            notifier.fireIngredientSaved(values);
+        });
+    }
+
+    /**
+     * 재료 단가만 변경 (UPDATE)
+     * - 재고 차감처럼 단가를 모르는 쓰기가 단가를 덮어쓰지 않도록 update()와 분리
+     */
+    @Override
+    public void updateUnitPrice(int ingredientId, long unitPrice) {
+        if (unitPrice < 0) {
+            throw new IllegalArgumentException("가격은 0 이상이어야 합니다.");
+        }
+        Ingredient ingredient = findById(ingredientId);
+        if (ingredient == null) {
+            throw new IllegalArgumentException("존재하지 않는 재료입니다: " + ingredientId);
         }
+        String sql = "UPDATE ingredients SET unit_price = ? WHERE id = ?";
+        writeIngredient("재료 단가 수정", ingredientId, target -> {
+            try (Connection conn = dbConnection.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setLong(1, unitPrice);
+                pstmt.setInt(2, target);
+                pstmt.executeUpdate();
+            }
+            versions.bump("ingredients");
+        }, () -> snapshot.updateIngredient(ingredientId, i -> i.setUnitPrice(unitPrice)),
+            target -> notifier.fireIngredientPriced(target, ingredient.getName(), unitPrice));
     }
 
     /**
@@ -107,13 +258,14 @@ public class IngredientDAOImpl implements IngredientDAO {
     @Override
     public void delete(int id) {
         String sql = "DELETE FROM ingredients WHERE id = ?";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("재료 삭제 중 오류 발생", e);
-        }
+        writeIngredient("재료 삭제", id, target -> {
+            try (Connection conn = dbConnection.getConnection();
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, target);
+                pstmt.executeUpdate();
+            }
+            versions.bump("ingredients", "ingredient_lots");
+        }, () -> snapshot.removeIngredient(id), notifier::fireIngredientDeleted);
     }
 
     /**
@@ -125,7 +277,7 @@ public class IngredientDAOImpl implements IngredientDAO {
         String sql = "SELECT i.* FROM ingredients i " +
                     "JOIN recipe_ingredients ri ON i.id = ri.ingredient_id " +
                     "WHERE ri.recipe_id = ?";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setInt(1, recipeId);
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -145,7 +297,7 @@ public class IngredientDAOImpl implements IngredientDAO {
     @Override
     public Ingredient findByName(String name) {
         String sql = "SELECT * FROM ingredients WHERE name = ?";
-        try (Connection conn = dbConnection.getConnection();
+        try (Connection conn = dbConnection.getReadConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
             pstmt.setString(1, name);
             try (ResultSet rs = pstmt.executeQuery()) {
@@ -154,11 +306,48 @@ public class IngredientDAOImpl implements IngredientDAO {
                 }
             }
         } catch (SQLException e) {
+            if (DatabaseConnection.isConnectionFailure(e) && snapshot.isLoaded()) {
+                return snapshot.findIngredientByName(name);
+            }
             throw new RuntimeException("재료 이름으로 조회 중 오류 발생", e);
         }
         return null;
     }
 
+    /**
+     * 이름 목록의 보유 수량만 IN 조회 한 번으로 읽음 (요리 가능 여부 판단용)
+     * - DB에 연결할 수 없으면 스냅샷의 수량을 사용
+     */
+    @Override
+    public Map<String, Integer> findStockByNames(Collection<String> names) {
+        Map<String, Integer> stock = new HashMap<>();
+        if (names.isEmpty()) return stock;
+        String sql = "SELECT name, available_quantity FROM ingredients WHERE name IN ("
+            + String.join(", ", Collections.nCopies(names.size(), "?")) + ")";
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            int index = 1;
+            for (String name : names) {
+                pstmt.setString(index++, name);
+            }
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    stock.put(rs.getString("name"), rs.getInt("available_quantity"));
+                }
+            }
+        } catch (SQLException e) {
+            if (DatabaseConnection.isConnectionFailure(e) && snapshot.isLoaded()) {
+                for (String name : names) {
+                    Ingredient ingredient = snapshot.findIngredientByName(name);
+                    if (ingredient != null) stock.put(name, ingredient.getAvailableQuantity());
+                }
+                return stock;
+            }
+            throw new RuntimeException("재료 보유 수량 조회 중 오류 발생", e);
+        }
+        return stock;
+    }
+
     /**
      * ResultSet에서 Ingredient 객체 생성 (공통 유틸)
      */
@@ -167,6 +356,7 @@ public class IngredientDAOImpl implements IngredientDAO {
         ingredient.setId(rs.getInt("id"));
         ingredient.setName(rs.getString("name"));
         ingredient.setAvailableQuantity(rs.getInt("available_quantity"));
+        ingredient.setUnitPrice(rs.getLong("unit_price"));
         return ingredient;
     }
 } 
\ No newline at end of file
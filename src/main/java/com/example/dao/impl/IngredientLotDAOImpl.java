@@ -0,0 +1,235 @@
+package com.example.dao.impl;
+
+import com.example.dao.DataChangeListener;
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.IngredientLotDAO;
+import com.example.db.DatabaseConnection;
+import com.example.model.Ingredient;
+import com.example.model.IngredientLot;
+import java.sql.*;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * IngredientLotDAOImpl
+ * - 재료 로트 입고/조회/차감 구현체
+ * - 로트는 DB(ingredient_lots)와 메모리 LotIndex에 함께 유지하며, 조회는 인덱스에서 처리
+ * - 재료의 전체 보유 수량은 ingredients.available_quantity 집계값으로 같은 트랜잭션 안에서 함께 갱신
+ */
+public class IngredientLotDAOImpl implements IngredientLotDAO {
+    // 모든 DAO 인스턴스가 공유하는 로트 인덱스
+    private static final LotIndex INDEX = new LotIndex();
+
+    static {
+        // 재료 삭제 시 DB 로트는 CASCADE로 지워지므로 인덱스에서도 제거
+        DataChangeNotifier.getInstance().addListener(new DataChangeListener() {
+            @Override
+            public void ingredientDeleted(int ingredientId) {
+                INDEX.removeIngredient(ingredientId);
+            }
+        });
+    }
+
+    private final DatabaseConnection dbConnection;
+    private final DataChangeNotifier notifier;
+
+    /**
+     * 생성자 - 싱글톤 DB 커넥션 초기화
+     */
+    public IngredientLotDAOImpl() {
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.notifier = DataChangeNotifier.getInstance();
+    }
+
+    /**
+     * 로트 입고 (INSERT + 재료 보유 수량 합계 증가, 한 트랜잭션)
+     */
+    @Override
+    public void addLot(IngredientLot lot) {
+        if (lot.getQuantity() <= 0) {
+            throw new IllegalArgumentException("입고 수량은 0보다 커야 합니다.");
+        }
+        String insertSql = "INSERT INTO ingredient_lots (ingredient_id, quantity, purchased_at, expires_at) VALUES (?, ?, ?, ?)";
+        String totalSql = "UPDATE ingredients SET available_quantity = available_quantity + ? WHERE id = ?";
+        try (Connection conn = dbConnection.getConnection()) {
+            ensureIndexLoaded(conn);
+            conn.setAutoCommit(false);
+            try {
+                try (PreparedStatement pstmt = conn.prepareStatement(insertSql, Statement.RETURN_GENERATED_KEYS)) {
+                    pstmt.setInt(1, lot.getIngredientId());
+                    pstmt.setInt(2, lot.getQuantity());
+                    pstmt.setObject(3, lot.getPurchasedAt());
+                    pstmt.setObject(4, lot.getExpiresAt());
+                    pstmt.executeUpdate();
+                    try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                        if (generatedKeys.next()) {
+                            lot.setId(generatedKeys.getInt(1));
+                        }
+                    }
+                }
+                try (PreparedStatement pstmt = conn.prepareStatement(totalSql)) {
+                    pstmt.setInt(1, lot.getQuantity());
+                    pstmt.setInt(2, lot.getIngredientId());
+                    pstmt.executeUpdate();
+                }
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            INDEX.add(lot.copy());
+            Ingredient updated = readIngredient(conn, lot.getIngredientId());
+            if (updated != null) {
+                notifier.fireIngredientSaved(updated);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("재료 로트 입고 중 오류 발생", e);
+        }
+    }
+
+    /**
+     * 재료의 로트 목록 (먼저 써야 할 순서)
+     */
+    @Override
+    public List<IngredientLot> findByIngredientId(int ingredientId) {
+        ensureIndexLoaded();
+        return INDEX.lotsOf(ingredientId);
+    }
+
+    /**
+     * 오늘부터 N일 안에 유통기한이 끝나는 로트 목록
+     */
+    @Override
+    public List<IngredientLot> findExpiringWithin(int days) {
+        ensureIndexLoaded();
+        return INDEX.expiringOnOrBefore(LocalDate.now().plusDays(days));
+    }
+
+    /**
+     * 최근 N일 안에 입고한 로트 목록 (남은 수량이 있는 것만)
+     */
+    @Override
+    public List<IngredientLot> findPurchasedWithin(int days) {
+        ensureIndexLoaded();
+        return INDEX.purchasedOnOrAfter(LocalDate.now().minusDays(days));
+    }
+
+    /**
+     * 호출자의 트랜잭션 안에서 유통기한이 빠른 로트부터 차감
+     * - 인덱스에서 사용할 로트를 꺼내 DB에 반영하고, 결과는 PendingDeduction으로 돌려줌
+     * - DB 로트 수량이 인덱스와 다르면 인덱스를 무효화하고 StaleLotsException 발생 (호출자가 롤백 후 다시 시도)
+     */
+    @Override
+    public PendingDeduction deductOldestFirst(Connection conn, int ingredientId, int quantity) throws SQLException {
+        ensureIndexLoaded(conn);
+        List<LotIndex.Taken> taken = INDEX.take(ingredientId, quantity);
+        String updateSql = "UPDATE ingredient_lots SET quantity = quantity - ? WHERE id = ? AND quantity >= ?";
+        String deleteSql = "DELETE FROM ingredient_lots WHERE id = ? AND quantity = ?";
+        int fromLots = 0;
+        try (PreparedStatement update = conn.prepareStatement(updateSql);
+             PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+            for (LotIndex.Taken t : taken) {
+                int changed;
+                if (t.amount == t.lot.getQuantity()) {
+                    delete.setInt(1, t.lot.getId());
+                    delete.setInt(2, t.amount);
+                    changed = delete.executeUpdate();
+                } else {
+                    update.setInt(1, t.amount);
+                    update.setInt(2, t.lot.getId());
+                    update.setInt(3, t.amount);
+                    changed = update.executeUpdate();
+                }
+                if (changed != 1) {
+                    throw new StaleLotsException("로트 수량이 메모리 인덱스와 다릅니다. (lot id " + t.lot.getId() + ")");
+                }
+                fromLots += t.amount;
+            }
+        } catch (SQLException e) {
+            INDEX.rollback(taken);
+            INDEX.invalidate();
+            throw e;
+        }
+        int deducted = fromLots;
+        return new PendingDeduction() {
+            @Override
+            public int getDeductedFromLots() { return deducted; }
+            @Override
+            public void committed() { INDEX.commit(taken); }
+            @Override
+            public void rolledBack() { INDEX.rollback(taken); }
+        };
+    }
+
+    /**
+     * 호출자의 트랜잭션 안에서 로트를 다른 재료로 옮김 (배치 UPDATE 한 번)
+     * - 로트 id는 그대로이고 재료만 바뀌므로 인덱스는 무효화해 다음 조회 때 DB에서 다시 읽음
+     */
+    @Override
+    public void moveLots(Connection conn, Collection<Integer> fromIngredientIds, int toIngredientId) throws SQLException {
+        String sql = "UPDATE ingredient_lots SET ingredient_id = ? WHERE ingredient_id = ?";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (int fromId : fromIngredientIds) {
+                pstmt.setInt(1, toIngredientId);
+                pstmt.setInt(2, fromId);
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        } finally {
+            INDEX.invalidate();
+        }
+    }
+
+    private void ensureIndexLoaded() {
+        if (INDEX.isLoaded()) return;
+        try (Connection conn = dbConnection.getConnection()) {
+            ensureIndexLoaded(conn);
+        } catch (SQLException e) {
+            throw new RuntimeException("재료 로트 목록 조회 중 오류 발생", e);
+        }
+    }
+
+    /**
+     * 처음 한 번(또는 무효화 후) 전체 로트를 읽어 인덱스 구성
+     */
+    private void ensureIndexLoaded(Connection conn) throws SQLException {
+        if (INDEX.isLoaded()) return;
+        List<IngredientLot> lots = new ArrayList<>();
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT * FROM ingredient_lots WHERE quantity > 0")) {
+            while (rs.next()) {
+                lots.add(createLotFromResultSet(rs));
+            }
+        }
+        INDEX.reset(lots);
+    }
+
+    private Ingredient readIngredient(Connection conn, int ingredientId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("SELECT * FROM ingredients WHERE id = ?")) {
+            pstmt.setInt(1, ingredientId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    Ingredient ingredient = new Ingredient(rs.getString("name"), rs.getInt("available_quantity"));
+                    ingredient.setId(rs.getInt("id"));
+                    return ingredient;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * ResultSet에서 IngredientLot 객체 생성 (공통 유틸)
+     */
+    private IngredientLot createLotFromResultSet(ResultSet rs) throws SQLException {
+        IngredientLot lot = new IngredientLot();
+        lot.setId(rs.getInt("id"));
+        lot.setIngredientId(rs.getInt("ingredient_id"));
+        lot.setQuantity(rs.getInt("quantity"));
+        lot.setPurchasedAt(rs.getObject("purchased_at", LocalDate.class));
+        lot.setExpiresAt(rs.getObject("expires_at", LocalDate.class));
+        return lot;
+    }
+}
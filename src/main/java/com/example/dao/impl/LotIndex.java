@@ -0,0 +1,151 @@
+package com.example.dao.impl;
+
+import com.example.model.IngredientLot;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
+
+/**
+ * LotIndex
+ * - 재료 로트를 메모리에 들고 있는 우선순위 인덱스 (IngredientLotDAOImpl 전용)
+ * - 재료별 우선순위 큐: 먼저 써야 할 로트를 O(log n)에 꺼냄
+ * - 유통기한 순 TreeSet: "N일 안에 만료" 조회를 범위 탐색으로 처리
+ */
+class LotIndex {
+    // 사용 순서: 유통기한 빠른 순(없으면 맨 뒤) → 구매일 → id
+    static final Comparator<IngredientLot> USE_ORDER = Comparator
+        .comparing(IngredientLot::getExpiresAt, Comparator.nullsLast(Comparator.naturalOrder()))
+        .thenComparing(IngredientLot::getPurchasedAt)
+        .thenComparingInt(IngredientLot::getId);
+
+    /**
+     * 로트 하나에서 차감한 내역 (차감 전 로트 + 차감량)
+     */
+    static class Taken {
+        final IngredientLot lot;
+        final int amount;
+
+        Taken(IngredientLot lot, int amount) {
+            this.lot = lot;
+            this.amount = amount;
+        }
+    }
+
+    private final Map<Integer, PriorityQueue<IngredientLot>> byIngredient = new HashMap<>();
+    private final TreeSet<IngredientLot> byExpiry = new TreeSet<>(USE_ORDER);
+    private boolean loaded;
+
+    synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /** DB에서 읽은 전체 로트로 인덱스 구성 */
+    synchronized void reset(List<IngredientLot> lots) {
+        byIngredient.clear();
+        byExpiry.clear();
+        for (IngredientLot lot : lots) {
+            add(lot);
+        }
+        loaded = true;
+    }
+
+    /** 다음 조회 때 DB에서 다시 읽도록 표시 */
+    synchronized void invalidate() {
+        loaded = false;
+    }
+
+    synchronized void add(IngredientLot lot) {
+        byIngredient.computeIfAbsent(lot.getIngredientId(), id -> new PriorityQueue<>(USE_ORDER)).add(lot);
+        if (lot.getExpiresAt() != null) {
+            byExpiry.add(lot);
+        }
+    }
+
+    /** 재료가 삭제되면 그 재료의 로트를 모두 제거 (DB는 ON DELETE CASCADE) */
+    synchronized void removeIngredient(int ingredientId) {
+        PriorityQueue<IngredientLot> queue = byIngredient.remove(ingredientId);
+        if (queue != null) {
+            byExpiry.removeAll(queue);
+        }
+    }
+
+    /** 재료의 로트 목록 (사용 순서, 복사본) */
+    synchronized List<IngredientLot> lotsOf(int ingredientId) {
+        List<IngredientLot> result = new ArrayList<>();
+        PriorityQueue<IngredientLot> queue = byIngredient.get(ingredientId);
+        if (queue != null) {
+            for (IngredientLot lot : queue) {
+                result.add(lot.copy());
+            }
+            result.sort(USE_ORDER);
+        }
+        return result;
+    }
+
+    /** 유통기한이 limit 이하인 로트 (유통기한 순, 복사본) */
+    synchronized List<IngredientLot> expiringOnOrBefore(LocalDate limit) {
+        List<IngredientLot> result = new ArrayList<>();
+        for (IngredientLot lot : byExpiry) {
+            if (lot.getExpiresAt().isAfter(limit)) break;
+            result.add(lot.copy());
+        }
+        return result;
+    }
+
+    /** 구매일이 since 이후(포함)인 로트 (복사본) */
+    synchronized List<IngredientLot> purchasedOnOrAfter(LocalDate since) {
+        List<IngredientLot> result = new ArrayList<>();
+        for (PriorityQueue<IngredientLot> queue : byIngredient.values()) {
+            for (IngredientLot lot : queue) {
+                if (!lot.getPurchasedAt().isBefore(since)) {
+                    result.add(lot.copy());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 먼저 써야 할 로트부터 quantity만큼 꺼냄
+     * - 꺼낸 로트는 인덱스에서 빠진 상태가 되며 commit/rollback으로 마무리해야 함
+     */
+    synchronized List<Taken> take(int ingredientId, int quantity) {
+        List<Taken> taken = new ArrayList<>();
+        PriorityQueue<IngredientLot> queue = byIngredient.get(ingredientId);
+        int remaining = quantity;
+        while (remaining > 0 && queue != null && !queue.isEmpty()) {
+            IngredientLot lot = queue.poll();
+            if (lot.getExpiresAt() != null) {
+                byExpiry.remove(lot);
+            }
+            int amount = Math.min(remaining, lot.getQuantity());
+            taken.add(new Taken(lot, amount));
+            remaining -= amount;
+        }
+        return taken;
+    }
+
+    /** 차감 확정: 일부만 쓴 로트는 남은 수량으로 다시 넣음 */
+    synchronized void commit(List<Taken> taken) {
+        for (Taken t : taken) {
+            int left = t.lot.getQuantity() - t.amount;
+            if (left > 0) {
+                IngredientLot rest = t.lot.copy();
+                rest.setQuantity(left);
+                add(rest);
+            }
+        }
+    }
+
+    /** 차감 취소: 꺼낸 로트를 원래 수량 그대로 되돌림 */
+    synchronized void rollback(List<Taken> taken) {
+        for (Taken t : taken) {
+            add(t.lot);
+        }
+    }
+}
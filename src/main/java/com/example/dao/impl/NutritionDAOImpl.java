@@ -0,0 +1,130 @@
+package com.example.dao.impl;
+
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.NutritionDAO;
+import com.example.db.DatabaseConnection;
+import com.example.model.Nutrient;
+import com.example.model.Nutrition;
+import java.sql.*;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * NutritionDAOImpl
+ * - 재료 영양 정보 저장/삭제/조회 구현체
+ * - 컬럼 목록은 Nutrient 순서로 만들므로 성분을 추가하면 테이블 컬럼만 늘리면 됨
+ * - 쓰기 후 DataChangeNotifier로 알려 레시피 영양 합계(NutritionIndex)가 그 재료를 쓰는 레시피만 다시 계산
+ */
+public class NutritionDAOImpl implements NutritionDAO {
+    private static final String COLUMNS = columns();
+
+    private final DatabaseConnection dbConnection;
+    private final DataChangeNotifier notifier;
+
+    /**
+     * 생성자 - 싱글톤 DB 커넥션 초기화
+     */
+    public NutritionDAOImpl() {
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.notifier = DataChangeNotifier.getInstance();
+    }
+
+    /**
+     * 영양 정보 저장 (INSERT ... ON DUPLICATE KEY UPDATE)
+     */
+    @Override
+    public void save(String ingredientName, Nutrition nutrition) {
+        StringBuilder placeholders = new StringBuilder("?");
+        StringBuilder updates = new StringBuilder();
+        for (Nutrient nutrient : Nutrient.values()) {
+            placeholders.append(", ?");
+            if (updates.length() > 0) updates.append(", ");
+            updates.append(nutrient.getColumn()).append(" = VALUES(").append(nutrient.getColumn()).append(")");
+        }
+        String sql = "INSERT INTO ingredient_nutrition (ingredient_name, " + COLUMNS + ") VALUES (" + placeholders + ") " +
+                    "ON DUPLICATE KEY UPDATE " + updates;
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, ingredientName);
+            for (Nutrient nutrient : Nutrient.values()) {
+                pstmt.setInt(nutrient.ordinal() + 2, nutrition.get(nutrient));
+            }
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("영양 정보 저장 중 오류 발생", e);
+        }
+        notifier.fireNutritionSaved(ingredientName, nutrition);
+    }
+
+    /**
+     * 영양 정보 삭제 (DELETE)
+     */
+    @Override
+    public void delete(String ingredientName) {
+        String sql = "DELETE FROM ingredient_nutrition WHERE ingredient_name = ?";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, ingredientName);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("영양 정보 삭제 중 오류 발생", e);
+        }
+        notifier.fireNutritionDeleted(ingredientName);
+    }
+
+    /**
+     * 재료 이름으로 영양 정보 조회 (SELECT)
+     */
+    @Override
+    public Nutrition findByIngredientName(String ingredientName) {
+        String sql = "SELECT ingredient_name, " + COLUMNS + " FROM ingredient_nutrition WHERE ingredient_name = ?";
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, ingredientName);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    return createNutritionFromResultSet(rs);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("영양 정보 조회 중 오류 발생", e);
+        }
+        return null;
+    }
+
+    /**
+     * 전체 영양 정보 조회 (SELECT)
+     */
+    @Override
+    public Map<String, Nutrition> findAll() {
+        String sql = "SELECT ingredient_name, " + COLUMNS + " FROM ingredient_nutrition";
+        Map<String, Nutrition> nutritions = new HashMap<>();
+        try (Connection conn = dbConnection.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                nutritions.put(rs.getString("ingredient_name"), createNutritionFromResultSet(rs));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("영양 정보 조회 중 오류 발생", e);
+        }
+        return nutritions;
+    }
+
+    private Nutrition createNutritionFromResultSet(ResultSet rs) throws SQLException {
+        int[] values = new int[Nutrient.COUNT];
+        for (Nutrient nutrient : Nutrient.values()) {
+            values[nutrient.ordinal()] = rs.getInt(nutrient.getColumn());
+        }
+        return new Nutrition(values);
+    }
+
+    private static String columns() {
+        StringBuilder columns = new StringBuilder();
+        for (Nutrient nutrient : Nutrient.values()) {
+            if (columns.length() > 0) columns.append(", ");
+            columns.append(nutrient.getColumn());
+        }
+        return columns.toString();
+    }
+}
@@ -1,13 +1,38 @@
 package com.example.dao.impl;
 
+import com.example.dao.CookingHistoryDAO;
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.IngredientLotDAO;
 import com.example.dao.RecipeDAO;
+import com.example.db.CatalogSnapshot;
 import com.example.db.DatabaseConnection;
+import com.example.db.InstructionCodec;
+import com.example.db.OfflineWriteQueue;
+import com.example.db.QueryResultCache;
+import com.example.db.RowPublisher;
+import com.example.db.ShardRouter;
+import com.example.db.TableVersions;
+import com.example.model.CompactRecipe;
+import com.example.model.IngredientDictionary;
 import com.example.model.Recipe;
 import com.example.dao.IngredientDAO;
 import com.example.dao.impl.IngredientDAOImpl;
+import java.io.IOException;
+import java.io.Reader;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.Flow;
+import java.util.function.IntConsumer;
 import com.example.model.Ingredient;
 import java.util.Map;
 
@@ -15,157 +40,535 @@ import java.util.Map;
  * RecipeDAOImpl
  * - 레시피(Recipe) 관련 DB 접근 및 CRUD 구현체
  * - MySQL과 연동하여 레시피 저장, 조회, 수정, 삭제, 즐겨찾기 등 처리
+ * - 레시피와 자식 행은 ShardRouter가 정한 샤드에 저장하고, 전체 조회는 모든 샤드를 병렬로 읽어 id 순으로 병합
  */
 public class RecipeDAOImpl implements RecipeDAO {
+    // 조회 결과 캐시가 의존하는 테이블
+    private static final String[] RECIPE_TABLES = {"recipes", "recipe_ingredients", "favorite_recipes"};
+    // 즐겨찾기 등록/평점·메모 변경 (있으면 갱신)
+    private static final String FAVORITE_UPSERT = "INSERT INTO favorite_recipes (recipe_id, rating, note) VALUES (?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE rating = VALUES(rating), note = VALUES(note)";
+    // 재배치 중 레시피 위치를 IN 조회 한 번에 확인할 id 수
+    private static final int LOCATE_PAGE = 500;
+    // 재료 역인덱스를 DB와 비교하는 주기 (0이면 비교하지 않음)
+    private static final long USAGE_VERIFY_MILLIS = Long.parseLong(
+        DatabaseConnection.getInstance().getProperty("recipe.usage.verify.ms", "600000"));
+    // 조회 캐시 항목의 최대 수명 (다른 클라이언트나 직접 SQL로 바뀐 행을 놓쳐도 이 시간 뒤에는 다시 읽음)
+    private static final long CACHE_TTL_MILLIS = Long.parseLong(
+        DatabaseConnection.getInstance().getProperty("query.cache.ttl.ms", "60000").trim());
+    // 모든 DAO 인스턴스가 공유하는 조회 결과 캐시 (무게 = 보관 중인 레시피 수)
+    private static final QueryResultCache<List<Recipe>> QUERY_CACHE = new QueryResultCache<>("레시피 조회 캐시",
+        Integer.parseInt(DatabaseConnection.getInstance().getProperty("query.cache.max.recipes", "50000")), CACHE_TTL_MILLIS);
+    // 최근 연 레시피의 조리 방법 (압축 해제한 원문, 무게 = 글자 수)
+    private static final QueryResultCache<String> INSTRUCTION_CACHE = new QueryResultCache<>("조리 방법 캐시",
+        Integer.parseInt(DatabaseConnection.getInstance().getProperty("instructions.cache.chars", "200000")), CACHE_TTL_MILLIS);
+    // 조리 방법이 바뀔 때만 올리는 버전 (요리/즐겨찾기로 recipes가 바뀌어도 조리 방법 캐시는 유지)
+    private static final String INSTRUCTION_VERSION = "recipes.instructions";
+    // 목록/단건 조회에서 읽는 레시피 컬럼 (조리 방법은 findInstructions로 따로 읽음)
+    private static final String RECIPE_COLUMNS = "r.id, r.name, r.last_cooked_at";
+    private static final Comparator<Recipe> BY_ID = Comparator.comparingInt(Recipe::getId);
+
+    /**
+     * 즐겨찾기 병합용 행 (추가 시각 내림차순, 같으면 id 순)
+     */
+    private static class FavoriteRow {
+        final Timestamp createdAt;
+        final Recipe recipe;
+
+        FavoriteRow(Timestamp createdAt, Recipe recipe) {
+            this.createdAt = createdAt;
+            this.recipe = recipe;
+        }
+    }
+
+    private static final Comparator<FavoriteRow> FAVORITE_ORDER = Comparator
+        .comparing((FavoriteRow row) -> row.createdAt, Comparator.nullsLast(Comparator.reverseOrder()))
+        .thenComparingInt(row -> row.recipe.getId());
+
+    /**
+     * 일괄 쓰기 배치의 한 행 값 지정
+     */
+    private interface BatchBinder {
+        void bind(PreparedStatement pstmt, int recipeId) throws SQLException;
+    }
+
+    /**
+     * 레시피 하나를 대상으로 하는 쓰기 (recipeId는 임시 id를 실제 id로 바꾼 값)
+     */
+    private interface RecipeWrite {
+        void run(int recipeId) throws SQLException;
+    }
+
     // DB 커넥션 관리 객체
     private final DatabaseConnection dbConnection;
     private final IngredientDAO ingredientDAO;
+    private final IngredientLotDAO ingredientLotDAO;
+    private final CookingHistoryDAO cookingHistoryDAO;
+    // DB 연결이 끊겼을 때 읽기를 대신하는 로컬 스냅샷과 쓰기 대기열
+    private final CatalogSnapshot snapshot;
+    private final OfflineWriteQueue offlineWrites;
+    // 쓰기 후 메모리 인덱스에 변경을 알리는 허브
+    private final DataChangeNotifier notifier;
+    // 쓰기 후 조회 캐시를 무효화하기 위한 테이블 버전
+    private final TableVersions versions;
+    // 레시피 id -> 샤드 라우팅
+    private final ShardRouter shards;
+    // 즐겨찾기 레시피 id 비트맵 (isFavorite는 DB를 거치지 않음)
+    private final FavoriteIndex favorites;
+    // 재료 이름 → 레시피 역인덱스 (findRecipesUsing은 DB를 거치지 않음)
+    private final RecipeUsageIndex usageIndex;
 
     /**
-     * 생성자 - 싱글톤 DB 커넥션 및 재료 DAO 초기화
+     * 생성자 - 싱글톤 DB 커넥션, 재료 DAO, 스냅샷, 오프라인 쓰기 대기열 초기화
      */
     public RecipeDAOImpl() {
         this.dbConnection = DatabaseConnection.getInstance();
         this.ingredientDAO = new IngredientDAOImpl();
+        this.ingredientLotDAO = new IngredientLotDAOImpl();
+        this.cookingHistoryDAO = new CookingHistoryDAOImpl();
+        this.snapshot = CatalogSnapshot.getInstance();
+        this.offlineWrites = OfflineWriteQueue.getInstance();
+        this.notifier = DataChangeNotifier.getInstance();
+        this.versions = TableVersions.getInstance();
+        this.shards = ShardRouter.getInstance();
+        this.favorites = FavoriteIndex.getInstance();
+        this.usageIndex = RecipeUsageIndex.getInstance();
+    }
+
+    /** 조회 결과 캐시 (적중률 등 지표 확인용) */
+    public static QueryResultCache<List<Recipe>> getQueryCache() {
+        return QUERY_CACHE;
+    }
+
+    /** 조리 방법 캐시 (적중률 등 지표 확인용) */
+    public static QueryResultCache<String> getInstructionCache() {
+        return INSTRUCTION_CACHE;
     }
 
     /**
-     * 레시피 저장 (INSERT, 레시피-재료 관계도 저장)
+     * 레시피 저장 (INSERT, 레시피-재료 관계도 저장, 조리 방법은 압축해 저장)
      */
     @Override
     public void save(Recipe recipe) {
+        // 대기열에 들어갈 수 있으므로 호출 시점의 값을 고정
+        Recipe values = recipe.copy();
+        // 대기열에 들어가면 받는 임시 id (재실행으로 실제 id가 정해지면 연결)
+        int[] temporaryId = {0};
         String sql = "INSERT INTO recipes (name, instructions) VALUES (?, ?)";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            pstmt.setString(1, recipe.getName());
-            pstmt.setString(2, recipe.getInstructions());
-            pstmt.executeUpdate();
-            // 생성된 PK(id) 세팅
-            try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                if (generatedKeys.next()) {
-                    recipe.setId(generatedKeys.getInt(1));
-                }
-            }
-            // 레시피-재료 관계 저장
-            for (Map.Entry<String, Integer> entry : recipe.getRequiredIngredientNames().entrySet()) {
-                String ingName = entry.getKey();
-                int qty = entry.getValue();
-                String sql2 = "INSERT INTO recipe_ingredients (recipe_id, ingredient_name, required_quantity) VALUES (?, ?, ?)";
-                try (PreparedStatement pstmt2 = conn.prepareStatement(sql2)) {
-                    pstmt2.setInt(1, recipe.getId());
-                    pstmt2.setString(2, ingName);
-                    pstmt2.setInt(3, qty);
-                    pstmt2.executeUpdate();
+        offlineWrites.run("레시피 저장", () -> {
+            // 새 id가 이 샤드로 해시되도록 발급받으므로 자식 행도 같은 커넥션에 저장
+            try (Connection conn = shards.getInsertConnection(shards.nextInsertShard());
+                 PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                pstmt.setString(1, values.getName());
+                pstmt.setString(2, InstructionCodec.encode(values.getInstructions()));
+                pstmt.executeUpdate();
+                // 생성된 PK(id) 세팅
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        values.setId(generatedKeys.getInt(1));
+                    }
+                }
+                // 레시피-재료 관계 저장
+                for (Map.Entry<String, Integer> entry : values.getRequiredIngredientNames().entrySet()) {
+                    String ingName = entry.getKey();
+                    int qty = entry.getValue();
+                    String sql2 = "INSERT INTO recipe_ingredients (recipe_id, ingredient_name, required_quantity) VALUES (?, ?, ?)";
+                    try (PreparedStatement pstmt2 = conn.prepareStatement(sql2)) {
+                        pstmt2.setInt(1, values.getId());
+                        pstmt2.setString(2, ingName);
+                        pstmt2.setInt(3, qty);
+                        pstmt2.executeUpdate();
+                    }
                 }
             }
-        } catch (SQLException e) {
-            throw new RuntimeException("레시피 저장 중 오류 발생", e);
+            versions.bump("recipes", "recipe_ingredients");
+            if (temporaryId[0] < 0) {
+                // 대기열에서 반영됨: 뒤에 쌓인 수정/삭제가 실제 id를 쓰도록 연결하고 인덱스에 이제 추가
+                offlineWrites.bindId(temporaryId[0], values.getId());
+                snapshot.updateRecipe(temporaryId[0], r -> r.setId(values.getId()));
+                recipeInserted(values);
+            }
+        }, () -> {
+            temporaryId[0] = offlineWrites.nextTemporaryId();
+            values.setId(temporaryId[0]);
+            snapshot.putRecipe(values);
+        });
+        recipe.setId(values.getId());
+        if (values.getId() > 0) {
+            recipeInserted(values);
         }
     }
 
+    // 새 레시피를 역인덱스와 다른 메모리 인덱스에 반영
+    private void recipeInserted(Recipe recipe) {
+        usageIndex.put(CompactRecipe.from(recipe, IngredientDictionary.getInstance()));
+        notifier.fireRecipeSaved(recipe);
+    }
+
     /**
-     * id로 레시피 단건 조회 (LEFT JOIN으로 즐겨찾기 정보 포함)
+     * 레시피 하나를 대상으로 하는 쓰기를 대기열을 거쳐 실행하고 메모리 인덱스/알림 반영
+     * - 기존 레시피는 대기열에 들어가도 바로 반영 (화면과 인덱스가 먼저 바뀜)
+     * - 임시 id(대기열에 있는 새 레시피)는 인덱스에 없으므로 재실행으로 실제 id가 정해진 뒤 반영
+     * - whenQueued는 대기열에 들어갈 때 스냅샷에 같은 변경을 미리 적용
+     */
+    private void writeRecipe(String operation, int id, RecipeWrite write, Runnable whenQueued, IntConsumer applied) {
+        offlineWrites.run(operation, () -> {
+            int target = resolveId(id);
+            write.run(target);
+            if (id < 0) applied.accept(target);
+        }, whenQueued);
+        if (id > 0) applied.accept(id);
+    }
+
+    // 임시 id를 재실행 때 발급된 실제 id로 바꿈 (앞선 저장이 실패해 아직 없으면 SQLException → 실패 목록)
+    private int resolveId(int id) throws SQLException {
+        int recipeId = offlineWrites.resolve(id);
+        if (recipeId <= 0) {
+            throw new SQLException("DB에 저장되지 않은 새 레시피입니다. (임시 id " + id + ")");
+        }
+        return recipeId;
+    }
+
+    /**
+     * id로 레시피 단건 조회 (LEFT JOIN으로 즐겨찾기 정보 포함, 조리 방법은 findInstructions로 채움)
      */
     @Override
     public Recipe findById(int id) {
-        String sql = "SELECT r.*, f.rating, f.note, CASE WHEN f.recipe_id IS NOT NULL THEN 1 ELSE 0 END as is_favorite " +
+        Recipe recipe = findByIdWithoutInstructions(id);
+        if (recipe != null && recipe.getInstructions() == null) {
+            recipe.setInstructions(findInstructions(id));
+        }
+        return recipe;
+    }
+
+    // 조리 방법을 뺀 단건 조회 (스냅샷 대체 시에는 스냅샷에 있는 조리 방법이 들어 있을 수 있음)
+    private Recipe findByIdWithoutInstructions(int id) {
+        String key = "findById:" + id;
+        long stamp = versions.stamp(RECIPE_TABLES);
+        List<Recipe> cached = QUERY_CACHE.get(key, stamp);
+        if (cached != null) {
+            return cached.isEmpty() ? null : cached.get(0).copy();
+        }
+        DatabaseConnection.ReadMark mark = dbConnection.markRead();
+        String sql = "SELECT " + RECIPE_COLUMNS + ", f.rating, f.note, CASE WHEN f.recipe_id IS NOT NULL THEN 1 ELSE 0 END as is_favorite " +
                     "FROM recipes r " +
                     "LEFT JOIN favorite_recipes f ON r.id = f.recipe_id " +
                     "WHERE r.id = ?";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                if (rs.next()) {
-                    Recipe recipe = new Recipe();
-                    recipe.setId(rs.getInt("id"));
-                    recipe.setName(rs.getString("name"));
-                    recipe.setInstructions(rs.getString("instructions"));
-                    recipe.setFavorite(rs.getBoolean("is_favorite"));
-                    int rating = rs.getInt("rating");
-                    if (rating >= 1 && rating <= 5) {
-                        recipe.setRating(rating);
+        Recipe recipe = null;
+        try {
+            // 해시된 샤드에 없으면 재배치 중 옮겨진 것일 수 있으므로 나머지 샤드 확인
+            int home = shards.shardOf(id);
+            for (int i = 0; i < shards.getShardCount() && recipe == null; i++) {
+                int shard = (home + i) % shards.getShardCount();
+                try (Connection conn = shards.getReadConnection(shard);
+                     PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, id);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (rs.next()) {
+                            recipe = readRecipe(rs);
+                            // 재료 목록 채우기
+                            fillRecipeIngredients(recipe, conn);
+                        }
                     }
-                    recipe.setLastCookedAt(rs.getTimestamp("last_cooked_at"));
-                    recipe.setNote(rs.getString("note"));
-                    // 재료 목록 채우기
-                    fillRecipeIngredients(recipe, conn);
-                    return recipe;
                 }
             }
         } catch (SQLException e) {
+            if (DatabaseConnection.isConnectionFailure(e) && snapshot.isLoaded()) {
+                return snapshot.findRecipe(id);
+            }
             throw new RuntimeException("레시피 조회 중 오류 발생", e);
         }
-        return null;
+        // 호출자가 받은 객체를 수정해도 캐시에는 영향이 없도록 복사본 보관
+        if (mark.isCacheable()) {
+            QUERY_CACHE.put(key, stamp, recipe == null ? List.of() : List.of(recipe.copy()), 1);
+        }
+        return recipe;
+    }
+
+    /**
+     * 조리 방법만 조회
+     * - getCharacterStream()으로 받은 Reader를 InstructionCodec으로 풀면서 읽으므로 압축된 값 전체를 따로 만들지 않음
+     * - 최근 연 레시피의 원문은 INSTRUCTION_CACHE(LRU)에 보관하고, 조리 방법이 수정/삭제되면 버전이 바뀌어 버려짐
+     */
+    @Override
+    public String findInstructions(int recipeId) {
+        String key = String.valueOf(recipeId);
+        long stamp = versions.stamp(INSTRUCTION_VERSION);
+        String cached = INSTRUCTION_CACHE.get(key, stamp);
+        if (cached != null) {
+            return cached;
+        }
+        DatabaseConnection.ReadMark mark = dbConnection.markRead();
+        String sql = "SELECT instructions FROM recipes WHERE id = ?";
+        String instructions = null;
+        try {
+            // 해시된 샤드에 없으면 재배치 중 옮겨진 것일 수 있으므로 나머지 샤드 확인
+            int home = shards.shardOf(recipeId);
+            boolean found = false;
+            for (int i = 0; i < shards.getShardCount() && !found; i++) {
+                int shard = (home + i) % shards.getShardCount();
+                try (Connection conn = shards.getReadConnection(shard);
+                     PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                    pstmt.setInt(1, recipeId);
+                    try (ResultSet rs = pstmt.executeQuery()) {
+                        if (rs.next()) {
+                            found = true;
+                            try (Reader reader = rs.getCharacterStream("instructions")) {
+                                instructions = reader == null ? null : InstructionCodec.readAll(InstructionCodec.decoding(reader));
+                            }
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            if (DatabaseConnection.isConnectionFailure(e) && snapshot.isLoaded()) {
+                Recipe fromSnapshot = snapshot.findRecipe(recipeId);
+                return fromSnapshot == null ? null : InstructionCodec.decode(fromSnapshot.getInstructions());
+            }
+            throw new RuntimeException("조리 방법 조회 중 오류 발생", e);
+        } catch (IOException e) {
+            throw new RuntimeException("조리 방법 압축 해제 중 오류 발생", e);
+        }
+        if (instructions != null && mark.isCacheable()) {
+            INSTRUCTION_CACHE.put(key, stamp, instructions, Math.max(1, instructions.length()));
+        }
+        return instructions;
     }
 
     /**
-     * 전체 레시피 목록 조회 (LEFT JOIN으로 즐겨찾기 정보 포함)
+     * 전체 레시피 목록 조회 (LEFT JOIN으로 즐겨찾기 정보 포함, 조리 방법 제외)
      */
     @Override
     public List<Recipe> findAll() {
+        long stamp = versions.stamp(RECIPE_TABLES);
+        List<Recipe> cached = QUERY_CACHE.get("findAll", stamp);
+        if (cached != null) {
+            return copyAll(cached);
+        }
+        DatabaseConnection.ReadMark mark = dbConnection.markRead();
         List<Recipe> recipes = new ArrayList<>();
-        String sql = "SELECT r.*, f.rating, f.note, CASE WHEN f.recipe_id IS NOT NULL THEN 1 ELSE 0 END as is_favorite " +
+        String sql = "SELECT " + RECIPE_COLUMNS + ", f.rating, f.note, CASE WHEN f.recipe_id IS NOT NULL THEN 1 ELSE 0 END as is_favorite " +
                     "FROM recipes r " +
-                    "LEFT JOIN favorite_recipes f ON r.id = f.recipe_id";
-        try (Connection conn = dbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                Recipe recipe = new Recipe();
-                recipe.setId(rs.getInt("id"));
-                recipe.setName(rs.getString("name"));
-                recipe.setInstructions(rs.getString("instructions"));
-                recipe.setFavorite(rs.getBoolean("is_favorite"));
-                int rating2 = rs.getInt("rating");
-                if (rating2 >= 1 && rating2 <= 5) {
-                    recipe.setRating(rating2);
-                }
-                recipe.setLastCookedAt(rs.getTimestamp("last_cooked_at"));
-                recipe.setNote(rs.getString("note"));
-                // 재료 목록 채우기
-                fillRecipeIngredients(recipe, conn);
-                recipes.add(recipe);
-            }
+                    "LEFT JOIN favorite_recipes f ON r.id = f.recipe_id " +
+                    "ORDER BY r.id";
+        try {
+            recipes = shards.scatterGather((conn, sink) -> {
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(sql)) {
+                    while (rs.next()) {
+                        Recipe recipe = readRecipe(rs);
+                        // 재료 목록 채우기
+                        fillRecipeIngredients(recipe, conn);
+                        sink.accept(recipe);
+                    }
+                }
+            }, BY_ID);
         } catch (SQLException e) {
+            if (DatabaseConnection.isConnectionFailure(e) && snapshot.isLoaded()) {
+                return snapshot.getRecipes();
+            }
             throw new RuntimeException("레시피 목록 조회 중 오류 발생", e);
         }
+        // 동기화된 최신 목록을 스냅샷에 반영
+        snapshot.updateRecipes(recipes);
+        if (mark.isCacheable()) {
+            QUERY_CACHE.put("findAll", stamp, copyAll(recipes), Math.max(1, recipes.size()));
+        }
         return recipes;
     }
 
+    /**
+     * 전체 레시피 스트리밍 조회
+     * - 레시피/즐겨찾기/재료를 JOIN 한 번으로 id 순 정렬해 전진 전용 스트리밍 ResultSet으로 읽고,
+     *   같은 id의 연속 행을 레시피 하나로 묶어 내보냄 (스트리밍 중에는 같은 커넥션으로 재료를 따로 조회할 수 없음)
+     * - 샤드가 여러 개면 샤드별 스트림을 id 순으로 병합하며, 구독자가 늦으면 샤드 조회도 함께 멈춤
+     * - 조회 캐시는 거치지 않고, 내보낸 레시피를 한 건씩 스냅샷에 반영 (결과 목록을 따로 모으지 않음)
+     * - 조리 방법은 읽지 않음 (목록에 표시하지 않으므로 전송량과 힙을 아낌)
+     */
+    @Override
+    public Flow.Publisher<Recipe> streamAll() {
+        String sql = "SELECT " + RECIPE_COLUMNS + ", f.rating, f.note, CASE WHEN f.recipe_id IS NOT NULL THEN 1 ELSE 0 END as is_favorite, " +
+                    "ri.ingredient_name AS ri_name, ri.required_quantity AS ri_quantity " +
+                    "FROM recipes r " +
+                    "LEFT JOIN favorite_recipes f ON r.id = f.recipe_id " +
+                    "LEFT JOIN recipe_ingredients ri ON r.id = ri.recipe_id " +
+                    "ORDER BY r.id";
+        return new RowPublisher<>("recipe.list", sink -> {
+            CatalogSnapshot.Refresh<Recipe> refresh = snapshot.refreshRecipes();
+            boolean[] sent = {false};
+            try {
+                shards.scatterGather((conn, shardSink) -> {
+                    try (Statement stmt = DatabaseConnection.streamingStatement(conn);
+                         ResultSet rs = stmt.executeQuery(sql)) {
+                        Recipe current = null;
+                        while (rs.next()) {
+                            if (current == null || current.getId() != rs.getInt("id")) {
+                                if (current != null) shardSink.accept(current);
+                                current = readRecipe(rs);
+                            }
+                            String ingredientName = rs.getString("ri_name");
+                            if (ingredientName != null) {
+                                current.addIngredientNameAndQuantity(ingredientName, rs.getInt("ri_quantity"));
+                            }
+                        }
+                        if (current != null) shardSink.accept(current);
+                    }
+                }, BY_ID, recipe -> {
+                    sent[0] = true;
+                    refresh.accept(recipe);
+                    sink.accept(recipe);
+                });
+            } catch (SQLException e) {
+                if (!sent[0] && DatabaseConnection.isConnectionFailure(e) && snapshot.isLoaded()) {
+                    snapshot.getRecipes().forEach(sink);
+                    return;
+                }
+                throw new RuntimeException("레시피 목록 조회 중 오류 발생", e);
+            }
+            refresh.finish();
+        });
+    }
+
+    /**
+     * 전체 레시피를 압축 모델로 조회
+     * - recipe_ingredients를 한 번에 읽어 레시피별 (재료 id, 수량) 배열로 묶은 뒤 recipes와 합침
+     * - 레시피마다 재료를 따로 조회하지 않으므로 쿼리는 샤드마다 두 번뿐
+     */
+    @Override
+    public List<CompactRecipe> findAllCompact() {
+        try {
+            return readAllCompact();
+        } catch (SQLException e) {
+            if (DatabaseConnection.isConnectionFailure(e) && snapshot.isLoaded()) {
+                IngredientDictionary dictionary = IngredientDictionary.getInstance();
+                List<CompactRecipe> recipes = new ArrayList<>();
+                for (Recipe recipe : snapshot.getRecipes()) {
+                    recipes.add(CompactRecipe.from(recipe, dictionary));
+                }
+                return recipes;
+            }
+            throw new RuntimeException("압축 레시피 목록 조회 중 오류 발생", e);
+        }
+    }
+
+    /**
+     * 전체 레시피를 압축 모델로 DB에서 읽음 (스냅샷으로 대신하지 않음)
+     */
+    private List<CompactRecipe> readAllCompact() throws SQLException {
+        IngredientDictionary dictionary = IngredientDictionary.getInstance();
+        String ingredientSql = "SELECT recipe_id, ingredient_name, required_quantity FROM recipe_ingredients ORDER BY recipe_id";
+        String recipeSql = "SELECT r.id, r.name, r.last_cooked_at, f.rating, f.note, " +
+                    "CASE WHEN f.recipe_id IS NOT NULL THEN 1 ELSE 0 END as is_favorite " +
+                    "FROM recipes r " +
+                    "LEFT JOIN favorite_recipes f ON r.id = f.recipe_id " +
+                    "ORDER BY r.id";
+        return shards.scatterGather((conn, sink) -> {
+            // 레시피 id -> {재료 id 배열, 수량 배열}
+            Map<Integer, int[][]> requirements = new HashMap<>();
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(ingredientSql)) {
+                int currentId = -1;
+                int count = 0;
+                int[] ids = new int[8];
+                int[] qty = new int[8];
+                while (rs.next()) {
+                    int recipeId = rs.getInt("recipe_id");
+                    if (recipeId != currentId) {
+                        if (currentId != -1) {
+                            requirements.put(currentId, new int[][]{Arrays.copyOf(ids, count), Arrays.copyOf(qty, count)});
+                        }
+                        currentId = recipeId;
+                        count = 0;
+                    }
+                    if (count == ids.length) {
+                        ids = Arrays.copyOf(ids, count * 2);
+                        qty = Arrays.copyOf(qty, count * 2);
+                    }
+                    ids[count] = dictionary.intern(rs.getString("ingredient_name"));
+                    qty[count] = rs.getInt("required_quantity");
+                    count++;
+                }
+                if (currentId != -1) {
+                    requirements.put(currentId, new int[][]{Arrays.copyOf(ids, count), Arrays.copyOf(qty, count)});
+                }
+            }
+            int[][] none = {new int[0], new int[0]};
+            try (Statement stmt = conn.createStatement();
+                 ResultSet rs = stmt.executeQuery(recipeSql)) {
+                while (rs.next()) {
+                    int id = rs.getInt("id");
+                    Timestamp lastCooked = rs.getTimestamp("last_cooked_at");
+                    int[][] req = requirements.getOrDefault(id, none);
+                    sink.accept(new CompactRecipe(id, rs.getString("name"), req[0], req[1],
+                        lastCooked == null ? CompactRecipe.NEVER_COOKED : lastCooked.getTime(),
+                        rs.getInt("rating"), rs.getBoolean("is_favorite"), rs.getString("note")));
+                }
+            }
+            }, Comparator.comparingInt(CompactRecipe::getId));
+    }
+
     /**
      * 레시피 정보 수정 (UPDATE)
      */
     @Override
     public void update(Recipe recipe) {
-        // recipes 테이블 업데이트
-        String sql = "UPDATE recipes SET name = ?, instructions = ?, last_cooked_at = ? WHERE id = ?";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setString(1, recipe.getName());
-            pstmt.setString(2, recipe.getInstructions());
-            pstmt.setTimestamp(3, recipe.getLastCookedAt());
-            pstmt.setInt(4, recipe.getId());
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("레시피 수정 중 오류 발생", e);
-        }
-        
-        // favorite_recipes 테이블 upsert (즐겨찾기 관련 정보만)
-        if (recipe.isFavorite()) {
-            String sql2 = "INSERT INTO favorite_recipes (recipe_id, rating, note) VALUES (?, ?, ?) " +
-                         "ON DUPLICATE KEY UPDATE rating = VALUES(rating), note = VALUES(note)";
-            try (Connection conn = dbConnection.getConnection();
-                 PreparedStatement pstmt = conn.prepareStatement(sql2)) {
-                int rating = recipe.getRating();
-                if (rating < 1 || rating > 5) rating = 1;
-                pstmt.setInt(1, recipe.getId());
-                pstmt.setInt(2, rating);
-                pstmt.setString(3, recipe.getNote());
+        // 대기열에 들어갈 수 있으므로 호출 시점의 값을 고정
+        Recipe values = recipe.copy();
+        // recipes 테이블 업데이트 (목록에서 받은 레시피처럼 조리 방법이 없으면 조리 방법은 그대로 둠)
+        boolean withInstructions = values.getInstructions() != null;
+        String sql = withInstructions
+            ? "UPDATE recipes SET name = ?, last_cooked_at = ?, instructions = ? WHERE id = ?"
+            : "UPDATE recipes SET name = ?, last_cooked_at = ? WHERE id = ?";
+        writeRecipe("레시피 수정", values.getId(), recipeId -> {
+            try (Connection conn = shards.getConnection(locate(recipeId));
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int index = 1;
+                pstmt.setString(index++, values.getName());
+                pstmt.setTimestamp(index++, values.getLastCookedAt());
+                if (withInstructions) {
+                    pstmt.setString(index++, InstructionCodec.encode(values.getInstructions()));
+                }
+                pstmt.setInt(index, recipeId);
                 pstmt.executeUpdate();
-            } catch (SQLException e) {
-                throw new RuntimeException("favorite_recipes upsert 중 오류 발생", e);
             }
+            if (withInstructions) {
+                versions.bump("recipes", INSTRUCTION_VERSION);
+            } else {
+                versions.bump("recipes");
+            }
+        }, () -> snapshot.updateRecipe(values.getId(), r -> {
+            r.setName(values.getName());
+            r.setLastCookedAt(values.getLastCookedAt());
+            if (withInstructions) r.setInstructions(values.getInstructions());
+            if (values.isFavorite()) {
+                r.setFavorite(true);
+                r.setRating(validRating(values.getRating()));
+                r.setNote(values.getNote());
+            }
+        }), recipeId -> {
+            Recipe updated = values.copy();
+            updated.setId(recipeId);
+            if (updated.isFavorite()) {
+                favorites.set(recipeId, true);
+            }
+            // recipe_ingredients는 바꾸지 않으므로 역인덱스는 이름만 반영
+            usageIndex.rename(recipeId, updated.getName());
+            notifier.fireRecipeSaved(updated);
+        });
+
+        // favorite_recipes 테이블 upsert (즐겨찾기 관련 정보만, 스냅샷과 인덱스는 위에서 반영)
+        if (values.isFavorite()) {
+            offlineWrites.run("favorite_recipes upsert", () -> {
+                int recipeId = resolveId(values.getId());
+                try (Connection conn = shards.getConnection(locate(recipeId));
+                     PreparedStatement pstmt = conn.prepareStatement(FAVORITE_UPSERT)) {
+                    pstmt.setInt(1, recipeId);
+                    pstmt.setInt(2, validRating(values.getRating()));
+                    pstmt.setString(3, values.getNote());
+                    pstmt.executeUpdate();
+                }
+                versions.bump("favorite_recipes");
+            });
         }
     }
 
@@ -175,45 +578,85 @@ public class RecipeDAOImpl implements RecipeDAO {
     @Override
     public void delete(int id) {
         String sql = "DELETE FROM recipes WHERE id = ?";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, id);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("레시피 삭제 중 오류 발생", e);
-        }
+        writeRecipe("레시피 삭제", id, recipeId -> {
+            try (Connection conn = shards.getConnection(locate(recipeId));
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, recipeId);
+                pstmt.executeUpdate();
+            }
+            // recipe_ingredients, favorite_recipes는 ON DELETE CASCADE로 함께 삭제
+            versions.bump(RECIPE_TABLES);
+            versions.bump(INSTRUCTION_VERSION);
+        }, () -> snapshot.removeRecipe(id), recipeId -> {
+            favorites.set(recipeId, false);
+            usageIndex.remove(recipeId);
+            notifier.fireRecipeDeleted(recipeId);
+        });
     }
 
     /**
-     * 레시피에 재료 추가 (INSERT)
+     * 레시피에 재료 추가 (INSERT, 필요 수량 1, 이미 있으면 그대로)
+     * - recipe_ingredients는 재료 이름으로 저장하므로 같은 호출 안에서 재료 id를 이름으로 바꾼 뒤 넣고,
+     *   역인덱스에도 그 이름으로 바로 반영
      */
     @Override
     public void addIngredientToRecipe(int recipeId, int ingredientId) {
-        String sql = "INSERT INTO recipe_ingredients (recipe_id, ingredient_id) VALUES (?, ?)";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, recipeId);
-            pstmt.setInt(2, ingredientId);
-            pstmt.executeUpdate();
+        // 이미 있으면 바뀌는 값이 없어 영향받은 행 수가 0
+        String sql = "INSERT INTO recipe_ingredients (recipe_id, ingredient_name, required_quantity) VALUES (?, ?, 1) " +
+                    "ON DUPLICATE KEY UPDATE required_quantity = required_quantity";
+        String name;
+        int inserted;
+        try {
+            name = ingredientNameOf(ingredientId);
+            try (Connection conn = shards.getConnection(locate(recipeId));
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, recipeId);
+                pstmt.setString(2, name);
+                inserted = pstmt.executeUpdate();
+            }
         } catch (SQLException e) {
             throw new RuntimeException("레시피에 재료 추가 중 오류 발생", e);
         }
+        if (inserted == 0) return;
+        versions.bump("recipe_ingredients");
+        usageIndex.addIngredient(recipeId, name, 1);
     }
 
     /**
      * 레시피에서 재료 제거 (DELETE)
+     * - 재료 id를 같은 호출 안에서 이름으로 바꿔 지우고 역인덱스에도 바로 반영
      */
     @Override
     public void removeIngredientFromRecipe(int recipeId, int ingredientId) {
-        String sql = "DELETE FROM recipe_ingredients WHERE recipe_id = ? AND ingredient_id = ?";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, recipeId);
-            pstmt.setInt(2, ingredientId);
-            pstmt.executeUpdate();
+        String sql = "DELETE FROM recipe_ingredients WHERE recipe_id = ? AND ingredient_name = ?";
+        String name;
+        try {
+            name = ingredientNameOf(ingredientId);
+            try (Connection conn = shards.getConnection(locate(recipeId));
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, recipeId);
+                pstmt.setString(2, name);
+                pstmt.executeUpdate();
+            }
         } catch (SQLException e) {
             throw new RuntimeException("레시피에서 재료 제거 중 오류 발생", e);
         }
+        versions.bump("recipe_ingredients");
+        usageIndex.removeIngredient(recipeId, name);
+    }
+
+    // 재료 id의 이름 (없으면 IllegalArgumentException)
+    private String ingredientNameOf(int ingredientId) throws SQLException {
+        try (Connection conn = dbConnection.getReadConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT name FROM ingredients WHERE id = ?")) {
+            pstmt.setInt(1, ingredientId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (!rs.next()) {
+                    throw new IllegalArgumentException("존재하지 않는 재료입니다: " + ingredientId);
+                }
+                return rs.getString("name");
+            }
+        }
     }
 
     /**
@@ -222,71 +665,641 @@ public class RecipeDAOImpl implements RecipeDAO {
     @Override
     public void addToFavorites(int recipeId) {
         String sql = "INSERT INTO favorite_recipes (recipe_id) VALUES (?)";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, recipeId);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("즐겨찾기 추가 중 오류 발생", e);
+        writeRecipe("즐겨찾기 추가", recipeId, target -> {
+            try (Connection conn = shards.getConnection(locate(target));
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, target);
+                pstmt.executeUpdate();
+            }
+            versions.bump("favorite_recipes");
+        }, () -> snapshot.updateRecipe(recipeId, r -> r.setFavorite(true)), target -> {
+            favorites.set(target, true);
+            notifier.fireFavoriteChanged(target, true);
+        });
+    }
+
+    /**
+     * 즐겨찾기 등록 또는 평점/메모 변경 (INSERT ... ON DUPLICATE KEY UPDATE 한 문장)
+     * - 레시피를 다시 읽거나 recipes 행을 고치지 않으므로 커넥션 하나로 끝남
+     */
+    @Override
+    public void saveFavorite(int recipeId, int rating, String note) {
+        int validRating = validRating(rating);
+        writeRecipe("즐겨찾기 저장", recipeId, target -> {
+            try (Connection conn = shards.getConnection(locate(target));
+                 PreparedStatement pstmt = conn.prepareStatement(FAVORITE_UPSERT)) {
+                pstmt.setInt(1, target);
+                pstmt.setInt(2, validRating);
+                pstmt.setString(3, note);
+                pstmt.executeUpdate();
+            }
+            versions.bump("favorite_recipes");
+        }, () -> snapshot.updateRecipe(recipeId, r -> {
+            r.setFavorite(true);
+            r.setRating(validRating);
+            r.setNote(note);
+        }), target -> {
+            boolean added = !favorites.contains(target);
+            favorites.set(target, true);
+            if (added) notifier.fireFavoriteChanged(target, true);
+            notifier.fireFavoriteRated(target, validRating);
+        });
+    }
+
+    /**
+     * 여러 레시피 즐겨찾기 등록/평점 변경 (메모는 그대로)
+     * - 레시피가 있는 샤드별로 커넥션 하나, 트랜잭션 하나의 배치로 실행 (샤드 안에서는 전부 반영되거나 전부 롤백)
+     * - 문장이 멱등이라 연결 오류로 대기열에 들어가 다시 실행돼도 결과가 같음
+     */
+    @Override
+    public void saveFavorites(Map<Integer, Integer> ratings) {
+        if (ratings.isEmpty()) return;
+        // 대기열에 들어갈 수 있으므로 호출 시점의 값을 고정
+        Map<Integer, Integer> values = new LinkedHashMap<>();
+        for (Map.Entry<Integer, Integer> entry : ratings.entrySet()) {
+            values.put(entry.getKey(), validRating(entry.getValue()));
+        }
+        String sql = "INSERT INTO favorite_recipes (recipe_id, rating) VALUES (?, ?) " +
+                    "ON DUPLICATE KEY UPDATE rating = VALUES(rating)";
+        offlineWrites.run("즐겨찾기 일괄 저장", () -> {
+            Map<Integer, Integer> targets = new LinkedHashMap<>();
+            for (Map.Entry<Integer, Integer> entry : values.entrySet()) {
+                targets.put(resolveId(entry.getKey()), entry.getValue());
+            }
+            batchByShard(targets.keySet(), sql, (pstmt, recipeId) -> {
+                pstmt.setInt(1, recipeId);
+                pstmt.setInt(2, targets.get(recipeId));
+            });
+            versions.bump("favorite_recipes");
+            // 대기열에 있던 새 레시피는 실제 id가 정해진 지금 인덱스에 반영
+            for (Map.Entry<Integer, Integer> entry : values.entrySet()) {
+                if (entry.getKey() < 0) favoriteRated(offlineWrites.resolve(entry.getKey()), entry.getValue());
+            }
+        }, () -> {
+            for (Map.Entry<Integer, Integer> entry : values.entrySet()) {
+                snapshot.updateRecipe(entry.getKey(), r -> {
+                    r.setFavorite(true);
+                    r.setRating(entry.getValue());
+                });
+            }
+        });
+        for (Map.Entry<Integer, Integer> entry : values.entrySet()) {
+            if (entry.getKey() > 0) favoriteRated(entry.getKey(), entry.getValue());
         }
     }
 
+    // 즐겨찾기 등록/평점을 비트맵과 다른 메모리 인덱스에 반영
+    private void favoriteRated(int recipeId, int rating) {
+        boolean added = !favorites.contains(recipeId);
+        favorites.set(recipeId, true);
+        if (added) notifier.fireFavoriteChanged(recipeId, true);
+        notifier.fireFavoriteRated(recipeId, rating);
+    }
+
+
     /**
      * 즐겨찾기 해제 (DELETE)
      */
     @Override
     public void removeFromFavorites(int recipeId) {
         String sql = "DELETE FROM favorite_recipes WHERE recipe_id = ?";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, recipeId);
-            pstmt.executeUpdate();
-        } catch (SQLException e) {
-            throw new RuntimeException("즐겨찾기 제거 중 오류 발생", e);
+        writeRecipe("즐겨찾기 제거", recipeId, target -> {
+            try (Connection conn = shards.getConnection(locate(target));
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, target);
+                pstmt.executeUpdate();
+            }
+            versions.bump("favorite_recipes");
+        }, () -> snapshot.updateRecipe(recipeId, r -> r.setFavorite(false)), target -> {
+            favorites.set(target, false);
+            notifier.fireFavoriteChanged(target, false);
+        });
+    }
+
+    /**
+     * 여러 레시피 즐겨찾기 해제 (샤드별로 커넥션 하나, 트랜잭션 하나의 배치)
+     */
+    @Override
+    public void removeFromFavorites(Collection<Integer> recipeIds) {
+        if (recipeIds.isEmpty()) return;
+        List<Integer> values = new ArrayList<>(recipeIds);
+        String sql = "DELETE FROM favorite_recipes WHERE recipe_id = ?";
+        offlineWrites.run("즐겨찾기 일괄 제거", () -> {
+            List<Integer> targets = new ArrayList<>(values.size());
+            for (int recipeId : values) {
+                targets.add(resolveId(recipeId));
+            }
+            batchByShard(targets, sql, (pstmt, recipeId) -> pstmt.setInt(1, recipeId));
+            versions.bump("favorite_recipes");
+            for (int recipeId : values) {
+                if (recipeId < 0) favoritesRemoved(Collections.singletonList(offlineWrites.resolve(recipeId)));
+            }
+        }, () -> {
+            for (int recipeId : values) {
+                snapshot.updateRecipe(recipeId, r -> r.setFavorite(false));
+            }
+        });
+        List<Integer> existing = new ArrayList<>();
+        for (int recipeId : values) {
+            if (recipeId > 0) existing.add(recipeId);
+        }
+        favoritesRemoved(existing);
+    }
+
+    // 즐겨찾기 해제를 비트맵과 다른 메모리 인덱스에 반영
+    private void favoritesRemoved(List<Integer> recipeIds) {
+        favorites.setAll(recipeIds, false);
+        for (int recipeId : recipeIds) {
+            notifier.fireFavoriteChanged(recipeId, false);
+        }
+    }
+
+    /**
+     * 레시피 id를 샤드별로 묶어 샤드마다 커넥션 하나, 트랜잭션 하나로 배치 실행 (실패하면 그 샤드는 롤백하고 예외 전달)
+     */
+    private void batchByShard(Collection<Integer> recipeIds, String sql, BatchBinder binder) throws SQLException {
+        for (Map.Entry<Integer, List<Integer>> group : locateAll(recipeIds).entrySet()) {
+            try (Connection conn = shards.getConnection(group.getKey());
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                conn.setAutoCommit(false);
+                try {
+                    for (int recipeId : group.getValue()) {
+                        binder.bind(pstmt, recipeId);
+                        pstmt.addBatch();
+                    }
+                    pstmt.executeBatch();
+                    conn.commit();
+                } catch (SQLException | RuntimeException e) {
+                    conn.rollback();
+                    throw e;
+                }
+            }
         }
     }
 
     /**
-     * 즐겨찾기 레시피 전체 조회 (JOIN)
+     * 즐겨찾기 레시피 전체 조회 (평점/메모/재료 포함, 추가한 순서의 역순)
+     * - 즐겨찾기/레시피/재료를 JOIN 한 번으로 읽고 같은 레시피의 연속 행을 하나로 묶음 (레시피마다 재료를 따로 조회하지 않음)
+     * - 읽은 결과로 즐겨찾기 비트맵도 맞춤 (다른 클라이언트가 바꾼 즐겨찾기 반영)
      */
     @Override
     public List<Recipe> findAllFavorites() {
-        List<Recipe> favorites = new ArrayList<>();
-        String sql = "SELECT r.* FROM recipes r " +
+        long stamp = versions.stamp(RECIPE_TABLES);
+        List<Recipe> cached = QUERY_CACHE.get("findAllFavorites", stamp);
+        if (cached != null) {
+            return copyAll(cached);
+        }
+        DatabaseConnection.ReadMark mark = dbConnection.markRead();
+        List<Recipe> favoriteList = new ArrayList<>();
+        String sql = "SELECT " + RECIPE_COLUMNS + ", f.rating, f.note, 1 AS is_favorite, f.created_at AS favorited_at, " +
+                    "ri.ingredient_name AS ri_name, ri.required_quantity AS ri_quantity " +
+                    "FROM recipes r " +
                     "JOIN favorite_recipes f ON r.id = f.recipe_id " +
-                    "ORDER BY f.created_at DESC";
-        try (Connection conn = dbConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            while (rs.next()) {
-                Recipe recipe = new Recipe();
-                recipe.setId(rs.getInt("id"));
-                recipe.setName(rs.getString("name"));
-                recipe.setInstructions(rs.getString("instructions"));
-                recipe.setFavorite(true);
-                favorites.add(recipe);
-            }
+                    "LEFT JOIN recipe_ingredients ri ON r.id = ri.recipe_id " +
+                    "ORDER BY f.created_at DESC, r.id";
+        long favoriteStamp = favorites.stamp();
+        BitSet favoriteIds = new BitSet();
+        try {
+            shards.scatterGather((conn, sink) -> {
+                try (Statement stmt = conn.createStatement();
+                     ResultSet rs = stmt.executeQuery(sql)) {
+                    FavoriteRow current = null;
+                    while (rs.next()) {
+                        if (current == null || current.recipe.getId() != rs.getInt("id")) {
+                            if (current != null) sink.accept(current);
+                            current = new FavoriteRow(rs.getTimestamp("favorited_at"), readRecipe(rs));
+                        }
+                        String ingredientName = rs.getString("ri_name");
+                        if (ingredientName != null) {
+                            current.recipe.addIngredientNameAndQuantity(ingredientName, rs.getInt("ri_quantity"));
+                        }
+                    }
+                    if (current != null) sink.accept(current);
+                }
+            }, FAVORITE_ORDER, row -> {
+                favoriteList.add(row.recipe);
+                favoriteIds.set(row.recipe.getId());
+            });
         } catch (SQLException e) {
+            if (DatabaseConnection.isConnectionFailure(e) && snapshot.isLoaded()) {
+                List<Recipe> fromSnapshot = new ArrayList<>();
+                for (Recipe recipe : snapshot.getRecipes()) {
+                    if (recipe.isFavorite()) fromSnapshot.add(recipe);
+                }
+                return fromSnapshot;
+            }
             throw new RuntimeException("즐겨찾기 목록 조회 중 오류 발생", e);
         }
-        return favorites;
+        favorites.replace(favoriteIds, favoriteStamp);
+        if (mark.isCacheable()) {
+            QUERY_CACHE.put("findAllFavorites", stamp, copyAll(favoriteList), Math.max(1, favoriteList.size()));
+        }
+        return favoriteList;
     }
 
     /**
-     * 해당 레시피가 즐겨찾기인지 여부 확인
+     * 해당 레시피가 즐겨찾기인지 여부 확인 (메모리 비트맵, 처음 한 번만 DB에서 채움)
      */
     @Override
     public boolean isFavorite(int recipeId) {
-        String sql = "SELECT 1 FROM favorite_recipes WHERE recipe_id = ?";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setInt(1, recipeId);
-            try (ResultSet rs = pstmt.executeQuery()) {
-                return rs.next();
+        ensureFavoritesLoaded();
+        return favorites.contains(recipeId);
+    }
+
+    /**
+     * 즐겨찾기 레시피 수 (메모리 비트맵)
+     */
+    @Override
+    public int getFavoriteCount() {
+        ensureFavoritesLoaded();
+        return favorites.size();
+    }
+
+    /**
+     * 재료를 쓰는 레시피 (메모리 역인덱스, 처음 한 번만 전체 레시피를 읽어 채움)
+     * - 이름과 그 재료의 필요 수량만 채운 Recipe를 id 순으로 돌려줌
+     */
+    @Override
+    public List<Recipe> findRecipesUsing(String ingredientName) {
+        return usage().find(ingredientName);
+    }
+
+    /**
+     * 재료 이름별 사용 레시피 수 (메모리 역인덱스)
+     */
+    @Override
+    public Map<String, Integer> findIngredientUsageCounts() {
+        return usage().usageCounts();
+    }
+
+    /**
+     * 재료 역인덱스를 미리 채움 (시작 시 백그라운드에서 호출해 첫 조회가 전체 목록을 읽지 않게 함)
+     */
+    @Override
+    public void loadUsageIndex() {
+        usage();
+    }
+
+    /**
+     * 비슷한 재료 이름을 targetName 하나로 합침
+     * - 재고(ingredients): 합칠 재료 행을 잠그고 보유 수량을 더한 뒤 로트를 옮기고 삭제 (target 행이 없으면 첫 재료의 이름을 바꿔 사용)
+     *   단가는 target 단가가 없을 때만 합칠 재료의 단가를 가져옴
+     * - 레시피(recipe_ingredients): 같은 레시피에 target이 있으면 수량을 더하고, 없으면 이름만 바꿈 (합칠 이름마다 세 문장)
+     * - 샤드가 하나면 전부 한 트랜잭션, 여러 개면 재고 트랜잭션 후 샤드마다 한 트랜잭션
+     * - 샤드 일부가 실패해도 나머지 샤드는 계속 처리하고 끝에 MergeIncompleteException으로 남은 샤드를 알림
+     *   (이름 변경은 다시 실행해도 안전하므로 같은 합치기를 다시 부르면 남은 샤드만 바뀜)
+     * - 바뀐 레시피는 샤드마다 IN 조회로 한꺼번에 다시 읽어 역인덱스와 다른 인덱스에 알림
+     */
+    @Override
+    public void mergeIngredients(Collection<String> sourceNames, String targetName) {
+        List<String> sources = new ArrayList<>(new LinkedHashSet<>(sourceNames));
+        sources.remove(targetName);
+        if (sources.isEmpty()) return;
+        int[] affected = usage().recipesUsingAny(sources);
+        String lockSql = "SELECT id, name, available_quantity, unit_price FROM ingredients WHERE name IN ("
+            + String.join(", ", Collections.nCopies(sources.size() + 1, "?")) + ") FOR UPDATE";
+        String renameSql = "UPDATE ingredients SET name = ? WHERE id = ?";
+        String totalSql = "UPDATE ingredients SET available_quantity = ?, unit_price = ? WHERE id = ?";
+        String deleteSql = "DELETE FROM ingredients WHERE id = ?";
+        Ingredient target = null;
+        List<Integer> removedIds = new ArrayList<>();
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                Map<String, Ingredient> locked = new HashMap<>();
+                try (PreparedStatement lock = conn.prepareStatement(lockSql)) {
+                    lock.setString(1, targetName);
+                    for (int i = 0; i < sources.size(); i++) {
+                        lock.setString(i + 2, sources.get(i));
+                    }
+                    try (ResultSet rs = lock.executeQuery()) {
+                        while (rs.next()) {
+                            Ingredient ingredient = new Ingredient(rs.getString("name"), rs.getInt("available_quantity"));
+                            ingredient.setId(rs.getInt("id"));
+                            ingredient.setUnitPrice(rs.getLong("unit_price"));
+                            locked.put(ingredient.getName(), ingredient);
+                        }
+                    }
+                }
+                List<Ingredient> merged = new ArrayList<>();
+                for (String source : sources) {
+                    if (locked.containsKey(source)) merged.add(locked.get(source));
+                }
+                target = locked.get(targetName);
+                if (target == null && !merged.isEmpty()) {
+                    target = merged.remove(0);
+                    try (PreparedStatement rename = conn.prepareStatement(renameSql)) {
+                        rename.setString(1, targetName);
+                        rename.setInt(2, target.getId());
+                        rename.executeUpdate();
+                    }
+                    target.setName(targetName);
+                }
+                if (!merged.isEmpty()) {
+                    long quantity = target.getAvailableQuantity();
+                    long unitPrice = target.getUnitPrice();
+                    for (Ingredient ingredient : merged) {
+                        quantity += ingredient.getAvailableQuantity();
+                        if (unitPrice == 0) unitPrice = ingredient.getUnitPrice();
+                        removedIds.add(ingredient.getId());
+                    }
+                    ingredientLotDAO.moveLots(conn, removedIds, target.getId());
+                    try (PreparedStatement delete = conn.prepareStatement(deleteSql)) {
+                        for (int id : removedIds) {
+                            delete.setInt(1, id);
+                            delete.addBatch();
+                        }
+                        delete.executeBatch();
+                    }
+                    try (PreparedStatement total = conn.prepareStatement(totalSql)) {
+                        total.setInt(1, Math.toIntExact(quantity));
+                        total.setLong(2, unitPrice);
+                        total.setInt(3, target.getId());
+                        total.executeUpdate();
+                    }
+                    target.setAvailableQuantity((int) quantity);
+                    target.setUnitPrice(unitPrice);
+                }
+                if (!shards.isSharded()) {
+                    renameRecipeIngredients(conn, sources, targetName);
+                }
+                conn.commit();
+                versions.bump("ingredients", "recipe_ingredients");
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException | ArithmeticException e) {
+            throw new RuntimeException("재료 합치기 중 오류 발생", e);
+        }
+        List<Integer> pendingShards = new ArrayList<>();
+        Exception shardFailure = null;
+        if (shards.isSharded()) {
+            for (int shard = 0; shard < shards.getShardCount(); shard++) {
+                try (Connection conn = shards.getConnection(shard)) {
+                    conn.setAutoCommit(false);
+                    try {
+                        renameRecipeIngredients(conn, sources, targetName);
+                        conn.commit();
+                    } catch (SQLException | RuntimeException e) {
+                        conn.rollback();
+                        throw e;
+                    }
+                } catch (SQLException | RuntimeException e) {
+                    // 나머지 샤드는 계속 처리하고 끝에 알림
+                    pendingShards.add(shard);
+                    if (shardFailure == null) shardFailure = e;
+                }
+            }
+            if (pendingShards.size() < shards.getShardCount()) {
+                versions.bump("recipe_ingredients");
             }
+        }
+        for (int id : removedIds) {
+            notifier.fireIngredientDeleted(id);
+        }
+        if (target != null) {
+            notifier.fireIngredientSaved(target);
+            if (target.getUnitPrice() != 0) {
+                notifier.fireIngredientPriced(target.getId(), target.getName(), target.getUnitPrice());
+            }
+        }
+        IngredientDictionary dictionary = IngredientDictionary.getInstance();
+        List<Integer> affectedIds = new ArrayList<>(affected.length);
+        for (int recipeId : affected) {
+            affectedIds.add(recipeId);
+        }
+        List<Recipe> reread;
+        try {
+            reread = findAllByIdWithoutInstructions(affectedIds);
         } catch (SQLException e) {
-            throw new RuntimeException("즐겨찾기 상태 확인 중 오류 발생", e);
+            throw new RuntimeException("합친 레시피 다시 읽기 중 오류 발생", e);
+        }
+        for (Recipe recipe : reread) {
+            usageIndex.put(CompactRecipe.from(recipe, dictionary));
+            notifier.fireRecipeSaved(recipe);
+        }
+        if (!pendingShards.isEmpty()) {
+            throw new MergeIncompleteException(pendingShards, shardFailure);
+        }
+    }
+
+    /**
+     * 여러 레시피를 조리 방법 없이 다시 읽음 (재료/즐겨찾기 포함, 없는 id는 빠짐)
+     * - 행이 있는 샤드별로 묶어 LOCATE_PAGE개씩 IN 조회 한 번으로 읽음 (레시피마다 조회하지 않음)
+     */
+    private List<Recipe> findAllByIdWithoutInstructions(Collection<Integer> recipeIds) throws SQLException {
+        List<Recipe> recipes = new ArrayList<>();
+        if (recipeIds.isEmpty()) return recipes;
+        for (Map.Entry<Integer, List<Integer>> group : locateAll(recipeIds).entrySet()) {
+            List<Integer> ids = group.getValue();
+            try (Connection conn = shards.getReadConnection(group.getKey())) {
+                for (int from = 0; from < ids.size(); from += LOCATE_PAGE) {
+                    List<Integer> page = ids.subList(from, Math.min(ids.size(), from + LOCATE_PAGE));
+                    String sql = "SELECT " + RECIPE_COLUMNS + ", f.rating, f.note, CASE WHEN f.recipe_id IS NOT NULL THEN 1 ELSE 0 END as is_favorite, " +
+                                "ri.ingredient_name AS ri_name, ri.required_quantity AS ri_quantity " +
+                                "FROM recipes r " +
+                                "LEFT JOIN favorite_recipes f ON r.id = f.recipe_id " +
+                                "LEFT JOIN recipe_ingredients ri ON r.id = ri.recipe_id " +
+                                "WHERE r.id IN (" + String.join(", ", Collections.nCopies(page.size(), "?")) + ") ORDER BY r.id";
+                    try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                        for (int i = 0; i < page.size(); i++) {
+                            pstmt.setInt(i + 1, page.get(i));
+                        }
+                        try (ResultSet rs = pstmt.executeQuery()) {
+                            Recipe current = null;
+                            while (rs.next()) {
+                                if (current == null || current.getId() != rs.getInt("id")) {
+                                    current = readRecipe(rs);
+                                    recipes.add(current);
+                                }
+                                String ingredientName = rs.getString("ri_name");
+                                if (ingredientName != null) {
+                                    current.addIngredientNameAndQuantity(ingredientName, rs.getInt("ri_quantity"));
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return recipes;
+    }
+
+    /**
+     * recipe_ingredients의 재료 이름 변경 (같은 레시피에 target이 이미 있으면 수량 합산)
+     * - 합칠 이름마다 차례로: target이 있는 레시피는 수량을 더하고 원래 행을 지운 뒤, 나머지 레시피는 이름만 바꿈
+     * - 이름 비교는 BINARY로 해서 콜레이션상 같은 이름("양파"와 "양파 ")끼리 섞이지 않게 하고,
+     *   그런 이름은 한 레시피에 함께 있을 수 없으므로 마지막 이름 변경이 키 충돌 없이 처리됨
+     */
+    private static void renameRecipeIngredients(Connection conn, List<String> sources, String targetName) throws SQLException {
+        String addSql = "UPDATE recipe_ingredients tgt JOIN recipe_ingredients src " +
+                    "ON src.recipe_id = tgt.recipe_id AND BINARY src.ingredient_name = ? " +
+                    "SET tgt.required_quantity = tgt.required_quantity + src.required_quantity WHERE BINARY tgt.ingredient_name = ?";
+        String dropSql = "DELETE src FROM recipe_ingredients src JOIN recipe_ingredients tgt " +
+                    "ON tgt.recipe_id = src.recipe_id AND BINARY tgt.ingredient_name = ? WHERE BINARY src.ingredient_name = ?";
+        String renameSql = "UPDATE recipe_ingredients SET ingredient_name = ? WHERE BINARY ingredient_name = ?";
+        try (PreparedStatement add = conn.prepareStatement(addSql);
+             PreparedStatement drop = conn.prepareStatement(dropSql);
+             PreparedStatement rename = conn.prepareStatement(renameSql)) {
+            // 앞 재료의 이름 변경으로 생긴 target 행에 다음 재료의 수량을 더해야 하므로 재료 하나씩 세 문장을 차례로 실행
+            // (문장별 배치로 모아 보내면 target 없이 두 재료를 쓰는 레시피에서 두 번째 이름 변경이 키 충돌)
+            for (String source : sources) {
+                add.setString(1, source);
+                add.setString(2, targetName);
+                add.executeUpdate();
+                drop.setString(1, targetName);
+                drop.setString(2, source);
+                drop.executeUpdate();
+                rename.setString(1, targetName);
+                rename.setString(2, source);
+                rename.executeUpdate();
+            }
+        }
+    }
+
+    /**
+     * 조회에 쓸 재료 역인덱스 - 비어 있으면 전체 레시피를 압축 모델로 읽어 채우고 백그라운드 검증 시작
+     * - 읽는 사이 레시피 쓰기가 있으면 버려지므로 몇 번 다시 시도하고, 그래도 채우지 못하면
+     *   마지막으로 읽은 목록으로 만든 일회용 인덱스로 이번 조회에 답함 (예외를 던지지 않음)
+     */
+    private RecipeUsageIndex usage() {
+        List<CompactRecipe> all = null;
+        for (int attempt = 0; attempt < 3 && !usageIndex.isLoaded(); attempt++) {
+            long stamp = usageIndex.stamp();
+            all = findAllCompact();
+            usageIndex.replace(all, stamp);
+        }
+        if (!usageIndex.isLoaded()) {
+            return RecipeUsageIndex.of(all);
+        }
+        usageIndex.startVerifier(this::readAllCompact, USAGE_VERIFY_MILLIS);
+        return usageIndex;
+    }
+
+    /** 재료 역인덱스 지표 (레시피 수, 검증 횟수, DB 기준으로 고친 수) */
+    public static String getUsageIndexStats() {
+        return RecipeUsageIndex.getInstance().getStats();
+    }
+
+    /**
+     * 즐겨찾기 비트맵이 비어 있으면 recipe_id만 읽어 채움
+     * - 읽는 사이 즐겨찾기 쓰기가 있으면 버려지므로 몇 번 다시 시도 (그래도 안 되면 지금까지 반영된 쓰기만으로 판단)
+     */
+    private void ensureFavoritesLoaded() {
+        String sql = "SELECT recipe_id FROM favorite_recipes ORDER BY recipe_id";
+        for (int attempt = 0; attempt < 3 && !favorites.isLoaded(); attempt++) {
+            long stamp = favorites.stamp();
+            BitSet ids = new BitSet();
+            try {
+                shards.scatterGather((conn, sink) -> {
+                    try (Statement stmt = conn.createStatement();
+                         ResultSet rs = stmt.executeQuery(sql)) {
+                        while (rs.next()) {
+                            sink.accept(rs.getInt("recipe_id"));
+                        }
+                    }
+                }, Comparator.<Integer>naturalOrder(), ids::set);
+            } catch (SQLException e) {
+                if (!DatabaseConnection.isConnectionFailure(e) || !snapshot.isLoaded()) {
+                    throw new RuntimeException("즐겨찾기 상태 확인 중 오류 발생", e);
+                }
+                for (Recipe recipe : snapshot.getRecipes()) {
+                    if (recipe.isFavorite()) ids.set(recipe.getId());
+                }
+            }
+            favorites.replace(ids, stamp);
+        }
+    }
+
+    // favorite_recipes CHECK 제약(1~5)에 맞춘 평점 (범위를 벗어나면 1)
+    private static int validRating(int rating) {
+        return rating < 1 || rating > 5 ? 1 : rating;
+    }
+
+    /**
+     * 레시피 행이 있는 샤드 번호
+     * - 보통은 해시된 샤드이고, 재배치 중 이미 옮겨진 행이면 다른 샤드를 찾아봄 (어디에도 없으면 해시된 샤드)
+     */
+    private int locate(int recipeId) throws SQLException {
+        int home = shards.shardOf(recipeId);
+        if (!shards.isSharded()) return home;
+        String sql = "SELECT 1 FROM recipes WHERE id = ?";
+        for (int i = 0; i < shards.getShardCount(); i++) {
+            int shard = (home + i) % shards.getShardCount();
+            try (Connection conn = shards.getConnection(shard);
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setInt(1, recipeId);
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    if (rs.next()) return shard;
+                }
+            }
+        }
+        return home;
+    }
+
+    /**
+     * 여러 레시피를 행이 있는 샤드 번호별로 묶음
+     * - 샤드가 하나면 조회 없이 묶고, 재배치 중이면 샤드마다 IN 조회로 위치를 확인 (양쪽에 있으면 해시된 샤드, 어디에도 없으면 해시된 샤드)
+     */
+    private Map<Integer, List<Integer>> locateAll(Collection<Integer> recipeIds) throws SQLException {
+        Map<Integer, Integer> located = new HashMap<>();
+        if (shards.isSharded()) {
+            List<Integer> ids = new ArrayList<>(recipeIds);
+            for (int shard = 0; shard < shards.getShardCount(); shard++) {
+                try (Connection conn = shards.getConnection(shard)) {
+                    for (int from = 0; from < ids.size(); from += LOCATE_PAGE) {
+                        List<Integer> page = ids.subList(from, Math.min(ids.size(), from + LOCATE_PAGE));
+                        String sql = "SELECT id FROM recipes WHERE id IN (" + String.join(", ", Collections.nCopies(page.size(), "?")) + ")";
+                        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                            for (int i = 0; i < page.size(); i++) {
+                                pstmt.setInt(i + 1, page.get(i));
+                            }
+                            try (ResultSet rs = pstmt.executeQuery()) {
+                                while (rs.next()) {
+                                    int id = rs.getInt("id");
+                                    if (!located.containsKey(id) || shard == shards.shardOf(id)) located.put(id, shard);
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+        for (int recipeId : recipeIds) {
+            int shard = located.getOrDefault(recipeId, shards.shardOf(recipeId));
+            groups.computeIfAbsent(shard, key -> new ArrayList<>()).add(recipeId);
+        }
+        return groups;
+    }
+
+    /**
+     * 조회 결과 현재 행을 레시피로 변환 (즐겨찾기 정보 포함, 재료 목록/조리 방법 제외)
+     */
+    private static Recipe readRecipe(ResultSet rs) throws SQLException {
+        Recipe recipe = new Recipe();
+        recipe.setId(rs.getInt("id"));
+        recipe.setName(rs.getString("name"));
+        recipe.setFavorite(rs.getBoolean("is_favorite"));
+        int rating = rs.getInt("rating");
+        if (rating >= 1 && rating <= 5) {
+            recipe.setRating(rating);
+        }
+        recipe.setLastCookedAt(rs.getTimestamp("last_cooked_at"));
+        recipe.setNote(rs.getString("note"));
+        return recipe;
+    }
+
+    /**
+     * 레시피 목록 복사 (캐시에 보관한 객체를 호출자와 공유하지 않기 위함)
+     */
+    private static List<Recipe> copyAll(List<Recipe> recipes) {
+        List<Recipe> copies = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes) {
+            copies.add(recipe.copy());
         }
+        return copies;
     }
 
     /**
@@ -314,13 +1327,149 @@ public class RecipeDAOImpl implements RecipeDAO {
     @Override
     public void updateLastCookedAt(int recipeId, java.sql.Timestamp lastCookedAt) {
         String sql = "UPDATE recipes SET last_cooked_at = ? WHERE id = ?";
-        try (Connection conn = dbConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            pstmt.setTimestamp(1, lastCookedAt);
-            pstmt.setInt(2, recipeId);
-            pstmt.executeUpdate();
+        writeRecipe("마지막 요리 일자 갱신", recipeId, target -> {
+            try (Connection conn = shards.getConnection(locate(target));
+                 PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                pstmt.setTimestamp(1, lastCookedAt);
+                pstmt.setInt(2, target);
+                pstmt.executeUpdate();
+            }
+            versions.bump("recipes");
+        }, () -> snapshot.updateRecipe(recipeId, r -> r.setLastCookedAt(lastCookedAt)),
+            target -> notifier.fireRecipeCooked(target, lastCookedAt));
+    }
+
+    /**
+     * 요리하기 (한 트랜잭션)
+     * - 재료 행을 id 순서로 한꺼번에 잠근 뒤(SELECT ... ORDER BY id FOR UPDATE) 재고를 확인하고, 부족하면 롤백 후 IllegalStateException
+     * - 각 재료는 유통기한이 빠른 로트부터 차감하고 보유 수량 집계값도 함께 감소
+     * - 요리 기록(차감 내역 포함)을 남기고 집계를 증가시킨 뒤, 마지막 요리 일자까지 갱신하고 커밋
+     * - 레시피를 여러 샤드에 나눠 저장 중이면 레시피 행이 주 DB에 없으므로 마지막 요리 일자는 커밋 후 샤드에 따로 갱신
+     * - 로트 인덱스가 DB와 어긋나 있으면(다른 클라이언트의 입고/차감) 인덱스를 다시 읽어 한 번 더 시도
+     * - 재고 확인이 DB 잠금에 달려 있어 오프라인 대기열에 넣지 않음: DB에 연결할 수 없거나
+     *   아직 반영되지 않은 오프라인 작업이 있으면 화면에 보여 줄 수 있는 메시지로 RuntimeException
+     */
+    @Override
+    public void cook(int recipeId, Map<String, Integer> deductions, Timestamp cookedAt) {
+        if (offlineWrites.hasPending()) {
+            throw new RuntimeException("오프라인 중 저장한 작업이 아직 DB에 반영되지 않아 지금은 요리할 수 없습니다.\n"
+                + "연결이 복구되어 반영된 뒤 다시 시도해 주세요.");
+        }
+        List<Ingredient> updated;
+        try {
+            try {
+                updated = cookOnce(recipeId, deductions, cookedAt);
+            } catch (IngredientLotDAO.StaleLotsException e) {
+                // 인덱스는 무효화되었으므로 다시 시도하면 DB에서 로트를 새로 읽음
+                updated = cookOnce(recipeId, deductions, cookedAt);
+            }
         } catch (SQLException e) {
-            throw new RuntimeException("마지막 요리 일자 갱신 중 오류 발생", e);
+            if (DatabaseConnection.isConnectionFailure(e)) {
+                throw new RuntimeException("DB에 연결할 수 없어 요리하지 못했습니다.\n연결이 복구된 뒤 다시 시도해 주세요.", e);
+            }
+            throw new RuntimeException("요리하기 중 오류 발생", e);
+        }
+        if (shards.isSharded()) {
+            String cookedSql = "UPDATE recipes SET last_cooked_at = ? WHERE id = ?";
+            try (Connection conn = shards.getConnection(locate(recipeId));
+                 PreparedStatement cooked = conn.prepareStatement(cookedSql)) {
+                cooked.setTimestamp(1, cookedAt);
+                cooked.setInt(2, recipeId);
+                cooked.executeUpdate();
+            } catch (SQLException e) {
+                throw new RuntimeException("마지막 요리 일자 갱신 중 오류 발생", e);
+            }
+            versions.bump("recipes");
+        }
+        for (Ingredient ingredient : updated) {
+            notifier.fireIngredientSaved(ingredient);
+        }
+        notifier.fireRecipeCooked(recipeId, cookedAt);
+    }
+
+    /**
+     * 요리하기 트랜잭션 한 번 (커밋하면 로트 인덱스를 확정하고 재고가 바뀐 재료를 돌려줌, 실패하면 롤백 후 예외 전달)
+     * - 필요한 재료 행은 IN 조회 한 번으로 id 순서대로 잠금 (호출자 Map 순서로 잠그면 동시에 요리할 때 교착 가능)
+     * - 이후 로트/보유 수량 차감도 같은 id 순서로 진행
+     */
+    private List<Ingredient> cookOnce(int recipeId, Map<String, Integer> deductions, Timestamp cookedAt) throws SQLException {
+        String totalSql = "UPDATE ingredients SET available_quantity = available_quantity - ? WHERE id = ?";
+        String cookedSql = "UPDATE recipes SET last_cooked_at = ? WHERE id = ?";
+        List<IngredientLotDAO.PendingDeduction> pending = new ArrayList<>();
+        List<Ingredient> updated = new ArrayList<>();
+        List<Integer> requiredQuantities = new ArrayList<>();
+        try (Connection conn = dbConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                // 잠근 행이 없는 이름은 끝까지 남아 부족한 재료로 보고됨
+                Map<String, Integer> unlocked = new TreeMap<>(deductions);
+                List<String> missing = new ArrayList<>();
+                if (!unlocked.isEmpty()) {
+                    String lockSql = "SELECT id, name, available_quantity FROM ingredients WHERE name IN ("
+                        + String.join(", ", Collections.nCopies(unlocked.size(), "?")) + ") ORDER BY id FOR UPDATE";
+                    try (PreparedStatement lock = conn.prepareStatement(lockSql)) {
+                        int index = 1;
+                        for (String name : unlocked.keySet()) {
+                            lock.setString(index++, name);
+                        }
+                        try (ResultSet rs = lock.executeQuery()) {
+                            while (rs.next()) {
+                                String name = rs.getString("name");
+                                Integer required = unlocked.remove(name);
+                                if (required == null) continue;
+                                int available = rs.getInt("available_quantity");
+                                if (available < required) {
+                                    missing.add(String.format("%s (%d개 부족)", name, required - available));
+                                    continue;
+                                }
+                                Ingredient ingredient = new Ingredient(name, available - required);
+                                ingredient.setId(rs.getInt("id"));
+                                updated.add(ingredient);
+                                requiredQuantities.add(required);
+                            }
+                        }
+                    }
+                }
+                for (Map.Entry<String, Integer> entry : unlocked.entrySet()) {
+                    missing.add(String.format("%s (%d개 부족)", entry.getKey(), entry.getValue()));
+                }
+                if (!missing.isEmpty()) {
+                    // 롤백은 아래 catch에서 한 번만
+                    throw new IllegalStateException("다음 재료가 부족합니다:\n" + String.join("\n", missing));
+                }
+                Map<String, Integer> deducted = new LinkedHashMap<>();
+                try (PreparedStatement total = conn.prepareStatement(totalSql)) {
+                    for (int i = 0; i < updated.size(); i++) {
+                        Ingredient ingredient = updated.get(i);
+                        int required = requiredQuantities.get(i);
+                        pending.add(ingredientLotDAO.deductOldestFirst(conn, ingredient.getId(), required));
+                        total.setInt(1, required);
+                        total.setInt(2, ingredient.getId());
+                        total.executeUpdate();
+                        deducted.merge(ingredient.getName(), required, Integer::sum);
+                    }
+                }
+                cookingHistoryDAO.recordCook(conn, recipeId, cookedAt, deducted);
+                if (!shards.isSharded()) {
+                    try (PreparedStatement cooked = conn.prepareStatement(cookedSql)) {
+                        cooked.setTimestamp(1, cookedAt);
+                        cooked.setInt(2, recipeId);
+                        cooked.executeUpdate();
+                    }
+                }
+                conn.commit();
+                versions.bump("recipes", "ingredients");
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                for (IngredientLotDAO.PendingDeduction deduction : pending) {
+                    deduction.rolledBack();
+                }
+                throw e;
+            }
+        }
+        for (IngredientLotDAO.PendingDeduction deduction : pending) {
+            deduction.committed();
         }
+        return updated;
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,276 @@
+package com.example.dao.impl;
+
+import com.example.db.DbScheduler;
+import com.example.db.TableVersions;
+import com.example.model.CompactRecipe;
+import com.example.model.IngredientDictionary;
+import com.example.model.IngredientUsageIndex;
+import com.example.model.Recipe;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RecipeUsageIndex
+ * - 재료 이름 → 그 재료를 쓰는 레시피 역인덱스 (싱글톤, RecipeDAOImpl 전용)
+ * - 시작할 때 백그라운드에서(또는 처음 조회할 때) 전체 레시피를 압축 모델로 한 번 읽어 채우고,
+ *   이후 레시피 쓰기(재료 추가/제거 포함)는 DAO가 바로 반영하므로 "양파를 쓰는 레시피"를 recipe_ingredients 검색 없이 메모리에서 답함
+ * - 역인덱스는 IngredientUsageIndex를 레시피 id 슬롯으로 사용
+ * - 다른 클라이언트가 바꾼 내용을 놓치지 않도록 백그라운드에서 주기적으로 DB와 비교하고,
+ *   비교하는 동안 이 프로세스의 쓰기가 없었을 때만(테이블 버전이 같을 때만) 다른 부분을 DB 기준으로 고침
+ * - 검증 결과와 실패는 getStats()로 보여줌
+ */
+final class RecipeUsageIndex {
+    private static final String[] TABLES = {"recipes", "recipe_ingredients"};
+    private static RecipeUsageIndex instance;
+
+    /**
+     * 백그라운드 검증에서 DB의 전체 레시피를 읽는 방법 (연결 실패 등은 SQLException 등으로 던짐)
+     */
+    interface Source {
+        List<CompactRecipe> read() throws Exception;
+    }
+
+    private final TableVersions versions = TableVersions.getInstance();
+    private final IngredientDictionary dictionary = IngredientDictionary.getInstance();
+    private final Map<Integer, CompactRecipe> recipes = new HashMap<>();
+    private final IngredientUsageIndex usage = new IngredientUsageIndex();
+    private boolean loaded;
+    private ScheduledExecutorService verifier;
+    // 검증 지표
+    private long verifications;
+    private long repairs;
+    private long lastVerifiedAt;
+    private String lastError;
+
+    private RecipeUsageIndex() {}
+
+    /**
+     * 읽은 목록으로 채운 일회용 인덱스 (싱글톤을 채우지 못했을 때 그 조회에만 사용, 쓰기/검증은 반영하지 않음)
+     */
+    static RecipeUsageIndex of(List<CompactRecipe> all) {
+        RecipeUsageIndex index = new RecipeUsageIndex();
+        index.rebuild(all);
+        index.loaded = true;
+        return index;
+    }
+
+    static synchronized RecipeUsageIndex getInstance() {
+        if (instance == null) {
+            instance = new RecipeUsageIndex();
+        }
+        return instance;
+    }
+
+    /** 전체 목록을 한 번이라도 읽어 채웠는지 여부 */
+    synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /** recipes/recipe_ingredients 테이블 버전 (전체 목록을 읽기 전에 받아 두고 replace/reconcile에 넘김) */
+    long stamp() {
+        return versions.stamp(TABLES);
+    }
+
+    /**
+     * 재료를 쓰는 레시피 (id 순, 이름과 그 재료의 필요 수량만 채운 Recipe)
+     */
+    synchronized List<Recipe> find(String ingredientName) {
+        int dictId = dictionary.idOf(ingredientName);
+        if (dictId < 0) return new ArrayList<>();
+        int[] recipeIds = usage.slotsOf(dictId);
+        Arrays.sort(recipeIds);
+        List<Recipe> result = new ArrayList<>(recipeIds.length);
+        for (int recipeId : recipeIds) {
+            CompactRecipe compact = recipes.get(recipeId);
+            Recipe recipe = new Recipe();
+            recipe.setId(recipeId);
+            recipe.setName(compact.getName());
+            recipe.addIngredientNameAndQuantity(ingredientName, compact.getRequiredQuantity(dictId));
+            result.add(recipe);
+        }
+        return result;
+    }
+
+    /** 재료를 쓰는 레시피 수 */
+    synchronized int count(String ingredientName) {
+        return usage.count(dictionary.idOf(ingredientName));
+    }
+
+    /** 재료 이름별 사용 레시피 수 (한 레시피라도 쓰는 재료만) */
+    synchronized Map<String, Integer> usageCounts() {
+        Map<String, Integer> counts = new HashMap<>();
+        for (int dictId = 0; dictId < dictionary.size(); dictId++) {
+            int count = usage.count(dictId);
+            if (count > 0) counts.put(dictionary.nameOf(dictId), count);
+        }
+        return counts;
+    }
+
+    /** 여러 재료 중 하나라도 쓰는 레시피 id (id 순) */
+    synchronized int[] recipesUsingAny(Collection<String> ingredientNames) {
+        Set<Integer> recipeIds = new TreeSet<>();
+        for (String name : ingredientNames) {
+            usage.forEach(dictionary.idOf(name), recipeIds::add);
+        }
+        return recipeIds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /** 레시피 저장 반영 (같은 id가 있으면 교체) */
+    synchronized void put(CompactRecipe recipe) {
+        if (!loaded) return;
+        CompactRecipe previous = recipes.put(recipe.getId(), recipe);
+        if (previous != null) usage.remove(previous.getId(), previous);
+        usage.add(recipe.getId(), recipe);
+    }
+
+    /** 레시피 이름 변경 반영 (재료 목록은 그대로) */
+    synchronized void rename(int recipeId, String name) {
+        CompactRecipe recipe = recipes.get(recipeId);
+        if (recipe != null) recipes.put(recipeId, recipe.withName(name));
+    }
+
+    /** 레시피에 재료 추가 반영 (이미 있으면 수량 교체) */
+    synchronized void addIngredient(int recipeId, String ingredientName, int quantity) {
+        CompactRecipe recipe = recipes.get(recipeId);
+        if (recipe == null) return;
+        int dictId = dictionary.intern(ingredientName);
+        int n = recipe.getIngredientCount();
+        int[] ids = new int[n + 1];
+        int[] quantities = new int[n + 1];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (recipe.getIngredientId(i) == dictId) continue;
+            ids[size] = recipe.getIngredientId(i);
+            quantities[size++] = recipe.getQuantity(i);
+        }
+        ids[size] = dictId;
+        quantities[size++] = quantity;
+        put(withIngredients(recipe, Arrays.copyOf(ids, size), Arrays.copyOf(quantities, size)));
+    }
+
+    /** 레시피에서 재료 제거 반영 */
+    synchronized void removeIngredient(int recipeId, String ingredientName) {
+        CompactRecipe recipe = recipes.get(recipeId);
+        int dictId = dictionary.idOf(ingredientName);
+        if (recipe == null || dictId < 0) return;
+        int n = recipe.getIngredientCount();
+        int[] ids = new int[n];
+        int[] quantities = new int[n];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (recipe.getIngredientId(i) == dictId) continue;
+            ids[size] = recipe.getIngredientId(i);
+            quantities[size++] = recipe.getQuantity(i);
+        }
+        if (size == n) return;
+        put(withIngredients(recipe, Arrays.copyOf(ids, size), Arrays.copyOf(quantities, size)));
+    }
+
+    private static CompactRecipe withIngredients(CompactRecipe recipe, int[] ids, int[] quantities) {
+        return new CompactRecipe(recipe.getId(), recipe.getName(), ids, quantities,
+            recipe.getLastCookedAtMillis(), recipe.getRating(), recipe.isFavorite(), recipe.getNote());
+    }
+
+    /** 레시피 삭제 반영 */
+    synchronized void remove(int recipeId) {
+        CompactRecipe previous = recipes.remove(recipeId);
+        if (previous != null) usage.remove(recipeId, previous);
+    }
+
+    /**
+     * DB에서 읽은 전체 목록으로 교체 (stamp 이후 레시피 쓰기가 있었으면 버림)
+     */
+    synchronized void replace(List<CompactRecipe> all, long stamp) {
+        if (stamp() != stamp) return;
+        rebuild(all);
+        loaded = true;
+    }
+
+    /**
+     * DB에서 읽은 전체 목록과 비교해 다른 레시피 수를 돌려주고, 다르면 DB 기준으로 다시 구성
+     * - stamp 이후 레시피 쓰기가 있었으면 비교하지 않음 (-1)
+     */
+    synchronized int reconcile(List<CompactRecipe> all, long stamp) {
+        if (!loaded || stamp() != stamp) return -1;
+        int differences = 0;
+        int present = 0;
+        for (CompactRecipe fromDb : all) {
+            CompactRecipe mine = recipes.get(fromDb.getId());
+            if (mine != null) present++;
+            if (!sameContent(mine, fromDb)) differences++;
+        }
+        // 메모리에만 있는 레시피 (다른 곳에서 삭제됨)
+        differences += recipes.size() - present;
+        verifications++;
+        lastVerifiedAt = System.currentTimeMillis();
+        if (differences > 0) {
+            rebuild(all);
+            repairs += differences;
+        }
+        return differences;
+    }
+
+    /**
+     * 주기적인 DB 비교 시작 (처음 호출할 때 한 번만, 0 이하면 하지 않음)
+     */
+    @SuppressWarnings("try")
+    synchronized void startVerifier(Source source, long intervalMillis) {
+        if (verifier != null || intervalMillis <= 0) return;
+        verifier = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "recipe-usage-verifier");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        verifier.scheduleWithFixedDelay(() -> {
+            try (DbScheduler.Scope ignored = DbScheduler.withPriority(DbScheduler.Priority.BULK)) {
+                long stamp = stamp();
+                // 다르게 나온 수는 reconcile이 repairs에 더함
+                reconcile(source.read(), stamp);
+                synchronized (this) {
+                    lastError = null;
+                }
+            } catch (Exception e) {
+                // DB에 연결할 수 없으면 다음 주기에 다시 확인
+                synchronized (this) {
+                    lastError = "검증 실패: " + e.getMessage();
+                }
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** 지표 요약 */
+    synchronized String getStats() {
+        return String.format("재료 역인덱스: 레시피 %d개, 검증 %d회, DB 기준으로 고친 레시피 %d개%s%s", recipes.size(),
+            verifications, repairs, lastVerifiedAt == 0 ? "" : String.format(" (마지막 검증 %tT)", lastVerifiedAt),
+            lastError == null ? "" : " - " + lastError);
+    }
+
+    private void rebuild(List<CompactRecipe> all) {
+        recipes.clear();
+        usage.clear();
+        for (CompactRecipe recipe : all) {
+            recipes.put(recipe.getId(), recipe);
+            usage.add(recipe.getId(), recipe);
+        }
+    }
+
+    // 이름과 (재료, 수량) 목록이 같은지 (재료 배열은 사전 id 순으로 정렬되어 있음)
+    private static boolean sameContent(CompactRecipe a, CompactRecipe b) {
+        if (a == null || b == null) return a == b;
+        if (!a.getName().equals(b.getName()) || a.getIngredientCount() != b.getIngredientCount()) return false;
+        for (int i = 0; i < a.getIngredientCount(); i++) {
+            if (a.getIngredientId(i) != b.getIngredientId(i) || a.getQuantity(i) != b.getQuantity(i)) return false;
+        }
+        return true;
+    }
+}
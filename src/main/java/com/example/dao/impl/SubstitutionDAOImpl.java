@@ -0,0 +1,87 @@
+package com.example.dao.impl;
+
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.SubstitutionDAO;
+import com.example.db.DatabaseConnection;
+import com.example.model.Substitution;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SubstitutionDAOImpl
+ * - 대체 재료 저장/삭제/조회 구현체
+ * - 쓰기 후 DataChangeNotifier로 알려 대체 관계 그래프(SubstitutionGraph)가 필요한 부분만 다시 계산
+ */
+public class SubstitutionDAOImpl implements SubstitutionDAO {
+    private final DatabaseConnection dbConnection;
+    private final DataChangeNotifier notifier;
+
+    /**
+     * 생성자 - 싱글톤 DB 커넥션 초기화
+     */
+    public SubstitutionDAOImpl() {
+        this.dbConnection = DatabaseConnection.getInstance();
+        this.notifier = DataChangeNotifier.getInstance();
+    }
+
+    /**
+     * 대체 재료 저장 (INSERT ... ON DUPLICATE KEY UPDATE)
+     */
+    @Override
+    public void save(Substitution substitution) {
+        if (substitution.getIngredientName().equals(substitution.getSubstituteName())) {
+            throw new IllegalArgumentException("같은 재료를 대체 재료로 지정할 수 없습니다.");
+        }
+        String sql = "INSERT INTO ingredient_substitutions (ingredient_name, substitute_name, ratio) VALUES (?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE ratio = VALUES(ratio)";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, substitution.getIngredientName());
+            pstmt.setString(2, substitution.getSubstituteName());
+            pstmt.setDouble(3, substitution.getRatio());
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("대체 재료 저장 중 오류 발생", e);
+        }
+        notifier.fireSubstitutionSaved(substitution);
+    }
+
+    /**
+     * 대체 재료 삭제 (DELETE)
+     */
+    @Override
+    public void delete(String ingredientName, String substituteName) {
+        String sql = "DELETE FROM ingredient_substitutions WHERE ingredient_name = ? AND substitute_name = ?";
+        try (Connection conn = dbConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setString(1, ingredientName);
+            pstmt.setString(2, substituteName);
+            pstmt.executeUpdate();
+        } catch (SQLException e) {
+            throw new RuntimeException("대체 재료 삭제 중 오류 발생", e);
+        }
+        notifier.fireSubstitutionDeleted(ingredientName, substituteName);
+    }
+
+    /**
+     * 전체 대체 재료 목록 (재료 이름 순)
+     */
+    @Override
+    public List<Substitution> findAll() {
+        String sql = "SELECT ingredient_name, substitute_name, ratio FROM ingredient_substitutions " +
+                    "ORDER BY ingredient_name, substitute_name";
+        List<Substitution> substitutions = new ArrayList<>();
+        try (Connection conn = dbConnection.getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                substitutions.add(new Substitution(rs.getString("ingredient_name"),
+                    rs.getString("substitute_name"), rs.getDouble("ratio")));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("대체 재료 조회 중 오류 발생", e);
+        }
+        return substitutions;
+    }
+}
@@ -0,0 +1,479 @@
+package com.example.db;
+
+import com.example.model.Ingredient;
+import com.example.model.Recipe;
+import com.example.model.TextArena;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * CatalogSnapshot
+ * - 레시피/재료/재고/즐겨찾기 전체를 압축된 바이너리 파일로 보관하는 로컬 스냅샷
+ * - 파일은 메모리 매핑(FileChannel.map)으로 읽고 써서 부팅 시 DB 없이 바로 목록을 띄울 수 있음
+ * - DB 조회가 성공할 때마다 갱신되고, DB 연결이 끊긴 동안에는 DAO가 이 스냅샷으로 읽기 요청을 처리
+ * - 스트리밍 조회는 결과를 따로 모으지 않고 refreshRecipes()/refreshIngredients()로 한 건씩 반영
+ * - 대기열에 쌓인 오프라인 쓰기는 putRecipe/updateRecipe 등으로 미리 반영해 연결이 끊긴 동안의 읽기에도 보이게 함
+ * - 파일 읽기/저장 실패는 getLastError()로 상태 표시줄에 보여줌
+ * - 명령행 도구처럼 오래된 결과보다 실패가 나은 곳은 setFallbackEnabled(false)로 DB 대신 읽는 것을 끔
+ * - 스냅샷이 보관하는 레시피의 조리 방법/메모는 recipe.text.offheap.mb(기본 64, 0이면 끔) 한도 안에서 힙 밖(TextArena)에 둠
+ *   영역은 세대마다 하나로, 전체 갱신(파일 읽기, updateRecipes, refreshRecipes().finish())마다 새 영역으로 바이트째 옮기고
+ *   이전 세대의 스냅샷 참조를 닫음
+ *   밖으로 내주는 레시피는 호출마다 영역 참조(share()) 하나를 함께 쓰는 복사본이라 문자열을 힙에 풀지 않고,
+ *   이전 세대 영역은 그 레시피들이 모두 사라지면 해제됨
+ *
+ * 파일 형식: [MAGIC][VERSION][저장 시각][재료 수][레시피 수][재료...][레시피...]
+ * - 문자열은 (UTF-8 바이트 길이, 바이트) 쌍으로 저장하며 null은 길이 -1
+ */
+public class CatalogSnapshot {
+    private static final int MAGIC = 0x52435031; // "RCP1"
+    private static final int VERSION = 2; // 2: 재료 단가 추가
+    private static CatalogSnapshot instance;
+
+    private final Path file;
+    // 스냅샷 파일 쓰기는 UI/DAO 흐름을 막지 않도록 별도 스레드 하나에서 순서대로 처리
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "catalog-snapshot-writer");
+        t.setDaemon(true);
+        return t;
+    });
+
+    // id -> 항목 (추가 순서 유지, 모든 접근은 이 객체로 동기화)
+    private final Map<Integer, Recipe> recipes = new LinkedHashMap<>();
+    private final Map<Integer, Ingredient> ingredients = new LinkedHashMap<>();
+    private boolean loaded;
+    private long savedAt;
+    // 스냅샷 레시피의 긴 문자열을 담은 현재 세대 영역 (끔이면 null)
+    private TextArena arena;
+    private volatile String lastError;
+    private boolean fallbackEnabled = true;
+
+    private CatalogSnapshot(Path file) {
+        this.file = file;
+        load();
+    }
+
+    public static synchronized CatalogSnapshot getInstance() {
+        if (instance == null) {
+            String defaultPath = Paths.get(System.getProperty("user.home"), ".recipe-manager", "catalog.snapshot").toString();
+            DatabaseConnection db = DatabaseConnection.getInstance();
+            TextArena.setLimitBytes(Long.parseLong(db.getProperty("recipe.text.offheap.mb", "64").trim()) * 1024 * 1024);
+            String path = db.getProperty("snapshot.path", defaultPath);
+            instance = new CatalogSnapshot(Paths.get(path));
+        }
+        return instance;
+    }
+
+    /** 스냅샷(파일 또는 최근 동기화 결과)이 있어 DB 대신 읽을 수 있는지 여부 (대신 읽기를 껐으면 false) */
+    public synchronized boolean isLoaded() {
+        return loaded && fallbackEnabled;
+    }
+
+    /** DB에 연결할 수 없을 때 DAO가 스냅샷으로 읽기를 처리할지 여부 (끄면 연결 오류가 그대로 전달됨) */
+    public synchronized void setFallbackEnabled(boolean fallbackEnabled) {
+        this.fallbackEnabled = fallbackEnabled;
+    }
+
+    /** 스냅샷이 마지막으로 저장된 시각 (epoch millis, 없으면 0) */
+    public synchronized long getSavedAt() {
+        return savedAt;
+    }
+
+    /** 마지막 스냅샷 파일 읽기/저장 오류 (없거나 이후 저장에 성공했으면 null) */
+    public String getLastError() {
+        return lastError;
+    }
+
+    /** 스냅샷의 전체 레시피 (호출자마다 새 객체를 돌려줌, 힙 밖 문자열은 이번 호출의 영역 참조 하나로 읽음) */
+    public synchronized List<Recipe> getRecipes() {
+        TextArena view = shareArena();
+        List<Recipe> result = new ArrayList<>(recipes.size());
+        for (Recipe recipe : recipes.values()) {
+            result.add(recipe.copy(view));
+        }
+        return result;
+    }
+
+    /** 스냅샷의 전체 재료 (호출자마다 새 객체를 돌려줌) */
+    public synchronized List<Ingredient> getIngredients() {
+        List<Ingredient> result = new ArrayList<>(ingredients.size());
+        for (Ingredient ingredient : ingredients.values()) {
+            result.add(ingredient.copy());
+        }
+        return result;
+    }
+
+    /** id로 레시피 조회 (없으면 null) */
+    public synchronized Recipe findRecipe(int id) {
+        Recipe recipe = recipes.get(id);
+        return recipe == null ? null : recipe.copy(shareArena());
+    }
+
+    // 밖으로 내줄 레시피가 현재 세대 영역을 읽을 참조 (끔이면 null, lock 안에서 호출)
+    private TextArena shareArena() {
+        return arena == null ? null : arena.share();
+    }
+
+    // 스냅샷 레시피의 긴 문자열을 새 세대 영역으로 바이트째 옮기고 이전 세대의 스냅샷 참조를 닫음 (lock 안에서 호출)
+    // - 옮기는 동안은 두 세대가 한도를 함께 쓰며, 새 영역에 들어가지 못한 글만 힙에 남음
+    // - 이전 세대 영역은 밖으로 내준 레시피가 남아 있지 않으면 여기서 바로 해제됨
+    private void renewArena() {
+        TextArena previous = arena;
+        arena = TextArena.open();
+        for (Recipe recipe : recipes.values()) {
+            recipe.moveTextOffHeap(arena);
+        }
+        if (previous != null) previous.close();
+    }
+
+    /** id로 재료 조회 (없으면 null) */
+    public synchronized Ingredient findIngredient(int id) {
+        Ingredient ingredient = ingredients.get(id);
+        return ingredient == null ? null : ingredient.copy();
+    }
+
+    /** 이름으로 재료 조회 (없으면 null) */
+    public synchronized Ingredient findIngredientByName(String name) {
+        for (Ingredient ingredient : ingredients.values()) {
+            if (ingredient.getName().equals(name)) return ingredient.copy();
+        }
+        return null;
+    }
+
+    /**
+     * DB에서 읽어온 최신 레시피 목록으로 스냅샷 갱신 (파일 저장은 백그라운드)
+     * - 목록 조회는 조리 방법을 읽지 않으므로(null) 스냅샷에 있던 조리 방법을 이어받음
+     */
+    public void updateRecipes(List<Recipe> latest) {
+        Map<Integer, Recipe> copy = new LinkedHashMap<>();
+        for (Recipe recipe : latest) {
+            copy.put(recipe.getId(), recipe.copy());
+        }
+        synchronized (this) {
+            for (Recipe recipe : copy.values()) {
+                keepInstructions(recipes.get(recipe.getId()), recipe);
+            }
+            recipes.clear();
+            recipes.putAll(copy);
+            renewArena();
+            loaded = true;
+        }
+        scheduleSave();
+    }
+
+    /**
+     * 조리 방법 없이 읽은 레시피에 스냅샷 항목의 조리 방법을 채움 (조리 방법 변경은 쓰기 때 updateRecipe로 반영됨)
+     * - 힙 밖에 있는 조리 방법은 핸들만 이어받아 다음 세대로 옮길 때까지 문자열로 풀지 않음
+     */
+    private static Recipe keepInstructions(Recipe existing, Recipe latest) {
+        if (existing != null && latest.getInstructions() == null) {
+            latest.inheritInstructions(existing);
+        }
+        return latest;
+    }
+
+    /**
+     * DB에서 읽어온 최신 재료 목록으로 스냅샷 갱신 (파일 저장은 백그라운드)
+     */
+    public void updateIngredients(List<Ingredient> latest) {
+        Map<Integer, Ingredient> copy = new LinkedHashMap<>();
+        for (Ingredient ingredient : latest) {
+            copy.put(ingredient.getId(), ingredient.copy());
+        }
+        synchronized (this) {
+            ingredients.clear();
+            ingredients.putAll(copy);
+            loaded = true;
+        }
+        scheduleSave();
+    }
+
+    /**
+     * DB 전체 레시피를 한 건씩 받아 스냅샷에 반영하는 갱신 (스트리밍 조회용, 조리 방법은 updateRecipes처럼 이어받음)
+     */
+    public Refresh<Recipe> refreshRecipes() {
+        return new Refresh<>(recipes, Recipe::getId, Recipe::copy, CatalogSnapshot::keepInstructions, this::renewArena);
+    }
+
+    /**
+     * DB 전체 재료를 한 건씩 받아 스냅샷에 반영하는 갱신 (스트리밍 조회용)
+     */
+    public Refresh<Ingredient> refreshIngredients() {
+        return new Refresh<>(ingredients, Ingredient::getId, Ingredient::copy, (existing, latest) -> latest, () -> {});
+    }
+
+    /**
+     * 전체 조회 결과를 한 건씩 반영하는 갱신 (결과 목록을 따로 모으지 않아 추가 메모리는 id 비트맵뿐)
+     * - accept()마다 같은 id 항목을 교체하거나 추가하고, finish()에서 이번 조회에 없던 항목(DB에서 지워진 것)을 빼고
+     *   (레시피면 새 세대 영역으로 옮긴 뒤) 파일 저장
+     * - 도중에 멈추면 finish()를 부르지 않음: 반영한 항목은 최신 값이므로 두고, 지워진 항목 정리는 다음 조회로 미룸
+     * - 대기열에 쌓인 새 항목(음수 임시 id)은 DB에 아직 없으므로 지우지 않음
+     * - 한 스레드에서만 사용
+     */
+    public final class Refresh<T> {
+        private final Map<Integer, T> entries;
+        private final ToIntFunction<T> idOf;
+        private final UnaryOperator<T> copier;
+        // (기존 항목 또는 null, 새 항목) -> 저장할 항목
+        private final BinaryOperator<T> merge;
+        // finish()에서 정리 후 lock 안에서 실행
+        private final Runnable afterFinish;
+        private final BitSet seen = new BitSet();
+
+        private Refresh(Map<Integer, T> entries, ToIntFunction<T> idOf, UnaryOperator<T> copier, BinaryOperator<T> merge,
+                        Runnable afterFinish) {
+            this.entries = entries;
+            this.idOf = idOf;
+            this.copier = copier;
+            this.merge = merge;
+            this.afterFinish = afterFinish;
+        }
+
+        public void accept(T item) {
+            T copy = copier.apply(item);
+            int id = idOf.applyAsInt(copy);
+            synchronized (CatalogSnapshot.this) {
+                entries.put(id, merge.apply(entries.get(id), copy));
+            }
+            if (id > 0) seen.set(id);
+        }
+
+        public void finish() {
+            synchronized (CatalogSnapshot.this) {
+                entries.keySet().removeIf(id -> id > 0 && !seen.get(id));
+                afterFinish.run();
+                loaded = true;
+            }
+            scheduleSave();
+        }
+    }
+
+    /**
+     * 레시피 하나를 추가하거나 같은 id의 레시피를 교체 (대기열에 쌓인 오프라인 저장 반영용)
+     */
+    public void putRecipe(Recipe recipe) {
+        Recipe copy = recipe.copy();
+        synchronized (this) {
+            recipes.put(copy.getId(), copy);
+        }
+        scheduleSave();
+    }
+
+    /**
+     * id의 레시피를 제자리에서 고침 (없으면 무시)
+     */
+    public void updateRecipe(int id, Consumer<Recipe> change) {
+        synchronized (this) {
+            // 다른 스레드가 받아 간 복사본과 공유하지 않도록 고친 사본으로 교체
+            recipes.computeIfPresent(id, (key, recipe) -> {
+                Recipe changed = recipe.copy();
+                change.accept(changed);
+                return changed;
+            });
+        }
+        scheduleSave();
+    }
+
+    /** id의 레시피를 제거 */
+    public void removeRecipe(int id) {
+        synchronized (this) {
+            recipes.remove(id);
+        }
+        scheduleSave();
+    }
+
+    /**
+     * 재료 하나를 추가하거나 같은 id의 재료를 교체 (대기열에 쌓인 오프라인 저장 반영용)
+     */
+    public void putIngredient(Ingredient ingredient) {
+        Ingredient copy = ingredient.copy();
+        synchronized (this) {
+            ingredients.put(copy.getId(), copy);
+        }
+        scheduleSave();
+    }
+
+    /**
+     * id의 재료를 제자리에서 고침 (없으면 무시)
+     */
+    public void updateIngredient(int id, Consumer<Ingredient> change) {
+        synchronized (this) {
+            ingredients.computeIfPresent(id, (key, ingredient) -> {
+                Ingredient changed = ingredient.copy();
+                change.accept(changed);
+                return changed;
+            });
+        }
+        scheduleSave();
+    }
+
+    /** id의 재료를 제거 */
+    public void removeIngredient(int id) {
+        synchronized (this) {
+            ingredients.remove(id);
+        }
+        scheduleSave();
+    }
+
+    private void scheduleSave() {
+        writer.execute(() -> {
+            try {
+                save();
+                lastError = null;
+            } catch (IOException e) {
+                lastError = "카탈로그 스냅샷 저장 실패: " + e.getMessage();
+            }
+        });
+    }
+
+    /**
+     * 현재 스냅샷을 임시 파일에 매핑해 기록한 뒤 원자적으로 교체
+     */
+    private void save() throws IOException {
+        byte[] bytes;
+        synchronized (this) {
+            savedAt = System.currentTimeMillis();
+            bytes = encode(recipes.values(), ingredients.values(), savedAt);
+        }
+        Path dir = file.toAbsolutePath().getParent();
+        if (dir != null) {
+            Files.createDirectories(dir);
+        }
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, bytes.length);
+            buffer.put(bytes);
+            buffer.force();
+        }
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * 스냅샷 파일을 읽기 전용으로 매핑해 메모리로 불러옴 (파일이 없거나 손상되면 무시)
+     */
+    private synchronized void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return;
+            }
+            savedAt = buffer.getLong();
+            int ingredientCount = buffer.getInt();
+            int recipeCount = buffer.getInt();
+            Map<Integer, Ingredient> loadedIngredients = new LinkedHashMap<>();
+            for (int i = 0; i < ingredientCount; i++) {
+                Ingredient ingredient = new Ingredient();
+                ingredient.setId(buffer.getInt());
+                ingredient.setName(readString(buffer));
+                ingredient.setAvailableQuantity(buffer.getInt());
+                ingredient.setUnitPrice(buffer.getLong());
+                loadedIngredients.put(ingredient.getId(), ingredient);
+            }
+            Map<Integer, Recipe> loadedRecipes = new LinkedHashMap<>();
+            for (int i = 0; i < recipeCount; i++) {
+                Recipe recipe = new Recipe();
+                recipe.setId(buffer.getInt());
+                recipe.setName(readString(buffer));
+                recipe.setInstructions(readString(buffer));
+                long lastCooked = buffer.getLong();
+                recipe.setLastCookedAt(lastCooked < 0 ? null : new Timestamp(lastCooked));
+                recipe.setFavorite(buffer.get() == 1);
+                int rating = buffer.get();
+                if (rating >= 1 && rating <= 5) {
+                    recipe.setRating(rating);
+                }
+                recipe.setNote(readString(buffer));
+                int ingredientNames = buffer.getInt();
+                for (int j = 0; j < ingredientNames; j++) {
+                    String name = readString(buffer);
+                    recipe.addIngredientNameAndQuantity(name, buffer.getInt());
+                }
+                loadedRecipes.put(recipe.getId(), recipe);
+            }
+            ingredients.putAll(loadedIngredients);
+            recipes.putAll(loadedRecipes);
+            renewArena();
+            loaded = true;
+        } catch (IOException | RuntimeException e) {
+            lastError = "카탈로그 스냅샷을 읽지 못했습니다: " + e.getMessage();
+        }
+    }
+
+    private static byte[] encode(Collection<Recipe> recipes, Collection<Ingredient> ingredients, long savedAt) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(savedAt);
+        out.writeInt(ingredients.size());
+        out.writeInt(recipes.size());
+        for (Ingredient ingredient : ingredients) {
+            out.writeInt(ingredient.getId());
+            writeString(out, ingredient.getName());
+            out.writeInt(ingredient.getAvailableQuantity());
+            out.writeLong(ingredient.getUnitPrice());
+        }
+        for (Recipe recipe : recipes) {
+            out.writeInt(recipe.getId());
+            writeString(out, recipe.getName());
+            writeString(out, recipe.getInstructions());
+            out.writeLong(recipe.getLastCookedAt() == null ? -1L : recipe.getLastCookedAt().getTime());
+            out.writeByte(recipe.isFavorite() ? 1 : 0);
+            out.writeByte(recipe.getRating());
+            writeString(out, recipe.getNote());
+            out.writeInt(recipe.getRequiredIngredientNames().size());
+            for (Map.Entry<String, Integer> entry : recipe.getRequiredIngredientNames().entrySet()) {
+                writeString(out, entry.getKey());
+                out.writeInt(entry.getValue());
+            }
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(utf8.length);
+        out.write(utf8);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] utf8 = new byte[length];
+        buffer.get(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
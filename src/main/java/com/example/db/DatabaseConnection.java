@@ -2,14 +2,73 @@ package com.example.db;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * DatabaseConnection
+ * - DB 커넥션 생성 (싱글톤)
+ * - getConnection(): 주 서버(db.url). 쓰기와 트랜잭션은 항상 여기로
+ * - getReadConnection(): 읽기 전용 조회용. db.replica.N.url로 복제 서버가 설정되어 있으면 돌아가며 분배하고,
+ *   복제 지연이 기준을 넘거나 방금 쓰기를 한 직후(내가 쓴 데이터는 내가 바로 읽어야 함)에는 주 서버로 보냄
+ * - "쓰기 시각"은 주 서버 커넥션에서 쓰기(executeUpdate/executeBatch 등)를 한 뒤 커밋하거나 닫은 시각(쓰기가 실제로 끝난 때)과
+ *   다른 클라이언트의 쓰기를 알게 된 시각. 조회만 한 주 서버 커넥션은 기록하지 않음
+ * - 조회 캐시는 markRead()로 조회 전에 표시를 만들고, 복제 서버에서 읽은 결과가 쓰기 직후의 버전으로 저장되지 않게 확인
+ * - 호출 스레드에 QueryScope가 있으면 커넥션의 쿼리에 그 범위의 시간 예산과 취소가 적용됨
+ * - 두 메서드 모두 DbScheduler에서 차례를 받은 뒤 접속하며, 받은 커넥션을 닫아야 다음 작업이 들어올 수 있음
+ * - pinPrimary() 이후에는 주 서버 커넥션 하나를 닫지 않고 계속 빌려 줌 (명령행 일괄 실행처럼 짧은 작업이 이어질 때
+ *   매번 접속하지 않도록). 빌려 간 커넥션을 닫으면 트랜잭션 상태만 되돌리고 반납하며, 이미 빌려 가 있으면 새로 접속
+ */
 public class DatabaseConnection {
     private static DatabaseConnection instance;
     private Properties properties;
+
+    /**
+     * 복제 서버 하나의 접속 정보와 최근 지연 측정값
+     */
+    private static class Replica {
+        final String url;
+        final String username;
+        final String password;
+        volatile long lagMillis = ReplicaLagProbe.UNKNOWN;
+        volatile long checkedAt;
+        final AtomicLong reads = new AtomicLong();
+
+        Replica(String url, String username, String password) {
+            this.url = url;
+            this.username = username;
+            this.password = password;
+        }
+    }
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final AtomicLong primaryReads = new AtomicLong();
+    private volatile ReplicaLagProbe lagProbe = ReplicaLagProbe.MYSQL;
+    // 마지막 쓰기 시각 (쓰기를 한 주 서버 커넥션의 커밋/닫기, 또는 다른 클라이언트의 쓰기를 알게 된 때)
+    private volatile long lastWriteAt;
+    // 스레드별로 복제 서버 커넥션을 받은 횟수 (ReadMark가 조회 중 복제 서버를 썼는지 확인)
+    private static final ThreadLocal<long[]> REPLICA_READS = ThreadLocal.withInitial(() -> new long[1]);
+    private long maxLagMillis;
+    private long lagCheckMillis;
+    private long readYourWritesMillis;
+    // 고정 커넥션 (pinPrimary 이후, 끊어지면 다음에 빌릴 때 다시 접속)
+    private volatile boolean pinning;
+    private Connection pinned;
+    private boolean pinnedInUse;
+    private final AtomicLong pinnedReuses = new AtomicLong();
     
     static {
         try {
@@ -29,20 +88,340 @@ public class DatabaseConnection {
         } catch (IOException e) {
             throw new RuntimeException("설정 파일을 로드하는데 실패했습니다.", e);
         }
+        loadReplicas();
+    }
+
+    /**
+     * db.replica.1.url, db.replica.2.url ... 순서대로 복제 서버 설정을 읽음
+     * - 계정은 db.replica.N.username/password가 없으면 주 서버 계정을 그대로 사용
+     */
+    private void loadReplicas() {
+        for (int n = 1; properties.getProperty("db.replica." + n + ".url") != null; n++) {
+            String prefix = "db.replica." + n + ".";
+            replicas.add(new Replica(properties.getProperty(prefix + "url"),
+                properties.getProperty(prefix + "username", properties.getProperty("db.username")),
+                properties.getProperty(prefix + "password", properties.getProperty("db.password"))));
+        }
+        maxLagMillis = Long.parseLong(properties.getProperty("db.replica.max.lag.ms", "1000"));
+        lagCheckMillis = Long.parseLong(properties.getProperty("db.replica.lag.check.ms", "2000"));
+        readYourWritesMillis = Long.parseLong(properties.getProperty("db.replica.read.your.writes.ms",
+            String.valueOf(Math.max(maxLagMillis, 1000))));
+        String probeClass = properties.getProperty("db.replica.lag.probe");
+        if (probeClass != null) {
+            try {
+                lagProbe = (ReplicaLagProbe) Class.forName(probeClass).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new RuntimeException("복제 지연 확인 클래스를 만들 수 없습니다: " + probeClass, e);
+            }
+        }
     }
     
-    public static DatabaseConnection getInstance() {
+    public static synchronized DatabaseConnection getInstance() {
         if (instance == null) {
             instance = new DatabaseConnection();
         }
         return instance;
     }
     
+    /**
+     * 조회 하나가 복제 서버의 결과를 썼는지 확인하는 표시 (조회 전에 markRead()로 만듦)
+     */
+    public final class ReadMark {
+        private final long startedAt = System.currentTimeMillis();
+        private final long replicaReads = REPLICA_READS.get()[0];
+
+        private ReadMark() {}
+
+        /**
+         * 결과를 조회 시작 전에 읽은 테이블 버전으로 캐시해도 되는지
+         * - 주 서버에서만 읽었으면 항상 가능
+         * - 이 스레드가 복제 서버에서 읽었으면, 조회 시작 전 read.your.writes 시간 안이나 조회 도중에 쓰기가 없었어야 함
+         *   (아니면 복제 서버가 그 쓰기를 아직 받지 못한 결과가 쓰기 이후 버전으로 남을 수 있음)
+         */
+        public boolean isCacheable() {
+            if (REPLICA_READS.get()[0] == replicaReads) return true;
+            return lastWriteAt <= startedAt - readYourWritesMillis;
+        }
+    }
+
+    /**
+     * 주 서버 커넥션 (쓰기/트랜잭션용)
+     * - 쓰기를 했으면 커밋하거나 닫을 때 쓰기 시각을 기록하고, 그 뒤 잠시 동안은 읽기도 주 서버로 보내 방금 쓴 내용을 바로 읽을 수 있게 함
+     *   (받아 간 시각으로 기록하면 트랜잭션이 길 때 커밋 전에 그 시간이 지나 버림)
+     * - 조회만 하고 닫은 커넥션(잠금 조회, 이름 확인 등)은 기록하지 않으므로 복제 서버 분배와 조회 캐시에 영향이 없음
+     */
     public Connection getConnection() throws SQLException {
+        return DbScheduler.getInstance().admit(() -> stampWrites(openPrimary()));
+    }
+
+    /** 조회 캐시용 표시 (조회 전, 테이블 버전을 읽은 직후에 만듦) */
+    public ReadMark markRead() {
+        return new ReadMark();
+    }
+
+    /** 다른 클라이언트의 쓰기를 알게 됨 (잠시 동안 읽기를 주 서버로 보냄) */
+    void noteWrite() {
+        lastWriteAt = System.currentTimeMillis();
+    }
+
+    // 쓰기 문장을 실행한 뒤의 commit()과 close()에서만 쓰기 시각을 기록하는 커넥션
+    private Connection stampWrites(Connection conn) {
+        boolean[] wrote = {false};
+        return (Connection) Proxy.newProxyInstance(DatabaseConnection.class.getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                String name = method.getName();
+                try {
+                    Object result = method.invoke(conn, args);
+                    if (result instanceof Statement) {
+                        return markWrites((Statement) result, method.getReturnType(), wrote);
+                    }
+                    return result;
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                } finally {
+                    if (wrote[0] && (name.equals("commit") || name.equals("close"))) {
+                        wrote[0] = false;
+                        lastWriteAt = System.currentTimeMillis();
+                    }
+                }
+            });
+    }
+
+    // 쓰기 실행(executeUpdate/executeBatch/execute 계열)을 표시하는 Statement (실패해도 일부는 반영됐을 수 있으므로 실행 전에 표시)
+    private static Statement markWrites(Statement statement, Class<?> type, boolean[] wrote) {
+        Class<?> iface = type == CallableStatement.class ? CallableStatement.class
+            : type == PreparedStatement.class ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(DatabaseConnection.class.getClassLoader(), new Class<?>[]{iface},
+            (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("execute") && !name.equals("executeQuery")) {
+                    wrote[0] = true;
+                }
+                try {
+                    return method.invoke(statement, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+
+    /**
+     * 읽기 전용 조회용 커넥션
+     * - 복제 서버가 없거나, 방금 쓰기를 했거나, 모든 복제 서버가 뒤처져 있거나 연결되지 않으면 주 서버
+     * - 그 외에는 복제 서버를 돌아가며 사용 (지연은 db.replica.lag.check.ms마다 한 번만 확인)
+     */
+    public Connection getReadConnection() throws SQLException {
+        return DbScheduler.getInstance().admit(this::openRead);
+    }
+
+    private Connection openRead() throws SQLException {
+        long now = System.currentTimeMillis();
+        if (replicas.isEmpty() || pinning || now - lastWriteAt < readYourWritesMillis) {
+            primaryReads.incrementAndGet();
+            return openPrimary();
+        }
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            boolean stale = now - replica.checkedAt > lagCheckMillis;
+            if (!stale && replica.lagMillis > maxLagMillis) continue;
+            Connection conn = null;
+            try {
+                conn = DriverManager.getConnection(replica.url, replica.username, replica.password);
+                if (stale) {
+                    replica.lagMillis = lagProbe.lagMillis(replica.url, conn);
+                    replica.checkedAt = now;
+                }
+                if (replica.lagMillis <= maxLagMillis) {
+                    replica.reads.incrementAndGet();
+                    REPLICA_READS.get()[0]++;
+                    return QueryScope.track(conn);
+                }
+                conn.close();
+            } catch (SQLException e) {
+                // 연결/확인에 실패한 복제 서버는 다음 확인 시점까지 제외
+                replica.lagMillis = ReplicaLagProbe.UNKNOWN;
+                replica.checkedAt = now;
+                if (conn != null) {
+                    try { conn.close(); } catch (SQLException ignored) { }
+                }
+            }
+        }
+        primaryReads.incrementAndGet();
+        return openPrimary();
+    }
+
+    private Connection openPrimary() throws SQLException {
+        Connection shared = borrowPinned();
+        return QueryScope.track(shared != null ? shared : connectPrimary());
+    }
+
+    private Connection connectPrimary() throws SQLException {
         return DriverManager.getConnection(
             properties.getProperty("db.url"),
             properties.getProperty("db.username"),
             properties.getProperty("db.password")
         );
     }
+
+    /**
+     * 주 서버 커넥션 하나를 고정해 재사용 시작 (읽기도 복제 서버 대신 이 커넥션으로)
+     * - 접속은 처음 빌려 갈 때 함
+     */
+    public void pinPrimary() {
+        pinning = true;
+    }
+
+    /**
+     * 고정 커넥션 사용을 끝내고 실제로 닫음
+     */
+    public void unpinPrimary() {
+        Connection physical;
+        synchronized (this) {
+            pinning = false;
+            physical = pinned;
+            pinned = null;
+        }
+        closeQuietly(physical);
+    }
+
+    /** 고정 커넥션을 다시 빌려 준 횟수 (접속을 아낀 횟수) */
+    public long getPinnedReuses() {
+        return pinnedReuses.get();
+    }
+
+    // 고정 커넥션을 빌려 줌 (고정하지 않았거나 다른 곳에서 쓰는 중이면 null)
+    private Connection borrowPinned() throws SQLException {
+        Connection physical;
+        synchronized (this) {
+            if (!pinning || pinnedInUse) return null;
+            pinnedInUse = true;
+            physical = pinned;
+        }
+        try {
+            if (physical == null || physical.isClosed()) {
+                physical = connectPrimary();
+                synchronized (this) {
+                    pinned = physical;
+                }
+            } else {
+                pinnedReuses.incrementAndGet();
+            }
+        } catch (SQLException e) {
+            synchronized (this) {
+                pinnedInUse = false;
+            }
+            throw e;
+        }
+        Connection borrowed = physical;
+        boolean[] returned = {false};
+        return (Connection) Proxy.newProxyInstance(DatabaseConnection.class.getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "close":
+                        if (!returned[0]) {
+                            returned[0] = true;
+                            returnPinned(borrowed);
+                        }
+                        return null;
+                    case "isClosed":
+                        return returned[0] || borrowed.isClosed();
+                    default:
+                        if (returned[0]) throw new SQLException("이미 반납한 커넥션입니다.");
+                        try {
+                            return method.invoke(borrowed, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                }
+            });
+    }
+
+    // 끝나지 않은 트랜잭션은 되돌리고 반납 (되돌리지 못하면 끊어진 것으로 보고 버림)
+    private void returnPinned(Connection physical) {
+        boolean usable;
+        try {
+            if (!physical.isClosed() && !physical.getAutoCommit()) {
+                physical.rollback();
+                physical.setAutoCommit(true);
+            }
+            usable = !physical.isClosed();
+        } catch (SQLException e) {
+            usable = false;
+        }
+        synchronized (this) {
+            pinnedInUse = false;
+            if (!usable && pinned == physical) pinned = null;
+            if (pinned == physical && pinning) return;
+        }
+        // 버렸거나 그사이 고정이 풀린 커넥션
+        closeQuietly(physical);
+    }
+
+    private static void closeQuietly(Connection conn) {
+        if (conn == null) return;
+        try {
+            conn.close();
+        } catch (SQLException ignored) { }
+    }
+
+    /**
+     * 복제 지연 확인 방법 교체 (테스트용 대역 등)
+     */
+    public void setLagProbe(ReplicaLagProbe lagProbe) {
+        this.lagProbe = lagProbe;
+        for (Replica replica : replicas) {
+            replica.checkedAt = 0;
+        }
+    }
+
+    /**
+     * 읽기 분배 현황 (주 서버 / 복제 서버별 읽기 횟수와 마지막 측정 지연)
+     */
+    public String getReadRoutingStats() {
+        StringBuilder stats = new StringBuilder("주 서버 읽기 ").append(primaryReads.get());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get(i);
+            stats.append(", 복제 ").append(i + 1).append(" 읽기 ").append(replica.reads.get());
+            stats.append(replica.lagMillis == ReplicaLagProbe.UNKNOWN ? " (지연 알 수 없음)" : " (지연 " + replica.lagMillis + "ms)");
+        }
+        return stats.toString();
+    }
+
+    /**
+     * 설정값 조회 (없으면 기본값 반환)
+     */
+    public String getProperty(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue);
+    }
+
+    /**
+     * 결과를 한 행씩 받아 오는 전진 전용 Statement
+     * - MySQL 드라이버는 fetchSize가 Integer.MIN_VALUE일 때만 결과 전체를 메모리에 받지 않고 스트리밍함
+     * - 결과를 다 읽거나 닫기 전까지 같은 커넥션으로 다른 쿼리를 실행할 수 없음
+     */
+    public static Statement streamingStatement(Connection conn) throws SQLException {
+        Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        stmt.setFetchSize(Integer.MIN_VALUE);
+        return stmt;
+    }
+
+    /**
+     * DB 서버에 연결할 수 없어 발생한 예외인지 판별
+     * - SQLState 08xxx(연결 오류) 계열이면 오프라인 상태로 간주
+     */
+    public static boolean isConnectionFailure(SQLException e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof SQLException) {
+                String state = ((SQLException) t).getSQLState();
+                if (state != null && state.startsWith("08")) {
+                    return true;
+                }
+            }
+            if (t instanceof java.net.ConnectException || t instanceof java.net.UnknownHostException) {
+                return true;
+            }
+        }
+        return false;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,510 @@
+package com.example.db;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * DbScheduler
+ * - DB 커넥션을 받기 전에 작업의 우선순위(대화형/일반/대량)에 따라 순서를 정해 주는 스케줄러 (싱글톤)
+ * - 동시에 열 수 있는 커넥션 수(db.scheduler.connections)와 우선순위별 최대 수(db.scheduler.<우선순위>.max)를 넘으면
+ *   대기열에서 기다리고, 커넥션을 닫으면 다음 작업에 넘겨 줌
+ * - 여러 우선순위가 기다리면 가중치(db.scheduler.<우선순위>.weight) 비율로 번갈아 허가 (stride 방식 공정 대기열)
+ * - 마지막 db.scheduler.interactive.reserve개는 대화형 전용이고, 대화형이 기다리는 동안에는 대량 작업을 허가하지 않음.
+ *   대량 작업은 묶음마다 커넥션을 새로 받으므로 묶음 사이에서 대화형 작업에 자리를 내줌
+ * - 대화형 작업(커넥션 요청부터 닫을 때까지, backPressure()로 표시한 스트리밍 구독자/병합 쪽 대기는 뺌)의 p99가
+ *   목표(db.scheduler.interactive.p99.ms)를 넘으면
+ *   대량 작업 동시 수를 절반으로 줄이고, 목표 안이면 하나씩 되돌림 (DB 자체가 바쁠 때도 대화형 지연을 지키기 위해)
+ * - 우선순위는 withPriority()로 지정하고, 지정하지 않으면 Swing 스레드(이벤트 처리, SwingWorker)는 대화형, 나머지는 일반
+ * - 커넥션을 가진 스레드가 또 커넥션을 받으면 기다리지 않고 바로 줌 (자기가 가진 자리를 기다리는 교착 방지)
+ * - 여러 샤드를 함께 읽는 병렬 조회는 admitGroup()으로 샤드 수만큼의 자리를 한꺼번에 받고, 샤드 스레드는 그 안에서 기다리지 않음
+ * - 호출 스레드에 QueryScope가 있으면 그 남은 시간까지만 기다림
+ */
+public final class DbScheduler {
+    private static DbScheduler instance;
+
+    // 명시한 우선순위 (없으면 스레드 종류로 판단)
+    private static final ThreadLocal<Priority> PRIORITY = new ThreadLocal<>();
+    // 이 스레드가 스케줄러에서 받아 아직 닫지 않은 커넥션 수
+    private static final ThreadLocal<AtomicInteger> HELD = ThreadLocal.withInitial(AtomicInteger::new);
+    // 이 스레드가 받은 가장 바깥 허가 (대기 구간을 지연에서 빼는 데 사용)
+    private static final ThreadLocal<Ticket> TICKET = new ThreadLocal<>();
+
+    // 대화형 지연 기록 개수와 대량 한도를 다시 계산하는 간격
+    private static final int LATENCY_WINDOW = 256;
+    private static final int ADJUST_EVERY = 64;
+    // 대화형 작업이 이만큼 없으면 대량 한도를 설정값으로 되돌림
+    private static final long IDLE_RESET_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * 작업 우선순위
+     */
+    public enum Priority {
+        /** 사용자가 결과를 기다리는 조회/저장 (요리하기, 다이얼로그 조회 등) */
+        INTERACTIVE("대화형", 16),
+        /** 새로 고침, 오프라인 쓰기 재실행 등 */
+        NORMAL("일반", 4),
+        /** 인덱스 구성, 일괄 변환, 재배치 등 오래 걸리는 작업 */
+        BULK("대량", 1);
+
+        private final String label;
+        private final int defaultWeight;
+
+        Priority(String label, int defaultWeight) {
+            this.label = label;
+            this.defaultWeight = defaultWeight;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    /**
+     * withPriority()로 바꾼 우선순위를 되돌리는 핸들
+     */
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * 커넥션을 실제로 여는 동작
+     */
+    @FunctionalInterface
+    interface Connector {
+        Connection connect() throws SQLException;
+    }
+
+    /**
+     * 다른 스레드로 넘기는 우선순위 (ShardRouter 병렬 조회, RowPublisher 조회 스레드)
+     */
+    static final class Context {
+        private final Priority priority;
+        private final boolean nested;
+        private final AtomicInteger held;
+
+        private Context(Priority priority, boolean nested, AtomicInteger held) {
+            this.priority = priority;
+            this.nested = nested;
+            this.held = held;
+        }
+    }
+
+    /**
+     * 허가 하나 (커넥션 하나 또는 admitGroup()의 묶음)
+     */
+    private static final class Ticket {
+        final Priority priority;
+        final long requestedAt;
+        // 받은 자리 수 (허가될 때 정해짐)
+        int slots;
+        boolean released;
+        // 가진 스레드가 DB가 아닌 쪽을 기다린 시간과 겹친 backPressure() 수 (가진 스레드만 씀)
+        volatile long stalledNanos;
+        int stallDepth;
+
+        Ticket(Priority priority, long requestedAt) {
+            this.priority = priority;
+            this.requestedAt = requestedAt;
+        }
+    }
+
+    /**
+     * 대기 중인 요청 하나
+     */
+    private static final class Waiter {
+        final Condition granted;
+        // 요청한 자리 수 (허가할 때 한 번에 줄 수 있는 만큼으로 줄임)
+        int slots;
+        boolean admitted;
+
+        Waiter(Condition granted, int slots) {
+            this.granted = granted;
+            this.slots = slots;
+        }
+    }
+
+    /**
+     * 우선순위 하나의 대기열과 집계
+     */
+    private static final class Lane {
+        final Priority priority;
+        final int max;
+        final double stride;
+        final ArrayDeque<Waiter> queue = new ArrayDeque<>();
+        // 공정 대기열의 가상 시각 (허가할 때마다 stride만큼 증가, 작은 쪽이 먼저)
+        double pass;
+        int inFlight;
+        long admitted;
+        long timeouts;
+        long totalWaitNanos;
+        long maxWaitNanos;
+        final long[] recentWaits = new long[LATENCY_WINDOW];
+        int recentCount;
+
+        Lane(Priority priority, int max, int weight) {
+            this.priority = priority;
+            this.max = max;
+            this.stride = 1.0 / Math.max(1, weight);
+        }
+
+        void recordWait(long nanos) {
+            admitted++;
+            totalWaitNanos += nanos;
+            maxWaitNanos = Math.max(maxWaitNanos, nanos);
+            recentWaits[recentCount++ % LATENCY_WINDOW] = nanos;
+        }
+    }
+
+    private final boolean enabled;
+    private final int connections;
+    private final int reserve;
+    private final long maxWaitNanos;
+    private final long interactiveTargetNanos;
+    private final Lane[] lanes = new Lane[Priority.values().length];
+    private final ReentrantLock lock = new ReentrantLock();
+    private int inUse;
+    private double virtualTime;
+    // 대량 작업 동시 수 (대화형 지연에 따라 1 ~ BULK.max 사이에서 조정)
+    private int bulkLimit;
+    private long bulkCuts;
+    private final long[] interactiveLatencies = new long[LATENCY_WINDOW];
+    private int interactiveCount;
+    private long lastInteractiveP99;
+    private long lastInteractiveAt;
+    private boolean interactiveSeen;
+
+    private DbScheduler(DatabaseConnection db) {
+        enabled = Boolean.parseBoolean(db.getProperty("db.scheduler.enabled", "true").trim());
+        connections = Math.max(1, intProperty(db, "db.scheduler.connections", 8));
+        reserve = Math.min(connections - 1, Math.max(0, intProperty(db, "db.scheduler.interactive.reserve", Math.max(1, connections / 4))));
+        int shared = connections - reserve;
+        int[] defaultMax = {connections, shared, Math.max(1, shared / 2)};
+        for (Priority priority : Priority.values()) {
+            String prefix = "db.scheduler." + priority.name().toLowerCase() + ".";
+            int max = Math.max(1, Math.min(connections, intProperty(db, prefix + "max", defaultMax[priority.ordinal()])));
+            lanes[priority.ordinal()] = new Lane(priority, max, intProperty(db, prefix + "weight", priority.defaultWeight));
+        }
+        bulkLimit = lanes[Priority.BULK.ordinal()].max;
+        maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(intProperty(db, "db.scheduler.wait.max.ms", 30000));
+        interactiveTargetNanos = TimeUnit.MILLISECONDS.toNanos(intProperty(db, "db.scheduler.interactive.p99.ms", 200));
+    }
+
+    private static int intProperty(DatabaseConnection db, String key, int defaultValue) {
+        return Integer.parseInt(db.getProperty(key, String.valueOf(defaultValue)).trim());
+    }
+
+    public static synchronized DbScheduler getInstance() {
+        if (instance == null) {
+            instance = new DbScheduler(DatabaseConnection.getInstance());
+        }
+        return instance;
+    }
+
+    /**
+     * 현재 스레드의 우선순위를 바꾸고, 닫으면 이전 값으로 되돌림
+     * - 본문에서 자원을 쓰지 않으므로 감싼 메서드에 @SuppressWarnings("try") (-Xlint:try 경고 방지)
+     * <pre>
+     * try (DbScheduler.Scope ignored = DbScheduler.withPriority(Priority.BULK)) { ... }
+     * </pre>
+     */
+    public static Scope withPriority(Priority priority) {
+        Priority previous = PRIORITY.get();
+        PRIORITY.set(priority);
+        return () -> {
+            if (previous == null) PRIORITY.remove();
+            else PRIORITY.set(previous);
+        };
+    }
+
+    /** 현재 스레드의 우선순위 */
+    public static Priority currentPriority() {
+        Priority priority = PRIORITY.get();
+        if (priority != null) return priority;
+        // AWT 클래스를 불러오지 않도록 스레드 이름으로 판단
+        String name = Thread.currentThread().getName();
+        return name.startsWith("AWT-EventQueue") || name.startsWith("SwingWorker") ? Priority.INTERACTIVE : Priority.NORMAL;
+    }
+
+    /** 다른 스레드에서 이어 쓸 우선순위 (이 스레드가 커넥션을 가지고 있으면 그 스레드도 기다리지 않음) */
+    static Context capture() {
+        return new Context(currentPriority(), HELD.get().get() > 0, null);
+    }
+
+    /**
+     * 현재 스레드에 넘겨받은 우선순위를 적용하고 이전 상태를 돌려줌 (끝나면 돌려받은 값으로 다시 호출)
+     */
+    static Context enter(Context context) {
+        Context previous = new Context(PRIORITY.get(), false, HELD.get());
+        if (context.priority == null) PRIORITY.remove();
+        else PRIORITY.set(context.priority);
+        HELD.set(context.held != null ? context.held : new AtomicInteger(context.nested ? 1 : 0));
+        return previous;
+    }
+
+    /**
+     * 차례가 올 때까지 기다렸다가 커넥션을 열어 줌 (닫으면 자리를 반납)
+     */
+    Connection admit(Connector connector) throws SQLException {
+        AtomicInteger held = HELD.get();
+        if (!enabled || held.get() > 0) return connector.connect();
+        Ticket ticket = new Ticket(currentPriority(), System.nanoTime());
+        acquire(ticket, 1);
+        hold(ticket, held);
+        Connection conn;
+        try {
+            conn = connector.connect();
+        } catch (SQLException | RuntimeException e) {
+            unhold(ticket, held);
+            throw e;
+        }
+        return wrap(conn, ticket, held);
+    }
+
+    /**
+     * size개의 자리를 한꺼번에 받고, 닫으면 모두 반납 (ShardRouter 병렬 조회용)
+     * - 샤드 스레드가 따로 기다리면 일부 샤드만 자리를 잡은 병렬 조회끼리 서로 남은 자리를 기다리며 멈출 수 있으므로
+     *   전부 받은 뒤에 시작하고, 그동안 capture()로 넘긴 스레드는 커넥션을 가진 것으로 보아 기다리지 않음
+     * - 우선순위가 한 번에 가질 수 있는 자리보다 크면 그만큼만 받음
+     * - 이미 커넥션을 가진 스레드면 그 작업 안에 포함된 것으로 보고 바로 돌려줌
+     */
+    Scope admitGroup(int size) throws SQLException {
+        AtomicInteger held = HELD.get();
+        if (!enabled || held.get() > 0) return () -> {};
+        Ticket ticket = new Ticket(currentPriority(), System.nanoTime());
+        acquire(ticket, Math.max(1, size));
+        hold(ticket, held);
+        return () -> {
+            if (!ticket.released) unhold(ticket, held);
+        };
+    }
+
+    /**
+     * 이 스레드가 DB가 아닌 쪽(스트리밍 구독자의 요청, 병합 쪽의 소비)을 기다리는 구간 - 닫을 때까지의 시간은 대화형 지연에서 뺌
+     * - 커넥션을 가지지 않았으면 아무 일도 하지 않고, 겹쳐 열면 가장 바깥 구간만 셈
+     */
+    static Scope backPressure() {
+        Ticket ticket = TICKET.get();
+        if (ticket == null) return () -> {};
+        if (ticket.stallDepth++ > 0) return () -> ticket.stallDepth--;
+        long started = System.nanoTime();
+        return () -> {
+            ticket.stallDepth--;
+            ticket.stalledNanos += System.nanoTime() - started;
+        };
+    }
+
+    // 커넥션이 없던 스레드만 허가를 받으므로 이 스레드의 가장 바깥 허가가 됨
+    private static void hold(Ticket ticket, AtomicInteger held) {
+        held.incrementAndGet();
+        TICKET.set(ticket);
+    }
+
+    // 자리를 한 번만 반납
+    private void unhold(Ticket ticket, AtomicInteger held) {
+        synchronized (ticket) {
+            if (ticket.released) return;
+            ticket.released = true;
+        }
+        held.decrementAndGet();
+        if (TICKET.get() == ticket) TICKET.remove();
+        release(ticket);
+    }
+
+    private void acquire(Ticket ticket, int slots) throws SQLException {
+        Priority priority = ticket.priority;
+        long waitNanos = maxWaitNanos;
+        QueryScope scope = QueryScope.current();
+        if (scope != null) waitNanos = Math.min(waitNanos, TimeUnit.MILLISECONDS.toNanos(scope.remainingMillis()));
+        long deadline = ticket.requestedAt + waitNanos;
+        Lane lane = lanes[priority.ordinal()];
+        lock.lock();
+        try {
+            Waiter waiter = new Waiter(lock.newCondition(), slots);
+            // 쉬다가 다시 들어온 우선순위가 그동안 밀린 몫을 한꺼번에 가져가지 않도록
+            if (lane.queue.isEmpty()) lane.pass = Math.max(lane.pass, virtualTime);
+            lane.queue.addLast(waiter);
+            dispatch();
+            while (!waiter.admitted) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    lane.queue.remove(waiter);
+                    lane.timeouts++;
+                    dispatch(); // 대화형 대기가 빠지면 대량 작업이 들어갈 수 있음
+                    throw new SQLTimeoutException(priority.label + " DB 작업 대기 시간이 초과되었습니다. (대기 "
+                        + lane.queue.size() + "건, 사용 중 " + inUse + "/" + connections + ")", "HYT00");
+                }
+                try {
+                    waiter.granted.awaitNanos(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    if (waiter.admitted) break;
+                    lane.queue.remove(waiter);
+                    dispatch();
+                    throw new SQLException("DB 작업 대기가 중단되었습니다.", "70100", e);
+                }
+            }
+            ticket.slots = waiter.slots;
+            lane.recordWait(System.nanoTime() - ticket.requestedAt);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(Ticket ticket) {
+        Priority priority = ticket.priority;
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            inUse -= ticket.slots;
+            lanes[priority.ordinal()].inFlight -= ticket.slots;
+            if (priority == Priority.INTERACTIVE) {
+                // 허가 대기 + 실행 시간만 (구독자/병합 쪽을 기다린 시간은 DB 지연이 아님)
+                recordInteractive(Math.max(0, now - ticket.requestedAt - ticket.stalledNanos), now);
+            } else if (priority == Priority.BULK && (!interactiveSeen || now - lastInteractiveAt > IDLE_RESET_NANOS)) {
+                bulkLimit = lanes[Priority.BULK.ordinal()].max;
+            }
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // 허가할 수 있는 대기 요청을 가상 시각이 가장 이른 우선순위부터 깨움 (lock 안에서 호출, 묶음은 자리 수만큼 가상 시각을 씀)
+    private void dispatch() {
+        while (true) {
+            Lane next = null;
+            int nextSlots = 0;
+            for (Lane lane : lanes) {
+                if (lane.queue.isEmpty()) continue;
+                int slots = Math.min(lane.queue.peekFirst().slots, capacity(lane));
+                if (!eligible(lane, slots)) continue;
+                if (next == null || lane.pass < next.pass) {
+                    next = lane;
+                    nextSlots = slots;
+                }
+            }
+            if (next == null) return;
+            Waiter waiter = next.queue.pollFirst();
+            waiter.slots = nextSlots;
+            waiter.admitted = true;
+            inUse += nextSlots;
+            next.inFlight += nextSlots;
+            virtualTime = next.pass;
+            next.pass += next.stride * nextSlots;
+            waiter.granted.signal();
+        }
+    }
+
+    // 우선순위가 한 번에 가질 수 있는 자리 수 (이보다 큰 묶음은 이만큼만 받음)
+    private int capacity(Lane lane) {
+        if (lane.priority == Priority.INTERACTIVE) return Math.min(lane.max, connections);
+        int limit = Math.min(lane.max, connections - reserve);
+        return lane.priority == Priority.BULK ? Math.min(limit, bulkLimit) : limit;
+    }
+
+    private boolean eligible(Lane lane, int slots) {
+        if (inUse + slots > connections) return false;
+        if (lane.inFlight + slots > lane.max) return false;
+        if (lane.priority == Priority.INTERACTIVE) return true;
+        if (inUse + slots > connections - reserve) return false;
+        if (lane.priority == Priority.BULK) {
+            return lane.inFlight + slots <= bulkLimit && lanes[Priority.INTERACTIVE.ordinal()].queue.isEmpty();
+        }
+        return true;
+    }
+
+    // 대화형 작업 시간 기록, ADJUST_EVERY건마다 최근 p99로 대량 한도 조정 (줄일 때는 절반, 늘릴 때는 하나씩)
+    private void recordInteractive(long latencyNanos, long now) {
+        lastInteractiveAt = now;
+        interactiveSeen = true;
+        interactiveLatencies[interactiveCount++ % LATENCY_WINDOW] = latencyNanos;
+        if (interactiveCount % ADJUST_EVERY != 0) return;
+        lastInteractiveP99 = percentile99(interactiveLatencies, interactiveCount);
+        if (lastInteractiveP99 > interactiveTargetNanos) {
+            if (bulkLimit > 1) {
+                bulkLimit = Math.max(1, bulkLimit / 2);
+                bulkCuts++;
+            }
+        } else if (bulkLimit < lanes[Priority.BULK.ordinal()].max) {
+            bulkLimit++;
+        }
+    }
+
+    private static long percentile99(long[] samples, int count) {
+        int size = Math.min(count, samples.length);
+        if (size == 0) return 0;
+        long[] sorted = Arrays.copyOf(samples, size);
+        Arrays.sort(sorted);
+        return sorted[Math.min(size - 1, (int) Math.ceil(size * 0.99) - 1)];
+    }
+
+    // 닫을 때 한 번만 자리를 반납하는 커넥션
+    private Connection wrap(Connection conn, Ticket ticket, AtomicInteger held) {
+        return (Connection) Proxy.newProxyInstance(DbScheduler.class.getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                if (method.getName().equals("close")) {
+                    try {
+                        conn.close();
+                    } finally {
+                        unhold(ticket, held);
+                    }
+                    return null;
+                }
+                try {
+                    return method.invoke(conn, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            });
+    }
+
+    /**
+     * 요약 (사용 중인 커넥션과 우선순위별 대기 수)
+     */
+    public String getStats() {
+        lock.lock();
+        try {
+            StringBuilder summary = new StringBuilder(String.format("DB 스케줄러: 사용 %d/%d", inUse, connections));
+            for (Lane lane : lanes) {
+                summary.append(String.format(", %s 대기 %d", lane.priority.label, lane.queue.size()));
+            }
+            return summary.toString();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 우선순위별 상세 집계 (한 줄에 하나, 마지막 줄은 대화형 지연 목표와 대량 한도)
+     */
+    public List<String> getStatsByPriority() {
+        lock.lock();
+        try {
+            List<String> lines = new ArrayList<>();
+            for (Lane lane : lanes) {
+                double averageMillis = lane.admitted == 0 ? 0 : lane.totalWaitNanos / 1e6 / lane.admitted;
+                lines.add(String.format("%s: 대기 %d, 사용 중 %d/%d, 허가 %d회, 대기 시간 평균 %.1fms / p99 %.1fms / 최대 %.1fms, 대기 초과 %d",
+                    lane.priority.label, lane.queue.size(), lane.inFlight, lane.max, lane.admitted, averageMillis,
+                    percentile99(lane.recentWaits, lane.recentCount) / 1e6, lane.maxWaitNanos / 1e6, lane.timeouts));
+            }
+            lines.add(String.format("대화형 p99 %.1fms (목표 %dms), 대량 동시 한도 %d/%d (줄인 횟수 %d)",
+                lastInteractiveP99 / 1e6, TimeUnit.NANOSECONDS.toMillis(interactiveTargetNanos),
+                bulkLimit, lanes[Priority.BULK.ordinal()].max, bulkCuts));
+            return lines;
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.db;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * InstructionCodec
+ * - recipes.instructions(TEXT) 저장 형식: "~z1:" + Base64(deflate(UTF-8 본문))
+ * - 압축해도 작아지지 않는 짧은 본문은 그대로 저장하고, 표시가 없는 기존 행도 평문으로 그대로 읽음
+ * - 읽을 때는 getCharacterStream()의 Reader를 받아 Base64 해제 → inflate → UTF-8 해석을 스트림으로 이어
+ *   압축된 전체 문자열을 따로 만들지 않음
+ * - 인코딩한 본문 크기 합계(원문/저장)를 모아 절감량을 확인할 수 있음
+ */
+public final class InstructionCodec {
+    /** 압축된 값의 앞 표시 */
+    public static final String MARKER = "~z1:";
+
+    private static final AtomicLong PLAIN_BYTES = new AtomicLong();
+    private static final AtomicLong STORED_BYTES = new AtomicLong();
+
+    private InstructionCodec() {}
+
+    /**
+     * DB에 저장할 값으로 변환 (null은 그대로)
+     */
+    public static String encode(String text) {
+        if (text == null) return null;
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(utf8.length / 2 + 16);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(compressed, deflater)) {
+            out.write(utf8);
+        } catch (IOException e) {
+            throw new IllegalStateException("조리 방법 압축 실패", e); // 메모리 스트림이라 발생하지 않음
+        } finally {
+            deflater.end();
+        }
+        String encoded = MARKER + Base64.getEncoder().encodeToString(compressed.toByteArray());
+        // 평문이 더 짧으면 평문으로 (단, 표시로 시작하는 평문은 압축해야 구분 가능)
+        String stored = encoded.length() < utf8.length || text.startsWith(MARKER) ? encoded : text;
+        PLAIN_BYTES.addAndGet(utf8.length);
+        STORED_BYTES.addAndGet(stored == text ? utf8.length : stored.length());
+        return stored;
+    }
+
+    /**
+     * 저장된 값을 원문으로 (null은 그대로)
+     */
+    public static String decode(String stored) {
+        if (stored == null) return null;
+        if (!stored.startsWith(MARKER)) return stored;
+        try {
+            return readAll(decoding(new StringReader(stored)));
+        } catch (IOException e) {
+            throw new IllegalStateException("조리 방법 압축 해제 실패", e);
+        }
+    }
+
+    /**
+     * DB 컬럼의 Reader를 원문 Reader로 감쌈 (표시가 없으면 그대로 읽음)
+     */
+    public static Reader decoding(Reader raw) throws IOException {
+        PushbackReader in = new PushbackReader(raw, MARKER.length());
+        char[] head = new char[MARKER.length()];
+        int read = 0;
+        while (read < head.length) {
+            int n = in.read(head, read, head.length - read);
+            if (n < 0) break;
+            read += n;
+        }
+        if (read == head.length && MARKER.contentEquals(new String(head))) {
+            InputStream base64 = Base64.getDecoder().wrap(new AsciiInputStream(in));
+            return new InputStreamReader(new InflaterInputStream(base64), StandardCharsets.UTF_8);
+        }
+        in.unread(head, 0, read);
+        return in;
+    }
+
+    /** Reader를 끝까지 읽어 문자열로 */
+    public static String readAll(Reader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[4096];
+        for (int n; (n = reader.read(buffer)) >= 0; ) {
+            text.append(buffer, 0, n);
+        }
+        return text.toString();
+    }
+
+    /**
+     * 지금까지 인코딩한 본문의 원문/저장 크기 요약
+     */
+    public static String getStats() {
+        long plain = PLAIN_BYTES.get();
+        long stored = STORED_BYTES.get();
+        return String.format("조리 방법 저장 %dKB → %dKB (%.0f%%)", plain / 1024, stored / 1024,
+            plain == 0 ? 100.0 : stored * 100.0 / plain);
+    }
+
+    /**
+     * Base64 문자(ASCII)만 담긴 Reader를 바이트 스트림으로
+     */
+    private static class AsciiInputStream extends InputStream {
+        private final Reader reader;
+        private final char[] chars = new char[4096];
+
+        AsciiInputStream(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return reader.read();
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int n = reader.read(chars, 0, Math.min(length, chars.length));
+            for (int i = 0; i < n; i++) {
+                bytes[offset + i] = (byte) chars[i];
+            }
+            return n;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * InstructionCompressTool
+ * - 압축 저장 이전에 들어간 평문 조리 방법을 InstructionCodec 형식으로 바꾸는 명령행 도구 (서비스를 멈추지 않고 실행)
+ * - 사용법: java com.example.db.InstructionCompressTool
+ * - 샤드마다 id 순으로 ID_PAGE개씩 읽어, 아직 압축되지 않은 행만 UPDATE
+ * - UPDATE는 읽은 값과 같을 때만 반영하므로 그사이 사용자가 수정한 행은 덮어쓰지 않음 (그 행은 이미 압축되어 저장됨)
+ * - 압축해도 작아지지 않는 짧은 본문은 평문 그대로 둠
+ * - 대량(BULK) 우선순위로 실행하므로 페이지마다 커넥션을 받을 때 대화형 작업에 먼저 자리를 내줌
+ */
+public class InstructionCompressTool {
+    private static final int ID_PAGE = 500;
+
+    private final ShardRouter shards;
+
+    public InstructionCompressTool(ShardRouter shards) {
+        this.shards = shards;
+    }
+
+    /**
+     * 모든 샤드의 평문 조리 방법 압축
+     * @return 압축해 저장한 행 수
+     */
+    public int run() throws SQLException {
+        String selectSql = "SELECT id, instructions FROM recipes WHERE id > ? ORDER BY id LIMIT " + ID_PAGE;
+        String updateSql = "UPDATE recipes SET instructions = ? WHERE id = ? AND instructions = ?";
+        int compressed = 0;
+        for (int shard = 0; shard < shards.getShardCount(); shard++) {
+            int lastId = 0;
+            int rows;
+            do {
+                rows = 0;
+                try (Connection conn = shards.getConnection(shard);
+                     PreparedStatement select = conn.prepareStatement(selectSql);
+                     PreparedStatement update = conn.prepareStatement(updateSql)) {
+                    select.setInt(1, lastId);
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            rows++;
+                            lastId = rs.getInt("id");
+                            String stored = rs.getString("instructions");
+                            if (stored == null || stored.startsWith(InstructionCodec.MARKER)) continue;
+                            String encoded = InstructionCodec.encode(stored);
+                            if (encoded.equals(stored)) continue; // 평문이 더 짧은 경우
+                            update.setString(1, encoded);
+                            update.setInt(2, lastId);
+                            update.setString(3, stored);
+                            update.addBatch();
+                        }
+                    }
+                    for (int updated : update.executeBatch()) {
+                        if (updated > 0) compressed++;
+                    }
+                }
+            } while (rows == ID_PAGE);
+            System.out.println("샤드 " + (shard + 1) + " 완료 (누적 " + compressed + "건 압축)");
+        }
+        return compressed;
+    }
+
+    @SuppressWarnings("try")
+    public static void main(String[] args) throws SQLException {
+        int compressed;
+        try (DbScheduler.Scope ignored = DbScheduler.withPriority(DbScheduler.Priority.BULK)) {
+            compressed = new InstructionCompressTool(ShardRouter.getInstance()).run();
+        }
+        System.out.println("압축 완료: " + compressed + "건. " + InstructionCodec.getStats());
+    }
+}
@@ -0,0 +1,222 @@
+package com.example.db;
+
+import java.sql.SQLException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * OfflineWriteQueue
+ * - DB에 연결할 수 없을 때 들어온 쓰기 작업을 순서대로 보관
+ * - 연결이 복구되면 replay()로 쌓인 작업을 원래 순서대로 다시 실행
+ * - 보관은 메모리에만 하므로 프로그램을 종료하면 대기 중인 작업은 사라짐 (MainFrame은 남은 작업이 있으면 닫기 전에 확인)
+ * - 재실행 중 연결 오류가 아닌 이유로 실패한 작업은 버리지 않고 실패 목록에 남겨 사용자가 다시 시도하거나 버릴 수 있음
+ * - 대기열에 들어간 새 행은 음수 임시 id를 받고, 재실행으로 실제 id가 생기면 bindId()로 연결해
+ *   그 행을 대상으로 나중에 쌓인 수정/삭제도 resolve()로 실제 id를 찾아 반영됨
+ * - 재실행할 주체가 없는 곳(명령행 도구)은 setEnabled(false)로 끄면 연결 오류도 바로 실패로 돌려줌
+ */
+public class OfflineWriteQueue {
+    private static OfflineWriteQueue instance;
+
+    /**
+     * DB 쓰기 작업 (SQLException을 그대로 던져 재시도 여부를 판단)
+     */
+    @FunctionalInterface
+    public interface SqlWrite {
+        void run() throws SQLException;
+    }
+
+    /**
+     * 대기 중인 쓰기 작업 (작업 이름 + 실행 내용)
+     */
+    private static class PendingWrite {
+        private final String operation;
+        private final SqlWrite write;
+
+        PendingWrite(String operation, SqlWrite write) {
+            this.operation = operation;
+            this.write = write;
+        }
+    }
+
+    /**
+     * 재실행에 실패한 작업 (실패 이유 포함)
+     */
+    public static final class FailedWrite {
+        private final PendingWrite write;
+        private final String reason;
+
+        private FailedWrite(PendingWrite write, String reason) {
+            this.write = write;
+            this.reason = reason;
+        }
+
+        public String getOperation() {
+            return write.operation;
+        }
+
+        public String getReason() {
+            return reason;
+        }
+
+        @Override
+        public String toString() {
+            return write.operation + " - " + reason;
+        }
+    }
+
+    private final Deque<PendingWrite> pending = new ArrayDeque<>();
+    private final List<FailedWrite> failed = new ArrayList<>();
+    // 임시 id → 재실행으로 발급된 실제 id
+    private final Map<Integer, Integer> boundIds = new HashMap<>();
+    // replay()를 한 번에 하나만 실행 (큐 락과 별개라 재실행 중에도 run()은 막히지 않음)
+    private final Object replayLock = new Object();
+    private int lastTemporaryId;
+    private volatile boolean enabled = true;
+
+    private OfflineWriteQueue() {}
+
+    public static synchronized OfflineWriteQueue getInstance() {
+        if (instance == null) {
+            instance = new OfflineWriteQueue();
+        }
+        return instance;
+    }
+
+    /**
+     * 쓰기 작업 실행
+     * - 연결 오류면 큐에 넣고 정상 반환, 그 외 오류는 "operation 중 오류 발생"으로 전달
+     * - 이미 대기 중인 작업이 있으면 순서를 지키기 위해 바로 큐 뒤에 붙임
+     */
+    public void run(String operation, SqlWrite write) {
+        run(operation, write, null);
+    }
+
+    /**
+     * 쓰기 작업 실행 (대기열에 들어가면 whenQueued를 호출 스레드에서 한 번 실행 - 스냅샷에 미리 반영하는 용도)
+     */
+    public void run(String operation, SqlWrite write, Runnable whenQueued) {
+        boolean queued = false;
+        synchronized (this) {
+            if (!pending.isEmpty()) {
+                pending.addLast(new PendingWrite(operation, write));
+                queued = true;
+            }
+        }
+        if (!queued) {
+            try {
+                write.run();
+            } catch (SQLException e) {
+                if (!enabled || !DatabaseConnection.isConnectionFailure(e)) {
+                    throw new RuntimeException(operation + " 중 오류 발생", e);
+                }
+                synchronized (this) {
+                    pending.addLast(new PendingWrite(operation, write));
+                }
+                queued = true;
+            }
+        }
+        if (queued && whenQueued != null) {
+            whenQueued.run();
+        }
+    }
+
+    /**
+     * 대기 중인 작업을 순서대로 재실행
+     * - 다시 연결 오류가 나면 그 작업부터 남겨두고 중단
+     * - 연결 오류가 아닌 실패는 실패 목록으로 옮기고 다음 작업을 계속 (getFailed()로 확인)
+     * - DB 작업은 큐 락 밖에서 실행하고(그동안 run()/size()는 막히지 않음), 끝난 작업을 빼거나
+     *   실패 목록으로 옮길 때만 락을 잡음 (임시 id 연결은 작업 안의 bindId()가 따로 락을 잡음)
+     * - 재실행은 한 번에 하나만 (replayLock), 대기열 맨 앞은 재실행하는 쪽만 빼므로 꺼낸 작업이 그대로 맨 앞에 있음
+     * @return 이번에 반영(또는 실패 목록으로 옮긴) 작업 수
+     */
+    public int replay() {
+        synchronized (replayLock) {
+            int done = 0;
+            while (true) {
+                List<PendingWrite> batch;
+                synchronized (this) {
+                    batch = new ArrayList<>(pending);
+                }
+                if (batch.isEmpty()) {
+                    return done;
+                }
+                for (PendingWrite next : batch) {
+                    String failure = null;
+                    try {
+                        next.write.run();
+                    } catch (SQLException | RuntimeException e) {
+                        if (e instanceof SQLException && DatabaseConnection.isConnectionFailure((SQLException) e)) {
+                            return done;
+                        }
+                        failure = e.getMessage();
+                    }
+                    synchronized (this) {
+                        pending.removeFirst();
+                        if (failure != null) {
+                            failed.add(new FailedWrite(next, failure));
+                        }
+                    }
+                    done++;
+                }
+            }
+        }
+    }
+
+    /** 재실행에 실패해 남아 있는 작업 (오래된 순) */
+    public synchronized List<FailedWrite> getFailed() {
+        return new ArrayList<>(failed);
+    }
+
+    /**
+     * 실패한 작업을 대기열 뒤에 다시 넣고 재실행
+     * @return 이번에 반영(또는 다시 실패 목록으로 옮긴) 작업 수
+     */
+    public int retryFailed() {
+        synchronized (this) {
+            for (FailedWrite write : failed) {
+                pending.addLast(write.write);
+            }
+            failed.clear();
+        }
+        return replay();
+    }
+
+    /** 실패한 작업을 모두 버림 */
+    public synchronized void discardFailed() {
+        failed.clear();
+    }
+
+    /** 대기열에 들어간 새 행에 붙일 임시 id (-1, -2, ...) */
+    public synchronized int nextTemporaryId() {
+        return --lastTemporaryId;
+    }
+
+    /** 임시 id를 재실행 때 발급된 실제 id와 연결 */
+    public synchronized void bindId(int temporaryId, int id) {
+        boundIds.put(temporaryId, id);
+    }
+
+    /** 실제 id (임시 id가 아니거나 아직 반영 전이면 그대로) */
+    public synchronized int resolve(int id) {
+        return id < 0 ? boundIds.getOrDefault(id, id) : id;
+    }
+
+    /** 연결 오류 때 대기열에 넣을지 여부 (끄면 연결 오류도 "operation 중 오류 발생"으로 전달) */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /** 대기 중인 작업 수 */
+    public synchronized int size() {
+        return pending.size();
+    }
+
+    /** 오프라인 상태(대기 중인 쓰기 존재) 여부 */
+    public synchronized boolean hasPending() {
+        return !pending.isEmpty();
+    }
+}
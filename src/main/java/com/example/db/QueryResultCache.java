@@ -0,0 +1,117 @@
+package com.example.db;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * QueryResultCache
+ * - "쿼리 + 파라미터" 키로 조회 결과를 보관하는 LRU 캐시
+ * - 항목마다 저장 당시 테이블 버전(TableVersions.stamp)을 함께 두고, 조회 시 현재 버전과 다르면 버림
+ * - 메모리는 항목 무게(예: 레시피 수)의 합으로 제한하며, 넘치면 가장 오래 안 쓴 항목부터 제거
+ * - 값의 복사는 호출하는 DAO가 담당 (캐시는 받은 객체를 그대로 보관)
+ * - 테이블 버전은 다른 클라이언트의 쓰기를 폴링 주기만큼 늦게 알고 직접 SQL로 고친 행은 모르므로,
+ *   ttlMillis(0이면 끔)보다 오래된 항목은 버전이 같아도 버림
+ */
+public class QueryResultCache<V> {
+    private static class Entry<V> {
+        final V value;
+        final long stamp;
+        final int weight;
+        final long storedAt;
+
+        Entry(V value, long stamp, int weight, long storedAt) {
+            this.value = value;
+            this.stamp = stamp;
+            this.weight = weight;
+            this.storedAt = storedAt;
+        }
+    }
+
+    private final String name;
+    private final int maxWeight;
+    private final long ttlMillis;
+    // accessOrder = true: get 할 때마다 맨 뒤로 이동하므로 맨 앞이 가장 오래 안 쓴 항목
+    private final LinkedHashMap<String, Entry<V>> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private int totalWeight;
+    private long hits;
+    private long misses;
+    private long stale;
+    private long evictions;
+
+    public QueryResultCache(String name, int maxWeight) {
+        this(name, maxWeight, 0);
+    }
+
+    public QueryResultCache(String name, int maxWeight, long ttlMillis) {
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.ttlMillis = ttlMillis;
+    }
+
+    /**
+     * 현재 버전과 같은 항목이 있으면 값, 없거나 오래됐으면(버전이 다르거나 TTL 초과) null
+     */
+    public synchronized V get(String key, long currentStamp) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        if (entry.stamp != currentStamp
+                || (ttlMillis > 0 && System.currentTimeMillis() - entry.storedAt > ttlMillis)) {
+            entries.remove(key);
+            totalWeight -= entry.weight;
+            stale++;
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.value;
+    }
+
+    /**
+     * 결과 저장 (stamp는 조회를 시작하기 전에 읽은 값이어야 함)
+     * - 조회 도중 쓰기가 있었다면 저장된 stamp가 이미 낡아 다음 get에서 버려짐
+     */
+    public synchronized void put(String key, long stamp, V value, int weight) {
+        if (weight > maxWeight) return; // 한 항목이 전체 한도를 넘으면 보관하지 않음
+        Entry<V> previous = entries.put(key, new Entry<>(value, stamp, weight, System.currentTimeMillis()));
+        if (previous != null) {
+            totalWeight -= previous.weight;
+        }
+        totalWeight += weight;
+        Iterator<Map.Entry<String, Entry<V>>> it = entries.entrySet().iterator();
+        while (totalWeight > maxWeight && it.hasNext()) {
+            Entry<V> eldest = it.next().getValue();
+            it.remove();
+            totalWeight -= eldest.weight;
+            evictions++;
+        }
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        totalWeight = 0;
+    }
+
+    public synchronized long getHits() { return hits; }
+    public synchronized long getMisses() { return misses; }
+    /** 버전이 바뀌어 버린 항목 수 */
+    public synchronized long getStaleCount() { return stale; }
+    public synchronized long getEvictions() { return evictions; }
+    public synchronized int getSize() { return entries.size(); }
+    public synchronized int getTotalWeight() { return totalWeight; }
+
+    /** 적중률 (0~1, 조회가 없으면 0) */
+    public synchronized double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0.0 : (double) hits / total;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return String.format("%s: 적중률 %.1f%% (적중 %d / 조회 %d, 만료 %d, 제거 %d, 항목 %d개, 무게 %d/%d)",
+            name, getHitRatio() * 100, hits, hits + misses, stale, evictions, entries.size(), totalWeight, maxWeight);
+    }
+}
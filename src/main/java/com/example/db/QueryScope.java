@@ -0,0 +1,316 @@
+package com.example.db;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * QueryScope
+ * - 작업 하나(예: "recipe.list" 레시피 목록 조회)에 쓰이는 쿼리들의 시간 예산과 취소 핸들
+ * - 예산은 query.timeout.<작업 id>.ms → query.timeout.ms(기본 15000) 순으로 찾고, 안쪽 작업은 바깥 작업의 마감보다 늦을 수 없음
+ * - run() 안에서 얻은 커넥션의 Statement는 모두 이 범위에 등록되어 남은 시간으로 setQueryTimeout이 걸리고,
+ *   cancel() 또는 마감 시 Statement.cancel()로 실행 중인 쿼리를 중단 (커넥션은 호출 스레드의 try-with-resources가 바로 반납)
+ * - 취소/시간 초과된 범위에서는 새 쿼리를 시작하지 않고 바로 예외를 던짐
+ * - pause()~resume() 사이(스트리밍 구독자의 요청을 기다리는 시간 등 DB 작업이 아닌 시간)는 예산에서 빼고 마감을 그만큼 늦춤
+ * - 작업별 실행/시간 초과/취소 횟수를 모아 예산 조정에 사용
+ */
+public final class QueryScope implements AutoCloseable {
+    private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+    private static final Map<String, Counters> STATS = new ConcurrentHashMap<>();
+    private static final ScheduledExecutorService TIMER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "query-deadline");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final int RUNNING = 0;
+    private static final int CANCELLED = 1;
+    private static final int TIMED_OUT = 2;
+    private static final int CLOSED = 3;
+
+    /**
+     * 작업별 집계
+     */
+    private static class Counters {
+        final AtomicLong started = new AtomicLong();
+        final AtomicLong timedOut = new AtomicLong();
+        final AtomicLong cancelled = new AtomicLong();
+    }
+
+    private final String operation;
+    private volatile long deadlineNanos;
+    private final QueryScope parent;
+    private final AtomicInteger state = new AtomicInteger(RUNNING);
+    private final Set<Statement> statements = ConcurrentHashMap.newKeySet();
+    private final List<QueryScope> children = new CopyOnWriteArrayList<>();
+    private volatile ScheduledFuture<?> timer;
+    // pause() 시각 (멈추지 않았으면 0, 이 객체로 동기화)
+    private long pausedAt;
+
+    private QueryScope(String operation, long budgetMillis, QueryScope parent) {
+        this.operation = operation;
+        this.parent = parent;
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        if (parent != null && parent.deadlineNanos - deadline < 0) {
+            deadline = parent.deadlineNanos;
+        }
+        this.deadlineNanos = deadline;
+        STATS.computeIfAbsent(operation, k -> new Counters()).started.incrementAndGet();
+        if (parent != null) {
+            parent.children.add(this);
+            if (parent.state.get() != RUNNING) {
+                state.set(parent.state.get());
+            }
+        }
+        timer = TIMER.schedule(this::expire, Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 설정된 예산으로 작업 범위 생성 (현재 스레드에 범위가 있으면 그 마감을 넘지 않음)
+     */
+    public static QueryScope open(String operation) {
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        String budget = db.getProperty("query.timeout." + operation + ".ms", db.getProperty("query.timeout.ms", "15000"));
+        return open(operation, Long.parseLong(budget.trim()));
+    }
+
+    /**
+     * 예산을 직접 지정해 작업 범위 생성
+     */
+    public static QueryScope open(String operation, long budgetMillis) {
+        return new QueryScope(operation, budgetMillis, CURRENT.get());
+    }
+
+    /** 현재 스레드에서 실행 중인 작업 범위 (없으면 null) */
+    public static QueryScope current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * 이 범위 안에서 작업 실행 (어느 스레드에서든 호출 가능, 끝나면 이전 범위로 복원)
+     */
+    public <T> T run(Supplier<T> work) {
+        QueryScope previous = enter(this);
+        try {
+            return work.get();
+        } finally {
+            enter(previous);
+        }
+    }
+
+    /**
+     * 현재 스레드의 범위를 바꾸고 이전 범위를 돌려줌 (다른 스레드로 마감을 넘길 때 사용)
+     */
+    static QueryScope enter(QueryScope scope) {
+        QueryScope previous = CURRENT.get();
+        if (scope == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(scope);
+        }
+        return previous;
+    }
+
+    /**
+     * 실행 중인 쿼리를 모두 중단하고 이후 쿼리도 막음 (하위 범위 포함)
+     */
+    public void cancel() {
+        if (state.compareAndSet(RUNNING, CANCELLED)) {
+            STATS.get(operation).cancelled.incrementAndGet();
+            stopAll();
+        }
+    }
+
+    /**
+     * 마감 시계를 멈춤 (resume()까지의 시간은 예산에 넣지 않음, 이미 멈췄으면 무시)
+     */
+    synchronized void pause() {
+        if (pausedAt != 0 || state.get() != RUNNING) return;
+        timer.cancel(false);
+        pausedAt = Math.max(1, System.nanoTime());
+    }
+
+    /**
+     * 멈춘 시간만큼 마감을 늦추고 시계를 다시 돌림
+     */
+    synchronized void resume() {
+        if (pausedAt == 0) return;
+        deadlineNanos += System.nanoTime() - pausedAt;
+        pausedAt = 0;
+        if (state.get() == RUNNING) {
+            timer = TIMER.schedule(this::expire, Math.max(0, deadlineNanos - System.nanoTime()), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void expire() {
+        if (state.compareAndSet(RUNNING, TIMED_OUT)) {
+            STATS.get(operation).timedOut.incrementAndGet();
+            stopAll();
+        }
+    }
+
+    private void stopAll() {
+        timer.cancel(false);
+        for (Statement statement : statements) {
+            try {
+                statement.cancel();
+            } catch (SQLException ignored) {
+                // 이미 끝난 Statement
+            }
+        }
+        for (QueryScope child : children) {
+            child.stopAsParent(state.get());
+        }
+    }
+
+    // 부모가 취소/시간 초과되면 자식도 같은 상태로 (집계는 부모 작업에만 남김)
+    private void stopAsParent(int parentState) {
+        if (state.compareAndSet(RUNNING, parentState)) {
+            stopAll();
+        }
+    }
+
+    public boolean isCancelled() {
+        return state.get() == CANCELLED;
+    }
+
+    public boolean isTimedOut() {
+        return state.get() == TIMED_OUT;
+    }
+
+    /** 남은 시간 (ms, 지났으면 0) */
+    public long remainingMillis() {
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime()));
+    }
+
+    /**
+     * 작업 종료 - 마감 타이머 해제 (취소/시간 초과 상태는 그대로 남아 결과를 버릴지 판단하는 데 쓸 수 있음)
+     */
+    @Override
+    public void close() {
+        timer.cancel(false);
+        state.compareAndSet(RUNNING, CLOSED);
+        statements.clear();
+        if (parent != null) {
+            parent.children.remove(this);
+        }
+    }
+
+    // 새 쿼리를 시작해도 되는지 확인
+    private void checkActive() throws SQLException {
+        int current = state.get();
+        if (current == TIMED_OUT || (current == RUNNING && deadlineNanos - System.nanoTime() <= 0)) {
+            throw new SQLTimeoutException(operation + " 작업의 시간 예산을 넘었습니다.", "HYT00");
+        }
+        if (current == CANCELLED) {
+            throw new SQLException(operation + " 작업이 취소되었습니다.", "70100");
+        }
+    }
+
+    private void register(Statement statement) throws SQLException {
+        checkActive();
+        // setQueryTimeout은 초 단위라 올림 (정확한 마감은 타이머가 처리하고, 이것은 서버 쪽 안전장치)
+        statement.setQueryTimeout((int) Math.max(1, (remainingMillis() + 999) / 1000));
+        statements.add(statement);
+    }
+
+    /**
+     * 현재 스레드에 범위가 있으면 커넥션에서 만드는 Statement를 범위에 등록하도록 감쌈 (없으면 그대로 반환)
+     */
+    static Connection track(Connection conn) throws SQLException {
+        QueryScope scope = CURRENT.get();
+        if (scope == null) return conn;
+        try {
+            scope.checkActive();
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return (Connection) Proxy.newProxyInstance(QueryScope.class.getClassLoader(), new Class<?>[]{Connection.class},
+            (proxy, method, args) -> {
+                Object result = invoke(conn, method, args);
+                if (result instanceof Statement && isStatementFactory(method)) {
+                    return scope.wrap((Statement) result, method.getReturnType());
+                }
+                return result;
+            });
+    }
+
+    private static boolean isStatementFactory(Method method) {
+        String name = method.getName();
+        return name.equals("createStatement") || name.equals("prepareStatement") || name.equals("prepareCall");
+    }
+
+    // 닫힐 때 범위에서 빠지는 Statement
+    private Statement wrap(Statement statement, Class<?> type) throws SQLException {
+        try {
+            register(statement);
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+        Class<?> iface = type == CallableStatement.class ? CallableStatement.class
+            : type == PreparedStatement.class ? PreparedStatement.class : Statement.class;
+        return (Statement) Proxy.newProxyInstance(QueryScope.class.getClassLoader(), new Class<?>[]{iface},
+            (proxy, method, args) -> {
+                if (method.getName().equals("close")) {
+                    statements.remove(statement);
+                }
+                return invoke(statement, method, args);
+            });
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 작업별 실행/시간 초과/취소 횟수 요약
+     */
+    public static String getStats() {
+        long started = 0, timedOut = 0, cancelled = 0;
+        for (Counters counters : STATS.values()) {
+            started += counters.started.get();
+            timedOut += counters.timedOut.get();
+            cancelled += counters.cancelled.get();
+        }
+        return String.format("쿼리 작업 %d회 (시간 초과 %d, 취소 %d)", started, timedOut, cancelled);
+    }
+
+    /**
+     * 작업별 상세 집계 (작업 이름순, 한 줄에 하나)
+     */
+    public static List<String> getStatsByOperation() {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Counters> entry : new TreeMap<>(STATS).entrySet()) {
+            Counters counters = entry.getValue();
+            lines.add(String.format("%s: %d회, 시간 초과 %d, 취소 %d", entry.getKey(),
+                counters.started.get(), counters.timedOut.get(), counters.cancelled.get()));
+        }
+        return lines;
+    }
+}
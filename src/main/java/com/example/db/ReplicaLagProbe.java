@@ -0,0 +1,46 @@
+package com.example.db;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * ReplicaLagProbe
+ * - 읽기 전용 복제 서버가 주 서버보다 얼마나 뒤처져 있는지(ms) 확인하는 방법
+ * - 기본 구현(MYSQL)은 SHOW REPLICA STATUS의 Seconds_Behind_Source를 사용
+ * - 로컬 테스트에서는 복제 서버 URL별로 원하는 지연을 돌려주는 구현으로 바꿔 끼울 수 있음
+ *   (database.properties의 db.replica.lag.probe에 클래스 이름 지정 또는 DatabaseConnection.setLagProbe)
+ */
+@FunctionalInterface
+public interface ReplicaLagProbe {
+    /** 복제가 멈췄거나 상태를 알 수 없을 때의 지연 값 */
+    long UNKNOWN = Long.MAX_VALUE;
+
+    /**
+     * 복제 지연(ms) 조회
+     * @param replicaUrl 복제 서버 JDBC URL
+     * @param replica 그 서버에 새로 연 커넥션 (닫지 말 것)
+     */
+    long lagMillis(String replicaUrl, Connection replica) throws SQLException;
+
+    /**
+     * MySQL 8.0.22+ (SHOW REPLICA STATUS), 이전 버전은 SHOW SLAVE STATUS로 재시도
+     */
+    ReplicaLagProbe MYSQL = (replicaUrl, replica) -> {
+        try (Statement stmt = replica.createStatement()) {
+            try (ResultSet rs = stmt.executeQuery("SHOW REPLICA STATUS")) {
+                return rs.next() ? toMillis(rs.getObject("Seconds_Behind_Source")) : UNKNOWN;
+            } catch (SQLException e) {
+                try (ResultSet rs = stmt.executeQuery("SHOW SLAVE STATUS")) {
+                    return rs.next() ? toMillis(rs.getObject("Seconds_Behind_Master")) : UNKNOWN;
+                }
+            }
+        }
+    };
+
+    // NULL이면 SQL 스레드가 멈춘 상태
+    private static long toMillis(Object seconds) {
+        return seconds == null ? UNKNOWN : ((Number) seconds).longValue() * 1000L;
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ReshardTool
+ * - 샤드 수를 바꿀 때 레시피를 새 해시 위치로 옮기는 명령행 도구 (서비스를 멈추지 않고 실행)
+ * - 사용법: java com.example.db.ReshardTool <새 샤드 수>
+ *   1) database.properties에 새 샤드의 db.shard.N.url을 추가하고, db.shard.count는 기존 값으로 둔 채 실행
+ *   2) 완료 후 db.shard.count를 새 샤드 수로 바꾸고 재시작
+ * - 레시피 한 건씩: 원본 행 잠금(FOR UPDATE) → 대상 샤드에 레시피/재료/즐겨찾기 복사 → 대상의 행 수가
+ *   원본과 같은지 확인 후 커밋 → 원본 삭제(정확히 1행인지 확인) 후 커밋. 확인이 맞지 않으면 두 쪽 모두 롤백하고 중단
+ * - 복사와 삭제 사이에는 두 샤드에 같은 레시피가 있지만, 전체 조회는 id로 중복을 제거하고 단건 조회/쓰기는
+ *   해시 위치에 없으면 나머지 샤드를 찾으므로 옮기는 동안에도 읽기/쓰기가 계속 동작
+ * - 도중에 멈춰도 다시 실행하면 남은 레시피만 옮김. 대상에 이미 있는 레시피는 이전 실행이 복사만 하고
+ *   원본을 지우지 못한 것이므로 (그사이 쓰기는 원본에 반영됨) 대상 쪽을 지우고 원본에서 다시 복사
+ *   (INSERT IGNORE로 건너뛰면 오래된 복사본만 남고 원본이 지워져 바뀐 내용을 잃음)
+ * - 대량(BULK) 우선순위로 실행하므로 레시피마다 커넥션을 받을 때 대화형 작업에 먼저 자리를 내줌
+ */
+public class ReshardTool {
+    // 원본 샤드에서 한 번에 읽는 레시피 id 수
+    private static final int ID_PAGE = 500;
+
+    private final ShardRouter shards;
+    private final int newCount;
+
+    public ReshardTool(ShardRouter shards, int newCount) {
+        if (newCount < 1 || newCount > shards.getShardCount()) {
+            throw new IllegalArgumentException("새 샤드 수는 1 이상, 설정된 샤드 수(" + shards.getShardCount() + ") 이하여야 합니다.");
+        }
+        this.shards = shards;
+        this.newCount = newCount;
+    }
+
+    /**
+     * 모든 샤드를 돌며 새 해시 위치와 다른 레시피를 옮김
+     * @return 옮긴 레시피 수
+     */
+    public int run() throws SQLException {
+        int moved = 0;
+        for (int source = 0; source < shards.getShardCount(); source++) {
+            int lastId = 0;
+            List<Integer> page;
+            do {
+                page = idsAfter(source, lastId);
+                for (int recipeId : page) {
+                    int target = ShardRouter.shardOf(recipeId, newCount);
+                    if (target != source && move(recipeId, source, target)) {
+                        moved++;
+                    }
+                    lastId = recipeId;
+                }
+            } while (page.size() == ID_PAGE);
+            System.out.println("샤드 " + (source + 1) + " 완료 (누적 " + moved + "건 이동)");
+        }
+        return moved;
+    }
+
+    // 원본 샤드에서 lastId 이후의 레시피 id 한 페이지
+    private List<Integer> idsAfter(int source, int lastId) throws SQLException {
+        String sql = "SELECT id FROM recipes WHERE id > ? ORDER BY id LIMIT " + ID_PAGE;
+        List<Integer> ids = new ArrayList<>();
+        try (Connection conn = shards.getConnection(source);
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, lastId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    ids.add(rs.getInt(1));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * 레시피 한 건 이동
+     * @return 옮겼으면 true (그사이 삭제된 경우 false)
+     */
+    private boolean move(int recipeId, int source, int target) throws SQLException {
+        try (Connection from = shards.getConnection(source);
+             Connection to = shards.getConnection(target)) {
+            from.setAutoCommit(false);
+            to.setAutoCommit(false);
+            try {
+                // 옮기는 동안 원본 수정을 막음
+                try (PreparedStatement lock = from.prepareStatement("SELECT id FROM recipes WHERE id = ? FOR UPDATE")) {
+                    lock.setInt(1, recipeId);
+                    try (ResultSet rs = lock.executeQuery()) {
+                        if (!rs.next()) {
+                            from.rollback();
+                            return false; // 그사이 삭제됨
+                        }
+                    }
+                }
+                if (count(to, "SELECT COUNT(*) FROM recipes WHERE id = ?", recipeId) > 0) {
+                    // 이전 실행이 남긴 복사본 (자식 행은 ON DELETE CASCADE로 함께 삭제)
+                    try (PreparedStatement stale = to.prepareStatement("DELETE FROM recipes WHERE id = ?")) {
+                        stale.setInt(1, recipeId);
+                        stale.executeUpdate();
+                    }
+                }
+                copy(from, to, recipeId, "recipes", "id",
+                    "SELECT id, name, instructions, last_cooked_at FROM recipes WHERE id = ?",
+                    "INSERT INTO recipes (id, name, instructions, last_cooked_at) VALUES (?, ?, ?, ?)");
+                copy(from, to, recipeId, "recipe_ingredients", "recipe_id",
+                    "SELECT recipe_id, ingredient_name, required_quantity FROM recipe_ingredients WHERE recipe_id = ?",
+                    "INSERT INTO recipe_ingredients (recipe_id, ingredient_name, required_quantity) VALUES (?, ?, ?)");
+                copy(from, to, recipeId, "favorite_recipes", "recipe_id",
+                    "SELECT recipe_id, created_at, note, rating FROM favorite_recipes WHERE recipe_id = ?",
+                    "INSERT INTO favorite_recipes (recipe_id, created_at, note, rating) VALUES (?, ?, ?, ?)");
+                to.commit();
+                try (PreparedStatement delete = from.prepareStatement("DELETE FROM recipes WHERE id = ?")) {
+                    // recipe_ingredients, favorite_recipes는 ON DELETE CASCADE로 함께 삭제
+                    delete.setInt(1, recipeId);
+                    int deleted = delete.executeUpdate();
+                    if (deleted != 1) {
+                        // 잠근 행이 지워지지 않음: 대상에 넣은 복사본을 지우고 중단
+                        from.rollback();
+                        removeCopy(to, recipeId);
+                        throw new SQLException("레시피 " + recipeId + " 원본 삭제 행 수가 " + deleted + "입니다. 재배치를 중단합니다.");
+                    }
+                }
+                from.commit();
+                return true;
+            } catch (SQLException e) {
+                to.rollback();
+                from.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 조회 결과 열을 그대로 대상 INSERT 파라미터로 복사하고, 넣은 행 수와 대상 테이블의 행 수가 원본과 같은지 확인
+     * (다르면 SQLException - 호출자가 두 쪽 모두 롤백)
+     */
+    private static void copy(Connection from, Connection to, int recipeId, String table, String idColumn,
+                             String selectSql, String insertSql) throws SQLException {
+        int selected = 0;
+        int inserted = 0;
+        try (PreparedStatement select = from.prepareStatement(selectSql);
+             PreparedStatement insert = to.prepareStatement(insertSql)) {
+            select.setInt(1, recipeId);
+            try (ResultSet rs = select.executeQuery()) {
+                int columns = rs.getMetaData().getColumnCount();
+                while (rs.next()) {
+                    for (int i = 1; i <= columns; i++) {
+                        insert.setObject(i, rs.getObject(i));
+                    }
+                    insert.addBatch();
+                    selected++;
+                }
+            }
+            for (int result : insert.executeBatch()) {
+                // 드라이버가 행 수를 알려 주지 않으면(SUCCESS_NO_INFO) 아래 COUNT로 확인
+                inserted += result == Statement.SUCCESS_NO_INFO ? 1 : result;
+            }
+        }
+        int present = count(to, "SELECT COUNT(*) FROM " + table + " WHERE " + idColumn + " = ?", recipeId);
+        if (inserted != selected || present != selected) {
+            throw new SQLException(String.format("레시피 %d의 %s 복사 행 수가 맞지 않습니다 (원본 %d, 삽입 %d, 대상 %d). 재배치를 중단합니다.",
+                recipeId, table, selected, inserted, present));
+        }
+    }
+
+    private static int count(Connection conn, String sql, int recipeId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, recipeId);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : 0;
+            }
+        }
+    }
+
+    // 커밋한 복사본을 되돌림 (원본 삭제가 확인되지 않았을 때)
+    private static void removeCopy(Connection to, int recipeId) throws SQLException {
+        try (PreparedStatement delete = to.prepareStatement("DELETE FROM recipes WHERE id = ?")) {
+            delete.setInt(1, recipeId);
+            delete.executeUpdate();
+        }
+        to.commit();
+    }
+
+    @SuppressWarnings("try")
+    public static void main(String[] args) throws SQLException {
+        if (args.length != 1) {
+            System.err.println("사용법: java com.example.db.ReshardTool <새 샤드 수>");
+            System.exit(1);
+        }
+        int newCount = Integer.parseInt(args[0]);
+        int moved;
+        try (DbScheduler.Scope ignored = DbScheduler.withPriority(DbScheduler.Priority.BULK)) {
+            moved = new ReshardTool(ShardRouter.getInstance(), newCount).run();
+        }
+        System.out.println("이동 완료: " + moved + "건. 이제 db.shard.count=" + newCount + "로 설정하고 재시작하세요.");
+    }
+}
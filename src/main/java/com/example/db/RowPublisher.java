@@ -0,0 +1,176 @@
+package com.example.db;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+/**
+ * RowPublisher
+ * - DB 조회 결과를 한 건씩 흘려보내는 Flow.Publisher (구독마다 조회를 새로 실행)
+ * - 조회는 별도 스레드에서 실행되며, 구독자가 request(n)로 요청한 만큼만 내보내고 요청이 없으면 멈춰 기다림
+ *   (스트리밍 ResultSet과 함께 쓰면 DB에서 읽는 속도까지 구독자 처리 속도에 맞춰짐)
+ * - 구독마다 QueryScope(작업 id = operation)를 열어 시간 예산을 적용하고, cancel()은 실행 중인 쿼리까지 중단
+ * - 구독자 요청을 기다리는 시간은 DB 작업이 아니므로 예산에서 뺌 (느린 화면이 조회 시간 초과를 내지 않도록)
+ *   대신 query.stream.idle.ms(기본 300000) 동안 요청이 없으면 버려진 구독으로 보고 조회를 끝내 커넥션을 돌려줌
+ * - 조회 스레드는 구독한 스레드의 DbScheduler 우선순위로 커넥션을 받음
+ * - 신호는 모두 조회 스레드 하나에서 순서대로 전달 (onSubscribe → onNext* → onComplete | onError)
+ */
+public class RowPublisher<T> implements Flow.Publisher<T> {
+    private static final ExecutorService POOL = Executors.newCachedThreadPool(r -> {
+        Thread thread = new Thread(r, "row-stream");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 결과를 sink로 순서대로 넘기는 조회 (sink는 구독자 요청이 있을 때까지 막힐 수 있음)
+     */
+    @FunctionalInterface
+    public interface Producer<T> {
+        void produce(Consumer<T> sink) throws SQLException;
+    }
+
+    private final String operation;
+    private final Producer<T> producer;
+    private final long idleMillis;
+
+    public RowPublisher(String operation, Producer<T> producer) {
+        this.operation = operation;
+        this.producer = producer;
+        this.idleMillis = Long.parseLong(
+            DatabaseConnection.getInstance().getProperty("query.stream.idle.ms", "300000").trim());
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+        // 구독하는 스레드에 작업 범위가 있으면 그 마감을 이어받음
+        RowSubscription subscription = new RowSubscription(subscriber, QueryScope.open(operation), DbScheduler.capture());
+        subscriber.onSubscribe(subscription);
+        POOL.execute(subscription::drive);
+    }
+
+    /**
+     * 구독 하나 (요청 수 관리와 조회 실행)
+     */
+    private class RowSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super T> subscriber;
+        private final QueryScope scope;
+        private final DbScheduler.Context priority;
+        private long demand;
+        private boolean cancelled;
+        private IllegalArgumentException invalidRequest;
+
+        RowSubscription(Flow.Subscriber<? super T> subscriber, QueryScope scope, DbScheduler.Context priority) {
+            this.subscriber = subscriber;
+            this.scope = scope;
+            this.priority = priority;
+        }
+
+        @Override
+        public synchronized void request(long n) {
+            if (cancelled) return;
+            if (n <= 0) {
+                // 규약상 오류로 끝내야 하지만 신호는 조회 스레드에서 보냄
+                invalidRequest = new IllegalArgumentException("request(" + n + "): 요청 수는 양수여야 합니다.");
+                cancelLocked();
+                return;
+            }
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+            notifyAll();
+        }
+
+        @Override
+        public synchronized void cancel() {
+            cancelLocked();
+        }
+
+        private void cancelLocked() {
+            if (cancelled) return;
+            cancelled = true;
+            notifyAll();
+            scope.cancel();
+        }
+
+        // 요청이 생길 때까지 기다렸다가 한 건 전달 (취소면 조회를 중단시키기 위해 예외, 기다리는 동안은 예산 시계를 멈춤)
+        // 기다린 시간과 구독자 처리 시간은 DB 스케줄러의 대화형 지연에서도 뺌
+        @SuppressWarnings("try")
+        private void emit(T item) {
+            try (DbScheduler.Scope stalled = DbScheduler.backPressure()) {
+                deliver(item);
+            }
+        }
+
+        private void deliver(T item) {
+            synchronized (this) {
+                if (demand == 0 && !cancelled) {
+                    scope.pause();
+                    try {
+                        long idleUntil = System.currentTimeMillis() + idleMillis;
+                        while (demand == 0 && !cancelled) {
+                            long remaining = idleUntil - System.currentTimeMillis();
+                            if (remaining <= 0) {
+                                throw new IllegalStateException(operation + ": 구독자가 " + idleMillis + "ms 동안 요청하지 않아 조회를 끝냈습니다.");
+                            }
+                            try {
+                                wait(remaining);
+                            } catch (InterruptedException e) {
+                                Thread.currentThread().interrupt();
+                                cancelLocked();
+                            }
+                        }
+                    } finally {
+                        scope.resume();
+                    }
+                }
+                if (cancelled) throw new CancellationException();
+                demand--;
+            }
+            subscriber.onNext(item);
+        }
+
+        @SuppressWarnings("try")
+        void drive() {
+            Throwable failure = null;
+            boolean finished = false;
+            QueryScope previous = QueryScope.enter(scope);
+            DbScheduler.Context previousPriority = DbScheduler.enter(priority);
+            try (QueryScope ignored = scope) {
+                producer.produce(this::emit);
+                finished = true;
+            } catch (CancellationException e) {
+                // 구독자가 취소했거나 기다리는 동안 마감
+            } catch (SQLException | RuntimeException e) {
+                failure = e;
+            } finally {
+                DbScheduler.enter(previousPriority);
+                QueryScope.enter(previous);
+            }
+            IllegalArgumentException invalid;
+            boolean stopped;
+            synchronized (this) {
+                invalid = invalidRequest;
+                stopped = cancelled;
+                cancelled = true;
+            }
+            if (invalid != null) {
+                subscriber.onError(invalid);
+            } else if (finished) {
+                if (!stopped) subscriber.onComplete();
+            } else if (stopped && !scope.isTimedOut()) {
+                // 취소 후에는 신호를 보내지 않음
+            } else if (scope.isTimedOut() || scope.remainingMillis() == 0) {
+                SQLTimeoutException timeout = new SQLTimeoutException(operation + " 작업의 시간 예산을 넘었습니다.", "HYT00");
+                if (failure != null) timeout.initCause(failure);
+                subscriber.onError(timeout);
+            } else {
+                subscriber.onError(failure);
+            }
+        }
+    }
+}
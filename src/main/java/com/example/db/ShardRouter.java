@@ -0,0 +1,302 @@
+package com.example.db;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * ShardRouter
+ * - 레시피(recipes)와 자식 행(recipe_ingredients, favorite_recipes)을 레시피 id 기준으로 여러 DB에 나눠 저장하기 위한 라우터 (싱글톤)
+ * - 샤드 번호 = (id - 1) mod 샤드 수. 각 샤드는 auto_increment_offset = 샤드 번호 + 1, increment = 샤드 수로
+ *   id를 발급하므로 새 레시피의 id는 항상 자기 샤드로 해시됨
+ * - 샤드 설정(db.shard.N.url)이 없으면 샤드 1개 = 기존 DatabaseConnection (복제 서버 읽기 분배 포함)
+ * - 전체 조회는 샤드마다 병렬로 정렬된 결과를 흘려보내고, k-way 병합으로 순서를 유지하며 합침
+ * - 해시에 쓰는 샤드 수(db.shard.count)와 실제 조회하는 샤드(설정된 전체)를 분리해 두어,
+ *   ReshardTool로 새 샤드에 행을 옮기는 동안에도 모든 샤드를 조회하고 단건은 locate로 찾음
+ * - 재배치 도중 잠시 두 샤드에 같은 레시피가 있을 수 있어 병합 시 같은 키는 한 번만 내보냄
+ * - 병렬 조회 스레드에도 호출자의 QueryScope(시간 예산/취소)와 DbScheduler 우선순위를 넘겨 줌
+ */
+public class ShardRouter {
+    private static ShardRouter instance;
+
+    // 샤드별 병합 대기열 크기 (샤드 하나가 앞서 나가도 메모리가 무한히 늘지 않도록 제한)
+    private static final int MERGE_BUFFER = 256;
+    private static final Object END = new Object();
+
+    /**
+     * 샤드 하나에서 실행할 조회 (정렬된 순서로 sink에 전달)
+     */
+    @FunctionalInterface
+    public interface ShardQuery<T> {
+        void run(Connection conn, Consumer<T> sink) throws SQLException;
+    }
+
+    /**
+     * 샤드 하나의 접속 정보
+     */
+    private static class Shard {
+        final String url;
+        final String username;
+        final String password;
+
+        Shard(String url, String username, String password) {
+            this.url = url;
+            this.username = username;
+            this.password = password;
+        }
+    }
+
+    // 병합 대기열에 넣는 조회 실패 표시 (SQLException 외의 예외도 넣어야 병합 쪽이 무한히 기다리지 않음)
+    private static class Failure {
+        final Throwable error;
+
+        Failure(Throwable error) {
+            this.error = error;
+        }
+    }
+
+    private final DatabaseConnection dbConnection;
+    private final List<Shard> shards = new ArrayList<>();
+    // id 해시에 쓰는 샤드 수 (재배치가 끝나기 전에는 설정된 샤드 수보다 작을 수 있음)
+    private final int hashCount;
+    private final AtomicInteger nextInsertShard = new AtomicInteger();
+    private final ExecutorService pool;
+
+    private ShardRouter() {
+        dbConnection = DatabaseConnection.getInstance();
+        for (int n = 1; dbConnection.getProperty("db.shard." + n + ".url", null) != null; n++) {
+            String prefix = "db.shard." + n + ".";
+            shards.add(new Shard(dbConnection.getProperty(prefix + "url", null),
+                dbConnection.getProperty(prefix + "username", dbConnection.getProperty("db.username", null)),
+                dbConnection.getProperty(prefix + "password", dbConnection.getProperty("db.password", null))));
+        }
+        hashCount = Integer.parseInt(dbConnection.getProperty("db.shard.count", String.valueOf(Math.max(1, shards.size()))));
+        if (hashCount < 1 || hashCount > Math.max(1, shards.size())) {
+            throw new IllegalStateException("db.shard.count(" + hashCount + ")가 설정된 샤드 수(" + shards.size() + ")와 맞지 않습니다.");
+        }
+        pool = newPool(shards.size());
+    }
+
+    /**
+     * 설정 파일 대신 주어진 URL들을 샤드로 쓰는 라우터 (테스트용, 계정은 주 서버 계정)
+     */
+    ShardRouter(List<String> shardUrls, int hashCount) {
+        dbConnection = DatabaseConnection.getInstance();
+        for (String url : shardUrls) {
+            shards.add(new Shard(url, dbConnection.getProperty("db.username", null), dbConnection.getProperty("db.password", null)));
+        }
+        this.hashCount = hashCount;
+        pool = newPool(shards.size());
+    }
+
+    private static ExecutorService newPool(int shardCount) {
+        return Executors.newFixedThreadPool(Math.max(1, shardCount), r -> {
+            Thread thread = new Thread(r, "shard-query");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static synchronized ShardRouter getInstance() {
+        if (instance == null) {
+            instance = new ShardRouter();
+        }
+        return instance;
+    }
+
+    /** 조회 대상 샤드 수 (샤드 설정이 없으면 1) */
+    public int getShardCount() {
+        return Math.max(1, shards.size());
+    }
+
+    /** id 해시에 쓰는 샤드 수 */
+    public int getHashCount() {
+        return hashCount;
+    }
+
+    /** 여러 DB로 나눠 저장하는 중인지 여부 */
+    public boolean isSharded() {
+        return shards.size() > 1;
+    }
+
+    /** 레시피 id가 속한 샤드 번호 */
+    public int shardOf(int recipeId) {
+        return shardOf(recipeId, hashCount);
+    }
+
+    /** 샤드 수가 count일 때 레시피 id가 속하는 샤드 번호 (재배치 도구용) */
+    public static int shardOf(int recipeId, int count) {
+        return Math.floorMod(recipeId - 1, count);
+    }
+
+    /** 새 레시피를 넣을 샤드 (돌아가며 배정) */
+    public int nextInsertShard() {
+        return Math.floorMod(nextInsertShard.getAndIncrement(), hashCount);
+    }
+
+    /** 샤드의 쓰기용 커넥션 */
+    public Connection getConnection(int shard) throws SQLException {
+        if (shards.isEmpty()) return dbConnection.getConnection();
+        Shard target = shards.get(shard);
+        return DbScheduler.getInstance().admit(
+            () -> QueryScope.track(DriverManager.getConnection(target.url, target.username, target.password)));
+    }
+
+    /** 샤드의 읽기용 커넥션 (샤드 설정이 없으면 복제 서버 분배 적용) */
+    public Connection getReadConnection(int shard) throws SQLException {
+        if (shards.isEmpty()) return dbConnection.getReadConnection();
+        return getConnection(shard);
+    }
+
+    /**
+     * 새 레시피 INSERT용 커넥션 - 이 세션에서 발급되는 id가 해당 샤드로 해시되도록 auto_increment 설정
+     */
+    public Connection getInsertConnection(int shard) throws SQLException {
+        Connection conn = getConnection(shard);
+        if (isSharded()) {
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SET SESSION auto_increment_increment = " + hashCount
+                    + ", auto_increment_offset = " + (shard + 1));
+            } catch (SQLException e) {
+                conn.close();
+                throw e;
+            }
+        }
+        return conn;
+    }
+
+    /**
+     * 모든 샤드에서 병렬로 조회하고 order 순서로 병합한 목록
+     */
+    public <T> List<T> scatterGather(ShardQuery<T> query, Comparator<T> order) throws SQLException {
+        List<T> merged = new ArrayList<>();
+        scatterGather(query, order, merged::add);
+        return merged;
+    }
+
+    /**
+     * 모든 샤드에서 병렬로 조회하고 order 순서로 병합해 sink로 전달
+     * - 각 샤드 결과는 order 순서로 정렬되어 있어야 하며, 병합은 샤드별 대기열 맨 앞끼리 비교하며 스트리밍으로 진행
+     * - sink가 늦으면 대기열이 차서 샤드 조회도 멈추므로 전체 결과를 메모리에 모으지 않음
+     * - 연속한 두 결과의 order 비교가 0이면 같은 레시피로 보고 하나만 남김 (재배치 중 중복)
+     * - 샤드 수만큼의 DB 스케줄러 자리를 한꺼번에 받은 뒤 시작 (일부 샤드만 자리를 잡고 서로 기다리지 않도록)
+     * - 한 샤드라도 실패하면 나머지를 취소하고 그 예외를 던짐 (SQLException/RuntimeException/Error는 그대로,
+     *   sink가 던진 예외도 나머지를 취소하고 그대로 전달)
+     */
+    @SuppressWarnings("try")
+    public <T> void scatterGather(ShardQuery<T> query, Comparator<T> order, Consumer<T> sink) throws SQLException {
+        int count = getShardCount();
+        if (count == 1) {
+            try (Connection conn = getReadConnection(0)) {
+                query.run(conn, sink);
+            }
+            return;
+        }
+        // 샤드 수만큼의 자리를 한꺼번에 받고 시작 (샤드 스레드는 그 안에서 기다리지 않음)
+        try (DbScheduler.Scope group = DbScheduler.getInstance().admitGroup(count)) {
+            List<BlockingQueue<Object>> queues = new ArrayList<>();
+            List<Future<?>> tasks = new ArrayList<>();
+            // 호출자의 시간 예산/취소를 샤드 조회 스레드에도 적용
+            QueryScope scope = QueryScope.current();
+            DbScheduler.Context priority = DbScheduler.capture();
+            for (int shard = 0; shard < count; shard++) {
+                BlockingQueue<Object> queue = new ArrayBlockingQueue<>(MERGE_BUFFER);
+                queues.add(queue);
+                int target = shard;
+                tasks.add(pool.submit(() -> {
+                    QueryScope previous = QueryScope.enter(scope);
+                    DbScheduler.Context previousPriority = DbScheduler.enter(priority);
+                    try (Connection conn = getReadConnection(target)) {
+                        query.run(conn, row -> put(queue, row));
+                        put(queue, END);
+                    } catch (Throwable e) {
+                        // 병합 쪽이 취소한 경우(인터럽트)는 더 기다리는 쪽이 없음
+                        if (!Thread.currentThread().isInterrupted()) {
+                            put(queue, new Failure(e));
+                        }
+                    } finally {
+                        DbScheduler.enter(previousPriority);
+                        QueryScope.enter(previous);
+                    }
+                }));
+            }
+            boolean completed = false;
+            try {
+                Object[] heads = new Object[count];
+                PriorityQueue<Integer> ready = new PriorityQueue<>(count, (a, b) -> compareHeads(order, heads, a, b));
+                for (int shard = 0; shard < count; shard++) {
+                    advance(queues, heads, ready, shard);
+                }
+                T last = null;
+                while (!ready.isEmpty()) {
+                    int shard = ready.poll();
+                    @SuppressWarnings("unchecked")
+                    T row = (T) heads[shard];
+                    if (last == null || order.compare(last, row) != 0) {
+                        // 소비 쪽이 늦어 기다린 시간은 DB 작업 시간에서 뺌
+                        try (DbScheduler.Scope stalled = DbScheduler.backPressure()) {
+                            sink.accept(row);
+                        }
+                        last = row;
+                    }
+                    advance(queues, heads, ready, shard);
+                }
+                completed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("샤드 조회가 중단되었습니다.", "70100", e);
+            } finally {
+                if (!completed) {
+                    for (Future<?> task : tasks) {
+                        task.cancel(true);
+                    }
+                }
+            }
+        }
+    }
+
+    // 샤드의 다음 결과를 꺼내 heads에 두고, 끝났으면 병합 대상에서 제외
+    private static void advance(List<BlockingQueue<Object>> queues, Object[] heads, PriorityQueue<Integer> ready, int shard)
+            throws SQLException, InterruptedException {
+        Object next = queues.get(shard).take();
+        if (next instanceof Failure) {
+            Throwable error = ((Failure) next).error;
+            if (error instanceof SQLException) throw (SQLException) error;
+            if (error instanceof RuntimeException) throw (RuntimeException) error;
+            if (error instanceof Error) throw (Error) error;
+            throw new SQLException("샤드 조회 중 오류 발생", error);
+        }
+        if (next != END) {
+            heads[shard] = next;
+            ready.add(shard);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> int compareHeads(Comparator<T> order, Object[] heads, int a, int b) {
+        int result = order.compare((T) heads[a], (T) heads[b]);
+        return result != 0 ? result : Integer.compare(a, b);
+    }
+
+    private static void put(BlockingQueue<Object> queue, Object item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            // 병합 쪽에서 취소한 경우 - 더 보낼 필요 없음
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("샤드 조회 취소", e);
+        }
+    }
+}
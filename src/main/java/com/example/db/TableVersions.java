@@ -0,0 +1,124 @@
+package com.example.db;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * TableVersions
+ * - 테이블별 버전 카운터 (싱글톤)
+ * - DAO는 쓰기가 반영된 뒤 해당 테이블의 버전을 올리고, 조회 캐시는 저장 당시 버전과 비교해 유효성을 판단
+ * - 카운터는 증가만 하므로 여러 테이블 버전의 합(stamp)이 같으면 그 사이에 쓰기가 없었다는 뜻
+ * - 카운터는 프로세스 안에만 있으므로 다른 클라이언트(다른 PC, CLI)의 쓰기를 알기 위해
+ *   bump할 때 DB의 table_versions 행도 백그라운드에서 올리고, table.versions.poll.ms(기본 5000, 0이면 끔) 주기로
+ *   그 행들을 읽어 다른 곳에서 올라간 테이블의 버전을 올림
+ * - 한계: 다른 클라이언트의 쓰기는 폴링 주기만큼 늦게 보이고, table_versions를 올리지 않는 도구(직접 SQL 등)로
+ *   고친 행은 알 수 없으므로 조회 캐시는 TTL(query.cache.ttl.ms)로도 항목을 버림
+ */
+public class TableVersions {
+    private static TableVersions instance;
+    private final Map<String, AtomicLong> versions = new ConcurrentHashMap<>();
+    // DB 동기화(table_versions 올리기/읽기)는 이 스레드 하나에서 순서대로 처리 (끄면 null)
+    private final ScheduledExecutorService sync;
+    // 마지막으로 확인한 DB 쪽 버전 (sync 스레드에서만 사용)
+    private final Map<String, Long> remoteSeen = new HashMap<>();
+
+    private TableVersions(long pollMillis) {
+        if (pollMillis > 0) {
+            sync = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread t = new Thread(r, "table-versions-sync");
+                t.setDaemon(true);
+                return t;
+            });
+            sync.scheduleWithFixedDelay(this::poll, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+        } else {
+            sync = null;
+        }
+    }
+
+    public static synchronized TableVersions getInstance() {
+        if (instance == null) {
+            instance = new TableVersions(Long.parseLong(
+                DatabaseConnection.getInstance().getProperty("table.versions.poll.ms", "5000").trim()));
+        }
+        return instance;
+    }
+
+    /** 테이블 버전 증가 (쓰기 반영 후 호출, 다른 클라이언트에 알리는 DB 쪽 반영은 백그라운드) */
+    public void bump(String... tables) {
+        bumpLocal(tables);
+        if (sync != null) {
+            sync.execute(() -> publish(tables));
+        }
+    }
+
+    /** 여러 테이블 버전의 합 (조회 전에 읽어 캐시 항목에 함께 저장) */
+    public long stamp(String... tables) {
+        long sum = 0;
+        for (String table : tables) {
+            AtomicLong version = versions.get(table);
+            if (version != null) sum += version.get();
+        }
+        return sum;
+    }
+
+    private void bumpLocal(String... tables) {
+        for (String table : tables) {
+            versions.computeIfAbsent(table, t -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    // 이 프로세스의 쓰기를 DB 쪽 버전에도 반영 (실패하면 다른 클라이언트는 TTL이 지나야 알게 됨)
+    @SuppressWarnings("try")
+    private void publish(String... tables) {
+        String sql = "INSERT INTO table_versions (table_name, version) VALUES (?, 1) " +
+                    "ON DUPLICATE KEY UPDATE version = version + 1";
+        try (DbScheduler.Scope ignored = DbScheduler.withPriority(DbScheduler.Priority.NORMAL);
+             Connection conn = DatabaseConnection.getInstance().getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (String table : tables) {
+                pstmt.setString(1, table);
+                pstmt.executeUpdate();
+                // 자기 쓰기로 올라간 만큼은 다음 폴링에서 다른 곳의 쓰기로 보지 않음
+                remoteSeen.computeIfPresent(table, (t, seen) -> seen + 1);
+            }
+        } catch (SQLException | RuntimeException ignored) {
+            // DB에 연결할 수 없거나 table_versions가 없는 스키마: 다음 쓰기 때 다시 시도
+        }
+    }
+
+    // DB 쪽 버전을 읽어 다른 클라이언트가 올린 테이블의 버전을 올림
+    @SuppressWarnings("try")
+    private void poll() {
+        try (DbScheduler.Scope ignored = DbScheduler.withPriority(DbScheduler.Priority.NORMAL);
+             Connection conn = DatabaseConnection.getInstance().getReadConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT table_name, version FROM table_versions")) {
+            while (rs.next()) {
+                String table = rs.getString("table_name");
+                long version = rs.getLong("version");
+                Long seen = remoteSeen.get(table);
+                // 복제 지연으로 자기 쓰기보다 낮은 값이 보일 수 있으므로 올라간 경우만 반영
+                if (seen == null || version > seen) {
+                    remoteSeen.put(table, version);
+                    if (seen != null) {
+                        bumpLocal(table);
+                        // 복제 서버가 그 쓰기를 받기 전에 읽어 새 버전으로 캐시하지 않도록
+                        DatabaseConnection.getInstance().noteWrite();
+                    }
+                }
+            }
+        } catch (SQLException | RuntimeException ignored) {
+            // 다음 주기에 다시 확인
+        }
+    }
+}
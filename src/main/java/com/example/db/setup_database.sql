@@ -8,6 +8,7 @@ CREATE TABLE IF NOT EXISTS ingredients (
     id INT PRIMARY KEY AUTO_INCREMENT,
     name VARCHAR(100) NOT NULL,
     available_quantity INT NOT NULL DEFAULT 0,
+    unit_price BIGINT NOT NULL DEFAULT 0, -- 1개당 가격, 1/100원 단위 고정소수점 (Price), 0이면 미입력
     UNIQUE (name)
 );
 
@@ -15,7 +16,7 @@ CREATE TABLE IF NOT EXISTS ingredients (
 CREATE TABLE IF NOT EXISTS recipes (
     id INT PRIMARY KEY AUTO_INCREMENT,
     name VARCHAR(200) NOT NULL,
-    instructions TEXT NOT NULL,
+    instructions TEXT NOT NULL, -- "~z1:"로 시작하면 deflate + Base64로 압축된 값 (InstructionCodec)
     last_cooked_at TIMESTAMP NULL,
     UNIQUE (name)
 );
@@ -37,4 +38,82 @@ CREATE TABLE IF NOT EXISTS favorite_recipes (
     note TEXT,
     rating INT CHECK (rating BETWEEN 1 AND 5),
     FOREIGN KEY (recipe_id) REFERENCES recipes(id) ON DELETE CASCADE
-); 
\ No newline at end of file
+); 
+
+-- 재료 로트(구매 단위) 테이블 생성
+-- ingredients.available_quantity는 로트 수량 합계 + 로트 없이 들어온 기존 재고를 유지하는 집계값
+CREATE TABLE IF NOT EXISTS ingredient_lots (
+    id INT PRIMARY KEY AUTO_INCREMENT,
+    ingredient_id INT NOT NULL,
+    quantity INT NOT NULL,
+    purchased_at DATE NOT NULL,
+    expires_at DATE NULL,
+    INDEX idx_ingredient_lots_expiry (ingredient_id, expires_at),
+    FOREIGN KEY (ingredient_id) REFERENCES ingredients(id) ON DELETE CASCADE
+);
+
+
+-- 요리 기록 테이블 생성 (추가만 하고 수정/삭제하지 않는 이벤트 로그)
+CREATE TABLE IF NOT EXISTS cooking_events (
+    id BIGINT PRIMARY KEY AUTO_INCREMENT,
+    recipe_id INT NOT NULL,
+    cooked_at TIMESTAMP NOT NULL,
+    INDEX idx_cooking_events_recipe (recipe_id, cooked_at),
+    INDEX idx_cooking_events_cooked_at (cooked_at)
+);
+
+-- 요리 기록별 재료 차감 내역
+CREATE TABLE IF NOT EXISTS cooking_event_items (
+    event_id BIGINT NOT NULL,
+    ingredient_name VARCHAR(100) NOT NULL,
+    quantity INT NOT NULL,
+    PRIMARY KEY (event_id, ingredient_name),
+    FOREIGN KEY (event_id) REFERENCES cooking_events(id) ON DELETE CASCADE
+);
+
+-- 집계 테이블: 기록을 추가할 때 같은 트랜잭션에서 카운터를 증가시켜 GROUP BY 재계산 없이 조회
+-- period_type: 'D'(일, period_start = 해당 일), 'W'(주, 월요일), 'M'(월, 1일)
+CREATE TABLE IF NOT EXISTS recipe_cook_rollups (
+    period_type CHAR(1) NOT NULL,
+    period_start DATE NOT NULL,
+    recipe_id INT NOT NULL,
+    cook_count INT NOT NULL DEFAULT 0,
+    PRIMARY KEY (period_type, period_start, recipe_id),
+    INDEX idx_recipe_cook_rollups_count (period_type, period_start, cook_count)
+);
+
+CREATE TABLE IF NOT EXISTS ingredient_consumption_rollups (
+    period_type CHAR(1) NOT NULL,
+    period_start DATE NOT NULL,
+    ingredient_name VARCHAR(100) NOT NULL,
+    consumed_quantity BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (period_type, period_start, ingredient_name),
+    INDEX idx_ingredient_consumption_rollups_qty (period_type, period_start, consumed_quantity)
+);
+
+-- 대체 재료 테이블: ingredient_name 1개 대신 substitute_name을 ratio개 사용
+CREATE TABLE IF NOT EXISTS ingredient_substitutions (
+    ingredient_name VARCHAR(100) NOT NULL,
+    substitute_name VARCHAR(100) NOT NULL,
+    ratio DECIMAL(8,3) NOT NULL DEFAULT 1.000,
+    PRIMARY KEY (ingredient_name, substitute_name),
+    CHECK (ratio > 0)
+);
+
+-- 재료 영양 정보 테이블: 재료 1개(레시피 필요 수량과 같은 단위)당 값
+-- kcal/protein/fat/carbs는 0.1 단위 고정소수점 (Nutrient), sodium은 mg
+CREATE TABLE IF NOT EXISTS ingredient_nutrition (
+    ingredient_name VARCHAR(100) PRIMARY KEY,
+    kcal INT NOT NULL DEFAULT 0,
+    protein INT NOT NULL DEFAULT 0,
+    fat INT NOT NULL DEFAULT 0,
+    carbs INT NOT NULL DEFAULT 0,
+    sodium INT NOT NULL DEFAULT 0,
+    CHECK (kcal >= 0 AND protein >= 0 AND fat >= 0 AND carbs >= 0 AND sodium >= 0)
+);
+
+-- 테이블 버전: 클라이언트가 쓰기 후 올리고 주기적으로 읽어, 다른 클라이언트의 쓰기로 바뀐 테이블의 조회 캐시를 버림 (TableVersions)
+CREATE TABLE IF NOT EXISTS table_versions (
+    table_name VARCHAR(64) PRIMARY KEY,
+    version BIGINT NOT NULL DEFAULT 0
+);
@@ -0,0 +1,151 @@
+package com.example.model;
+
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+/**
+ * CompactRecipe
+ * - 전체 카탈로그를 메모리에 올릴 때 쓰는 불변 읽기 전용 레시피 모델
+ * - 재료 이름은 IngredientDictionary id로, 필요 수량은 같은 순서의 int 배열로 보관 (박싱/HashMap 없음)
+ * - 재료 id는 오름차순으로 정렬되어 있어 이진 탐색과 집합 비교가 가능
+ * - 마지막 요리 일자는 epoch millis(long)로 보관하며, 요리한 적 없으면 NEVER_COOKED
+ * - 조리 방법은 목록에서 쓰지 않으므로 들고 있지 않음 (필요하면 RecipeDAO.findById 사용)
+ */
+public final class CompactRecipe {
+    public static final long NEVER_COOKED = Long.MIN_VALUE;
+
+    private final int id;
+    private final String name;
+    private final int[] ingredientIds;
+    private final int[] quantities;
+    private final long lastCookedAt;
+    private final byte rating;
+    private final boolean favorite;
+    private final String note;
+
+    /**
+     * 생성자 - 재료 id/수량 배열은 복사 후 id 기준으로 정렬해 보관
+     */
+    public CompactRecipe(int id, String name, int[] ingredientIds, int[] quantities,
+                         long lastCookedAt, int rating, boolean favorite, String note) {
+        if (ingredientIds.length != quantities.length) {
+            throw new IllegalArgumentException("재료 id와 수량 배열의 길이가 다릅니다.");
+        }
+        this.id = id;
+        this.name = name;
+        this.lastCookedAt = lastCookedAt;
+        this.rating = (byte) rating;
+        this.favorite = favorite;
+        this.note = note;
+        // (재료 id, 수량) 쌍을 재료 id 순으로 정렬
+        int n = ingredientIds.length;
+        long[] packed = new long[n];
+        for (int i = 0; i < n; i++) {
+            packed[i] = ((long) ingredientIds[i] << 32) | (quantities[i] & 0xffffffffL);
+        }
+        Arrays.sort(packed);
+        this.ingredientIds = new int[n];
+        this.quantities = new int[n];
+        for (int i = 0; i < n; i++) {
+            this.ingredientIds[i] = (int) (packed[i] >>> 32);
+            this.quantities[i] = (int) packed[i];
+        }
+    }
+
+    // 이미 정렬된 배열을 그대로 공유하는 내부 생성자 (with* 메서드용)
+    private CompactRecipe(CompactRecipe source, String name, long lastCookedAt, int rating, boolean favorite) {
+        this.id = source.id;
+        this.name = name;
+        this.ingredientIds = source.ingredientIds;
+        this.quantities = source.quantities;
+        this.note = source.note;
+        this.lastCookedAt = lastCookedAt;
+        this.rating = (byte) rating;
+        this.favorite = favorite;
+    }
+
+    /** 즐겨찾기 여부만 바꾼 새 객체 */
+    public CompactRecipe withFavorite(boolean favorite) {
+        return new CompactRecipe(this, name, lastCookedAt, rating, favorite);
+    }
+
+    /** 평점만 바꾼 새 객체 */
+    public CompactRecipe withRating(int rating) {
+        return new CompactRecipe(this, name, lastCookedAt, rating, favorite);
+    }
+
+    /** 이름만 바꾼 새 객체 */
+    public CompactRecipe withName(String name) {
+        return new CompactRecipe(this, name, lastCookedAt, rating, favorite);
+    }
+
+    /** 마지막 요리 일자만 바꾼 새 객체 */
+    public CompactRecipe withLastCookedAt(long lastCookedAt) {
+        return new CompactRecipe(this, name, lastCookedAt, rating, favorite);
+    }
+
+    public int getId() { return id; }
+    public String getName() { return name; }
+    public int getRating() { return rating; }
+    public boolean isFavorite() { return favorite; }
+    public String getNote() { return note; }
+    public long getLastCookedAtMillis() { return lastCookedAt; }
+    public boolean hasBeenCooked() { return lastCookedAt != NEVER_COOKED; }
+
+    /** 필요한 재료 종류 수 */
+    public int getIngredientCount() { return ingredientIds.length; }
+    /** i번째 재료의 사전 id */
+    public int getIngredientId(int index) { return ingredientIds[index]; }
+    /** i번째 재료의 필요 수량 */
+    public int getQuantity(int index) { return quantities[index]; }
+
+    /**
+     * 특정 재료의 필요 수량 (사용하지 않는 재료면 0)
+     */
+    public int getRequiredQuantity(int ingredientId) {
+        int index = Arrays.binarySearch(ingredientIds, ingredientId);
+        return index >= 0 ? quantities[index] : 0;
+    }
+
+    /**
+     * 기존 Recipe 모델로 변환 (조리 방법은 비어 있음)
+     */
+    public Recipe toRecipe(IngredientDictionary dictionary) {
+        Recipe recipe = new Recipe();
+        recipe.setId(id);
+        recipe.setName(name);
+        recipe.setFavorite(favorite);
+        if (rating >= 1 && rating <= 5) {
+            recipe.setRating(rating);
+        }
+        recipe.setNote(note);
+        recipe.setLastCookedAt(hasBeenCooked() ? new Timestamp(lastCookedAt) : null);
+        for (int i = 0; i < ingredientIds.length; i++) {
+            recipe.addIngredientNameAndQuantity(dictionary.nameOf(ingredientIds[i]), quantities[i]);
+        }
+        return recipe;
+    }
+
+    /**
+     * 기존 Recipe 모델에서 변환 (재료 이름은 사전에 등록)
+     */
+    public static CompactRecipe from(Recipe recipe, IngredientDictionary dictionary) {
+        int n = recipe.getRequiredIngredientNames().size();
+        int[] ids = new int[n];
+        int[] qty = new int[n];
+        int i = 0;
+        for (java.util.Map.Entry<String, Integer> entry : recipe.getRequiredIngredientNames().entrySet()) {
+            ids[i] = dictionary.intern(entry.getKey());
+            qty[i] = entry.getValue();
+            i++;
+        }
+        long cooked = recipe.getLastCookedAt() == null ? NEVER_COOKED : recipe.getLastCookedAt().getTime();
+        return new CompactRecipe(recipe.getId(), recipe.getName(), ids, qty, cooked,
+            recipe.getRating(), recipe.isFavorite(), recipe.getNote());
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s (★%d) %s", name, rating, favorite ? "[즐겨찾기]" : "");
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.model;
+
+import java.sql.Timestamp;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 요리 기록 한 건 (언제 어떤 레시피를 만들었고 어떤 재료를 얼마나 썼는지)
+ */
+public class CookingEvent {
+    private long id;
+    private int recipeId;
+    private String recipeName;
+    private Timestamp cookedAt;
+    private final Map<String, Integer> deductions = new LinkedHashMap<>();
+
+    public CookingEvent() {}
+
+    // Getters and Setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+    public int getRecipeId() { return recipeId; }
+    public void setRecipeId(int recipeId) { this.recipeId = recipeId; }
+    public String getRecipeName() { return recipeName; }
+    public void setRecipeName(String recipeName) { this.recipeName = recipeName; }
+    public Timestamp getCookedAt() { return cookedAt; }
+    public void setCookedAt(Timestamp cookedAt) { this.cookedAt = cookedAt; }
+    public Map<String, Integer> getDeductions() { return deductions; }
+
+    public void addDeduction(String ingredientName, int quantity) {
+        deductions.merge(ingredientName, quantity, Integer::sum);
+    }
+}
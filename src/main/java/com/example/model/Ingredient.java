@@ -4,6 +4,7 @@ public class Ingredient {
     private int id;
     private String name;
     private int availableQuantity;
+    private long unitPrice; // 1개당 가격 (Price 고정소수점, 1/100원 단위, 0이면 미입력)
 
     public Ingredient() {}
 
@@ -19,6 +20,8 @@ public class Ingredient {
     public void setName(String name) { this.name = name; }
     public int getAvailableQuantity() { return availableQuantity; }
     public void setAvailableQuantity(int availableQuantity) { this.availableQuantity = availableQuantity; }
+    public long getUnitPrice() { return unitPrice; }
+    public void setUnitPrice(long unitPrice) { this.unitPrice = unitPrice; }
 
     // 재료 사용 가능 여부 확인
     public boolean hasEnoughQuantity(int requiredQuantity) {
@@ -41,6 +44,14 @@ public class Ingredient {
         this.availableQuantity += quantity;
     }
 
+    // 복사본 생성
+    public Ingredient copy() {
+        Ingredient copy = new Ingredient(name, availableQuantity);
+        copy.id = id;
+        copy.unitPrice = unitPrice;
+        return copy;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
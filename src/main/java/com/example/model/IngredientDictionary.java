@@ -0,0 +1,65 @@
+package com.example.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * IngredientDictionary
+ * - 재료 이름을 정수 id로 바꿔 한 번만 보관하는 공유 사전
+ * - 같은 이름은 항상 같은 id를 받으며, id는 0부터 연속으로 부여됨
+ * - CompactRecipe 등 압축 모델이 이름 문자열 대신 id를 들고 다니도록 사용
+ */
+public class IngredientDictionary {
+    private static IngredientDictionary instance;
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private String[] names = new String[64];
+    private int size;
+
+    public IngredientDictionary() {}
+
+    /** 애플리케이션 전체에서 함께 쓰는 사전 */
+    public static synchronized IngredientDictionary getInstance() {
+        if (instance == null) {
+            instance = new IngredientDictionary();
+        }
+        return instance;
+    }
+
+    /**
+     * 이름을 사전에 등록하고 id 반환 (이미 있으면 기존 id)
+     */
+    public synchronized int intern(String name) {
+        Integer id = ids.get(name);
+        if (id != null) {
+            return id;
+        }
+        if (size == names.length) {
+            names = Arrays.copyOf(names, size * 2);
+        }
+        // 처음 등록된 인스턴스를 사전이 보관하고, 이후에는 id만 돌려주므로 따로 String.intern()하지 않음
+        names[size] = name;
+        ids.put(name, size);
+        return size++;
+    }
+
+    /** 이름의 id 조회 (등록되지 않았으면 -1) */
+    public synchronized int idOf(String name) {
+        Integer id = ids.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /** id의 이름 조회 */
+    public synchronized String nameOf(int id) {
+        if (id < 0 || id >= size) {
+            throw new IllegalArgumentException("사전에 없는 재료 id입니다: " + id);
+        }
+        return names[id];
+    }
+
+    /** 등록된 이름 수 */
+    public synchronized int size() {
+        return size;
+    }
+}
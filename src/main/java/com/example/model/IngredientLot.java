@@ -0,0 +1,54 @@
+package com.example.model;
+
+import java.time.LocalDate;
+
+/**
+ * 재료 로트 (한 번에 구매해 들어온 재료 묶음)
+ * - 구매일과 유통기한을 따로 가지므로 같은 재료라도 먼저 상하는 것부터 사용할 수 있음
+ */
+public class IngredientLot {
+    private int id;
+    private int ingredientId;
+    private int quantity;
+    private LocalDate purchasedAt;
+    private LocalDate expiresAt; // 유통기한 없음이면 null
+
+    public IngredientLot() {}
+
+    public IngredientLot(int ingredientId, int quantity, LocalDate purchasedAt, LocalDate expiresAt) {
+        this.ingredientId = ingredientId;
+        this.quantity = quantity;
+        this.purchasedAt = purchasedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters and Setters
+    public int getId() { return id; }
+    public void setId(int id) { this.id = id; }
+    public int getIngredientId() { return ingredientId; }
+    public void setIngredientId(int ingredientId) { this.ingredientId = ingredientId; }
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+    public LocalDate getPurchasedAt() { return purchasedAt; }
+    public void setPurchasedAt(LocalDate purchasedAt) { this.purchasedAt = purchasedAt; }
+    public LocalDate getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(LocalDate expiresAt) { this.expiresAt = expiresAt; }
+
+    // 특정 날짜 기준으로 유통기한이 지났는지 확인
+    public boolean isExpired(LocalDate today) {
+        return expiresAt != null && expiresAt.isBefore(today);
+    }
+
+    // 복사본 생성
+    public IngredientLot copy() {
+        IngredientLot copy = new IngredientLot(ingredientId, quantity, purchasedAt, expiresAt);
+        copy.id = id;
+        return copy;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d개 (구매 %s, 유통기한 %s)", quantity, purchasedAt,
+            expiresAt == null ? "없음" : expiresAt.toString());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * IngredientUsageIndex
+ * - 재료 사전 id → 그 재료를 쓰는 레시피 슬롯 목록 역인덱스 (추천/원가/영양 서비스와 레시피 DAO가 공용으로 사용)
+ * - 재료마다 박싱 없는 가변 int 배열 하나를 두고, 제거는 마지막 항목을 빈자리로 옮겨 O(해당 재료 사용 레시피 수)
+ * - 슬롯 번호의 의미는 소유한 쪽이 정함 (서비스는 배열 슬롯, DAO는 레시피 id)
+ * - 동기화하지 않으므로 소유한 쪽의 락 안에서만 사용
+ */
+public final class IngredientUsageIndex {
+    private int[][] slots = new int[64][];
+    private int[] counts = new int[64];
+
+    /** 전체 비우기 (배열은 재사용) */
+    public void clear() {
+        Arrays.fill(counts, 0);
+    }
+
+    /** 레시피의 모든 재료에 슬롯 등록 */
+    public void add(int slot, CompactRecipe recipe) {
+        for (int i = 0; i < recipe.getIngredientCount(); i++) {
+            int dictId = recipe.getIngredientId(i);
+            ensureCapacity(dictId);
+            int[] members = slots[dictId];
+            if (members == null) {
+                members = slots[dictId] = new int[4];
+            } else if (counts[dictId] == members.length) {
+                members = slots[dictId] = Arrays.copyOf(members, members.length * 2);
+            }
+            members[counts[dictId]++] = slot;
+        }
+    }
+
+    /** 레시피의 모든 재료에서 슬롯 제거 (등록할 때와 같은 레시피 객체를 넘겨야 함) */
+    public void remove(int slot, CompactRecipe recipe) {
+        for (int i = 0; i < recipe.getIngredientCount(); i++) {
+            int dictId = recipe.getIngredientId(i);
+            if (dictId >= counts.length) continue;
+            int[] members = slots[dictId];
+            int count = counts[dictId];
+            for (int j = 0; j < count; j++) {
+                if (members[j] == slot) {
+                    members[j] = members[count - 1];
+                    counts[dictId]--;
+                    break;
+                }
+            }
+        }
+    }
+
+    /** 재료를 쓰는 레시피 수 */
+    public int count(int dictId) {
+        return dictId >= 0 && dictId < counts.length ? counts[dictId] : 0;
+    }
+
+    /** 재료를 쓰는 레시피 슬롯마다 action 실행 (action 안에서 이 인덱스를 바꾸면 안 됨) */
+    public void forEach(int dictId, IntConsumer action) {
+        int count = count(dictId);
+        int[] members = count == 0 ? null : slots[dictId];
+        for (int i = 0; i < count; i++) {
+            action.accept(members[i]);
+        }
+    }
+
+    /** 재료를 쓰는 레시피 슬롯 복사본 */
+    public int[] slotsOf(int dictId) {
+        int count = count(dictId);
+        return count == 0 ? new int[0] : Arrays.copyOf(slots[dictId], count);
+    }
+
+    private void ensureCapacity(int dictId) {
+        if (dictId < counts.length) return;
+        int capacity = Math.max(dictId + 1, counts.length * 2);
+        slots = Arrays.copyOf(slots, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+    }
+}
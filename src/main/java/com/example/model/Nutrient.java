@@ -0,0 +1,67 @@
+package com.example.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Nutrient
+ * - 영양 성분 종류와 고정소수점 단위 (값은 scale을 곱한 정수로 저장, 예: 12.5kcal = 125)
+ * - ordinal()을 영양 성분 배열/컬럼 인덱스로 사용하므로 순서를 바꾸면 안 됨
+ * - column은 ingredient_nutrition 테이블 컬럼 이름
+ */
+public enum Nutrient {
+    KCAL("열량", "kcal", 10, "kcal"),
+    PROTEIN("단백질", "g", 10, "protein"),
+    FAT("지방", "g", 10, "fat"),
+    CARBS("탄수화물", "g", 10, "carbs"),
+    SODIUM("나트륨", "mg", 1, "sodium");
+
+    /** 영양 성분 수 (배열 크기) */
+    public static final int COUNT = values().length;
+
+    private final String label;
+    private final String unit;
+    private final int scale;
+    private final String column;
+
+    Nutrient(String label, String unit, int scale, String column) {
+        this.label = label;
+        this.unit = unit;
+        this.scale = scale;
+        this.column = column;
+    }
+
+    public String getLabel() { return label; }
+    public String getUnit() { return unit; }
+    public int getScale() { return scale; }
+    public String getColumn() { return column; }
+
+    /**
+     * 입력 문자열("12.5", "1,200")을 고정소수점으로 (표현할 수 없는 자리는 반올림)
+     */
+    public long parse(String text) {
+        String digits = text.trim().replace(",", "").replace(unit, "").trim();
+        try {
+            BigDecimal value = new BigDecimal(digits);
+            if (value.signum() < 0) {
+                throw new IllegalArgumentException(label + "은(는) 0 이상이어야 합니다.");
+            }
+            return value.multiply(BigDecimal.valueOf(scale)).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException(label + " 형식이 올바르지 않습니다: " + text, e);
+        }
+    }
+
+    /** 단위 없이 숫자만 (예: "12.5", "1,200") */
+    public String formatValue(long value) {
+        if (scale == 1) return String.format("%,d", value);
+        long whole = value / scale;
+        long fraction = value % scale;
+        return fraction == 0 ? String.format("%,d", whole) : String.format("%,d.%d", whole, fraction);
+    }
+
+    /** 표시용 문자열 (예: "12.5kcal") */
+    public String format(long value) {
+        return formatValue(value) + unit;
+    }
+}
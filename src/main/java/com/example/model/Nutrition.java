@@ -0,0 +1,48 @@
+package com.example.model;
+
+import java.util.Arrays;
+
+/**
+ * 재료 1개당 영양 정보 (불변)
+ * - 값은 Nutrient 순서대로 고정소수점 int 배열로 보관
+ */
+public final class Nutrition {
+    private final int[] values;
+
+    public Nutrition(int[] values) {
+        if (values.length != Nutrient.COUNT) {
+            throw new IllegalArgumentException("영양 성분 수가 맞지 않습니다: " + values.length);
+        }
+        for (Nutrient nutrient : Nutrient.values()) {
+            if (values[nutrient.ordinal()] < 0) {
+                throw new IllegalArgumentException(nutrient.getLabel() + "은(는) 0 이상이어야 합니다.");
+            }
+        }
+        this.values = values.clone();
+    }
+
+    /** 영양 성분 값 (고정소수점) */
+    public int get(Nutrient nutrient) {
+        return values[nutrient.ordinal()];
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Nutrition && Arrays.equals(values, ((Nutrition) o).values);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(values);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (Nutrient nutrient : Nutrient.values()) {
+            if (text.length() > 0) text.append(", ");
+            text.append(nutrient.getLabel()).append(' ').append(nutrient.format(get(nutrient)));
+        }
+        return text.toString();
+    }
+}
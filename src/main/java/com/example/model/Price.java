@@ -0,0 +1,48 @@
+package com.example.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Price
+ * - 금액을 1/100원 단위 long(고정소수점)으로 다루는 유틸 (예: 1,250.5원 = 125050)
+ * - double을 쓰지 않으므로 원가 합계를 여러 번 고쳐 계산해도 반올림 오차가 쌓이지 않음
+ * - 곱셈/덧셈이 long 범위를 넘으면 ArithmeticException
+ */
+public final class Price {
+    /** 1원 = SCALE */
+    public static final long SCALE = 100;
+
+    private Price() {}
+
+    /**
+     * 입력 문자열("1,250.5", "1250원")을 고정소수점으로 (소수 셋째 자리에서 반올림)
+     */
+    public static long parse(String text) {
+        String digits = text.trim().replace(",", "").replace("원", "");
+        try {
+            BigDecimal value = new BigDecimal(digits);
+            if (value.signum() < 0) {
+                throw new IllegalArgumentException("가격은 0 이상이어야 합니다.");
+            }
+            return value.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+        } catch (NumberFormatException | ArithmeticException e) {
+            throw new IllegalArgumentException("가격 형식이 올바르지 않습니다: " + text, e);
+        }
+    }
+
+    /** 표시용 문자열 (예: "1,250원", "1,250.50원") */
+    public static String format(long amount) {
+        long won = amount / SCALE;
+        long cents = Math.abs(amount % SCALE);
+        String sign = amount < 0 && won == 0 ? "-" : "";
+        return cents == 0
+            ? String.format("%s%,d원", sign, won)
+            : String.format("%s%,d.%02d원", sign, won, cents);
+    }
+
+    /** 단가 x 수량 */
+    public static long times(long unitPrice, int quantity) {
+        return Math.multiplyExact(unitPrice, (long) quantity);
+    }
+}
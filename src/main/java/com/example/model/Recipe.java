@@ -8,11 +8,15 @@ import java.util.Map;
 public class Recipe {
     private int id;
     private String name;
-    private String instructions;
+    private String instructions; // 조리 방법 (목록 조회에서는 null, findById/findInstructions로 채움)
     private Map<Ingredient, Integer> requiredIngredients; // 재료와 필요한 수량
     private boolean isFavorite;
     private int rating;
     private String note;
+    // 힙 밖에 옮긴 조리 방법/메모 (moveTextOffHeap 이후, 문자열 필드는 null)
+    private TextArena textArena;
+    private long instructionsHandle = TextArena.NONE;
+    private long noteHandle = TextArena.NONE;
     private java.sql.Timestamp lastCookedAt;
     private Map<String, Integer> requiredIngredientNames = new HashMap<>();
 
@@ -32,8 +36,13 @@ public class Recipe {
     public void setId(int id) { this.id = id; }
     public String getName() { return name; }
     public void setName(String name) { this.name = name; }
-    public String getInstructions() { return instructions; }
-    public void setInstructions(String instructions) { this.instructions = instructions; }
+    public String getInstructions() {
+        return instructionsHandle == TextArena.NONE ? instructions : textArena.get(instructionsHandle);
+    }
+    public void setInstructions(String instructions) {
+        this.instructions = instructions;
+        this.instructionsHandle = TextArena.NONE;
+    }
     public Map<Ingredient, Integer> getRequiredIngredients() { return requiredIngredients; }
     public void setRequiredIngredients(Map<Ingredient, Integer> requiredIngredients) { 
         this.requiredIngredients = requiredIngredients; 
@@ -47,8 +56,13 @@ public class Recipe {
         }
         this.rating = rating; 
     }
-    public String getNote() { return note; }
-    public void setNote(String note) { this.note = note; }
+    public String getNote() {
+        return noteHandle == TextArena.NONE ? note : textArena.get(noteHandle);
+    }
+    public void setNote(String note) {
+        this.note = note;
+        this.noteHandle = TextArena.NONE;
+    }
     public java.sql.Timestamp getLastCookedAt() { return lastCookedAt; }
     public void setLastCookedAt(java.sql.Timestamp lastCookedAt) { this.lastCookedAt = lastCookedAt; }
     public Map<String, Integer> getRequiredIngredientNames() {
@@ -117,6 +131,75 @@ public class Recipe {
         this.lastCookedAt = new java.sql.Timestamp(System.currentTimeMillis());
     }
 
+    /**
+     * 조리 방법과 메모를 힙 밖 영역으로 옮김 (영역이 null이거나 한도를 넘으면 힙에 그대로 둠)
+     * - 이후 getInstructions()/getNote()는 읽을 때마다 영역에서 문자열을 만들어 돌려줌
+     * - 다른 영역에 있던 값은 문자열로 풀지 않고 바이트째 복사 (새 영역에 넣지 못한 값만 힙으로 되돌림)
+     */
+    public void moveTextOffHeap(TextArena arena) {
+        if (arena == null) return;
+        long movedInstructions = instructionsHandle != TextArena.NONE
+            ? arena.copy(textArena, instructionsHandle) : arena.put(instructions);
+        long movedNote = noteHandle != TextArena.NONE ? arena.copy(textArena, noteHandle) : arena.put(note);
+        // 한 레시피는 영역 하나만 참조
+        instructions = movedInstructions == TextArena.NONE ? getInstructions() : null;
+        note = movedNote == TextArena.NONE ? getNote() : null;
+        instructionsHandle = movedInstructions;
+        noteHandle = movedNote;
+        textArena = movedInstructions == TextArena.NONE && movedNote == TextArena.NONE ? null : arena;
+    }
+
+    /**
+     * other의 조리 방법을 이어받음 (other가 힙 밖에 두었고 이 레시피가 다른 영역을 참조하지 않으면 문자열로 풀지 않고 핸들을 공유)
+     */
+    public void inheritInstructions(Recipe other) {
+        if (other.instructionsHandle == TextArena.NONE || (textArena != null && !textArena.sharesWith(other.textArena))) {
+            setInstructions(other.getInstructions());
+            return;
+        }
+        instructions = null;
+        instructionsHandle = other.instructionsHandle;
+        if (textArena == null) textArena = other.textArena;
+    }
+
+    /**
+     * 힙 밖에 옮긴 조리 방법/메모를 힙으로 되돌림 (영역을 닫기 전에 사용)
+     */
+    public void moveTextOnHeap() {
+        if (textArena == null) return;
+        instructions = getInstructions();
+        note = getNote();
+        instructionsHandle = TextArena.NONE;
+        noteHandle = TextArena.NONE;
+        textArena = null;
+    }
+
+    // 복사본 생성 (캐시/스냅샷이 공유 객체를 그대로 넘기지 않도록 사용, 힙 밖 문자열은 핸들만 공유)
+    public Recipe copy() {
+        Recipe copy = new Recipe(name, instructions);
+        copy.id = id;
+        copy.isFavorite = isFavorite;
+        copy.rating = rating;
+        copy.note = note;
+        copy.textArena = textArena;
+        copy.instructionsHandle = instructionsHandle;
+        copy.noteHandle = noteHandle;
+        copy.lastCookedAt = lastCookedAt == null ? null : new java.sql.Timestamp(lastCookedAt.getTime());
+        copy.requiredIngredients.putAll(requiredIngredients);
+        copy.requiredIngredientNames.putAll(requiredIngredientNames);
+        return copy;
+    }
+
+    /**
+     * 복사본 생성, 힙 밖 문자열은 view(이 레시피가 참조하는 영역을 TextArena.share()로 받은 참조)로 읽음
+     * - 영역을 가진 쪽이 자기 참조를 닫아도 view가 남아 있는 동안 복사본을 읽을 수 있음 (다른 영역의 view면 무시)
+     */
+    public Recipe copy(TextArena view) {
+        Recipe copy = copy();
+        if (textArena != null && textArena.sharesWith(view)) copy.textArena = view;
+        return copy;
+    }
+
     @Override
     public String toString() {
         return String.format("%s (★%d) %s", 
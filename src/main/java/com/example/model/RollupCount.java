@@ -0,0 +1,22 @@
+package com.example.model;
+
+/**
+ * 집계 결과 한 줄 (레시피 이름 또는 재료 이름 + 횟수/수량)
+ */
+public class RollupCount {
+    private final String label;
+    private final long count;
+
+    public RollupCount(String label, long count) {
+        this.label = label;
+        this.count = count;
+    }
+
+    public String getLabel() { return label; }
+    public long getCount() { return count; }
+
+    @Override
+    public String toString() {
+        return label + " (" + count + ")";
+    }
+}
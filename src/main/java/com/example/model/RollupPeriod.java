@@ -0,0 +1,38 @@
+package com.example.model;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * 집계 기간 단위 (일/주/월)
+ * - 집계 테이블의 period_type 코드와 기간 시작일 계산을 담당
+ */
+public enum RollupPeriod {
+    DAY("D", "일"),
+    WEEK("W", "주"),
+    MONTH("M", "월");
+
+    private final String code;
+    private final String label;
+
+    RollupPeriod(String code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    public String getCode() { return code; }
+    public String getLabel() { return label; }
+
+    // 날짜가 속한 기간의 시작일 (주는 월요일, 월은 1일)
+    public LocalDate startOf(LocalDate date) {
+        switch (this) {
+            case WEEK:
+                return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH:
+                return date.withDayOfMonth(1);
+            default:
+                return date;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.model;
+
+/**
+ * 대체 재료 한 건 (재료 1개 대신 대체 재료를 ratio개 사용)
+ */
+public class Substitution {
+    private String ingredientName;
+    private String substituteName;
+    private double ratio;
+
+    public Substitution(String ingredientName, String substituteName, double ratio) {
+        if (ratio <= 0) {
+            throw new IllegalArgumentException("대체 비율은 0보다 커야 합니다.");
+        }
+        this.ingredientName = ingredientName;
+        this.substituteName = substituteName;
+        this.ratio = ratio;
+    }
+
+    public String getIngredientName() { return ingredientName; }
+    public String getSubstituteName() { return substituteName; }
+    public double getRatio() { return ratio; }
+
+    public Substitution copy() {
+        return new Substitution(ingredientName, substituteName, ratio);
+    }
+
+    @Override
+    public String toString() {
+        return ingredientName + " → " + substituteName + " (x" + ratio + ")";
+    }
+}
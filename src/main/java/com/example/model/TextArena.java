@@ -0,0 +1,295 @@
+package com.example.model;
+
+import java.lang.ref.Cleaner;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * TextArena
+ * - 카탈로그 전체를 불러올 때 레시피의 조리 방법/메모 같은 긴 문자열을 힙 밖(direct ByteBuffer)에 UTF-8로 보관하는 영역
+ * - 레시피는 String 대신 영역 참조와 long 핸들(덩어리 번호, 위치, 길이)만 들고, 읽을 때마다 문자열로 풀어 줌
+ *   (GC가 훑어야 하는 객체 수와 힙 크기가 줄어듦)
+ * - 영역은 덩어리(64KB부터 두 배씩, 최대 1MB)를 이어 붙이며 쓰고, 한번 넣은 문자열은 바꾸지 않음
+ * - 모든 영역의 덩어리 합계는 setLimitBytes()의 한도를 넘지 않으며, 한도가 0이면 꺼짐 (open()이 null)
+ *   한도를 넘거나 너무 긴 문자열은 NONE을 돌려주므로 호출자는 힙에 그대로 둠
+ * - 영역은 참조 수로 관리: open()이 돌려준 참조와 share()로 더 받은 참조마다 하나씩 세고,
+ *   마지막 참조가 close()되거나(또는 그 참조를 가진 레시피가 모두 사라져 Cleaner가 닫거나) 하면 바로 해제
+ *   (CatalogSnapshot은 밖으로 내주는 레시피 묶음마다 share()를 붙이고, 다음 세대로 옮긴 뒤 자기 참조를 닫음)
+ * - 해제한 뒤 핸들을 읽으면 IllegalStateException
+ * - 빈 문자열은 덩어리를 쓰지 않는 길이 0 핸들로 보관
+ */
+public final class TextArena implements AutoCloseable {
+    /** 영역에 넣지 않았음을 나타내는 핸들 */
+    public static final long NONE = -1L;
+
+    private static final int FIRST_CHUNK = 64 * 1024;
+    // 핸들의 위치/길이는 각각 20비트 (덩어리 최대 1MB, 위치는 MAX_TEXT까지만 담을 수 있음)
+    private static final int BITS = 20;
+    private static final int MAX_CHUNK = 1 << BITS;
+    private static final int MAX_TEXT = MAX_CHUNK - 1;
+
+    private static final Cleaner CLEANER = Cleaner.create();
+    private static final AtomicLong RESERVED = new AtomicLong();
+    private static final AtomicInteger OPEN_ARENAS = new AtomicInteger();
+    private static final AtomicLong STORED_TEXTS = new AtomicLong();
+    private static final AtomicLong REJECTED_TEXTS = new AtomicLong();
+    private static volatile long limitBytes;
+
+    // direct 버퍼를 GC를 기다리지 않고 바로 해제하는 방법 (JDK 내부 API라 없으면 참조만 끊고 GC에 맡김)
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    /**
+     * 참조들이 함께 쓰는 덩어리 목록과 참조 수 (영역 객체를 참조하지 않아야 Cleaner가 동작함)
+     */
+    private static final class Chunks {
+        final List<ByteBuffer> buffers = new ArrayList<>();
+        final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        long reserved;
+        // 마지막 덩어리에서 다음에 쓸 위치
+        int writePosition;
+        int references;
+        boolean released;
+
+        Chunks() {
+            OPEN_ARENAS.incrementAndGet();
+        }
+
+        void retain() {
+            lock.writeLock().lock();
+            try {
+                if (released) {
+                    throw new IllegalStateException("이미 해제된 텍스트 영역입니다.");
+                }
+                references++;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        // 참조 하나를 놓고, 마지막 참조면 덩어리를 해제
+        void release() {
+            lock.writeLock().lock();
+            try {
+                if (released || --references > 0) return;
+                released = true;
+                for (ByteBuffer buffer : buffers) {
+                    free(buffer);
+                }
+                buffers.clear();
+                RESERVED.addAndGet(-reserved);
+                OPEN_ARENAS.decrementAndGet();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 참조 하나를 닫는 동작 (Cleaner 또는 close()에서 한 번만 실행)
+     */
+    private static final class Reference implements Runnable {
+        private final Chunks chunks;
+
+        Reference(Chunks chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public void run() {
+            chunks.release();
+        }
+    }
+
+    private final Chunks chunks;
+    private final Cleaner.Cleanable cleanable;
+
+    private TextArena(Chunks chunks) {
+        chunks.retain();
+        this.chunks = chunks;
+        cleanable = CLEANER.register(this, new Reference(chunks));
+    }
+
+    /**
+     * 모든 영역이 함께 쓰는 힙 밖 메모리 한도 (0이면 새 영역을 만들지 않음, 이미 쓰는 양은 줄이지 않음)
+     */
+    public static void setLimitBytes(long bytes) {
+        limitBytes = Math.max(0, bytes);
+    }
+
+    /**
+     * 새 영역 (한도가 0이면 null)
+     */
+    public static TextArena open() {
+        return limitBytes > 0 ? new TextArena(new Chunks()) : null;
+    }
+
+    /**
+     * 같은 영역을 가리키는 참조를 하나 더 만듦 (핸들은 그대로 쓸 수 있고, 이 참조가 닫히거나 GC될 때까지 영역이 해제되지 않음)
+     * - 이미 해제된 영역이면 IllegalStateException
+     */
+    public TextArena share() {
+        return new TextArena(chunks);
+    }
+
+    /** other가 이 영역과 같은 영역을 가리키는 참조인지 여부 */
+    boolean sharesWith(TextArena other) {
+        return other != null && other.chunks == chunks;
+    }
+
+    /**
+     * 문자열을 영역에 복사하고 핸들을 돌려줌 (null, 한도 초과, 너무 긴 문자열, 닫힌 영역이면 NONE)
+     */
+    public long put(String text) {
+        if (text == null) return NONE;
+        return putUtf8(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * source 영역의 핸들이 가리키는 글을 문자열로 풀지 않고 바이트째 이 영역에 복사 (같은 영역이면 핸들 그대로)
+     * - handle이 NONE이거나 한도 초과, 이 영역이 닫혔으면 NONE (source가 해제됐으면 IllegalStateException)
+     */
+    public long copy(TextArena source, long handle) {
+        if (handle == NONE) return NONE;
+        if (sharesWith(source)) return handle;
+        return putUtf8(source.bytes(handle));
+    }
+
+    private long putUtf8(byte[] utf8) {
+        if (utf8.length > MAX_TEXT) {
+            REJECTED_TEXTS.incrementAndGet();
+            return NONE;
+        }
+        chunks.lock.writeLock().lock();
+        try {
+            if (chunks.released) return NONE;
+            if (utf8.length == 0) {
+                // 꽉 찬 1MB 덩어리 끝(위치 2^20)은 핸들에 담을 수 없으므로 빈 문자열은 위치와 상관없는 길이 0 핸들로
+                STORED_TEXTS.incrementAndGet();
+                return 0L;
+            }
+            List<ByteBuffer> buffers = chunks.buffers;
+            ByteBuffer last = buffers.isEmpty() ? null : buffers.get(buffers.size() - 1);
+            int writePosition = chunks.writePosition;
+            if (last == null || last.capacity() - writePosition < utf8.length || writePosition > MAX_TEXT) {
+                int size = last == null ? FIRST_CHUNK : Math.min(MAX_CHUNK, last.capacity() * 2);
+                size = Math.max(size, utf8.length);
+                if (!reserve(size)) {
+                    REJECTED_TEXTS.incrementAndGet();
+                    return NONE;
+                }
+                chunks.reserved += size;
+                last = ByteBuffer.allocateDirect(size);
+                buffers.add(last);
+                writePosition = 0;
+            }
+            ByteBuffer target = last.duplicate();
+            target.position(writePosition);
+            target.put(utf8);
+            long handle = ((long) (buffers.size() - 1) << (2 * BITS)) | ((long) writePosition << BITS) | utf8.length;
+            chunks.writePosition = writePosition + utf8.length;
+            STORED_TEXTS.incrementAndGet();
+            return handle;
+        } finally {
+            chunks.lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 핸들의 문자열 (NONE이면 null)
+     */
+    public String get(long handle) {
+        if (handle == NONE) return null;
+        return new String(bytes(handle), StandardCharsets.UTF_8);
+    }
+
+    // 핸들의 UTF-8 바이트
+    private byte[] bytes(long handle) {
+        int chunk = (int) (handle >>> (2 * BITS));
+        int position = (int) (handle >>> BITS) & MAX_TEXT;
+        int length = (int) handle & MAX_TEXT;
+        byte[] utf8 = new byte[length];
+        chunks.lock.readLock().lock();
+        try {
+            if (chunks.released) {
+                throw new IllegalStateException("이미 해제된 텍스트 영역입니다.");
+            }
+            if (length > 0) {
+                ByteBuffer source = chunks.buffers.get(chunk).duplicate();
+                source.position(position);
+                source.get(utf8);
+            }
+        } finally {
+            chunks.lock.readLock().unlock();
+        }
+        return utf8;
+    }
+
+    /** 이 영역이 잡아 둔 힙 밖 메모리 (byte) */
+    public long getReservedBytes() {
+        chunks.lock.readLock().lock();
+        try {
+            return chunks.reserved;
+        } finally {
+            chunks.lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 이 참조를 닫음 (마지막 참조였으면 힙 밖 메모리를 바로 해제, 여러 번 호출해도 됨)
+     */
+    @Override
+    public void close() {
+        cleanable.clean();
+    }
+
+    // 전체 한도 안에서 size만큼 예약
+    private static boolean reserve(long size) {
+        while (true) {
+            long current = RESERVED.get();
+            if (current + size > limitBytes) return false;
+            if (RESERVED.compareAndSet(current, current + size)) return true;
+        }
+    }
+
+    private static void free(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) return;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException ignored) {
+            // 참조가 끊기면 GC가 해제
+        }
+    }
+
+    /**
+     * 지표 요약
+     */
+    public static String getStats() {
+        return String.format("힙 밖 텍스트: %.1f/%.1fMB, 영역 %d개, 보관 %d건, 힙에 남김 %d건",
+            RESERVED.get() / 1048576.0, limitBytes / 1048576.0, OPEN_ARENAS.get(), STORED_TEXTS.get(), REJECTED_TEXTS.get());
+    }
+}
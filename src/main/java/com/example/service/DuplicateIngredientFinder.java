@@ -0,0 +1,147 @@
+package com.example.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * DuplicateIngredientFinder
+ * - 같은 재료가 다른 이름으로 적힌 경우("양파", "양파 ", "적양파")를 찾아 합칠 후보를 제안
+ * - 이름을 공백 제거/소문자로 정규화한 뒤 글자 2-gram(앞뒤 경계 포함)으로 나누고,
+ *   2-gram → 이름 목록 역인덱스로 같은 2-gram을 가진 이름끼리만 겹치는 수를 세므로 모든 쌍을 비교하지 않음
+ * - 유사도는 Dice 계수 2 x 겹치는 2-gram 수 / (두 이름의 2-gram 수 합), 정규화한 이름이 같으면 1.0
+ */
+public class DuplicateIngredientFinder {
+    /** 기본 유사도 기준 */
+    public static final double DEFAULT_THRESHOLD = 0.5;
+
+    /**
+     * 합칠 후보 한 쌍
+     */
+    public static final class Candidate {
+        private final String name;
+        private final String similarName;
+        private final double similarity;
+
+        Candidate(String name, String similarName, double similarity) {
+            this.name = name;
+            this.similarName = similarName;
+            this.similarity = similarity;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSimilarName() {
+            return similarName;
+        }
+
+        public double getSimilarity() {
+            return similarity;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s ≈ %s (%.2f)", name, similarName, similarity);
+        }
+    }
+
+    private final double threshold;
+
+    public DuplicateIngredientFinder() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    public DuplicateIngredientFinder(double threshold) {
+        this.threshold = threshold;
+    }
+
+    /**
+     * 유사도가 기준 이상인 이름 쌍 (유사도 내림차순, 같으면 이름 순)
+     */
+    public List<Candidate> find(Collection<String> names) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(names));
+        int n = distinct.size();
+        String[] normalized = new String[n];
+        int[][] grams = new int[n][];
+        // 2-gram → 그 2-gram을 가진 이름 번호 목록
+        Map<String, Integer> gramIds = new HashMap<>();
+        List<int[]> postings = new ArrayList<>();
+        int[] postingSizes = new int[16];
+        for (int i = 0; i < n; i++) {
+            normalized[i] = normalize(distinct.get(i));
+            List<String> bigrams = bigrams(normalized[i]);
+            grams[i] = new int[bigrams.size()];
+            int gramCount = 0;
+            for (String bigram : bigrams) {
+                Integer id = gramIds.get(bigram);
+                if (id == null) {
+                    id = gramIds.size();
+                    gramIds.put(bigram, id);
+                    postings.add(new int[4]);
+                    if (id == postingSizes.length) postingSizes = Arrays.copyOf(postingSizes, id * 2);
+                }
+                // 한 이름 안에서 같은 2-gram이 반복되면 한 번만 셈
+                int[] posting = postings.get(id);
+                if (postingSizes[id] > 0 && posting[postingSizes[id] - 1] == i) continue;
+                grams[i][gramCount++] = id;
+                if (postingSizes[id] == posting.length) {
+                    posting = Arrays.copyOf(posting, posting.length * 2);
+                    postings.set(id, posting);
+                }
+                posting[postingSizes[id]++] = i;
+            }
+            grams[i] = Arrays.copyOf(grams[i], gramCount);
+        }
+
+        List<Candidate> result = new ArrayList<>();
+        int[] shared = new int[n];
+        int[] touched = new int[n];
+        for (int i = 0; i < n; i++) {
+            int touchedCount = 0;
+            for (int id : grams[i]) {
+                int[] posting = postings.get(id);
+                for (int p = 0; p < postingSizes[id]; p++) {
+                    int j = posting[p];
+                    // 각 쌍은 번호가 큰 쪽에서 한 번만 셈
+                    if (j <= i) continue;
+                    if (shared[j]++ == 0) touched[touchedCount++] = j;
+                }
+            }
+            for (int t = 0; t < touchedCount; t++) {
+                int j = touched[t];
+                double similarity = normalized[i].equals(normalized[j]) ? 1.0
+                    : 2.0 * shared[j] / (grams[i].length + grams[j].length);
+                if (similarity >= threshold) {
+                    result.add(new Candidate(distinct.get(i), distinct.get(j), similarity));
+                }
+                shared[j] = 0;
+            }
+        }
+        result.sort(Comparator.comparingDouble(Candidate::getSimilarity).reversed()
+            .thenComparing(Candidate::getName).thenComparing(Candidate::getSimilarName));
+        return result;
+    }
+
+    /** 비교용 이름 (모든 공백 제거, 소문자) */
+    public static String normalize(String name) {
+        return name.replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
+    }
+
+    // 앞뒤 경계 문자를 붙인 글자 2-gram ("양파" → "^양", "양파", "파$")
+    private static List<String> bigrams(String normalized) {
+        String padded = "^" + normalized + "$";
+        List<String> bigrams = new ArrayList<>(padded.length() - 1);
+        for (int i = 0; i + 2 <= padded.length(); i++) {
+            bigrams.add(padded.substring(i, i + 2));
+        }
+        return bigrams;
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.service;
+
+import com.example.dao.DataChangeListener;
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.IngredientDAO;
+import com.example.model.Ingredient;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * IngredientNameTrie
+ * - 레시피 재료 입력 자동완성용 재료 이름 접두어 트라이 (싱글톤)
+ * - 이름을 자모 단위로 풀어 넣으므로 입력 중인 글자("야" → "양파", "달" → "닭가슴살")도 접두어로 맞고,
+ *   초성만 입력하면("ㅇㅍ") 초성 트라이에서 찾음
+ * - 공백은 무시하고 영문은 소문자로 비교
+ * - 처음 한 번 IngredientDAO.findAll로 채운 뒤 재료 저장/삭제 알림으로 이름과 보유 수량을 바로 고치므로
+ *   입력마다 DB를 조회하지 않음
+ */
+public class IngredientNameTrie implements DataChangeListener {
+    private static final char HANGUL_BASE = 0xAC00;
+    private static final char HANGUL_LAST = 0xD7A3;
+    private static final String CHOSEONG = "ㄱㄲㄴㄷㄸㄹㅁㅂㅃㅅㅆㅇㅈㅉㅊㅋㅌㅍㅎ";
+    // 겹모음/겹받침은 입력 순서대로 나눔 (ㅘ → ㅗㅏ, ㄺ → ㄹㄱ)
+    private static final String[] JUNGSEONG = {"ㅏ", "ㅐ", "ㅑ", "ㅒ", "ㅓ", "ㅔ", "ㅕ", "ㅖ", "ㅗ", "ㅗㅏ", "ㅗㅐ", "ㅗㅣ",
+        "ㅛ", "ㅜ", "ㅜㅓ", "ㅜㅔ", "ㅜㅣ", "ㅠ", "ㅡ", "ㅡㅣ", "ㅣ"};
+    private static final String[] JONGSEONG = {"", "ㄱ", "ㄲ", "ㄱㅅ", "ㄴ", "ㄴㅈ", "ㄴㅎ", "ㄷ", "ㄹ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ",
+        "ㄹㅅ", "ㄹㅌ", "ㄹㅍ", "ㄹㅎ", "ㅁ", "ㅂ", "ㅂㅅ", "ㅅ", "ㅆ", "ㅇ", "ㅈ", "ㅊ", "ㅋ", "ㅌ", "ㅍ", "ㅎ"};
+    // 한글 호환 자모 중 겹자모 (단독으로 입력된 경우)
+    private static final Map<Character, String> COMPOUND_JAMO = new HashMap<>();
+    private static IngredientNameTrie instance;
+
+    static {
+        String compounds = "ㄳㄵㄶㄺㄻㄼㄽㄾㄿㅀㅄ";
+        String[] parts = {"ㄱㅅ", "ㄴㅈ", "ㄴㅎ", "ㄹㄱ", "ㄹㅁ", "ㄹㅂ", "ㄹㅅ", "ㄹㅌ", "ㄹㅍ", "ㄹㅎ", "ㅂㅅ"};
+        for (int i = 0; i < parts.length; i++) {
+            COMPOUND_JAMO.put(compounds.charAt(i), parts[i]);
+        }
+        String vowels = "ㅘㅙㅚㅝㅞㅟㅢ";
+        String[] vowelParts = {"ㅗㅏ", "ㅗㅐ", "ㅗㅣ", "ㅜㅓ", "ㅜㅔ", "ㅜㅣ", "ㅡㅣ"};
+        for (int i = 0; i < vowelParts.length; i++) {
+            COMPOUND_JAMO.put(vowels.charAt(i), vowelParts[i]);
+        }
+    }
+
+    /**
+     * 자동완성 후보 (이름과 보유 수량)
+     */
+    public static final class Suggestion {
+        private final int ingredientId;
+        private final String name;
+        private final int availableQuantity;
+
+        Suggestion(int ingredientId, String name, int availableQuantity) {
+            this.ingredientId = ingredientId;
+            this.name = name;
+            this.availableQuantity = availableQuantity;
+        }
+
+        public int getIngredientId() {
+            return ingredientId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getAvailableQuantity() {
+            return availableQuantity;
+        }
+
+        @Override
+        public String toString() {
+            return name + " (보유 " + availableQuantity + ")";
+        }
+    }
+
+    // 트라이 노드 (자식은 글자 순으로 정렬된 배열, 이름이 끝나는 노드에만 재료 id)
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        private int[] ids = new int[0];
+
+        Node child(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? null : children[index];
+        }
+
+        Node childOrCreate(char key) {
+            int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) return children[index];
+            int at = -index - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            newKeys[at] = key;
+            newChildren[at] = new Node();
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[at];
+        }
+
+        void removeChild(char key) {
+            int at = Arrays.binarySearch(keys, key);
+            if (at < 0) return;
+            char[] newKeys = new char[keys.length - 1];
+            Node[] newChildren = new Node[children.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(keys, at + 1, newKeys, at, keys.length - at - 1);
+            System.arraycopy(children, at + 1, newChildren, at, children.length - at - 1);
+            keys = newKeys;
+            children = newChildren;
+        }
+
+        boolean isEmpty() {
+            return keys.length == 0 && ids.length == 0;
+        }
+    }
+
+    private final Node jamoRoot = new Node();
+    private final Node choseongRoot = new Node();
+    private final Map<Integer, String> names = new HashMap<>();
+    private final Map<Integer, Integer> stock = new HashMap<>();
+    private boolean loaded;
+    // load() 중 들어온 변경 알림을 모았다가 읽은 결과를 적용한 뒤 다시 전달
+    private final LoadBuffer loadBuffer = new LoadBuffer(this);
+
+    private IngredientNameTrie() {
+        DataChangeNotifier.getInstance().addListener(loadBuffer);
+    }
+
+    public static synchronized IngredientNameTrie getInstance() {
+        if (instance == null) {
+            instance = new IngredientNameTrie();
+        }
+        return instance;
+    }
+
+    /**
+     * 전체 재료를 읽어 트라이를 새로 구성
+     */
+    public void load(IngredientDAO ingredientDAO) {
+        loadBuffer.begin();
+        try {
+            install(ingredientDAO.findAll());
+        } finally {
+            loadBuffer.end();
+        }
+    }
+
+    private void install(List<Ingredient> ingredients) {
+        synchronized (this) {
+            for (Integer id : new ArrayList<>(names.keySet())) {
+                remove(id);
+            }
+            for (Ingredient ingredient : ingredients) {
+                put(ingredient.getId(), ingredient.getName(), ingredient.getAvailableQuantity());
+            }
+            loaded = true;
+        }
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 입력한 글자로 시작하는 재료 (트라이 순서 = 자모 순, 최대 limit개)
+     * - 입력이 모두 자음이면 초성으로, 아니면 자모로 풀어서 비교
+     */
+    public synchronized List<Suggestion> suggest(String prefix, int limit) {
+        List<Suggestion> result = new ArrayList<>();
+        boolean choseongOnly = isChoseongOnly(prefix);
+        String key = choseongOnly ? choseongKey(prefix) : jamoKey(prefix);
+        if (key.isEmpty() || limit <= 0) return result;
+        Node node = choseongOnly ? choseongRoot : jamoRoot;
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node != null) collect(node, result, limit);
+        return result;
+    }
+
+    /** 재료 수 */
+    public synchronized int size() {
+        return names.size();
+    }
+
+    // ---- DAO 변경 알림 처리 ----
+
+    @Override
+    public synchronized void ingredientSaved(Ingredient ingredient) {
+        if (!loaded) return;
+        String previous = names.get(ingredient.getId());
+        if (previous == null || !previous.equals(ingredient.getName())) {
+            if (previous != null) remove(ingredient.getId());
+            put(ingredient.getId(), ingredient.getName(), ingredient.getAvailableQuantity());
+        } else {
+            stock.put(ingredient.getId(), ingredient.getAvailableQuantity());
+        }
+    }
+
+    @Override
+    public synchronized void ingredientDeleted(int ingredientId) {
+        if (names.containsKey(ingredientId)) remove(ingredientId);
+    }
+
+    // ---- 트라이 관리 ----
+
+    private void put(int id, String name, int quantity) {
+        names.put(id, name);
+        stock.put(id, quantity);
+        insert(jamoRoot, jamoKey(name), id);
+        insert(choseongRoot, choseongKey(name), id);
+    }
+
+    private void remove(int id) {
+        String name = names.remove(id);
+        stock.remove(id);
+        delete(jamoRoot, jamoKey(name), 0, id);
+        delete(choseongRoot, choseongKey(name), 0, id);
+    }
+
+    private static void insert(Node root, String key, int id) {
+        Node node = root;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+        }
+        node.ids = Arrays.copyOf(node.ids, node.ids.length + 1);
+        node.ids[node.ids.length - 1] = id;
+    }
+
+    // 경로를 따라 id를 지우고 비게 된 노드는 잘라냄
+    private static void delete(Node node, String key, int depth, int id) {
+        if (depth == key.length()) {
+            int[] kept = new int[node.ids.length];
+            int count = 0;
+            for (int other : node.ids) {
+                if (other != id) kept[count++] = other;
+            }
+            node.ids = Arrays.copyOf(kept, count);
+            return;
+        }
+        Node child = node.child(key.charAt(depth));
+        if (child == null) return;
+        delete(child, key, depth + 1, id);
+        if (child.isEmpty()) node.removeChild(key.charAt(depth));
+    }
+
+    // 깊이 우선으로 limit개까지 (이름이 짧은 쪽/자모 순서가 앞선 쪽 먼저)
+    private void collect(Node node, List<Suggestion> result, int limit) {
+        for (int id : node.ids) {
+            if (result.size() == limit) return;
+            result.add(new Suggestion(id, names.get(id), stock.get(id)));
+        }
+        for (Node child : node.children) {
+            if (result.size() == limit) return;
+            collect(child, result, limit);
+        }
+    }
+
+    // ---- 키 만들기 ----
+
+    /** 비교용 자모 키 (완성형 음절은 초성/중성/종성 호환 자모로 풀고 겹자모는 나눔, 공백 제거, 영문 소문자) */
+    static String jamoKey(String text) {
+        StringBuilder key = new StringBuilder(text.length() * 3);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) continue;
+            if (c >= HANGUL_BASE && c <= HANGUL_LAST) {
+                int index = c - HANGUL_BASE;
+                key.append(CHOSEONG.charAt(index / 588))
+                    .append(JUNGSEONG[index % 588 / 28])
+                    .append(JONGSEONG[index % 28]);
+            } else if (COMPOUND_JAMO.containsKey(c)) {
+                key.append(COMPOUND_JAMO.get(c));
+            } else {
+                key.append(Character.toLowerCase(c));
+            }
+        }
+        return key.toString();
+    }
+
+    /** 비교용 초성 키 (완성형 음절은 초성만, 나머지는 jamoKey와 같게) */
+    static String choseongKey(String text) {
+        StringBuilder key = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) continue;
+            if (c >= HANGUL_BASE && c <= HANGUL_LAST) {
+                key.append(CHOSEONG.charAt((c - HANGUL_BASE) / 588));
+            } else {
+                key.append(Character.toLowerCase(c));
+            }
+        }
+        return key.toString();
+    }
+
+    // 공백을 빼고 모두 초성으로 쓸 수 있는 자음인지
+    private static boolean isChoseongOnly(String text) {
+        boolean any = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isWhitespace(c)) continue;
+            if (CHOSEONG.indexOf(c) < 0) return false;
+            any = true;
+        }
+        return any;
+    }
+}
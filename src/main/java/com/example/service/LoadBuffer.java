@@ -0,0 +1,124 @@
+package com.example.service;
+
+import com.example.dao.DataChangeListener;
+import com.example.model.Ingredient;
+import com.example.model.Nutrition;
+import com.example.model.Recipe;
+import com.example.model.Substitution;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * LoadBuffer
+ * - 메모리 인덱스 대신 DataChangeNotifier에 등록되는 리스너로, 평소에는 알림을 그대로 인덱스에 전달
+ * - 인덱스가 load()로 DB 전체를 읽는 동안(begin ~ end) 들어온 알림은 모아 두었다가,
+ *   읽은 결과를 적용한 뒤 end()에서 들어온 순서대로 다시 전달
+ *   (읽기는 락 밖에서 하므로 그 사이의 쓰기 알림을 버리거나 먼저 적용하면 읽은 결과가 덮어써 인덱스가 DB와 어긋남)
+ * - 다시 전달한 알림이 이미 읽은 결과에 들어 있어도 인덱스의 알림 처리는 같은 값을 다시 쓰는 것이라 결과가 같음
+ */
+final class LoadBuffer implements DataChangeListener {
+    private final DataChangeListener target;
+    // 진행 중인 load() 수와 그동안 모은 알림 (load 중이 아니면 null)
+    private int loads;
+    private List<Runnable> deferred;
+
+    LoadBuffer(DataChangeListener target) {
+        this.target = target;
+    }
+
+    /** 전체 읽기 시작 (이후 알림은 end()까지 모아 둠) */
+    synchronized void begin() {
+        loads++;
+        if (deferred == null) {
+            deferred = new ArrayList<>();
+        }
+    }
+
+    /**
+     * 전체 읽기 끝 (읽은 결과를 인덱스에 적용한 뒤, 실패했어도 finally에서 호출)
+     * - 모아 둔 알림을 호출 스레드에서 순서대로 전달 (다른 load()가 아직 진행 중이면 그 load()의 끝에서도 다시 전달)
+     */
+    void end() {
+        List<Runnable> events;
+        synchronized (this) {
+            loads--;
+            events = deferred;
+            deferred = loads > 0 ? new ArrayList<>(events) : null;
+        }
+        for (Runnable event : events) {
+            event.run();
+        }
+    }
+
+    // load 중이면 모아 두고, 아니면 바로 전달
+    private void deliver(Runnable event) {
+        synchronized (this) {
+            if (deferred != null) {
+                deferred.add(event);
+                return;
+            }
+        }
+        event.run();
+    }
+
+    @Override
+    public void recipeSaved(Recipe recipe) {
+        deliver(() -> target.recipeSaved(recipe));
+    }
+
+    @Override
+    public void recipeDeleted(int recipeId) {
+        deliver(() -> target.recipeDeleted(recipeId));
+    }
+
+    @Override
+    public void favoriteChanged(int recipeId, boolean favorite) {
+        deliver(() -> target.favoriteChanged(recipeId, favorite));
+    }
+
+    @Override
+    public void favoriteRated(int recipeId, int rating) {
+        deliver(() -> target.favoriteRated(recipeId, rating));
+    }
+
+    @Override
+    public void recipeCooked(int recipeId, Timestamp cookedAt) {
+        deliver(() -> target.recipeCooked(recipeId, cookedAt));
+    }
+
+    @Override
+    public void ingredientSaved(Ingredient ingredient) {
+        deliver(() -> target.ingredientSaved(ingredient));
+    }
+
+    @Override
+    public void ingredientPriced(int ingredientId, String name, long unitPrice) {
+        deliver(() -> target.ingredientPriced(ingredientId, name, unitPrice));
+    }
+
+    @Override
+    public void ingredientDeleted(int ingredientId) {
+        deliver(() -> target.ingredientDeleted(ingredientId));
+    }
+
+    @Override
+    public void substitutionSaved(Substitution substitution) {
+        deliver(() -> target.substitutionSaved(substitution));
+    }
+
+    @Override
+    public void substitutionDeleted(String ingredientName, String substituteName) {
+        deliver(() -> target.substitutionDeleted(ingredientName, substituteName));
+    }
+
+    @Override
+    public void nutritionSaved(String ingredientName, Nutrition nutrition) {
+        deliver(() -> target.nutritionSaved(ingredientName, nutrition));
+    }
+
+    @Override
+    public void nutritionDeleted(String ingredientName) {
+        deliver(() -> target.nutritionDeleted(ingredientName));
+    }
+}
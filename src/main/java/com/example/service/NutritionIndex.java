@@ -0,0 +1,309 @@
+package com.example.service;
+
+import com.example.dao.DataChangeListener;
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.IngredientDAO;
+import com.example.dao.NutritionDAO;
+import com.example.dao.RecipeDAO;
+import com.example.model.CompactRecipe;
+import com.example.model.Ingredient;
+import com.example.model.IngredientDictionary;
+import com.example.model.IngredientUsageIndex;
+import com.example.model.Nutrient;
+import com.example.model.Nutrition;
+import com.example.model.Recipe;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * NutritionIndex
+ * - 레시피별 영양 합계(재료 1개당 영양 x 필요 수량)를 미리 계산해 두는 인덱스 (싱글톤)
+ * - 합계는 영양 성분마다 레시피 슬롯 순서의 long 배열 하나(컬럼)로 보관하고,
+ *   "지금 만들 수 있는지"는 재고가 모자란 재료 수 int 배열로 함께 유지
+ * - 조건 조회("600kcal 이하이면서 지금 만들 수 있는 레시피")는 이 배열들만 순서대로 훑으므로
+ *   레시피 객체를 따라가거나 SQL 조인을 하지 않음
+ * - 레시피/영양 정보/재고가 바뀌면 IngredientUsageIndex로 그 재료를 쓰는 레시피 슬롯만 다시 계산
+ * - 영양 정보가 없는 재료는 합계에서 빠지므로 레시피별 개수를 따로 세고, 조건 조회에서는 제외
+ */
+public class NutritionIndex implements DataChangeListener {
+    private static NutritionIndex instance;
+
+    private final IngredientDictionary dictionary = IngredientDictionary.getInstance();
+    // 레시피 슬롯별 데이터 (삭제된 슬롯은 recipes가 null, recipeIds가 0)
+    private CompactRecipe[] recipes = new CompactRecipe[0];
+    private int[] recipeIds = new int[0];
+    private long[][] totals = new long[Nutrient.COUNT][0];
+    private int[] unknown = new int[0];
+    private int[] shortfall = new int[0];
+    private int slotCount;
+    private final Map<Integer, Integer> slotByRecipeId = new HashMap<>();
+    // 재료 사전 id별 1개당 영양 값, 영양 정보 유무, 보유 수량
+    private int[][] perUnit = new int[Nutrient.COUNT][64];
+    private boolean[] known = new boolean[64];
+    private int[] stock = new int[64];
+    private final IngredientUsageIndex usage = new IngredientUsageIndex();
+    private final Map<Integer, Integer> dictionaryIdByIngredientId = new HashMap<>();
+    private boolean loaded;
+    // 변경 알림으로 다시 계산한 레시피 수 (전체 재계산 대비 확인용)
+    private long recomputed;
+    // load() 중 들어온 변경 알림을 모았다가 읽은 결과를 적용한 뒤 다시 전달
+    private final LoadBuffer loadBuffer = new LoadBuffer(this);
+
+    private NutritionIndex() {
+        DataChangeNotifier.getInstance().addListener(loadBuffer);
+    }
+
+    public static synchronized NutritionIndex getInstance() {
+        if (instance == null) {
+            instance = new NutritionIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * 전체 레시피/재료/영양 정보를 읽어 합계를 새로 계산
+     */
+    public void load(RecipeDAO recipeDAO, IngredientDAO ingredientDAO, NutritionDAO nutritionDAO) {
+        loadBuffer.begin();
+        try {
+            install(recipeDAO.findAllCompact(), ingredientDAO.findAll(), nutritionDAO.findAll());
+        } finally {
+            loadBuffer.end();
+        }
+    }
+
+    private void install(List<CompactRecipe> loadedRecipes, List<Ingredient> loadedIngredients,
+                         Map<String, Nutrition> loadedNutrition) {
+        synchronized (this) {
+            int capacity = Math.max(16, loadedRecipes.size());
+            recipes = new CompactRecipe[capacity];
+            recipeIds = new int[capacity];
+            totals = new long[Nutrient.COUNT][capacity];
+            unknown = new int[capacity];
+            shortfall = new int[capacity];
+            slotCount = 0;
+            slotByRecipeId.clear();
+            usage.clear();
+            for (int[] column : perUnit) Arrays.fill(column, 0);
+            Arrays.fill(known, false);
+            Arrays.fill(stock, 0);
+            dictionaryIdByIngredientId.clear();
+            for (Ingredient ingredient : loadedIngredients) {
+                int dictId = dictionary.intern(ingredient.getName());
+                ensureIngredientCapacity(dictId);
+                stock[dictId] = ingredient.getAvailableQuantity();
+                dictionaryIdByIngredientId.put(ingredient.getId(), dictId);
+            }
+            for (Map.Entry<String, Nutrition> entry : loadedNutrition.entrySet()) {
+                int dictId = dictionary.intern(entry.getKey());
+                ensureIngredientCapacity(dictId);
+                putNutrition(dictId, entry.getValue());
+            }
+            for (CompactRecipe recipe : loadedRecipes) {
+                int slot = allocateSlot(recipe.getId());
+                recipes[slot] = recipe;
+                usage.add(slot, recipe);
+                compute(slot);
+            }
+            loaded = true;
+        }
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 영양 성분 합계가 max 이하인 레시피 id (슬롯 순서)
+     * - 영양 정보가 없는 재료가 있는 레시피는 합계를 믿을 수 없으므로 제외
+     * @param cookableOnly true면 모든 재료의 재고가 충분한 레시피만
+     */
+    public synchronized int[] findAtMost(Nutrient nutrient, long max, boolean cookableOnly) {
+        long[] column = totals[nutrient.ordinal()];
+        int[] result = new int[slotCount];
+        int found = 0;
+        for (int slot = 0; slot < slotCount; slot++) {
+            if (column[slot] <= max && unknown[slot] == 0 && recipeIds[slot] != 0
+                    && (!cookableOnly || shortfall[slot] == 0)) {
+                result[found++] = recipeIds[slot];
+            }
+        }
+        return Arrays.copyOf(result, found);
+    }
+
+    /** 인덱스에 있는 레시피 (없으면 null) */
+    public synchronized CompactRecipe getRecipe(int recipeId) {
+        Integer slot = slotByRecipeId.get(recipeId);
+        return slot == null ? null : recipes[slot];
+    }
+
+    /** 레시피 영양 합계 (Nutrient 순서, 고정소수점, 모르는 레시피면 null) */
+    public synchronized long[] getTotals(int recipeId) {
+        Integer slot = slotByRecipeId.get(recipeId);
+        if (slot == null) return null;
+        long[] values = new long[Nutrient.COUNT];
+        for (int n = 0; n < Nutrient.COUNT; n++) {
+            values[n] = totals[n][slot];
+        }
+        return values;
+    }
+
+    /** 레시피 재료 중 영양 정보가 없는 재료 수 */
+    public synchronized int getUnknownCount(int recipeId) {
+        Integer slot = slotByRecipeId.get(recipeId);
+        return slot == null ? 0 : unknown[slot];
+    }
+
+    /** 지금 재고로 만들 수 있는지 (모든 재료의 재고가 필요 수량 이상) */
+    public synchronized boolean canCook(int recipeId) {
+        Integer slot = slotByRecipeId.get(recipeId);
+        return slot != null && shortfall[slot] == 0;
+    }
+
+    /** 지표 요약 */
+    public synchronized String getStats() {
+        return String.format("영양 인덱스: 레시피 %d개, 변경 알림으로 다시 계산한 레시피 %d개", slotByRecipeId.size(), recomputed);
+    }
+
+    // ---- DAO 변경 알림 처리 ----
+
+    @Override
+    public synchronized void recipeSaved(Recipe recipe) {
+        if (!loaded) return;
+        CompactRecipe compact = CompactRecipe.from(recipe, dictionary);
+        Integer existing = slotByRecipeId.get(recipe.getId());
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            usage.remove(slot, recipes[slot]);
+        } else {
+            slot = allocateSlot(recipe.getId());
+        }
+        recipes[slot] = compact;
+        usage.add(slot, compact);
+        compute(slot);
+    }
+
+    @Override
+    public synchronized void recipeDeleted(int recipeId) {
+        Integer slot = slotByRecipeId.remove(recipeId);
+        if (slot == null) return;
+        usage.remove(slot, recipes[slot]);
+        recipes[slot] = null;
+        recipeIds[slot] = 0;
+    }
+
+    @Override
+    public synchronized void ingredientSaved(Ingredient ingredient) {
+        if (!loaded) return;
+        int dictId = dictionary.intern(ingredient.getName());
+        ensureIngredientCapacity(dictId);
+        Integer previous = dictionaryIdByIngredientId.put(ingredient.getId(), dictId);
+        if (previous != null && previous != dictId) {
+            // 이름이 바뀐 경우 예전 이름의 재고는 0으로 (영양 정보는 이름에 붙어 있으므로 그대로)
+            setStock(previous, 0);
+        }
+        setStock(dictId, ingredient.getAvailableQuantity());
+    }
+
+    @Override
+    public synchronized void ingredientDeleted(int ingredientId) {
+        Integer dictId = dictionaryIdByIngredientId.remove(ingredientId);
+        if (dictId != null) {
+            setStock(dictId, 0);
+        }
+    }
+
+    @Override
+    public synchronized void nutritionSaved(String ingredientName, Nutrition nutrition) {
+        if (!loaded) return;
+        int dictId = dictionary.intern(ingredientName);
+        ensureIngredientCapacity(dictId);
+        putNutrition(dictId, nutrition);
+        recomputeUsing(dictId);
+    }
+
+    @Override
+    public synchronized void nutritionDeleted(String ingredientName) {
+        int dictId = dictionary.idOf(ingredientName);
+        if (!loaded || dictId < 0 || dictId >= known.length || !known[dictId]) return;
+        known[dictId] = false;
+        for (int[] column : perUnit) column[dictId] = 0;
+        recomputeUsing(dictId);
+    }
+
+    // ---- 합계 계산 ----
+
+    private void putNutrition(int dictId, Nutrition nutrition) {
+        for (Nutrient nutrient : Nutrient.values()) {
+            perUnit[nutrient.ordinal()][dictId] = nutrition.get(nutrient);
+        }
+        known[dictId] = true;
+    }
+
+    private void setStock(int dictId, int quantity) {
+        if (stock[dictId] == quantity) return;
+        stock[dictId] = quantity;
+        recomputeUsing(dictId);
+    }
+
+    // 재료를 쓰는 레시피 슬롯만 다시 계산
+    private void recomputeUsing(int dictId) {
+        usage.forEach(dictId, this::compute);
+        recomputed += usage.count(dictId);
+    }
+
+    private void compute(int slot) {
+        CompactRecipe recipe = recipes[slot];
+        int missing = 0;
+        int lacking = 0;
+        for (int n = 0; n < Nutrient.COUNT; n++) {
+            totals[n][slot] = 0;
+        }
+        for (int i = 0; i < recipe.getIngredientCount(); i++) {
+            int dictId = recipe.getIngredientId(i);
+            int quantity = recipe.getQuantity(i);
+            if (dictId >= known.length || !known[dictId]) {
+                missing++;
+            } else {
+                for (int n = 0; n < Nutrient.COUNT; n++) {
+                    totals[n][slot] += (long) perUnit[n][dictId] * quantity;
+                }
+            }
+            if (dictId >= stock.length || stock[dictId] < quantity) lacking++;
+        }
+        unknown[slot] = missing;
+        shortfall[slot] = lacking;
+    }
+
+    // ---- 슬롯 관리 ----
+
+    private int allocateSlot(int recipeId) {
+        if (slotCount == recipes.length) {
+            int capacity = Math.max(16, slotCount * 2);
+            recipes = Arrays.copyOf(recipes, capacity);
+            recipeIds = Arrays.copyOf(recipeIds, capacity);
+            for (int n = 0; n < Nutrient.COUNT; n++) {
+                totals[n] = Arrays.copyOf(totals[n], capacity);
+            }
+            unknown = Arrays.copyOf(unknown, capacity);
+            shortfall = Arrays.copyOf(shortfall, capacity);
+        }
+        int slot = slotCount++;
+        recipeIds[slot] = recipeId;
+        slotByRecipeId.put(recipeId, slot);
+        return slot;
+    }
+
+    private void ensureIngredientCapacity(int dictId) {
+        if (dictId < known.length) return;
+        int capacity = Math.max(dictId + 1, known.length * 2);
+        for (int n = 0; n < Nutrient.COUNT; n++) {
+            perUnit[n] = Arrays.copyOf(perUnit[n], capacity);
+        }
+        known = Arrays.copyOf(known, capacity);
+        stock = Arrays.copyOf(stock, capacity);
+    }
+}
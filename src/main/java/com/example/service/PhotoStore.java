@@ -0,0 +1,141 @@
+package com.example.service;
+
+import com.example.dao.DataChangeListener;
+import com.example.dao.DataChangeNotifier;
+import com.example.db.DatabaseConnection;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.imageio.stream.FileImageInputStream;
+import javax.imageio.stream.ImageInputStream;
+
+/**
+ * PhotoStore
+ * - 레시피 사진 원본을 디스크(photo.dir, 기본 ~/.recipe-manager/photos)에 "<레시피 id>.photo" 파일로 보관 (싱글톤)
+ * - 파일 쓰기는 NIO FileChannel로 처리하고, 교체는 임시 파일에 쓴 뒤 이름을 바꿔 읽는 쪽이 반쯤 쓴 파일을 보지 않음
+ * - 읽기는 원본을 힙에 올리지 않고 파일 위의 ImageInputStream으로 넘겨 ImageReader가 필요한 부분만 읽게 함
+ * - 폴더 읽기/사진 삭제 실패는 getLastError()로 상태에 보여줌
+ * - 사진이 있는 레시피와 버전(수정 시각)을 메모리에 들고 있어 테이블 렌더링 중에는 디스크를 확인하지 않음
+ * - 버전은 사진을 바꿀 때마다 커지므로 썸네일 캐시는 버전이 다르면 예전 썸네일로 보고 다시 만듦
+ * - 레시피 삭제 알림을 받으면 사진 파일도 함께 삭제
+ */
+public class PhotoStore implements DataChangeListener {
+    private static final String SUFFIX = ".photo";
+    private static PhotoStore instance;
+
+    private final Path dir;
+    // 레시피 id → 사진 버전 (사진이 없으면 항목 없음)
+    private final Map<Integer, Long> versions = new ConcurrentHashMap<>();
+    private volatile String lastError;
+
+    private PhotoStore(Path dir) {
+        this.dir = dir;
+        scan();
+        DataChangeNotifier.getInstance().addListener(this);
+    }
+
+    public static synchronized PhotoStore getInstance() {
+        if (instance == null) {
+            String defaultPath = Paths.get(System.getProperty("user.home"), ".recipe-manager", "photos").toString();
+            instance = new PhotoStore(Paths.get(DatabaseConnection.getInstance().getProperty("photo.dir", defaultPath)));
+        }
+        return instance;
+    }
+
+    // 사진 폴더를 한 번 훑어 사진이 있는 레시피 목록 구성
+    private void scan() {
+        if (!Files.isDirectory(dir)) return;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    int recipeId = Integer.parseInt(name.substring(0, name.length() - SUFFIX.length()));
+                    versions.put(recipeId, Files.getLastModifiedTime(file).toMillis());
+                } catch (NumberFormatException ignored) {
+                    // 레시피 사진이 아닌 파일
+                }
+            }
+        } catch (IOException e) {
+            lastError = "사진 폴더를 읽지 못했습니다: " + e.getMessage();
+        }
+    }
+
+    /** 사진이 있는 레시피인지 여부 (Integer를 받아 렌더러에서 박싱 없이 호출 가능) */
+    public boolean hasPhoto(Integer recipeId) {
+        return versions.containsKey(recipeId);
+    }
+
+    /** 사진 버전 (사진이 없으면 0) */
+    public long getVersion(Integer recipeId) {
+        Long version = versions.get(recipeId);
+        return version != null ? version : 0L;
+    }
+
+    /** 마지막 사진 폴더 읽기/삭제 오류 (없으면 null) */
+    public String getLastError() {
+        return lastError;
+    }
+
+    /** 사진이 있는 레시피 수 */
+    public int getPhotoCount() {
+        return versions.size();
+    }
+
+    private Path pathOf(int recipeId) {
+        return dir.resolve(recipeId + SUFFIX);
+    }
+
+    /**
+     * 이미지 파일을 레시피 사진으로 복사 (기존 사진은 교체)
+     */
+    public void attach(int recipeId, Path source) throws IOException {
+        Files.createDirectories(dir);
+        Path temp = Files.createTempFile(dir, recipeId + "-", ".tmp");
+        try {
+            try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                 FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                long size = in.size();
+                for (long position = 0; position < size; ) {
+                    position += in.transferTo(position, size - position, out);
+                }
+            }
+            Files.move(temp, pathOf(recipeId), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        long modified = Files.getLastModifiedTime(pathOf(recipeId)).toMillis();
+        // 같은 시각 안에 두 번 바꿔도 버전이 달라지도록 이전 버전보다 크게
+        versions.merge(recipeId, modified, (previous, next) -> Math.max(previous + 1, next));
+    }
+
+    /**
+     * 사진 원본을 읽는 스트림 (사진이 없으면 null, 호출자가 닫음)
+     * - 파일을 직접 읽으므로 부분 샘플링으로 디코딩하면 원본 크기만큼의 힙을 쓰지 않음
+     */
+    public ImageInputStream open(int recipeId) throws IOException {
+        if (!hasPhoto(recipeId)) return null;
+        return new FileImageInputStream(pathOf(recipeId).toFile());
+    }
+
+    /** 사진 삭제 */
+    public void delete(int recipeId) throws IOException {
+        versions.remove(recipeId);
+        Files.deleteIfExists(pathOf(recipeId));
+    }
+
+    @Override
+    public void recipeDeleted(int recipeId) {
+        try {
+            delete(recipeId);
+        } catch (IOException e) {
+            lastError = "레시피 " + recipeId + " 사진을 삭제하지 못했습니다: " + e.getMessage();
+        }
+    }
+}
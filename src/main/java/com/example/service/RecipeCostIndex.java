@@ -0,0 +1,277 @@
+package com.example.service;
+
+import com.example.dao.DataChangeListener;
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.IngredientDAO;
+import com.example.dao.RecipeDAO;
+import com.example.model.CompactRecipe;
+import com.example.model.Ingredient;
+import com.example.model.IngredientDictionary;
+import com.example.model.IngredientUsageIndex;
+import com.example.model.Price;
+import com.example.model.Recipe;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * RecipeCostIndex
+ * - 레시피별 재료 원가(필요 수량 x 재료 단가 합계)를 메모리에 유지하는 인덱스 (싱글톤)
+ * - 금액은 Price 고정소수점 long 배열로 보관하므로 박싱이 없고 다시 계산해도 오차가 쌓이지 않음
+ * - 단가가 바뀌면 IngredientUsageIndex(재료 → 레시피 역인덱스)로 그 재료를 쓰는 레시피만 다시 계산
+ * - 단가가 없는(0인) 재료는 0원으로 더하고 레시피별 개수를 따로 셈
+ * - 원가가 바뀐 레시피 id는 CostListener로 알림 (알림은 락 밖에서, 쓰기를 한 스레드에서 호출)
+ */
+public class RecipeCostIndex implements DataChangeListener {
+    /** 원가를 모르는 레시피 (인덱스를 불러오기 전이거나 없는 레시피) */
+    public static final long UNKNOWN = -1;
+    private static RecipeCostIndex instance;
+
+    /**
+     * 원가 변경 알림
+     */
+    public interface CostListener {
+        /** @param recipeIds 원가가 바뀐 레시피 id (null이면 전체) */
+        void costsChanged(int[] recipeIds);
+    }
+
+    private final IngredientDictionary dictionary = IngredientDictionary.getInstance();
+    private final List<CostListener> listeners = new CopyOnWriteArrayList<>();
+    // 레시피 슬롯별 데이터 (삭제된 슬롯은 null)
+    private CompactRecipe[] recipes = new CompactRecipe[0];
+    private long[] costs = new long[0];
+    private int[] unpriced = new int[0];
+    private int slotCount;
+    private final Map<Integer, Integer> slotByRecipeId = new HashMap<>();
+    // 재료 사전 id별 단가와 역인덱스
+    private long[] unitPrices = new long[64];
+    private final IngredientUsageIndex usage = new IngredientUsageIndex();
+    private final Map<Integer, Integer> dictionaryIdByIngredientId = new HashMap<>();
+    private boolean loaded;
+    // 단가 변경으로 다시 계산한 레시피 수 (전체 재계산 대비 확인용)
+    private long repriced;
+    // load() 중 들어온 변경 알림을 모았다가 읽은 결과를 적용한 뒤 다시 전달
+    private final LoadBuffer loadBuffer = new LoadBuffer(this);
+
+    private RecipeCostIndex() {
+        DataChangeNotifier.getInstance().addListener(loadBuffer);
+    }
+
+    public static synchronized RecipeCostIndex getInstance() {
+        if (instance == null) {
+            instance = new RecipeCostIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * 전체 레시피/재료를 읽어 원가를 새로 계산
+     */
+    public void load(RecipeDAO recipeDAO, IngredientDAO ingredientDAO) {
+        loadBuffer.begin();
+        try {
+            install(recipeDAO.findAllCompact(), ingredientDAO.findAll());
+        } finally {
+            loadBuffer.end();
+        }
+    }
+
+    private void install(List<CompactRecipe> loadedRecipes, List<Ingredient> loadedIngredients) {
+        synchronized (this) {
+            int capacity = Math.max(16, loadedRecipes.size());
+            recipes = new CompactRecipe[capacity];
+            costs = new long[capacity];
+            unpriced = new int[capacity];
+            slotCount = 0;
+            slotByRecipeId.clear();
+            usage.clear();
+            Arrays.fill(unitPrices, 0);
+            dictionaryIdByIngredientId.clear();
+            for (Ingredient ingredient : loadedIngredients) {
+                int dictId = dictionary.intern(ingredient.getName());
+                ensureIngredientCapacity(dictId);
+                unitPrices[dictId] = ingredient.getUnitPrice();
+                dictionaryIdByIngredientId.put(ingredient.getId(), dictId);
+            }
+            for (CompactRecipe recipe : loadedRecipes) {
+                int slot = allocateSlot(recipe.getId());
+                recipes[slot] = recipe;
+                usage.add(slot, recipe);
+                compute(slot);
+            }
+            loaded = true;
+        }
+        fire(null);
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /** 레시피 원가 (Price 고정소수점, 모르면 UNKNOWN) */
+    public synchronized long getCost(int recipeId) {
+        Integer slot = slotByRecipeId.get(recipeId);
+        return slot == null ? UNKNOWN : costs[slot];
+    }
+
+    /** 레시피 재료 중 단가가 없는 재료 수 */
+    public synchronized int getUnpricedCount(int recipeId) {
+        Integer slot = slotByRecipeId.get(recipeId);
+        return slot == null ? 0 : unpriced[slot];
+    }
+
+    /** 재료 이름의 단가 (Price 고정소수점, 없으면 0) */
+    public synchronized long getUnitPrice(String ingredientName) {
+        int dictId = dictionary.idOf(ingredientName);
+        return dictId >= 0 && dictId < unitPrices.length ? unitPrices[dictId] : 0;
+    }
+
+    public void addCostListener(CostListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeCostListener(CostListener listener) {
+        listeners.remove(listener);
+    }
+
+    /** 지표 요약 */
+    public synchronized String getStats() {
+        return String.format("원가 인덱스: 레시피 %d개, 단가 변경으로 다시 계산한 레시피 %d개", slotByRecipeId.size(), repriced);
+    }
+
+    // ---- DAO 변경 알림 처리 ----
+
+    @Override
+    public void recipeSaved(Recipe recipe) {
+        synchronized (this) {
+            if (!loaded) return;
+            CompactRecipe compact = CompactRecipe.from(recipe, dictionary);
+            Integer existing = slotByRecipeId.get(recipe.getId());
+            int slot;
+            if (existing != null) {
+                slot = existing;
+                usage.remove(slot, recipes[slot]);
+            } else {
+                slot = allocateSlot(recipe.getId());
+            }
+            recipes[slot] = compact;
+            usage.add(slot, compact);
+            compute(slot);
+        }
+        fire(new int[]{recipe.getId()});
+    }
+
+    @Override
+    public void recipeDeleted(int recipeId) {
+        synchronized (this) {
+            Integer slot = slotByRecipeId.remove(recipeId);
+            if (slot == null) return;
+            usage.remove(slot, recipes[slot]);
+            recipes[slot] = null;
+        }
+        // 원가가 UNKNOWN으로 바뀜 (목록에 남아 있는 행의 원가 셀을 비우도록)
+        fire(new int[]{recipeId});
+    }
+
+    @Override
+    public void ingredientPriced(int ingredientId, String name, long unitPrice) {
+        int[] changed;
+        synchronized (this) {
+            if (!loaded) return;
+            int dictId = dictionary.intern(name);
+            ensureIngredientCapacity(dictId);
+            dictionaryIdByIngredientId.put(ingredientId, dictId);
+            changed = setUnitPrice(dictId, unitPrice);
+        }
+        fire(changed);
+    }
+
+    @Override
+    public void ingredientSaved(Ingredient ingredient) {
+        int[] changed = null;
+        synchronized (this) {
+            if (!loaded) return;
+            int dictId = dictionary.intern(ingredient.getName());
+            ensureIngredientCapacity(dictId);
+            Integer previous = dictionaryIdByIngredientId.put(ingredient.getId(), dictId);
+            if (previous != null && previous != dictId) {
+                // 이름이 바뀌면 단가도 새 이름으로 옮김 (재고 차감 알림에는 단가가 없으므로 알림 값은 쓰지 않음)
+                long price = unitPrices[previous];
+                int[] fromOld = setUnitPrice(previous, 0);
+                int[] fromNew = setUnitPrice(dictId, price);
+                changed = Arrays.copyOf(fromOld, fromOld.length + fromNew.length);
+                System.arraycopy(fromNew, 0, changed, fromOld.length, fromNew.length);
+            }
+        }
+        if (changed != null) fire(changed);
+    }
+
+    @Override
+    public void ingredientDeleted(int ingredientId) {
+        int[] changed;
+        synchronized (this) {
+            Integer dictId = dictionaryIdByIngredientId.remove(ingredientId);
+            if (dictId == null) return;
+            changed = setUnitPrice(dictId, 0);
+        }
+        fire(changed);
+    }
+
+    // ---- 원가 계산 ----
+
+    // 단가를 바꾸고 그 재료를 쓰는 레시피만 다시 계산 (바뀐 레시피 id 반환)
+    private int[] setUnitPrice(int dictId, long unitPrice) {
+        if (unitPrices[dictId] == unitPrice) return new int[0];
+        unitPrices[dictId] = unitPrice;
+        int[] slots = usage.slotsOf(dictId);
+        int[] recipeIds = new int[slots.length];
+        for (int i = 0; i < slots.length; i++) {
+            compute(slots[i]);
+            recipeIds[i] = recipes[slots[i]].getId();
+        }
+        repriced += slots.length;
+        return recipeIds;
+    }
+
+    private void compute(int slot) {
+        CompactRecipe recipe = recipes[slot];
+        long cost = 0;
+        int missing = 0;
+        for (int i = 0; i < recipe.getIngredientCount(); i++) {
+            int dictId = recipe.getIngredientId(i);
+            long price = dictId < unitPrices.length ? unitPrices[dictId] : 0;
+            if (price == 0) missing++;
+            cost = Math.addExact(cost, Price.times(price, recipe.getQuantity(i)));
+        }
+        costs[slot] = cost;
+        unpriced[slot] = missing;
+    }
+
+    private void fire(int[] recipeIds) {
+        if (recipeIds != null && recipeIds.length == 0) return;
+        for (CostListener listener : listeners) {
+            listener.costsChanged(recipeIds);
+        }
+    }
+
+    // ---- 슬롯 관리 ----
+
+    private int allocateSlot(int recipeId) {
+        if (slotCount == recipes.length) {
+            int capacity = Math.max(16, slotCount * 2);
+            recipes = Arrays.copyOf(recipes, capacity);
+            costs = Arrays.copyOf(costs, capacity);
+            unpriced = Arrays.copyOf(unpriced, capacity);
+        }
+        int slot = slotCount++;
+        slotByRecipeId.put(recipeId, slot);
+        return slot;
+    }
+
+    private void ensureIngredientCapacity(int dictId) {
+        if (dictId < unitPrices.length) return;
+        unitPrices = Arrays.copyOf(unitPrices, Math.max(dictId + 1, unitPrices.length * 2));
+    }
+}
@@ -0,0 +1,340 @@
+package com.example.service;
+
+import com.example.dao.DataChangeListener;
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.IngredientDAO;
+import com.example.dao.RecipeDAO;
+import com.example.model.CompactRecipe;
+import com.example.model.Ingredient;
+import com.example.model.IngredientDictionary;
+import com.example.model.IngredientUsageIndex;
+import com.example.model.Recipe;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * RecommendationService
+ * - "다음에 뭘 요리할까" 추천 점수를 레시피마다 계산하고 상위 k개를 유지하는 서비스
+ * - 점수 = 평점 + 마지막 요리 후 경과 시간 + 즐겨찾기 + 보유 재료 비율 (가중합, 0~1)
+ * - 상위 k개는 크기 k의 최소 힙으로 관리하며, 재고/평점/즐겨찾기 변경 시 영향받는 레시피만 다시 계산
+ * - 재료 → 레시피 역인덱스로 재고가 바뀐 재료를 쓰는 레시피만 찾아 재계산
+ */
+public class RecommendationService implements DataChangeListener {
+    // 점수 가중치 (합계 1.0)
+    private static final double RATING_WEIGHT = 0.30;
+    private static final double RECENCY_WEIGHT = 0.25;
+    private static final double FAVORITE_WEIGHT = 0.15;
+    private static final double STOCK_WEIGHT = 0.30;
+    // 경과 일수 점수가 1 - e^(-일수/RECENCY_DAYS)로 포화되는 기준 (약 2주)
+    private static final double RECENCY_DAYS = 14.0;
+    private static final double MILLIS_PER_DAY = 24 * 60 * 60 * 1000.0;
+    // 경과 시간 점수는 천천히 변하므로 이 주기마다 한 번만 전체 재계산
+    private static final long RESCORE_INTERVAL_MILLIS = 60 * 60 * 1000L;
+
+    /**
+     * 추천 결과 한 건
+     */
+    public static class Recommendation {
+        private final CompactRecipe recipe;
+        private final double score;
+        private final double stockCoverage;
+
+        Recommendation(CompactRecipe recipe, double score, double stockCoverage) {
+            this.recipe = recipe;
+            this.score = score;
+            this.stockCoverage = stockCoverage;
+        }
+
+        public CompactRecipe getRecipe() { return recipe; }
+        public double getScore() { return score; }
+        /** 필요한 재료 중 지금 재고가 충분한 비율 (0~1) */
+        public double getStockCoverage() { return stockCoverage; }
+    }
+
+    private final RecipeDAO recipeDAO;
+    private final IngredientDAO ingredientDAO;
+    private final IngredientDictionary dictionary = IngredientDictionary.getInstance();
+    private final int k;
+
+    // 레시피 슬롯별 데이터 (삭제된 슬롯은 null)
+    private CompactRecipe[] recipes = new CompactRecipe[0];
+    private double[] scores = new double[0];
+    private boolean[] inTop = new boolean[0];
+    private int slotCount;
+    private final Map<Integer, Integer> slotByRecipeId = new HashMap<>();
+    // 재료 사전 id별 보유 수량 및 이 재료를 쓰는 레시피 슬롯 목록
+    private int[] stock = new int[64];
+    private final IngredientUsageIndex usage = new IngredientUsageIndex();
+    private final Map<Integer, Integer> dictionaryIdByIngredientId = new HashMap<>();
+    // 상위 k개 최소 힙 (가장 낮은 점수가 맨 위)
+    private final PriorityQueue<Integer> top;
+    private boolean topDirty;
+    private long scoredAt;
+    // load() 중 들어온 변경 알림을 모았다가 읽은 결과를 적용한 뒤 다시 전달
+    private final LoadBuffer loadBuffer = new LoadBuffer(this);
+
+    /**
+     * 생성자 - 상위 몇 개를 유지할지 지정 (데이터는 load()로 불러옴)
+     */
+    public RecommendationService(RecipeDAO recipeDAO, IngredientDAO ingredientDAO, int k) {
+        this.recipeDAO = recipeDAO;
+        this.ingredientDAO = ingredientDAO;
+        this.k = k;
+        this.top = new PriorityQueue<>(k + 1, (a, b) -> compareSlots(a, b));
+        DataChangeNotifier.getInstance().addListener(loadBuffer);
+    }
+
+    /**
+     * DB에서 전체 레시피/재료를 읽어 인덱스를 새로 구성하고 모든 점수 계산
+     */
+    public void load() {
+        loadBuffer.begin();
+        try {
+            install(recipeDAO.findAllCompact(), ingredientDAO.findAll());
+        } finally {
+            loadBuffer.end();
+        }
+    }
+
+    private void install(List<CompactRecipe> loadedRecipes, List<Ingredient> loadedIngredients) {
+        synchronized (this) {
+            recipes = new CompactRecipe[Math.max(16, loadedRecipes.size())];
+            scores = new double[recipes.length];
+            inTop = new boolean[recipes.length];
+            slotCount = 0;
+            slotByRecipeId.clear();
+            Arrays.fill(stock, 0);
+            usage.clear();
+            dictionaryIdByIngredientId.clear();
+            for (Ingredient ingredient : loadedIngredients) {
+                int dictId = dictionary.intern(ingredient.getName());
+                ensureIngredientCapacity(dictId);
+                stock[dictId] = ingredient.getAvailableQuantity();
+                dictionaryIdByIngredientId.put(ingredient.getId(), dictId);
+            }
+            for (CompactRecipe recipe : loadedRecipes) {
+                int slot = allocateSlot(recipe.getId());
+                recipes[slot] = recipe;
+                usage.add(slot, recipe);
+            }
+            rescoreAll();
+        }
+    }
+
+    /**
+     * 추천 상위 k개 (점수 내림차순)
+     * - 평소에는 유지 중인 힙을 정렬해 돌려주기만 하므로 카탈로그 크기와 무관하게 즉시 응답
+     */
+    public synchronized List<Recommendation> topK() {
+        if (System.currentTimeMillis() - scoredAt > RESCORE_INTERVAL_MILLIS) {
+            rescoreAll();
+        } else if (topDirty) {
+            rebuildTop();
+        }
+        Integer[] slots = top.toArray(new Integer[0]);
+        Arrays.sort(slots, (a, b) -> compareSlots(b, a));
+        List<Recommendation> result = new ArrayList<>(slots.length);
+        for (int slot : slots) {
+            result.add(new Recommendation(recipes[slot], scores[slot], stockCoverage(recipes[slot])));
+        }
+        return result;
+    }
+
+    // ---- DAO 변경 알림 처리 ----
+
+    @Override
+    public synchronized void recipeSaved(Recipe recipe) {
+        CompactRecipe compact = CompactRecipe.from(recipe, dictionary);
+        Integer existing = slotByRecipeId.get(recipe.getId());
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            usage.remove(slot, recipes[slot]);
+        } else {
+            slot = allocateSlot(recipe.getId());
+        }
+        recipes[slot] = compact;
+        usage.add(slot, compact);
+        updateScore(slot, score(compact));
+    }
+
+    @Override
+    public synchronized void recipeDeleted(int recipeId) {
+        Integer slot = slotByRecipeId.remove(recipeId);
+        if (slot == null) return;
+        usage.remove(slot, recipes[slot]);
+        updateScore(slot, Double.NEGATIVE_INFINITY);
+        recipes[slot] = null;
+        if (inTop[slot]) {
+            top.remove(slot);
+            inTop[slot] = false;
+            topDirty = true;
+        }
+    }
+
+    @Override
+    public synchronized void favoriteChanged(int recipeId, boolean favorite) {
+        Integer slot = slotByRecipeId.get(recipeId);
+        if (slot == null) return;
+        recipes[slot] = recipes[slot].withFavorite(favorite);
+        updateScore(slot, score(recipes[slot]));
+    }
+
+    @Override
+    public synchronized void favoriteRated(int recipeId, int rating) {
+        Integer slot = slotByRecipeId.get(recipeId);
+        if (slot == null) return;
+        recipes[slot] = recipes[slot].withRating(rating);
+        updateScore(slot, score(recipes[slot]));
+    }
+
+    @Override
+    public synchronized void recipeCooked(int recipeId, Timestamp cookedAt) {
+        Integer slot = slotByRecipeId.get(recipeId);
+        if (slot == null) return;
+        recipes[slot] = recipes[slot].withLastCookedAt(cookedAt == null ? CompactRecipe.NEVER_COOKED : cookedAt.getTime());
+        updateScore(slot, score(recipes[slot]));
+    }
+
+    @Override
+    public synchronized void ingredientSaved(Ingredient ingredient) {
+        int dictId = dictionary.intern(ingredient.getName());
+        ensureIngredientCapacity(dictId);
+        Integer previous = dictionaryIdByIngredientId.put(ingredient.getId(), dictId);
+        if (previous != null && previous != dictId) {
+            // 이름이 바뀐 경우 예전 이름의 재고는 0으로
+            setStock(previous, 0);
+        }
+        setStock(dictId, ingredient.getAvailableQuantity());
+    }
+
+    @Override
+    public synchronized void ingredientDeleted(int ingredientId) {
+        Integer dictId = dictionaryIdByIngredientId.remove(ingredientId);
+        if (dictId != null) {
+            setStock(dictId, 0);
+        }
+    }
+
+    // ---- 점수 계산 ----
+
+    private double score(CompactRecipe recipe) {
+        double rating = recipe.getRating() >= 1 ? recipe.getRating() / 5.0 : 0.5;
+        double recency = 1.0;
+        if (recipe.hasBeenCooked()) {
+            double days = Math.max(0, System.currentTimeMillis() - recipe.getLastCookedAtMillis()) / MILLIS_PER_DAY;
+            recency = 1.0 - Math.exp(-days / RECENCY_DAYS);
+        }
+        double favorite = recipe.isFavorite() ? 1.0 : 0.0;
+        return RATING_WEIGHT * rating + RECENCY_WEIGHT * recency
+            + FAVORITE_WEIGHT * favorite + STOCK_WEIGHT * stockCoverage(recipe);
+    }
+
+    private double stockCoverage(CompactRecipe recipe) {
+        int n = recipe.getIngredientCount();
+        if (n == 0) return 1.0;
+        int enough = 0;
+        for (int i = 0; i < n; i++) {
+            int dictId = recipe.getIngredientId(i);
+            if (dictId < stock.length && stock[dictId] >= recipe.getQuantity(i)) {
+                enough++;
+            }
+        }
+        return (double) enough / n;
+    }
+
+    private void setStock(int dictId, int quantity) {
+        if (stock[dictId] == quantity) return;
+        stock[dictId] = quantity;
+        usage.forEach(dictId, slot -> updateScore(slot, score(recipes[slot])));
+    }
+
+    private void rescoreAll() {
+        for (int slot = 0; slot < slotCount; slot++) {
+            scores[slot] = recipes[slot] == null ? Double.NEGATIVE_INFINITY : score(recipes[slot]);
+        }
+        scoredAt = System.currentTimeMillis();
+        rebuildTop();
+    }
+
+    // ---- 상위 k개 힙 유지 ----
+
+    /**
+     * 슬롯 점수 갱신 후 힙 반영
+     * - 힙 안의 점수가 오르면 재배치, 내려가면 힙 밖에 더 나은 후보가 있을 수 있어 다음 조회 때 재구성
+     * - 힙 밖의 점수가 힙 최소값보다 커지면 최소값과 교체
+     */
+    private void updateScore(int slot, double newScore) {
+        double oldScore = scores[slot];
+        boolean wasTop = inTop[slot];
+        if (wasTop && !topDirty) {
+            top.remove(slot); // 점수를 바꾸기 전에 빼야 힙 순서가 깨지지 않음
+        }
+        scores[slot] = newScore;
+        if (topDirty) return;
+        if (wasTop) {
+            if (newScore >= oldScore) {
+                top.add(slot);
+            } else {
+                inTop[slot] = false;
+                topDirty = true;
+            }
+            return;
+        }
+        offer(slot);
+    }
+
+    private void offer(int slot) {
+        if (recipes[slot] == null) return;
+        if (top.size() < k) {
+            top.add(slot);
+            inTop[slot] = true;
+        } else if (compareSlots(slot, top.peek()) > 0) {
+            inTop[top.poll()] = false;
+            top.add(slot);
+            inTop[slot] = true;
+        }
+    }
+
+    private void rebuildTop() {
+        top.clear();
+        Arrays.fill(inTop, false);
+        for (int slot = 0; slot < slotCount; slot++) {
+            offer(slot);
+        }
+        topDirty = false;
+    }
+
+    // 점수가 같으면 id가 작은(먼저 등록된) 레시피를 우선
+    private int compareSlots(int a, int b) {
+        int byScore = Double.compare(scores[a], scores[b]);
+        if (byScore != 0) return byScore;
+        return Integer.compare(recipes[b] == null ? 0 : recipes[b].getId(), recipes[a] == null ? 0 : recipes[a].getId());
+    }
+
+    // ---- 슬롯/역인덱스 관리 ----
+
+    private int allocateSlot(int recipeId) {
+        if (slotCount == recipes.length) {
+            int capacity = Math.max(16, slotCount * 2);
+            recipes = Arrays.copyOf(recipes, capacity);
+            scores = Arrays.copyOf(scores, capacity);
+            inTop = Arrays.copyOf(inTop, capacity);
+        }
+        int slot = slotCount++;
+        scores[slot] = Double.NEGATIVE_INFINITY;
+        slotByRecipeId.put(recipeId, slot);
+        return slot;
+    }
+
+    private void ensureIngredientCapacity(int dictId) {
+        if (dictId < stock.length) return;
+        int capacity = Math.max(dictId + 1, stock.length * 2);
+        stock = Arrays.copyOf(stock, capacity);
+    }
+}
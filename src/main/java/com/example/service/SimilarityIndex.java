@@ -0,0 +1,329 @@
+package com.example.service;
+
+import com.example.dao.DataChangeListener;
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.RecipeDAO;
+import com.example.model.CompactRecipe;
+import com.example.model.IngredientDictionary;
+import com.example.model.Recipe;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * SimilarityIndex
+ * - 재료 구성이 비슷한 레시피를 찾는 MinHash + LSH 인덱스
+ * - 레시피마다 재료 사전 id 집합의 MinHash 서명(NUM_HASHES개)을 만들고, ROWS개씩 묶은 밴드 값으로 버킷에 등록
+ * - 조회 시 같은 버킷에 들어간 레시피만 후보로 모은 뒤 정확한 자카드 유사도로 다시 정렬 (전체 쌍 비교 없음)
+ * - 레시피 저장/삭제 알림을 받아 해당 레시피의 버킷만 갱신
+ */
+public class SimilarityIndex implements DataChangeListener {
+    private static SimilarityIndex instance;
+
+    private static final int BANDS = 32;
+    private static final int ROWS = 2;
+    private static final int NUM_HASHES = BANDS * ROWS;
+
+    /**
+     * 유사 레시피 조회 결과 한 건
+     */
+    public static class SimilarRecipe {
+        private final CompactRecipe recipe;
+        private final double jaccard;
+        private final int sharedCount;
+
+        SimilarRecipe(CompactRecipe recipe, double jaccard, int sharedCount) {
+            this.recipe = recipe;
+            this.jaccard = jaccard;
+            this.sharedCount = sharedCount;
+        }
+
+        public CompactRecipe getRecipe() { return recipe; }
+        /** 재료 집합 자카드 유사도 (0~1) */
+        public double getJaccard() { return jaccard; }
+        /** 겹치는 재료 수 */
+        public int getSharedCount() { return sharedCount; }
+    }
+
+    /**
+     * 버킷 하나에 들어간 레시피 슬롯 목록 (박싱 없는 가변 int 배열)
+     */
+    private static class Bucket {
+        int[] slots = new int[2];
+        int size;
+
+        void add(int slot) {
+            if (size == slots.length) slots = Arrays.copyOf(slots, size * 2);
+            slots[size++] = slot;
+        }
+
+        void remove(int slot) {
+            for (int i = 0; i < size; i++) {
+                if (slots[i] == slot) {
+                    slots[i] = slots[--size];
+                    return;
+                }
+            }
+        }
+    }
+
+    private final IngredientDictionary dictionary = IngredientDictionary.getInstance();
+    // MinHash 해시 함수 계수 (고정 시드라 실행마다 같은 서명)
+    private final int[] hashMultipliers = new int[NUM_HASHES];
+    private final int[] hashOffsets = new int[NUM_HASHES];
+    // 슬롯별 레시피와 서명 (서명은 슬롯 * NUM_HASHES 위치부터 이어서 보관)
+    private CompactRecipe[] recipes = new CompactRecipe[0];
+    private int[] signatures = new int[0];
+    private int slotCount;
+    private final Map<Integer, Integer> slotByRecipeId = new HashMap<>();
+    // 밴드별 버킷 (밴드 안 ROWS개 서명 값을 long 하나로 묶은 키)
+    private final List<Map<Long, Bucket>> buckets = new ArrayList<>(BANDS);
+    // 후보 중복 제거용 표시 (조회마다 번호를 올려 배열을 다시 비우지 않음)
+    private int[] seenMark = new int[0];
+    private int queryNumber;
+    private boolean loaded;
+
+    private SimilarityIndex() {
+        Random random = new Random(0x5EED);
+        for (int i = 0; i < NUM_HASHES; i++) {
+            hashMultipliers[i] = random.nextInt() | 1;
+            hashOffsets[i] = random.nextInt();
+        }
+        for (int band = 0; band < BANDS; band++) {
+            buckets.add(new HashMap<>());
+        }
+        DataChangeNotifier.getInstance().addListener(this);
+    }
+
+    public static synchronized SimilarityIndex getInstance() {
+        if (instance == null) {
+            instance = new SimilarityIndex();
+        }
+        return instance;
+    }
+
+    /**
+     * 전체 레시피를 읽어 인덱스를 새로 구성
+     */
+    public void load(RecipeDAO recipeDAO) {
+        List<CompactRecipe> loadedRecipes = recipeDAO.findAllCompact();
+        synchronized (this) {
+            int capacity = Math.max(16, loadedRecipes.size());
+            recipes = new CompactRecipe[capacity];
+            signatures = new int[capacity * NUM_HASHES];
+            seenMark = new int[capacity];
+            slotCount = 0;
+            slotByRecipeId.clear();
+            for (Map<Long, Bucket> band : buckets) {
+                band.clear();
+            }
+            for (CompactRecipe recipe : loadedRecipes) {
+                put(recipe);
+            }
+            loaded = true;
+        }
+    }
+
+    public synchronized boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 재료 구성이 비슷한 레시피 (자카드 유사도 내림차순, 자기 자신 제외)
+     */
+    public synchronized List<SimilarRecipe> findSimilar(int recipeId, int limit) {
+        Integer slot = slotByRecipeId.get(recipeId);
+        if (slot == null) return new ArrayList<>();
+        int[] query = idsOf(recipes[slot]);
+        List<SimilarRecipe> result = rank(query, signatures, slot * NUM_HASHES, slot);
+        result.sort((a, b) -> Double.compare(b.getJaccard(), a.getJaccard()));
+        return truncate(result, limit);
+    }
+
+    /**
+     * 주어진 재료(예: 방금 산 재료)를 많이 쓰는 레시피
+     * - 겹치는 재료 수 내림차순, 같으면 자카드 유사도 내림차순
+     */
+    public synchronized List<SimilarRecipe> findUsing(Collection<String> ingredientNames, int limit) {
+        int[] query = new int[ingredientNames.size()];
+        int n = 0;
+        for (String name : ingredientNames) {
+            int dictId = dictionary.idOf(name);
+            if (dictId >= 0) query[n++] = dictId;
+        }
+        query = Arrays.stream(query, 0, n).sorted().distinct().toArray();
+        if (query.length == 0) return new ArrayList<>();
+        int[] signature = new int[NUM_HASHES];
+        sign(query, signature, 0);
+        List<SimilarRecipe> result = rank(query, signature, 0, -1);
+        result.sort((a, b) -> a.getSharedCount() != b.getSharedCount()
+            ? Integer.compare(b.getSharedCount(), a.getSharedCount())
+            : Double.compare(b.getJaccard(), a.getJaccard()));
+        return truncate(result, limit);
+    }
+
+    // ---- DAO 변경 알림 처리 ----
+
+    @Override
+    public synchronized void recipeSaved(Recipe recipe) {
+        if (!loaded) return;
+        put(CompactRecipe.from(recipe, dictionary));
+    }
+
+    @Override
+    public synchronized void recipeDeleted(int recipeId) {
+        Integer slot = slotByRecipeId.remove(recipeId);
+        if (slot == null) return;
+        unbucket(slot);
+        recipes[slot] = null;
+    }
+
+    @Override
+    public synchronized void favoriteChanged(int recipeId, boolean favorite) {
+        Integer slot = slotByRecipeId.get(recipeId);
+        if (slot != null) {
+            recipes[slot] = recipes[slot].withFavorite(favorite);
+        }
+    }
+
+    @Override
+    public synchronized void favoriteRated(int recipeId, int rating) {
+        Integer slot = slotByRecipeId.get(recipeId);
+        if (slot != null) {
+            recipes[slot] = recipes[slot].withRating(rating);
+        }
+    }
+
+    // ---- 후보 수집 및 정확한 재정렬 ----
+
+    private List<SimilarRecipe> rank(int[] query, int[] signature, int offset, int excludeSlot) {
+        if (++queryNumber == 0) {
+            Arrays.fill(seenMark, 0);
+            queryNumber = 1;
+        }
+        List<SimilarRecipe> result = new ArrayList<>();
+        for (int band = 0; band < BANDS; band++) {
+            Bucket bucket = buckets.get(band).get(bandKey(signature, offset, band));
+            if (bucket == null) continue;
+            for (int i = 0; i < bucket.size; i++) {
+                int candidate = bucket.slots[i];
+                if (candidate == excludeSlot || seenMark[candidate] == queryNumber) continue;
+                seenMark[candidate] = queryNumber;
+                CompactRecipe recipe = recipes[candidate];
+                int shared = intersectionSize(query, recipe);
+                if (shared > 0) {
+                    double jaccard = (double) shared / (query.length + recipe.getIngredientCount() - shared);
+                    result.add(new SimilarRecipe(recipe, jaccard, shared));
+                }
+            }
+        }
+        return result;
+    }
+
+    // 정렬된 id 배열과 레시피 재료 id(정렬됨)의 교집합 크기 (병합 순회)
+    private static int intersectionSize(int[] a, CompactRecipe recipe) {
+        int n = recipe.getIngredientCount();
+        int i = 0, j = 0, shared = 0;
+        while (i < a.length && j < n) {
+            int b = recipe.getIngredientId(j);
+            if (a[i] == b) {
+                shared++; i++; j++;
+            } else if (a[i] < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return shared;
+    }
+
+    private static List<SimilarRecipe> truncate(List<SimilarRecipe> list, int limit) {
+        return list.size() > limit ? new ArrayList<>(list.subList(0, limit)) : list;
+    }
+
+    // ---- 서명/버킷 관리 ----
+
+    private void put(CompactRecipe recipe) {
+        Integer existing = slotByRecipeId.get(recipe.getId());
+        int slot;
+        if (existing != null) {
+            slot = existing;
+            unbucket(slot);
+        } else {
+            slot = allocateSlot(recipe.getId());
+        }
+        recipes[slot] = recipe;
+        int offset = slot * NUM_HASHES;
+        sign(idsOf(recipe), signatures, offset);
+        if (recipe.getIngredientCount() == 0) return; // 재료 없는 레시피는 비교 대상 아님
+        for (int band = 0; band < BANDS; band++) {
+            buckets.get(band).computeIfAbsent(bandKey(signatures, offset, band), key -> new Bucket()).add(slot);
+        }
+    }
+
+    private void unbucket(int slot) {
+        if (recipes[slot] == null || recipes[slot].getIngredientCount() == 0) return;
+        int offset = slot * NUM_HASHES;
+        for (int band = 0; band < BANDS; band++) {
+            long key = bandKey(signatures, offset, band);
+            Bucket bucket = buckets.get(band).get(key);
+            if (bucket == null) continue;
+            bucket.remove(slot);
+            if (bucket.size == 0) {
+                buckets.get(band).remove(key);
+            }
+        }
+    }
+
+    // 각 해시 함수마다 집합 원소 해시의 최솟값
+    private void sign(int[] ids, int[] target, int offset) {
+        for (int h = 0; h < NUM_HASHES; h++) {
+            int min = Integer.MAX_VALUE;
+            for (int id : ids) {
+                int value = mix(id * hashMultipliers[h] + hashOffsets[h]);
+                if (value < min) min = value;
+            }
+            target[offset + h] = min;
+        }
+    }
+
+    // ROWS(=2)개 서명 값을 그대로 이어 붙인 키라 같은 밴드 값끼리만 충돌
+    private static long bandKey(int[] signature, int offset, int band) {
+        int start = offset + band * ROWS;
+        return ((long) signature[start] << 32) | (signature[start + 1] & 0xffffffffL);
+    }
+
+    // murmur3 finalizer (입력 비트를 고르게 섞음)
+    private static int mix(int h) {
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int[] idsOf(CompactRecipe recipe) {
+        int[] ids = new int[recipe.getIngredientCount()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = recipe.getIngredientId(i);
+        }
+        return ids;
+    }
+
+    private int allocateSlot(int recipeId) {
+        if (slotCount == recipes.length) {
+            int capacity = Math.max(16, slotCount * 2);
+            recipes = Arrays.copyOf(recipes, capacity);
+            signatures = Arrays.copyOf(signatures, capacity * NUM_HASHES);
+            seenMark = Arrays.copyOf(seenMark, capacity);
+        }
+        int slot = slotCount++;
+        slotByRecipeId.put(recipeId, slot);
+        return slot;
+    }
+}
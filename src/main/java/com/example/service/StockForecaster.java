@@ -0,0 +1,195 @@
+package com.example.service;
+
+import com.example.dao.CookingHistoryDAO;
+import com.example.dao.DataChangeListener;
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.IngredientDAO;
+import com.example.model.Ingredient;
+import com.example.model.IngredientDictionary;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * StockForecaster
+ * - 재료별 소비 속도(하루 소비량의 지수가중평균 + 분산)를 재고 차감마다 O(1)로 갱신하는 스트리밍 예측기
+ * - 보유 수량을 소비 속도로 나눠 소진 예상일을 계산하고, "N일 안에 떨어질 재료"를 배열 한 번 순회로 찾음
+ * - 재료 상태는 IngredientDictionary id를 인덱스로 하는 기본형 배열에 보관 (객체/박싱 없음)
+ * - 재고 감소는 DAO의 재료 저장 알림에서 이전 수량과의 차이로 감지
+ */
+public class StockForecaster implements DataChangeListener {
+    private static StockForecaster instance;
+
+    // 새 관측치 반영 비율 (클수록 최근 소비에 민감)
+    private static final double ALPHA = 0.3;
+    private static final double MILLIS_PER_DAY = 24 * 60 * 60 * 1000.0;
+    // 같은 날 여러 번 차감될 때 간격이 0에 가까워 속도가 폭증하지 않도록 하는 최소 간격 (일)
+    private static final double MIN_INTERVAL_DAYS = 0.25;
+    // 초기 추정에 사용하는 과거 집계 기간 (일)
+    private static final int WARMUP_DAYS = 28;
+
+    /**
+     * 소진 예측 결과 한 건
+     */
+    public static class Forecast {
+        private final String ingredientName;
+        private final int availableQuantity;
+        private final double dailyRate;
+        private final double dailyStdDev;
+        private final double daysLeft;
+        private final double pessimisticDaysLeft;
+
+        Forecast(String ingredientName, int availableQuantity, double dailyRate, double dailyStdDev,
+                 double daysLeft, double pessimisticDaysLeft) {
+            this.ingredientName = ingredientName;
+            this.availableQuantity = availableQuantity;
+            this.dailyRate = dailyRate;
+            this.dailyStdDev = dailyStdDev;
+            this.daysLeft = daysLeft;
+            this.pessimisticDaysLeft = pessimisticDaysLeft;
+        }
+
+        public String getIngredientName() { return ingredientName; }
+        public int getAvailableQuantity() { return availableQuantity; }
+        /** 하루 평균 소비량 */
+        public double getDailyRate() { return dailyRate; }
+        /** 하루 소비량 표준편차 */
+        public double getDailyStdDev() { return dailyStdDev; }
+        /** 평균 속도 기준 남은 일수 */
+        public double getDaysLeft() { return daysLeft; }
+        /** 평균 + 1표준편차 속도 기준 남은 일수 (보수적 추정) */
+        public double getPessimisticDaysLeft() { return pessimisticDaysLeft; }
+        /** 소진 예상일 */
+        public LocalDate getRunOutDate() { return LocalDate.now().plusDays((long) Math.floor(daysLeft)); }
+    }
+
+    private final IngredientDictionary dictionary = IngredientDictionary.getInstance();
+    // 재료 사전 id별 상태 (미리 할당하고 부족하면 두 배로 확장)
+    private int[] available = new int[256];
+    private double[] rate = new double[256];
+    private double[] variance = new double[256];
+    private long[] lastEventAt = new long[256];
+    private boolean[] tracked = new boolean[256];
+    private final Map<Integer, Integer> dictionaryIdByIngredientId = new HashMap<>();
+
+    private StockForecaster() {
+        DataChangeNotifier.getInstance().addListener(this);
+    }
+
+    public static synchronized StockForecaster getInstance() {
+        if (instance == null) {
+            instance = new StockForecaster();
+        }
+        return instance;
+    }
+
+    /**
+     * 현재 재고와 최근 소비 집계로 초기 상태 구성
+     * - 이후에는 재고 차감 알림만으로 갱신되므로 무거운 조회는 이때 한 번뿐
+     * - 직전 차감 시각은 요리 기록의 재료별 마지막 소비 시각으로 잡음 (시작 시각으로 잡으면 시작 직후 첫 차감의
+     *   간격이 실제보다 짧아져 속도가 부풀려짐)
+     */
+    public void load(IngredientDAO ingredientDAO, CookingHistoryDAO cookingHistoryDAO) {
+        List<Ingredient> ingredients = ingredientDAO.findAll();
+        LocalDate from = LocalDate.now().minusDays(WARMUP_DAYS - 1);
+        Map<String, Long> recent = cookingHistoryDAO.findConsumptionSince(from);
+        Map<String, Timestamp> lastConsumed = cookingHistoryDAO.findLastConsumedSince(from);
+        synchronized (this) {
+            Arrays.fill(tracked, false);
+            dictionaryIdByIngredientId.clear();
+            for (Ingredient ingredient : ingredients) {
+                int id = slotOf(ingredient.getName());
+                dictionaryIdByIngredientId.put(ingredient.getId(), id);
+                tracked[id] = true;
+                available[id] = ingredient.getAvailableQuantity();
+                Long consumed = recent.get(ingredient.getName());
+                rate[id] = consumed == null ? 0.0 : consumed / (double) WARMUP_DAYS;
+                variance[id] = 0.0;
+                Timestamp last = lastConsumed.get(ingredient.getName());
+                lastEventAt[id] = consumed == null || last == null ? 0L : last.getTime();
+            }
+        }
+    }
+
+    /**
+     * 재고 차감 한 건 반영 (O(1))
+     * - 직전 차감 이후 경과 시간으로 나눈 하루 소비량을 관측치로 평균/분산을 지수가중 갱신
+     */
+    private void applyDeduction(int id, int quantity, long atMillis) {
+        if (lastEventAt[id] == 0L) {
+            // 첫 관측: 하루 동안 쓴 양으로 가정
+            rate[id] = quantity;
+            variance[id] = 0.0;
+        } else {
+            double days = Math.max(MIN_INTERVAL_DAYS, (atMillis - lastEventAt[id]) / MILLIS_PER_DAY);
+            double observed = quantity / days;
+            double diff = observed - rate[id];
+            rate[id] += ALPHA * diff;
+            variance[id] = (1 - ALPHA) * (variance[id] + ALPHA * diff * diff);
+        }
+        lastEventAt[id] = atMillis;
+    }
+
+    /**
+     * N일 안에 떨어질 것으로 예상되는 재료 (보수적 추정 기준, 남은 일수 오름차순)
+     * - 미리 할당된 배열을 한 번 순회
+     */
+    public synchronized List<Forecast> runningOutWithin(int days) {
+        List<Forecast> result = new ArrayList<>();
+        int size = Math.min(dictionary.size(), available.length);
+        for (int id = 0; id < size; id++) {
+            if (!tracked[id] || rate[id] <= 0.0) continue;
+            double stdDev = Math.sqrt(variance[id]);
+            double pessimistic = available[id] / (rate[id] + stdDev);
+            if (pessimistic <= days) {
+                result.add(new Forecast(dictionary.nameOf(id), available[id], rate[id], stdDev,
+                    available[id] / rate[id], pessimistic));
+            }
+        }
+        result.sort((a, b) -> Double.compare(a.getPessimisticDaysLeft(), b.getPessimisticDaysLeft()));
+        return result;
+    }
+
+    // ---- DAO 변경 알림 처리 ----
+
+    @Override
+    public synchronized void ingredientSaved(Ingredient ingredient) {
+        int id = slotOf(ingredient.getName());
+        Integer previous = dictionaryIdByIngredientId.put(ingredient.getId(), id);
+        if (previous != null && previous != id) {
+            tracked[previous] = false; // 이름이 바뀐 재료
+        }
+        int before = available[id];
+        int after = ingredient.getAvailableQuantity();
+        if (tracked[id] && after < before) {
+            applyDeduction(id, before - after, System.currentTimeMillis());
+        }
+        tracked[id] = true;
+        available[id] = after;
+    }
+
+    @Override
+    public synchronized void ingredientDeleted(int ingredientId) {
+        Integer id = dictionaryIdByIngredientId.remove(ingredientId);
+        if (id != null) {
+            tracked[id] = false;
+        }
+    }
+
+    private int slotOf(String ingredientName) {
+        int id = dictionary.intern(ingredientName);
+        if (id >= available.length) {
+            int capacity = Math.max(id + 1, available.length * 2);
+            available = Arrays.copyOf(available, capacity);
+            rate = Arrays.copyOf(rate, capacity);
+            variance = Arrays.copyOf(variance, capacity);
+            lastEventAt = Arrays.copyOf(lastEventAt, capacity);
+            tracked = Arrays.copyOf(tracked, capacity);
+        }
+        return id;
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.service;
+
+import com.example.dao.DataChangeListener;
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.SubstitutionDAO;
+import com.example.model.IngredientDictionary;
+import com.example.model.Substitution;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SubstitutionGraph
+ * - 대체 재료 관계(재료 → 대체 재료, 비율)의 전이 폐포를 미리 계산해 두는 그래프
+ * - 폐포는 재료 사전 id별 CSR 배열(offsets / targets / ratios)로 보관하므로
+ *   레시피 하나의 요리 가능 여부 판단은 재료 수에 비례하는 시간만 걸림
+ * - 대체 관계가 추가/삭제되면 그 재료에 도달할 수 있는 재료들의 행만 다시 계산
+ * - 경로 비율은 간선 비율의 곱이며, 같은 재료에 여러 경로가 있으면 가장 짧은 경로(같으면 작은 비율)를 사용
+ */
+public class SubstitutionGraph implements DataChangeListener {
+    private static SubstitutionGraph instance;
+
+    // 대체의 대체는 이 단계까지만 따라감
+    private static final int MAX_DEPTH = 3;
+
+    /**
+     * 요리 계획 (실제로 차감할 재료와 사용한 대체 재료, 부족한 재료)
+     */
+    public static class CookPlan {
+        private final Map<String, Integer> deductions = new LinkedHashMap<>();
+        private final List<String> substitutions = new ArrayList<>();
+        private final List<String> missing = new ArrayList<>();
+
+        /** 재고에서 실제로 차감할 재료 이름 → 수량 */
+        public Map<String, Integer> getDeductions() { return deductions; }
+        /** 사용한 대체 재료 설명 (예: "쪽파 2 대신 대파 3") */
+        public List<String> getSubstitutions() { return substitutions; }
+        /** 대체 재료로도 채우지 못한 재료 설명 */
+        public List<String> getMissing() { return missing; }
+        public boolean isFeasible() { return missing.isEmpty(); }
+    }
+
+    private final IngredientDictionary dictionary = IngredientDictionary.getInstance();
+    // 직접 대체 관계 (원재료 id → 대체 재료 id → 비율)와 역방향 (대체 재료 id → 원재료 id들)
+    private final Map<Integer, Map<Integer, Double>> direct = new HashMap<>();
+    private final Map<Integer, Set<Integer>> reverse = new HashMap<>();
+    // 전이 폐포 CSR: 재료 id i의 대체 재료는 targets[offsets[i] .. offsets[i+1]) (가까운 것부터)
+    private int[] offsets = new int[1];
+    private int[] targets = new int[0];
+    private double[] ratios = new double[0];
+
+    private SubstitutionGraph() {
+        DataChangeNotifier.getInstance().addListener(this);
+    }
+
+    public static synchronized SubstitutionGraph getInstance() {
+        if (instance == null) {
+            instance = new SubstitutionGraph();
+        }
+        return instance;
+    }
+
+    /**
+     * DB의 대체 재료 전체를 읽어 폐포를 새로 계산
+     */
+    public void load(SubstitutionDAO substitutionDAO) {
+        List<Substitution> substitutions = substitutionDAO.findAll();
+        synchronized (this) {
+            direct.clear();
+            reverse.clear();
+            offsets = new int[1];
+            targets = new int[0];
+            ratios = new double[0];
+            for (Substitution substitution : substitutions) {
+                addEdge(substitution);
+            }
+            rebuild(direct.keySet());
+        }
+    }
+
+    /**
+     * 재고로 레시피를 만들 수 있는지 확인하고 실제 차감 계획을 세움
+     * - 재료가 부족하면 폐포 순서대로 재고가 충분한 첫 대체 재료를 사용 (필요량 = 올림(수량 x 비율))
+     * - 같은 재료가 여러 번 쓰이는 경우를 위해 이 계획에서 이미 쓴 양을 따로 셈
+     * @param required 레시피 재료 이름 → 필요 수량
+     * @param stock 재료 이름 → 보유 수량
+     */
+    public synchronized CookPlan plan(Map<String, Integer> required, Map<String, Integer> stock) {
+        CookPlan plan = new CookPlan();
+        Map<String, Integer> used = new HashMap<>();
+        for (Map.Entry<String, Integer> entry : required.entrySet()) {
+            String name = entry.getKey();
+            int quantity = entry.getValue();
+            int own = remaining(name, stock, used);
+            if (own >= quantity) {
+                take(plan, used, name, quantity);
+                continue;
+            }
+            boolean substituted = false;
+            int id = dictionary.idOf(name);
+            if (id >= 0 && id + 1 < offsets.length) {
+                for (int e = offsets[id]; e < offsets[id + 1]; e++) {
+                    String substitute = dictionary.nameOf(targets[e]);
+                    int need = (int) Math.ceil(quantity * ratios[e] - 1e-9);
+                    if (remaining(substitute, stock, used) >= need) {
+                        take(plan, used, substitute, need);
+                        plan.substitutions.add(name + " " + quantity + " 대신 " + substitute + " " + need);
+                        substituted = true;
+                        break;
+                    }
+                }
+            }
+            if (!substituted) {
+                plan.missing.add(name + "(" + (quantity - Math.max(0, own)) + "개 부족)");
+            }
+        }
+        return plan;
+    }
+
+    /**
+     * plan에 넘길 재고를 읽어야 하는 재료 이름 (레시피 재료 + 각 재료의 폐포 대체 재료)
+     * - 전체 재고 대신 이 이름들만 조회하면 되므로 요리 가능 여부 판단이 레시피 재료 수에 비례
+     */
+    public synchronized Set<String> stockNamesFor(Collection<String> ingredientNames) {
+        Set<String> names = new LinkedHashSet<>(ingredientNames);
+        for (String name : ingredientNames) {
+            int id = dictionary.idOf(name);
+            if (id < 0 || id + 1 >= offsets.length) continue;
+            for (int e = offsets[id]; e < offsets[id + 1]; e++) {
+                names.add(dictionary.nameOf(targets[e]));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 재료의 대체 재료 목록 (폐포, 가까운 것부터)
+     */
+    public synchronized List<Substitution> substitutesOf(String ingredientName) {
+        List<Substitution> result = new ArrayList<>();
+        int id = dictionary.idOf(ingredientName);
+        if (id < 0 || id + 1 >= offsets.length) return result;
+        for (int e = offsets[id]; e < offsets[id + 1]; e++) {
+            result.add(new Substitution(ingredientName, dictionary.nameOf(targets[e]), ratios[e]));
+        }
+        return result;
+    }
+
+    private static int remaining(String name, Map<String, Integer> stock, Map<String, Integer> used) {
+        return stock.getOrDefault(name, 0) - used.getOrDefault(name, 0);
+    }
+
+    private static void take(CookPlan plan, Map<String, Integer> used, String name, int quantity) {
+        used.merge(name, quantity, Integer::sum);
+        plan.deductions.merge(name, quantity, Integer::sum);
+    }
+
+    // ---- DAO 변경 알림 처리 ----
+
+    @Override
+    public synchronized void substitutionSaved(Substitution substitution) {
+        int from = addEdge(substitution);
+        rebuild(affectedBy(from));
+    }
+
+    @Override
+    public synchronized void substitutionDeleted(String ingredientName, String substituteName) {
+        int from = dictionary.idOf(ingredientName);
+        int to = dictionary.idOf(substituteName);
+        if (from < 0 || to < 0) return;
+        Map<Integer, Double> edges = direct.get(from);
+        if (edges == null || edges.remove(to) == null) return;
+        if (edges.isEmpty()) direct.remove(from);
+        Set<Integer> sources = reverse.get(to);
+        if (sources != null) {
+            sources.remove(from);
+            if (sources.isEmpty()) reverse.remove(to);
+        }
+        rebuild(affectedBy(from));
+    }
+
+    // ---- 폐포 계산 ----
+
+    private int addEdge(Substitution substitution) {
+        int from = dictionary.intern(substitution.getIngredientName());
+        int to = dictionary.intern(substitution.getSubstituteName());
+        direct.computeIfAbsent(from, k -> new HashMap<>()).put(to, substitution.getRatio());
+        reverse.computeIfAbsent(to, k -> new HashSet<>()).add(from);
+        return from;
+    }
+
+    // from의 행이 바뀌면 from에 MAX_DEPTH - 1단계 안에 도달하는 재료들의 행도 바뀜
+    private Set<Integer> affectedBy(int from) {
+        Set<Integer> affected = new HashSet<>();
+        affected.add(from);
+        ArrayDeque<int[]> queue = new ArrayDeque<>();
+        queue.add(new int[]{from, 0});
+        while (!queue.isEmpty()) {
+            int[] current = queue.poll();
+            if (current[1] >= MAX_DEPTH - 1) continue;
+            for (int source : reverse.getOrDefault(current[0], Set.of())) {
+                if (affected.add(source)) {
+                    queue.add(new int[]{source, current[1] + 1});
+                }
+            }
+        }
+        return affected;
+    }
+
+    /**
+     * 주어진 재료들의 행만 다시 계산하고, 나머지 행은 기존 CSR 배열에서 그대로 복사해 새 배열 구성
+     */
+    private void rebuild(Set<Integer> changed) {
+        int nodeCount = dictionary.size();
+        Map<Integer, Object[]> newRows = new HashMap<>();
+        int edgeCount = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            if (changed.contains(node)) {
+                Object[] row = closureOf(node);
+                newRows.put(node, row);
+                edgeCount += ((int[]) row[0]).length;
+            } else if (node + 1 < offsets.length) {
+                edgeCount += offsets[node + 1] - offsets[node];
+            }
+        }
+        int[] newOffsets = new int[nodeCount + 1];
+        int[] newTargets = new int[edgeCount];
+        double[] newRatios = new double[edgeCount];
+        int position = 0;
+        for (int node = 0; node < nodeCount; node++) {
+            newOffsets[node] = position;
+            Object[] row = newRows.get(node);
+            if (row != null) {
+                int[] rowTargets = (int[]) row[0];
+                System.arraycopy(rowTargets, 0, newTargets, position, rowTargets.length);
+                System.arraycopy((double[]) row[1], 0, newRatios, position, rowTargets.length);
+                position += rowTargets.length;
+            } else if (node + 1 < offsets.length) {
+                int length = offsets[node + 1] - offsets[node];
+                System.arraycopy(targets, offsets[node], newTargets, position, length);
+                System.arraycopy(ratios, offsets[node], newRatios, position, length);
+                position += length;
+            }
+        }
+        newOffsets[nodeCount] = position;
+        offsets = newOffsets;
+        targets = newTargets;
+        ratios = newRatios;
+    }
+
+    // 너비 우선으로 MAX_DEPTH 단계까지 따라가며 (대체 재료 id[], 누적 비율[])를 계산
+    private Object[] closureOf(int source) {
+        Map<Integer, Double> best = new LinkedHashMap<>();
+        Map<Integer, Double> frontier = new HashMap<>();
+        frontier.put(source, 1.0);
+        Set<Integer> visited = new HashSet<>();
+        visited.add(source);
+        for (int depth = 0; depth < MAX_DEPTH && !frontier.isEmpty(); depth++) {
+            Map<Integer, Double> next = new HashMap<>();
+            for (Map.Entry<Integer, Double> node : frontier.entrySet()) {
+                for (Map.Entry<Integer, Double> edge : direct.getOrDefault(node.getKey(), Map.of()).entrySet()) {
+                    if (visited.contains(edge.getKey())) continue;
+                    double ratio = node.getValue() * edge.getValue();
+                    next.merge(edge.getKey(), ratio, Math::min);
+                }
+            }
+            // 같은 단계 안에서는 비율이 작은 대체 재료부터 (같으면 재료 id 순, 다시 계산해도 순서가 같도록)
+            next.entrySet().stream()
+                .sorted(Map.Entry.<Integer, Double>comparingByValue().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(e -> best.put(e.getKey(), e.getValue()));
+            visited.addAll(next.keySet());
+            frontier = next;
+        }
+        int[] rowTargets = new int[best.size()];
+        double[] rowRatios = new double[best.size()];
+        int i = 0;
+        for (Map.Entry<Integer, Double> entry : best.entrySet()) {
+            rowTargets[i] = entry.getKey();
+            rowRatios[i] = entry.getValue();
+            i++;
+        }
+        return new Object[]{rowTargets, rowRatios};
+    }
+}
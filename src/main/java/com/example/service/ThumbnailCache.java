@@ -0,0 +1,251 @@
+package com.example.service;
+
+import com.example.db.DatabaseConnection;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntPredicate;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+
+/**
+ * ThumbnailCache
+ * - 레시피 사진 썸네일(최대 SIZE x SIZE)을 백그라운드에서 만들고 메모리에 보관하는 캐시 (싱글톤)
+ * - 메모리 캐시는 픽셀 바이트 합계(photo.thumb.cache.kb, 기본 16MB)로 제한하는 LRU
+ * - photo.thumb.disk.slots를 지정하면 메모리에서 밀려난 썸네일을 메모리 매핑 파일(ThumbnailDiskTier)에서 다시 읽음
+ * - getIcon()은 메모리만 보므로 렌더러에서 매번 불러도 됨. 없으면 load()로 요청하고 준비되면 콜백으로 다시 그림
+ * - 디코딩 대기열은 나중 요청부터 처리(LIFO)하고, 실행 직전에 아직 필요한지(화면에 보이는지) 다시 확인해
+ *   빠르게 스크롤해 지나간 행의 사진은 디코딩하지 않음. 건너뛴 뒤에 다시 확인해 그사이 보이게 된 행이면 다시 요청
+ *   (보이는 행 목록은 EDT에서 렌더링보다 늦게 갱신되므로 처음 확인이 틀릴 수 있음)
+ * - 큰 사진은 ImageReader의 부분 샘플링으로 필요한 해상도의 두 배 정도만 읽은 뒤 축소
+ */
+public class ThumbnailCache {
+    /** 썸네일 최대 가로/세로 (px) */
+    public static final int SIZE = 40;
+    private static ThumbnailCache instance;
+
+    /**
+     * 메모리 캐시 항목
+     */
+    private static class Entry {
+        final Icon icon;
+        final long version;
+        final int bytes;
+
+        Entry(BufferedImage image, long version) {
+            this.icon = new ImageIcon(image);
+            this.version = version;
+            this.bytes = image.getWidth() * image.getHeight() * 4;
+        }
+    }
+
+    private final PhotoStore photos;
+    private final long budgetBytes;
+    private final ThumbnailDiskTier diskTier;
+    private final String diskTierError;
+    private final ExecutorService decoder;
+    // 접근 순서 LinkedHashMap = LRU (가장 오래 안 쓴 항목이 맨 앞)
+    private final LinkedHashMap<Integer, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private long usedBytes;
+    // 대기열에 있거나 디코딩 중인 레시피 (중복 요청 방지)
+    private final Set<Integer> pending = ConcurrentHashMap.newKeySet();
+    // 디코딩에 실패한 사진 버전 (렌더링마다 다시 시도하지 않도록)
+    private final Map<Integer, Long> failed = new ConcurrentHashMap<>();
+
+    private final AtomicLong memoryHits = new AtomicLong();
+    private final AtomicLong diskHits = new AtomicLong();
+    private final AtomicLong decodes = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private ThumbnailCache() {
+        photos = PhotoStore.getInstance();
+        DatabaseConnection db = DatabaseConnection.getInstance();
+        budgetBytes = Long.parseLong(db.getProperty("photo.thumb.cache.kb", "16384").trim()) * 1024;
+        int slots = Integer.parseInt(db.getProperty("photo.thumb.disk.slots", "0").trim());
+        ThumbnailDiskTier tier = null;
+        String tierError = null;
+        if (slots > 0) {
+            String defaultPath = Paths.get(System.getProperty("user.home"), ".recipe-manager", "thumbnails.cache").toString();
+            try {
+                tier = new ThumbnailDiskTier(Paths.get(db.getProperty("photo.thumb.disk.path", defaultPath)), slots, SIZE);
+            } catch (IOException | IllegalArgumentException e) {
+                tierError = "썸네일 디스크 캐시를 열지 못했습니다 (메모리 캐시만 사용): " + e.getMessage();
+            }
+        }
+        diskTier = tier;
+        diskTierError = tierError;
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        // offer를 앞쪽 삽입으로 바꿔 가장 최근 요청(지금 보이는 행)부터 처리
+        decoder = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingDeque<Runnable>() {
+                @Override
+                public boolean offer(Runnable task) {
+                    return offerFirst(task);
+                }
+            },
+            r -> {
+                Thread thread = new Thread(r, "thumbnail-decoder");
+                thread.setDaemon(true);
+                thread.setPriority(Thread.NORM_PRIORITY - 1);
+                return thread;
+            });
+    }
+
+    public static synchronized ThumbnailCache getInstance() {
+        if (instance == null) {
+            instance = new ThumbnailCache();
+        }
+        return instance;
+    }
+
+    /**
+     * 메모리에 있는 썸네일 (없거나 사진이 바뀌었으면 null, 디스크를 읽지 않음)
+     * - 테이블 모델의 Integer를 그대로 받아 그릴 때마다 박싱 객체를 만들지 않음
+     */
+    public Icon getIcon(Integer recipeId) {
+        long version = photos.getVersion(recipeId);
+        if (version == 0) return null;
+        synchronized (this) {
+            Entry entry = entries.get(recipeId);
+            if (entry == null || entry.version != version) return null;
+            memoryHits.incrementAndGet();
+            return entry.icon;
+        }
+    }
+
+    /**
+     * 썸네일을 백그라운드에서 준비 (사진이 없거나 이미 요청 중이면 무시)
+     * @param stillWanted 디코딩 스레드에서 실행 직전에 호출 - false면 건너뜀 (화면에서 벗어난 행)
+     * @param onLoaded 썸네일이 메모리 캐시에 들어가면 디코딩 스레드에서 호출
+     */
+    public void load(int recipeId, IntPredicate stillWanted, Runnable onLoaded) {
+        long version = photos.getVersion(recipeId);
+        if (version == 0 || failed.getOrDefault(recipeId, 0L) == version) return;
+        if (!pending.add(recipeId)) return;
+        decoder.execute(() -> {
+            boolean skip = false;
+            try {
+                if (!stillWanted.test(recipeId)) {
+                    skipped.incrementAndGet();
+                    skip = true;
+                    return;
+                }
+                BufferedImage image = diskTier != null ? diskTier.get(recipeId, version) : null;
+                if (image != null) {
+                    diskHits.incrementAndGet();
+                } else {
+                    image = decode(recipeId, SIZE);
+                    if (image == null) return;
+                    decodes.incrementAndGet();
+                    if (diskTier != null) diskTier.put(recipeId, version, image);
+                }
+                put(recipeId, new Entry(image, version));
+                onLoaded.run();
+            } catch (IOException | RuntimeException e) {
+                failed.put(recipeId, version);
+            } finally {
+                pending.remove(recipeId);
+            }
+            // 건너뛰는 사이 보이는 행이 갱신됐으면 다시 요청 (그 갱신 뒤의 렌더링 요청은 pending에 막혔을 수 있음)
+            if (skip && stillWanted.test(recipeId)) {
+                load(recipeId, stillWanted, onLoaded);
+            }
+        });
+    }
+
+    private synchronized void put(int recipeId, Entry entry) {
+        Entry previous = entries.put(recipeId, entry);
+        if (previous != null) usedBytes -= previous.bytes;
+        usedBytes += entry.bytes;
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (usedBytes > budgetBytes && eldest.hasNext()) {
+            Entry evicted = eldest.next();
+            if (evicted == entry) break;
+            eldest.remove();
+            usedBytes -= evicted.bytes;
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * 사진을 maxSize x maxSize 안에 들어가도록 축소해 디코딩 (캐시하지 않음, 상세보기용 - 호출 스레드에서 실행)
+     * @return 사진이 없으면 null
+     */
+    public BufferedImage decode(int recipeId, int maxSize) throws IOException {
+        try (ImageInputStream in = photos.open(recipeId)) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                throw new IOException("지원하지 않는 이미지 형식입니다.");
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                // 축소 품질을 위해 목표 크기의 두 배 이상은 남기고 건너뛰며 읽음
+                int step = Math.max(1, longest / (maxSize * 2));
+                param.setSourceSubsampling(step, step, 0, 0);
+                return scale(reader.read(0, param), maxSize);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // 가로세로 비율을 유지하며 maxSize 안으로 축소 (TYPE_INT_ARGB)
+    private static BufferedImage scale(BufferedImage source, int maxSize) {
+        double ratio = Math.min(1.0, (double) maxSize / Math.max(source.getWidth(), source.getHeight()));
+        int width = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int height = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+        BufferedImage scaled = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scaled.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(source, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return scaled;
+    }
+
+    /**
+     * 캐시 지표 요약 (적중률 = 메모리 적중 / (메모리 적중 + 새로 요청한 썸네일))
+     */
+    public String getStats() {
+        long hits = memoryHits.get();
+        long loads = diskHits.get() + decodes.get();
+        long total = hits + loads;
+        long used;
+        int count;
+        synchronized (this) {
+            used = usedBytes;
+            count = entries.size();
+        }
+        String stats = String.format("썸네일 적중률 %.1f%% (메모리 %d, 디스크 %d, 디코딩 %d, 건너뜀 %d, 밀려남 %d) %d개 %dKB/%dKB",
+            total == 0 ? 0.0 : hits * 100.0 / total, hits, diskHits.get(), decodes.get(), skipped.get(),
+            evictions.get(), count, used / 1024, budgetBytes / 1024);
+        if (diskTierError != null) stats += " - " + diskTierError;
+        String photoError = photos.getLastError();
+        if (photoError != null) stats += " - " + photoError;
+        return stats;
+    }
+}
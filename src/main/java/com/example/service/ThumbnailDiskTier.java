@@ -0,0 +1,97 @@
+package com.example.service;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * ThumbnailDiskTier
+ * - 썸네일 픽셀을 메모리 매핑한 파일에 보관하는 2단계 캐시 (재시작 후에도 원본을 다시 디코딩하지 않음)
+ * - 슬롯 수가 고정된 직접 매핑 방식: 레시피 id mod 슬롯 수 자리에 저장하고, 겹치면 나중 것이 덮어씀
+ * - 슬롯 = [레시피 id][사진 버전][너비][높이][ARGB 픽셀...] 이며 id와 버전이 모두 맞을 때만 사용
+ * - 파일 머리의 슬롯 수/크기가 설정과 다르면 파일을 비우고 새로 만듦
+ */
+final class ThumbnailDiskTier {
+    private static final int MAGIC = 0x54484d31; // "THM1"
+    private static final int FILE_HEADER = 12; // MAGIC, 슬롯 수, 썸네일 최대 크기
+    private static final int SLOT_HEADER = 16; // id(int) + 버전(long) + 너비(short) + 높이(short)
+
+    private final int slots;
+    private final int maxSize;
+    private final int slotSize;
+    private final MappedByteBuffer map;
+
+    ThumbnailDiskTier(Path file, int slots, int maxSize) throws IOException {
+        this.slots = slots;
+        this.maxSize = maxSize;
+        this.slotSize = SLOT_HEADER + maxSize * maxSize * 4;
+        long length = FILE_HEADER + (long) slots * slotSize;
+        if (length > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("썸네일 디스크 캐시가 너무 큽니다: 슬롯 " + slots + "개");
+        }
+        if (file.getParent() != null) Files.createDirectories(file.getParent());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            boolean matches = false;
+            if (channel.size() == length) {
+                ByteBuffer header = ByteBuffer.allocate(FILE_HEADER);
+                channel.read(header, 0);
+                header.flip();
+                matches = header.getInt() == MAGIC && header.getInt() == slots && header.getInt() == maxSize;
+            }
+            if (!matches) {
+                // 형식이 다른 예전 파일은 비우고 0으로 채운 새 파일로 (id 0인 레시피는 없으므로 빈 슬롯)
+                channel.truncate(0);
+            }
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, length);
+            if (!matches) {
+                map.putInt(0, MAGIC).putInt(4, slots).putInt(8, maxSize);
+            }
+        }
+    }
+
+    private int offsetOf(int recipeId) {
+        return FILE_HEADER + Math.floorMod(recipeId, slots) * slotSize;
+    }
+
+    /**
+     * 저장된 썸네일 (없거나 버전이 다르면 null)
+     */
+    synchronized BufferedImage get(int recipeId, long version) {
+        int offset = offsetOf(recipeId);
+        if (map.getInt(offset) != recipeId || map.getLong(offset + 4) != version) return null;
+        int width = map.getShort(offset + 12);
+        int height = map.getShort(offset + 14);
+        if (width <= 0 || height <= 0 || width > maxSize || height > maxSize) return null;
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        ByteBuffer slot = map.duplicate();
+        slot.position(offset + SLOT_HEADER);
+        slot.asIntBuffer().get(pixels, 0, width * height);
+        return image;
+    }
+
+    /**
+     * 썸네일 저장 (TYPE_INT_ARGB, 최대 크기 이하만)
+     */
+    synchronized void put(int recipeId, long version, BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        if (image.getType() != BufferedImage.TYPE_INT_ARGB || width > maxSize || height > maxSize) return;
+        int offset = offsetOf(recipeId);
+        // 픽셀을 다 쓰기 전에 중단되어도 반쯤 쓴 슬롯을 쓰지 않도록 id를 마지막에 기록
+        map.putInt(offset, 0);
+        ByteBuffer slot = map.duplicate();
+        slot.position(offset + SLOT_HEADER);
+        slot.asIntBuffer().put(((DataBufferInt) image.getRaster().getDataBuffer()).getData(), 0, width * height);
+        map.putLong(offset + 4, version);
+        map.putShort(offset + 12, (short) width);
+        map.putShort(offset + 14, (short) height);
+        map.putInt(offset, recipeId);
+    }
+}
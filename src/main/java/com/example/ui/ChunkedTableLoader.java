@@ -0,0 +1,124 @@
+package com.example.ui;
+
+import javax.swing.SwingUtilities;
+import javax.swing.table.DefaultTableModel;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Vector;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 스트리밍 조회 결과를 테이블에 CHUNK개씩 나눠 채우는 구독자
+ * - 처음 CHUNK개가 도착하면 바로 기존 목록을 지우고 표시하므로 첫 화면은 전체 건수와 상관없이 뜸
+ * - 한 묶음을 EDT에서 다 그린 뒤에 다음 묶음을 요청하므로 DB 읽기 속도가 화면 갱신 속도를 넘지 않음
+ * - 행 변환(toRow)은 EDT에서 실행 (SimpleDateFormat 등 스레드에 안전하지 않은 포맷을 그대로 쓸 수 있음)
+ * - cancel() 이후에는 테이블을 건드리지 않고, 실행 중인 DB 쿼리도 구독 취소로 중단됨
+ * - 한 묶음은 행 추가 이벤트 하나로 알리므로 정렬/검색이 걸린 테이블도 묶음마다 한 번만 다시 배치함
+ */
+class ChunkedTableLoader<T> implements Flow.Subscriber<T> {
+    static final int CHUNK = 200;
+
+    private final DefaultTableModel model;
+    private final Function<T, Object[]> toRow;
+    private final Consumer<Throwable> onFailure;
+    private volatile Flow.Subscription subscription;
+    private volatile boolean cancelled;
+    // 조회 스레드에서만 사용
+    private List<T> pending = new ArrayList<>(CHUNK);
+    // EDT에서만 사용
+    private boolean cleared;
+
+    /**
+     * @param onFailure 실패 시 EDT에서 호출 (취소된 경우에는 호출하지 않음)
+     */
+    ChunkedTableLoader(DefaultTableModel model, Function<T, Object[]> toRow, Consumer<Throwable> onFailure) {
+        this.model = model;
+        this.toRow = toRow;
+        this.onFailure = onFailure;
+    }
+
+    /** 게시자 구독 시작 (this를 돌려주므로 필드에 바로 보관 가능) */
+    ChunkedTableLoader<T> start(Flow.Publisher<T> publisher) {
+        publisher.subscribe(this);
+        return this;
+    }
+
+    /** 표시 중단 및 DB 조회 취소 */
+    void cancel() {
+        cancelled = true;
+        Flow.Subscription current = subscription;
+        if (current != null) current.cancel();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        this.subscription = subscription;
+        if (cancelled) {
+            subscription.cancel();
+        } else {
+            subscription.request(CHUNK);
+        }
+    }
+
+    @Override
+    public void onNext(T item) {
+        pending.add(item);
+        if (pending.size() == CHUNK) {
+            flush(true);
+        }
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        SwingUtilities.invokeLater(() -> {
+            if (!cancelled) onFailure.accept(throwable);
+        });
+    }
+
+    @Override
+    public void onComplete() {
+        flush(false);
+    }
+
+    // 모인 묶음을 EDT에서 테이블에 추가하고, 더 받을 것이 있으면 다음 묶음 요청
+    private void flush(boolean more) {
+        List<T> chunk = pending;
+        pending = new ArrayList<>(CHUNK);
+        SwingUtilities.invokeLater(() -> {
+            if (cancelled) return;
+            if (!cleared) {
+                model.setRowCount(0);
+                cleared = true;
+            }
+            appendRows(model, chunk, toRow);
+            if (more) subscription.request(CHUNK);
+        });
+    }
+
+    /**
+     * 여러 행을 모델 끝에 붙이고 추가 이벤트는 한 번만 발생
+     * (addRow는 행마다 이벤트를 보내 RowSorter가 행마다 정렬 배열을 다시 만듦)
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T> void appendRows(DefaultTableModel model, List<T> items, Function<T, Object[]> toRow) {
+        if (items.isEmpty()) return;
+        int first = model.getRowCount();
+        Vector data = model.getDataVector();
+        for (T item : items) {
+            data.add(new Vector<>(Arrays.asList(toRow.apply(item))));
+        }
+        model.fireTableRowsInserted(first, model.getRowCount() - 1);
+    }
+
+    /** 시간 예산 초과로 끝난 조회인지 여부 */
+    static boolean isTimeout(Throwable throwable) {
+        for (Throwable t = throwable; t != null; t = t.getCause()) {
+            if (t instanceof SQLTimeoutException) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.ui;
+
+import java.text.CollationKey;
+import java.text.Collator;
+import java.util.Locale;
+
+/**
+ * 한국어 정렬용 테이블 셀 값
+ * - 만들 때 한국어 Collator로 CollationKey를 미리 계산해 두므로, 정렬 중 비교는 키 바이트 비교뿐 (Collator.compare 반복 없음)
+ * - 화면에는 toString()이 원래 문자열을 그대로 돌려주므로 렌더러가 새 문자열을 만들지 않음
+ */
+final class CollatedText implements Comparable<CollatedText> {
+    // Collator는 스레드에 안전하지 않아 키를 만들 때만 잠금
+    private static final Collator COLLATOR = Collator.getInstance(Locale.KOREAN);
+
+    private final String text;
+    private final CollationKey key;
+
+    private CollatedText(String text, CollationKey key) {
+        this.text = text;
+        this.key = key;
+    }
+
+    static CollatedText of(String text) {
+        String value = text == null ? "" : text;
+        CollationKey key;
+        synchronized (COLLATOR) {
+            key = COLLATOR.getCollationKey(value);
+        }
+        return new CollatedText(value, key);
+    }
+
+    @Override
+    public int compareTo(CollatedText other) {
+        return key.compareTo(other.key);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return other instanceof CollatedText && text.equals(((CollatedText) other).text);
+    }
+
+    @Override
+    public int hashCode() {
+        return text.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.ui;
+
+import com.example.service.IngredientNameTrie;
+import com.example.service.IngredientNameTrie.Suggestion;
+import javax.swing.BorderFactory;
+import javax.swing.DefaultListCellRenderer;
+import javax.swing.DefaultListModel;
+import javax.swing.JList;
+import javax.swing.JPopupMenu;
+import javax.swing.JScrollPane;
+import javax.swing.JTextField;
+import javax.swing.ListSelectionModel;
+import javax.swing.SwingUtilities;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.event.FocusAdapter;
+import java.awt.event.FocusEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.List;
+
+/**
+ * 재료 이름 입력칸 자동완성
+ * - 입력이 바뀔 때마다 IngredientNameTrie에서 접두어(자모/초성)로 찾은 재료를 입력칸 아래 팝업에 보유 수량과 함께 표시
+ * - ↑/↓로 고르고 Enter나 클릭으로 이름을 채움, Esc는 팝업만 닫음 (팝업이 떠 있을 때는 다이얼로그 OK/취소로 넘기지 않음)
+ * - 트라이를 아직 불러오지 않았으면 아무것도 보여 주지 않음
+ */
+final class IngredientAutoComplete {
+    private static final int LIMIT = 8;
+
+    private final JTextField field;
+    private final IngredientNameTrie trie;
+    private final DefaultListModel<Suggestion> model = new DefaultListModel<>();
+    private final JList<Suggestion> list = new JList<>(model);
+    private final JPopupMenu popup = new JPopupMenu();
+    // 후보를 골라 입력칸을 채우는 중 (그 변경으로 팝업을 다시 띄우지 않음)
+    private boolean accepting;
+
+    private IngredientAutoComplete(JTextField field, IngredientNameTrie trie) {
+        this.field = field;
+        this.trie = trie;
+        list.setFont(new Font("맑은 고딕", Font.PLAIN, 15));
+        list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        list.setFocusable(false);
+        list.setCellRenderer(new SuggestionRenderer());
+        JScrollPane scrollPane = new JScrollPane(list);
+        scrollPane.setBorder(BorderFactory.createLineBorder(new Color(255, 200, 120), 1, true));
+        popup.setLayout(new BorderLayout());
+        popup.setFocusable(false);
+        popup.add(scrollPane, BorderLayout.CENTER);
+    }
+
+    /**
+     * 입력칸에 자동완성 연결
+     */
+    static void install(JTextField field, IngredientNameTrie trie) {
+        IngredientAutoComplete autoComplete = new IngredientAutoComplete(field, trie);
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { autoComplete.scheduleUpdate(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { autoComplete.scheduleUpdate(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) {}
+        });
+        field.addKeyListener(new KeyAdapter() {
+            @Override
+            public void keyPressed(KeyEvent e) {
+                autoComplete.handleKey(e);
+            }
+        });
+        field.addFocusListener(new FocusAdapter() {
+            @Override
+            public void focusLost(FocusEvent e) {
+                autoComplete.popup.setVisible(false);
+            }
+        });
+        autoComplete.list.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = autoComplete.list.locationToIndex(e.getPoint());
+                if (index >= 0) autoComplete.accept(autoComplete.model.get(index));
+            }
+        });
+    }
+
+    // 문서 변경 알림 안에서는 팝업을 바꾸지 않고 다음 이벤트로 미룸
+    private void scheduleUpdate() {
+        if (accepting) return;
+        SwingUtilities.invokeLater(this::update);
+    }
+
+    private void update() {
+        String text = field.getText();
+        List<Suggestion> suggestions = trie.isLoaded() ? trie.suggest(text, LIMIT) : List.of();
+        // 이미 정확히 입력한 이름 하나뿐이면 보여 줄 필요 없음
+        if (suggestions.isEmpty() || !field.isShowing()
+                || (suggestions.size() == 1 && suggestions.get(0).getName().equals(text.trim()))) {
+            popup.setVisible(false);
+            return;
+        }
+        model.clear();
+        for (Suggestion suggestion : suggestions) {
+            model.addElement(suggestion);
+        }
+        list.setSelectedIndex(0);
+        list.setVisibleRowCount(suggestions.size());
+        popup.setPopupSize(new Dimension(Math.max(field.getWidth(), 200), list.getPreferredScrollableViewportSize().height + 4));
+        if (popup.isVisible()) {
+            popup.revalidate();
+            popup.repaint();
+        } else {
+            popup.show(field, 0, field.getHeight());
+        }
+    }
+
+    private void handleKey(KeyEvent e) {
+        if (!popup.isVisible()) return;
+        int index = list.getSelectedIndex();
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_DOWN:
+                list.setSelectedIndex(Math.min(index + 1, model.size() - 1));
+                list.ensureIndexIsVisible(list.getSelectedIndex());
+                e.consume();
+                break;
+            case KeyEvent.VK_UP:
+                list.setSelectedIndex(Math.max(index - 1, 0));
+                list.ensureIndexIsVisible(list.getSelectedIndex());
+                e.consume();
+                break;
+            case KeyEvent.VK_ENTER:
+                if (index >= 0) accept(model.get(index));
+                e.consume();
+                break;
+            case KeyEvent.VK_ESCAPE:
+                popup.setVisible(false);
+                e.consume();
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void accept(Suggestion suggestion) {
+        accepting = true;
+        try {
+            field.setText(suggestion.getName());
+        } finally {
+            accepting = false;
+        }
+        popup.setVisible(false);
+        field.requestFocusInWindow();
+    }
+
+    /**
+     * 후보 한 줄 ("이름 (보유 n)", 재고가 없으면 회색)
+     */
+    private static final class SuggestionRenderer extends DefaultListCellRenderer {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+            Component component = super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            if (!isSelected && ((Suggestion) value).getAvailableQuantity() == 0) component.setForeground(Color.GRAY);
+            return component;
+        }
+    }
+}
@@ -1,12 +1,38 @@
 package com.example.ui;
 
 import com.example.dao.IngredientDAO;
+import com.example.dao.IngredientLotDAO;
+import com.example.dao.NutritionDAO;
+import com.example.dao.RecipeDAO;
+import com.example.dao.SubstitutionDAO;
+import com.example.dao.impl.CookingHistoryDAOImpl;
 import com.example.dao.impl.IngredientDAOImpl;
+import com.example.dao.impl.IngredientLotDAOImpl;
+import com.example.dao.impl.NutritionDAOImpl;
+import com.example.dao.impl.RecipeDAOImpl;
+import com.example.dao.impl.SubstitutionDAOImpl;
+import com.example.db.CatalogSnapshot;
 import com.example.model.Ingredient;
+import com.example.model.IngredientLot;
+import com.example.model.Nutrient;
+import com.example.model.Nutrition;
+import com.example.model.Recipe;
+import com.example.model.Price;
+import com.example.model.Substitution;
+import com.example.service.DuplicateIngredientFinder;
+import com.example.service.StockForecaster;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import javax.swing.border.EmptyBorder;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.JTableHeader;
@@ -19,23 +45,39 @@ import java.awt.Insets;
  * - 테이블, 버튼, 다이얼로그 등 UI와 DB 연동을 담당
  */
 public class IngredientPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+
     // DAO 참조
     private final IngredientDAO ingredientDAO; // 재료 DB 접근 객체
+    private final IngredientLotDAO ingredientLotDAO; // 재료 로트(유통기한) DB 접근 객체
+    private final SubstitutionDAO substitutionDAO; // 대체 재료 DB 접근 객체
+    private final NutritionDAO nutritionDAO; // 재료 영양 정보 DB 접근 객체
+    private final RecipeDAO recipeDAO; // 삭제 전 재료를 쓰는 레시피 확인용
+    private final StockForecaster stockForecaster; // 재료 소진 예측
     // UI 컴포넌트
-    private JTable ingredientTable; // 재료 테이블
+    private StripedTable ingredientTable; // 재료 테이블
+    private TableSearch ingredientSearch; // 재료 테이블 정렬/검색
     private DefaultTableModel tableModel; // 테이블 모델
-    private JButton addButton, editButton, deleteButton, addQuantityButton; // 하단 버튼들
+    private ChunkedTableLoader<Ingredient> ingredientLoad; // 진행 중인 목록 조회 (새 조회가 시작되면 취소)
+    private JButton addButton, editButton, deleteButton, addQuantityButton, priceButton, nutritionButton, expiringButton, reorderButton, substitutionButton, duplicateButton; // 하단 버튼들
 
     /**
      * 생성자 - 패널 및 DAO 초기화, UI 세팅
      */
     public IngredientPanel() {
         ingredientDAO = new IngredientDAOImpl();
+        ingredientLotDAO = new IngredientLotDAOImpl();
+        substitutionDAO = new SubstitutionDAOImpl();
+        nutritionDAO = new NutritionDAOImpl();
+        recipeDAO = new RecipeDAOImpl();
+        stockForecaster = StockForecaster.getInstance();
         setLayout(new BorderLayout());
         setBackground(new Color(255, 245, 230));
         setBorder(new EmptyBorder(20, 20, 20, 20));
         initComponents(); // UI 컴포넌트 초기화
-        loadIngredients(); // 재료 목록 불러오기
+        bootIngredients(); // 재료 목록 불러오기 (스냅샷 우선)
+        loadForecaster(); // 소진 예측 초기 상태 구성 (백그라운드)
+        loadUsageIndex(); // 재료를 쓰는 레시피 역인덱스 구성 (백그라운드)
     }
 
     /**
@@ -43,47 +85,58 @@ public class IngredientPanel extends JPanel {
      */
     private void initComponents() {
         // 테이블 모델 및 테이블 생성
-        String[] columnNames = {"ID", "이름", "보유 수량"};
+        String[] columnNames = {"ID", "이름", "보유 수량", "단가"};
         tableModel = new DefaultTableModel(columnNames, 0) {
             @Override
             public boolean isCellEditable(int row, int column) { return false; }
         };
-        ingredientTable = new JTable(tableModel) {
-            // 행별 배경색 지정
-            public Component prepareRenderer(javax.swing.table.TableCellRenderer renderer, int row, int column) {
-                Component c = super.prepareRenderer(renderer, row, column);
-                if (!isRowSelected(row)) c.setBackground(row % 2 == 0 ? new Color(255, 255, 240) : new Color(255, 240, 220));
-                else c.setBackground(new Color(255, 220, 180));
-                return c;
-            }
-        };
+        ingredientTable = new StripedTable(tableModel);
+        // 이름으로 검색, 헤더 클릭으로 정렬
+        ingredientSearch = new TableSearch(ingredientTable, tableModel, 1);
         ingredientTable.setFont(new Font("맑은 고딕", Font.PLAIN, 15));
         ingredientTable.setRowHeight(28);
         JTableHeader header = ingredientTable.getTableHeader();
         header.setFont(new Font("맑은 고딕", Font.BOLD, 16));
         header.setBackground(new Color(255, 230, 200));
         header.setForeground(new Color(255, 140, 60));
+        DefaultTableCellRenderer priceRenderer = new DefaultTableCellRenderer();
+        priceRenderer.setHorizontalAlignment(SwingConstants.RIGHT);
+        ingredientTable.getColumnModel().getColumn(3).setCellRenderer(priceRenderer);
         // 하단 버튼 패널 및 버튼 생성
         JPanel buttonPanel = new JPanel();
         addButton = new JButton("새 재료 추가");
         editButton = new JButton("이름 수정");
         deleteButton = new JButton("삭제");
         addQuantityButton = new JButton("수량 추가");
+        priceButton = new JButton("단가 설정");
+        nutritionButton = new JButton("영양 정보");
+        expiringButton = new JButton("유통기한 임박");
+        reorderButton = new JButton("곧 떨어질 재료");
+        substitutionButton = new JButton("대체 재료");
+        duplicateButton = new JButton("중복 재료 찾기");
         // 버튼 패널에 추가
-        buttonPanel.add(addButton); buttonPanel.add(editButton); buttonPanel.add(deleteButton); buttonPanel.add(addQuantityButton);
+        buttonPanel.add(addButton); buttonPanel.add(editButton); buttonPanel.add(deleteButton); buttonPanel.add(addQuantityButton); buttonPanel.add(priceButton); buttonPanel.add(nutritionButton);
+        buttonPanel.add(expiringButton); buttonPanel.add(reorderButton); buttonPanel.add(substitutionButton); buttonPanel.add(duplicateButton);
         // 버튼 이벤트 리스너 등록
         addButton.addActionListener(e -> addIngredient());
         editButton.addActionListener(e -> editIngredient());
         deleteButton.addActionListener(e -> deleteIngredient());
         addQuantityButton.addActionListener(e -> addQuantity());
+        priceButton.addActionListener(e -> setUnitPrice());
+        nutritionButton.addActionListener(e -> editNutrition());
+        expiringButton.addActionListener(e -> showExpiringLots());
+        reorderButton.addActionListener(e -> showRunningOut());
+        substitutionButton.addActionListener(e -> manageSubstitutions());
+        duplicateButton.addActionListener(e -> findDuplicates());
         // 레이아웃 배치
+        add(RecipePanel.createSearchPanel(ingredientSearch), BorderLayout.NORTH);
         add(new JScrollPane(ingredientTable), BorderLayout.CENTER);
         add(buttonPanel, BorderLayout.SOUTH);
         // 버튼 스타일 통일
         Color mainBtnColor = new Color(255, 180, 80);
         Color mainBorderColor = new Color(255, 140, 60);
         Font mainFont = new Font("맑은 고딕", Font.BOLD, 17);
-        JButton[] btns = {addButton, editButton, deleteButton, addQuantityButton};
+        JButton[] btns = {addButton, editButton, deleteButton, addQuantityButton, priceButton, nutritionButton, expiringButton, reorderButton, substitutionButton, duplicateButton};
         for (JButton btn : btns) {
             btn.setBackground(mainBtnColor);
             btn.setForeground(Color.WHITE);
@@ -98,12 +151,54 @@ public class IngredientPanel extends JPanel {
      * DB에서 재료 목록을 불러와 테이블에 표시
      */
     public void loadIngredients() {
-        tableModel.setRowCount(0);
-        List<Ingredient> ingredients = ingredientDAO.findAll();
-        for (Ingredient ingredient : ingredients) {
-            Object[] row = {ingredient.getId(), ingredient.getName(), ingredient.getAvailableQuantity()};
-            tableModel.addRow(row);
+        loadIngredients(false);
+    }
+
+    /**
+     * 재료 목록을 스트리밍으로 받아 묶음 단위로 표시 - 이전 조회가 아직 끝나지 않았으면 DB 쿼리까지 취소
+     * @param keepOnError 실패 시 알림 없이 현재 목록 유지 (스냅샷을 먼저 보여 준 경우)
+     */
+    private void loadIngredients(boolean keepOnError) {
+        if (ingredientLoad != null) ingredientLoad.cancel();
+        ingredientLoad = new ChunkedTableLoader<Ingredient>(tableModel, this::toRow, error -> {
+            if (!keepOnError) {
+                JOptionPane.showMessageDialog(this, ChunkedTableLoader.isTimeout(error)
+                    ? "재료 목록 조회가 너무 오래 걸려 중단했습니다." : "재료 목록을 불러오지 못했습니다.",
+                    "오류", JOptionPane.ERROR_MESSAGE);
+            }
+        }).start(ingredientDAO.streamAll());
+    }
+
+    /**
+     * 로컬 스냅샷이 있으면 먼저 표시하고, DB 목록은 백그라운드에서 받아와 교체
+     */
+    private void bootIngredients() {
+        CatalogSnapshot snapshot = CatalogSnapshot.getInstance();
+        if (!snapshot.isLoaded()) {
+            loadIngredients();
+            return;
         }
+        showIngredients(snapshot.getIngredients());
+        // DB 연결 실패 시 스냅샷 목록을 그대로 유지
+        loadIngredients(true);
+    }
+
+    /**
+     * 재료 목록을 테이블에 표시
+     */
+    private void showIngredients(List<Ingredient> ingredients) {
+        tableModel.setRowCount(0);
+        ChunkedTableLoader.appendRows(tableModel, ingredients, this::toRow);
+    }
+
+    /**
+     * 재료 한 건을 테이블 행으로 변환
+     */
+    private Object[] toRow(Ingredient ingredient) {
+        // 단가가 없으면 빈 칸 (정렬 시 맨 앞/뒤로 모임)
+        long unitPrice = ingredient.getUnitPrice();
+        return new Object[]{ingredient.getId(), CollatedText.of(ingredient.getName()), ingredient.getAvailableQuantity(),
+            unitPrice == 0 ? null : PriceCell.of(unitPrice, false)};
     }
 
     /**
@@ -156,7 +251,7 @@ public class IngredientPanel extends JPanel {
      * 재료 이름 수정 다이얼로그 및 DB 반영 (귀엽고 깔끔한 스타일 적용)
      */
     private void editIngredient() {
-        int selectedRow = ingredientTable.getSelectedRow();
+        int selectedRow = ingredientTable.getSelectedModelRow();
         if (selectedRow >= 0) {
             int id = (Integer) tableModel.getValueAt(selectedRow, 0);
             Ingredient ingredient = ingredientDAO.findById(id);
@@ -196,16 +291,89 @@ public class IngredientPanel extends JPanel {
         }
     }
 
+    /**
+     * 선택한 재료의 단가 입력 및 DB 반영 (레시피 원가는 변경 알림으로 다시 계산됨)
+     */
+    private void setUnitPrice() {
+        int selectedRow = ingredientTable.getSelectedModelRow();
+        if (selectedRow < 0) return;
+        int id = (Integer) tableModel.getValueAt(selectedRow, 0);
+        Ingredient ingredient = ingredientDAO.findById(id);
+        if (ingredient == null) return;
+        String current = ingredient.getUnitPrice() == 0 ? "" : Price.format(ingredient.getUnitPrice());
+        String input = (String) JOptionPane.showInputDialog(this, "단위당 가격 (원, 소수 둘째 자리까지):",
+            ingredient.getName() + " - 단가 설정", JOptionPane.PLAIN_MESSAGE, null, null, current);
+        if (input == null || input.trim().isEmpty()) return;
+        try {
+            ingredientDAO.updateUnitPrice(id, Price.parse(input));
+            loadIngredients();
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage(), "오류", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * 선택한 재료의 1개당 영양 정보 입력 및 DB 반영 (레시피 영양 합계는 변경 알림으로 다시 계산됨)
+     * - 모든 칸을 비우면 영양 정보 삭제
+     */
+    private void editNutrition() {
+        int selectedRow = ingredientTable.getSelectedModelRow();
+        if (selectedRow < 0) return;
+        String name = tableModel.getValueAt(selectedRow, 1).toString();
+        Nutrition current = nutritionDAO.findByIngredientName(name);
+        JPanel inputPanel = new JPanel(new GridBagLayout());
+        inputPanel.setBackground(new Color(255, 245, 230));
+        inputPanel.setBorder(new EmptyBorder(16, 16, 16, 16));
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(6, 8, 6, 8);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        JTextField[] fields = new JTextField[Nutrient.COUNT];
+        for (Nutrient nutrient : Nutrient.values()) {
+            JTextField field = new JTextField(current == null ? "" : nutrient.formatValue(current.get(nutrient)), 10);
+            field.setFont(new Font("맑은 고딕", Font.PLAIN, 15));
+            fields[nutrient.ordinal()] = field;
+            gbc.gridx = 0; gbc.gridy = nutrient.ordinal();
+            inputPanel.add(new JLabel(nutrient.getLabel() + " (" + nutrient.getUnit() + "):"), gbc);
+            gbc.gridx = 1;
+            inputPanel.add(field, gbc);
+        }
+        int result = JOptionPane.showConfirmDialog(this, inputPanel, name + " - 1개당 영양 정보",
+            JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) return;
+        try {
+            int[] values = new int[Nutrient.COUNT];
+            boolean empty = true;
+            for (Nutrient nutrient : Nutrient.values()) {
+                String text = fields[nutrient.ordinal()].getText().trim();
+                if (text.isEmpty()) continue;
+                empty = false;
+                values[nutrient.ordinal()] = Math.toIntExact(nutrient.parse(text));
+            }
+            if (empty) {
+                if (current != null) nutritionDAO.delete(name);
+            } else {
+                nutritionDAO.save(name, new Nutrition(values));
+            }
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage(), "오류", JOptionPane.ERROR_MESSAGE);
+        } catch (ArithmeticException e) {
+            JOptionPane.showMessageDialog(this, "값이 너무 큽니다.", "오류", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
     /**
      * 재료 수량 추가 다이얼로그 및 DB 반영 (귀엽고 깔끔한 스타일 적용)
      */
     private void addQuantity() {
-        int selectedRow = ingredientTable.getSelectedRow();
+        int selectedRow = ingredientTable.getSelectedModelRow();
         if (selectedRow >= 0) {
             int id = (Integer) tableModel.getValueAt(selectedRow, 0);
             Ingredient ingredient = ingredientDAO.findById(id);
             JSpinner quantitySpinner = new JSpinner(new SpinnerNumberModel(1, 1, 1000, 1));
             quantitySpinner.setFont(new Font("맑은 고딕", Font.PLAIN, 16));
+            // 유통기한: 오늘부터 며칠 뒤까지 (0이면 유통기한 없음)
+            JSpinner expirySpinner = new JSpinner(new SpinnerNumberModel(0, 0, 3650, 1));
+            expirySpinner.setFont(new Font("맑은 고딕", Font.PLAIN, 16));
             JPanel inputPanel = new JPanel(new GridBagLayout());
             inputPanel.setBackground(new Color(255, 245, 230));
             inputPanel.setBorder(new EmptyBorder(16, 16, 16, 16));
@@ -216,6 +384,10 @@ public class IngredientPanel extends JPanel {
             inputPanel.add(new JLabel("📦 추가 수량:"), gbc);
             gbc.gridx = 1;
             inputPanel.add(quantitySpinner, gbc);
+            gbc.gridx = 0; gbc.gridy = 1;
+            inputPanel.add(new JLabel("📅 유통기한(일, 0=없음):"), gbc);
+            gbc.gridx = 1;
+            inputPanel.add(expirySpinner, gbc);
             JPanel panel = new JPanel(new BorderLayout());
             panel.setBackground(new Color(255, 245, 230));
             panel.setBorder(new EmptyBorder(12, 12, 12, 12));
@@ -229,26 +401,377 @@ public class IngredientPanel extends JPanel {
             int result = JOptionPane.showConfirmDialog(this, panel, ingredient.getName() + " - 수량 추가", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
             if (result == JOptionPane.OK_OPTION) {
                 int addQuantity = (Integer) quantitySpinner.getValue();
-                ingredient.addQuantity(addQuantity);
-                ingredientDAO.update(ingredient);
+                int expiryDays = (Integer) expirySpinner.getValue();
+                LocalDate today = LocalDate.now();
+                // 새 로트로 입고 (보유 수량 합계도 같은 트랜잭션에서 증가)
+                ingredientLotDAO.addLot(new IngredientLot(ingredient.getId(), addQuantity, today,
+                    expiryDays > 0 ? today.plusDays(expiryDays) : null));
                 loadIngredients();
             }
         }
     }
 
+    /**
+     * 유통기한 임박 로트 목록 다이얼로그 (메모리 로트 인덱스에서 바로 조회)
+     */
+    private void showExpiringLots() {
+        JSpinner daysSpinner = new JSpinner(new SpinnerNumberModel(3, 0, 365, 1));
+        daysSpinner.setFont(new Font("맑은 고딕", Font.PLAIN, 16));
+        int result = JOptionPane.showConfirmDialog(this, daysSpinner, "며칠 안에 만료되는 재료를 볼까요?", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) return;
+        int days = (Integer) daysSpinner.getValue();
+        // 재료 id -> 이름 (테이블에 표시 중인 목록 사용)
+        Map<Integer, String> names = new HashMap<>();
+        for (int row = 0; row < tableModel.getRowCount(); row++) {
+            names.put((Integer) tableModel.getValueAt(row, 0), tableModel.getValueAt(row, 1).toString());
+        }
+        LocalDate today = LocalDate.now();
+        DefaultTableModel lotModel = new DefaultTableModel(new String[]{"재료", "수량", "구매일", "유통기한", "남은 일수"}, 0);
+        for (IngredientLot lot : ingredientLotDAO.findExpiringWithin(days)) {
+            long left = ChronoUnit.DAYS.between(today, lot.getExpiresAt());
+            lotModel.addRow(new Object[]{names.getOrDefault(lot.getIngredientId(), "#" + lot.getIngredientId()),
+                lot.getQuantity(), lot.getPurchasedAt(), lot.getExpiresAt(), left < 0 ? "지남" : left + "일"});
+        }
+        if (lotModel.getRowCount() == 0) {
+            JOptionPane.showMessageDialog(this, "🎉 " + days + "일 안에 만료되는 재료가 없어요!", "유통기한 임박", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        JTable lotTable = new JTable(lotModel);
+        lotTable.setFont(new Font("맑은 고딕", Font.PLAIN, 15));
+        lotTable.setRowHeight(26);
+        JScrollPane scrollPane = new JScrollPane(lotTable);
+        scrollPane.setPreferredSize(new Dimension(520, 260));
+        JOptionPane.showMessageDialog(this, scrollPane, "⏰ 유통기한 임박 재료", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    /**
+     * 소진 예측 초기화 (현재 재고 + 최근 소비 집계, 이후에는 차감 알림으로만 갱신)
+     */
+    private void loadForecaster() {
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                stockForecaster.load(ingredientDAO, new CookingHistoryDAOImpl());
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                } catch (Exception e) {
+                    // DB에 연결되지 않아도 이후 차감 알림으로 예측이 쌓이므로 무시
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * 재료 역인덱스 미리 구성 (삭제 확인에서 사용처를 바로 보여 주도록)
+     */
+    private void loadUsageIndex() {
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                recipeDAO.loadUsageIndex();
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                } catch (Exception e) {
+                    // DB에 연결되지 않으면 삭제할 때 다시 시도
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * 곧 떨어질 재료(재주문 목록) 다이얼로그 - 소비 속도 모델에서 바로 계산
+     */
+    private void showRunningOut() {
+        JSpinner daysSpinner = new JSpinner(new SpinnerNumberModel(7, 1, 365, 1));
+        daysSpinner.setFont(new Font("맑은 고딕", Font.PLAIN, 16));
+        int result = JOptionPane.showConfirmDialog(this, daysSpinner, "며칠 안에 떨어질 재료를 볼까요?", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) return;
+        int days = (Integer) daysSpinner.getValue();
+        DefaultTableModel reorderModel = new DefaultTableModel(new String[]{"재료", "보유 수량", "하루 소비", "예상 소진일", "남은 일수"}, 0);
+        for (StockForecaster.Forecast forecast : stockForecaster.runningOutWithin(days)) {
+            String left = String.format("%.1f일 (빠르면 %.1f일)", forecast.getDaysLeft(), forecast.getPessimisticDaysLeft());
+            reorderModel.addRow(new Object[]{forecast.getIngredientName(), forecast.getAvailableQuantity(),
+                String.format("%.1f ± %.1f", forecast.getDailyRate(), forecast.getDailyStdDev()),
+                forecast.getRunOutDate(), left});
+        }
+        if (reorderModel.getRowCount() == 0) {
+            JOptionPane.showMessageDialog(this, "🎉 " + days + "일 안에 떨어질 재료가 없어요!", "곧 떨어질 재료", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        JTable reorderTable = new JTable(reorderModel);
+        reorderTable.setFont(new Font("맑은 고딕", Font.PLAIN, 15));
+        reorderTable.setRowHeight(26);
+        JScrollPane scrollPane = new JScrollPane(reorderTable);
+        scrollPane.setPreferredSize(new Dimension(620, 260));
+        JOptionPane.showMessageDialog(this, scrollPane, "🛒 곧 떨어질 재료", JOptionPane.PLAIN_MESSAGE);
+    }
+
+    /**
+     * 대체 재료 관리 다이얼로그 (목록 + 추가/삭제)
+     * - 저장/삭제 알림으로 대체 관계 폐포가 바로 다시 계산되어 요리하기에 반영됨
+     */
+    private void manageSubstitutions() {
+        while (true) {
+            DefaultTableModel substitutionModel = new DefaultTableModel(new String[]{"재료", "대체 재료", "비율"}, 0) {
+                @Override
+                public boolean isCellEditable(int row, int column) { return false; }
+            };
+            for (Substitution substitution : substitutionDAO.findAll()) {
+                substitutionModel.addRow(new Object[]{substitution.getIngredientName(),
+                    substitution.getSubstituteName(), substitution.getRatio()});
+            }
+            JTable substitutionTable = new JTable(substitutionModel);
+            substitutionTable.setFont(new Font("맑은 고딕", Font.PLAIN, 15));
+            substitutionTable.setRowHeight(26);
+            JScrollPane scrollPane = new JScrollPane(substitutionTable);
+            scrollPane.setPreferredSize(new Dimension(460, 240));
+            Object[] options = {"추가", "선택 삭제", "닫기"};
+            int choice = JOptionPane.showOptionDialog(this, scrollPane, "🔁 대체 재료 (재료 1개 대신 대체 재료를 비율만큼 사용)",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[2]);
+            if (choice == 0) {
+                showAddSubstitutionDialog();
+            } else if (choice == 1) {
+                int selectedRow = substitutionTable.getSelectedRow();
+                if (selectedRow < 0) {
+                    JOptionPane.showMessageDialog(this, "삭제할 대체 재료를 먼저 선택하세요.");
+                    continue;
+                }
+                substitutionDAO.delete((String) substitutionModel.getValueAt(selectedRow, 0),
+                    (String) substitutionModel.getValueAt(selectedRow, 1));
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 대체 재료 추가 입력 다이얼로그
+     */
+    private void showAddSubstitutionDialog() {
+        JTextField ingredientField = new JTextField(10);
+        JTextField substituteField = new JTextField(10);
+        JSpinner ratioSpinner = new JSpinner(new SpinnerNumberModel(1.0, 0.1, 100.0, 0.1));
+        JPanel inputPanel = new JPanel(new GridBagLayout());
+        inputPanel.setBackground(new Color(255, 245, 230));
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(6, 6, 6, 6);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        gbc.gridx = 0; gbc.gridy = 0;
+        inputPanel.add(new JLabel("재료:"), gbc);
+        gbc.gridx = 1;
+        inputPanel.add(ingredientField, gbc);
+        gbc.gridx = 0; gbc.gridy = 1;
+        inputPanel.add(new JLabel("대체 재료:"), gbc);
+        gbc.gridx = 1;
+        inputPanel.add(substituteField, gbc);
+        gbc.gridx = 0; gbc.gridy = 2;
+        inputPanel.add(new JLabel("비율 (재료 1개당):"), gbc);
+        gbc.gridx = 1;
+        inputPanel.add(ratioSpinner, gbc);
+        int result = JOptionPane.showConfirmDialog(this, inputPanel, "대체 재료 추가", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+        if (result != JOptionPane.OK_OPTION) return;
+        String ingredientName = ingredientField.getText().trim();
+        String substituteName = substituteField.getText().trim();
+        if (ingredientName.isEmpty() || substituteName.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "재료와 대체 재료 이름을 모두 입력하세요.", "입력 오류", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        try {
+            substitutionDAO.save(new Substitution(ingredientName, substituteName, (Double) ratioSpinner.getValue()));
+        } catch (IllegalArgumentException e) {
+            JOptionPane.showMessageDialog(this, e.getMessage(), "입력 오류", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+
+    /**
+     * 비슷한 이름의 재료("양파", "양파 ", "적양파")를 찾아 하나로 합치는 다이얼로그
+     * - 재고 재료와 레시피에 적힌 재료 이름을 모두 모아 백그라운드에서 후보를 계산 (유사도 순)
+     * - 합치면 레시피 재료 이름이 바뀌고 같은 레시피의 수량과 재고/로트가 합쳐짐
+     */
+    private void findDuplicates() {
+        duplicateButton.setEnabled(false);
+        new SwingWorker<Object[], Void>() {
+            @Override
+            protected Object[] doInBackground() {
+                Map<String, Integer> usageCounts = recipeDAO.findIngredientUsageCounts();
+                Set<String> names = new LinkedHashSet<>();
+                for (Ingredient ingredient : ingredientDAO.findAll()) {
+                    names.add(ingredient.getName());
+                }
+                names.addAll(usageCounts.keySet());
+                return new Object[]{new DuplicateIngredientFinder().find(names), usageCounts};
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            protected void done() {
+                duplicateButton.setEnabled(true);
+                try {
+                    Object[] result = get();
+                    showDuplicates((List<DuplicateIngredientFinder.Candidate>) result[0], (Map<String, Integer>) result[1]);
+                } catch (Exception e) {
+                    JOptionPane.showMessageDialog(IngredientPanel.this, "중복 재료를 찾지 못했습니다.", "오류", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * 합칠 후보 목록 (선택한 행의 두 이름 중 남길 이름을 골라 합침)
+     */
+    private void showDuplicates(List<DuplicateIngredientFinder.Candidate> candidates, Map<String, Integer> usageCounts) {
+        if (candidates.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "🎉 비슷한 이름의 재료가 없어요!", "중복 재료 찾기", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        DefaultTableModel duplicateModel = new DefaultTableModel(new String[]{"재료", "비슷한 이름", "유사도", "레시피 수"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) { return false; }
+        };
+        for (DuplicateIngredientFinder.Candidate candidate : candidates) {
+            // 이름 끝 공백이 보이도록 따옴표로 감쌈
+            duplicateModel.addRow(new Object[]{"\"" + candidate.getName() + "\"", "\"" + candidate.getSimilarName() + "\"",
+                String.format("%.0f%%", candidate.getSimilarity() * 100),
+                usageCounts.getOrDefault(candidate.getName(), 0) + " / " + usageCounts.getOrDefault(candidate.getSimilarName(), 0)});
+        }
+        JTable duplicateTable = new JTable(duplicateModel);
+        duplicateTable.setFont(new Font("맑은 고딕", Font.PLAIN, 15));
+        duplicateTable.setRowHeight(26);
+        duplicateTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        JScrollPane scrollPane = new JScrollPane(duplicateTable);
+        scrollPane.setPreferredSize(new Dimension(560, 280));
+        while (true) {
+            Object[] options = {"왼쪽 이름으로 합치기", "오른쪽 이름으로 합치기", "닫기"};
+            int choice = JOptionPane.showOptionDialog(this, scrollPane, "🔎 비슷한 이름의 재료",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.PLAIN_MESSAGE, null, options, options[2]);
+            if (choice != 0 && choice != 1) return;
+            int selectedRow = duplicateTable.getSelectedRow();
+            if (selectedRow < 0) {
+                JOptionPane.showMessageDialog(this, "합칠 재료를 먼저 선택하세요.");
+                continue;
+            }
+            DuplicateIngredientFinder.Candidate candidate = candidates.get(selectedRow);
+            String targetName = choice == 0 ? candidate.getName() : candidate.getSimilarName();
+            String sourceName = choice == 0 ? candidate.getSimilarName() : candidate.getName();
+            int confirm = JOptionPane.showConfirmDialog(this, "\"" + sourceName + "\" 재료를 \"" + targetName
+                + "\"(으)로 합칠까요?\n레시피의 재료 이름이 바뀌고 재고 수량이 합쳐집니다.", "재료 합치기", JOptionPane.YES_NO_OPTION);
+            if (confirm != JOptionPane.YES_OPTION) continue;
+            mergeDuplicate(candidates, usageCounts, sourceName, targetName);
+            return;
+        }
+    }
+
+    /**
+     * 재료 합치기 (샤드마다 DB를 고치므로 백그라운드에서, 끝나면 남은 후보 목록을 다시 보여 줌)
+     * - 일부 샤드만 끝나면 남은 샤드를 알리고 후보를 그대로 두어 같은 합치기를 다시 실행할 수 있게 함
+     */
+    private void mergeDuplicate(List<DuplicateIngredientFinder.Candidate> candidates, Map<String, Integer> usageCounts,
+                                String sourceName, String targetName) {
+        duplicateButton.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                recipeDAO.mergeIngredients(Arrays.asList(sourceName), targetName);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                duplicateButton.setEnabled(true);
+                try {
+                    get();
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RecipeDAO.MergeIncompleteException) {
+                        JOptionPane.showMessageDialog(IngredientPanel.this, "재료는 합쳤지만 " + e.getCause().getMessage(),
+                            "재료 합치기", JOptionPane.WARNING_MESSAGE);
+                        loadIngredients();
+                        showDuplicates(candidates, usageCounts);
+                    } else {
+                        JOptionPane.showMessageDialog(IngredientPanel.this, "재료를 합치지 못했습니다.", "오류", JOptionPane.ERROR_MESSAGE);
+                    }
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                loadIngredients();
+                // 합친 이름이 들어간 후보는 목록에서 뺌
+                candidates.removeIf(other -> other.getName().equals(sourceName) || other.getSimilarName().equals(sourceName));
+                if (!candidates.isEmpty()) {
+                    showDuplicates(candidates, usageCounts);
+                }
+            }
+        }.execute();
+    }
+
     /**
      * 재료 삭제 (확인 다이얼로그)
      */
     private void deleteIngredient() {
-        int selectedRow = ingredientTable.getSelectedRow();
+        int selectedRow = ingredientTable.getSelectedModelRow();
         if (selectedRow >= 0) {
             int id = (Integer) tableModel.getValueAt(selectedRow, 0);
-            String name = (String) tableModel.getValueAt(selectedRow, 1);
-            int confirm = JOptionPane.showConfirmDialog(this, name + " 재료를 정말로 삭제하시겠습니까?", "삭제 확인", JOptionPane.YES_NO_OPTION);
-            if (confirm == JOptionPane.YES_OPTION) {
-                ingredientDAO.delete(id);
-                loadIngredients();
+            String name = tableModel.getValueAt(selectedRow, 1).toString();
+            // 이 재료를 쓰는 레시피를 함께 보여 줌 (역인덱스가 아직 없으면 전체 목록을 읽으므로 백그라운드에서)
+            deleteButton.setEnabled(false);
+            new SwingWorker<List<Recipe>, Void>() {
+                @Override
+                protected List<Recipe> doInBackground() {
+                    return recipeDAO.findRecipesUsing(name);
+                }
+
+                @Override
+                protected void done() {
+                    deleteButton.setEnabled(true);
+                    List<Recipe> usedBy;
+                    try {
+                        usedBy = get();
+                    } catch (Exception e) {
+                        usedBy = null; // 사용처를 확인하지 못해도 삭제는 물어봄
+                    }
+                    confirmDelete(id, name, usedBy);
+                }
+            }.execute();
+        }
+    }
+
+    /**
+     * 삭제 확인 후 삭제 (usedBy가 null이면 사용처를 확인하지 못했다고 알림)
+     */
+    private void confirmDelete(int id, String name, List<Recipe> usedBy) {
+        Object message = name + " 재료를 정말로 삭제하시겠습니까?";
+        if (usedBy == null) {
+            message = "⚠ 이 재료를 쓰는 레시피를 확인하지 못했습니다.\n" + message;
+        } else if (!usedBy.isEmpty()) {
+            DefaultListModel<String> usedByModel = new DefaultListModel<>();
+            for (Recipe recipe : usedBy) {
+                usedByModel.addElement(recipe.getName() + " (" + recipe.getRequiredIngredientNames().get(name) + "개)");
             }
+            JList<String> usedByList = new JList<>(usedByModel);
+            usedByList.setFont(new Font("맑은 고딕", Font.PLAIN, 14));
+            JScrollPane scrollPane = new JScrollPane(usedByList);
+            scrollPane.setPreferredSize(new Dimension(360, Math.min(240, 24 * usedBy.size() + 8)));
+            JPanel panel = new JPanel(new BorderLayout(0, 8));
+            panel.add(new JLabel("⚠ 이 재료를 쓰는 레시피가 " + usedBy.size() + "개 있습니다. "
+                + "삭제해도 레시피에는 재료 이름이 남지만 재고는 0으로 계산됩니다."), BorderLayout.NORTH);
+            panel.add(scrollPane, BorderLayout.CENTER);
+            panel.add(new JLabel(name + " 재료를 정말로 삭제하시겠습니까?"), BorderLayout.SOUTH);
+            message = panel;
+        }
+        int confirm = JOptionPane.showConfirmDialog(this, message, "삭제 확인", JOptionPane.YES_NO_OPTION);
+        if (confirm == JOptionPane.YES_OPTION) {
+            ingredientDAO.delete(id);
+            loadIngredients();
         }
     }
 
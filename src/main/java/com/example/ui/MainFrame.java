@@ -1,16 +1,36 @@
 package com.example.ui;
 
+import com.example.db.CatalogSnapshot;
+import com.example.db.DbScheduler;
+import com.example.db.OfflineWriteQueue;
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.List;
 
 public class MainFrame extends JFrame {
+    private static final long serialVersionUID = 1L;
+
     private RecipePanel recipePanel;
     private IngredientPanel ingredientPanel;
+    private RecommendationPanel recommendationPanel;
+    private StatisticsPanel statisticsPanel;
+    private JLabel offlineLabel; // 오프라인 대기/실패 작업, 스냅샷 오류 표시 (실패가 있으면 눌러서 다시 시도/버리기)
 
     public MainFrame() {
         setTitle("🍳 나만의 레시피 냉장고");
         setSize(1050, 650);
-        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        // 오프라인 대기열은 메모리에만 있으므로 닫기 전에 남은 작업을 확인 (confirmExit)
+        setDefaultCloseOperation(JFrame.DO_NOTHING_ON_CLOSE);
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                confirmExit();
+            }
+        });
         setLocationRelativeTo(null);
         setResizable(false);
 
@@ -25,11 +45,22 @@ public class MainFrame extends JFrame {
         titleLabel.setFont(new Font("맑은 고딕", Font.BOLD, 28));
         titleLabel.setForeground(new Color(255, 140, 60));
         titlePanel.add(titleLabel);
+        offlineLabel = new JLabel();
+        offlineLabel.setForeground(new Color(200, 80, 60));
+        offlineLabel.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                showFailedWrites();
+            }
+        });
+        titlePanel.add(offlineLabel);
         add(titlePanel, BorderLayout.NORTH);
 
         // 각 패널 초기화
         ingredientPanel = new IngredientPanel();
         recipePanel = new RecipePanel(ingredientPanel);
+        recommendationPanel = new RecommendationPanel();
+        statisticsPanel = new StatisticsPanel();
 
         // 탭 패널 생성
         JTabbedPane tabbedPane = new JTabbedPane();
@@ -38,7 +69,136 @@ public class MainFrame extends JFrame {
         tabbedPane.setForeground(new Color(255, 140, 60));
         tabbedPane.addTab("🍲 레시피 관리", new JScrollPane(recipePanel));
         tabbedPane.addTab("🥕 나의 냉장고 속 재료", new JScrollPane(ingredientPanel));
+        tabbedPane.addTab("⭐ 추천", new JScrollPane(recommendationPanel));
+        tabbedPane.addTab("📊 요리 통계", new JScrollPane(statisticsPanel));
+        // 추천/통계 탭을 열 때마다 최신 내용 표시 (통계 탭을 떠나면 진행 중인 조회는 취소)
+        tabbedPane.addChangeListener(e -> {
+            if (tabbedPane.getSelectedIndex() == 2) recommendationPanel.refresh();
+            if (tabbedPane.getSelectedIndex() == 3) statisticsPanel.refresh();
+            else statisticsPanel.cancelRefresh();
+        });
         add(tabbedPane, BorderLayout.CENTER);
+
+        // 오프라인 중 쌓인 쓰기 작업을 주기적으로 DB에 반영
+        new Timer(15000, e -> replayOfflineWrites()).start();
+    }
+
+    /**
+     * 오프라인 쓰기 대기열 재실행 (백그라운드) 후 목록 새로 고침
+     */
+    private void replayOfflineWrites() {
+        OfflineWriteQueue queue = OfflineWriteQueue.getInstance();
+        updateOfflineLabel();
+        if (!queue.hasPending()) {
+            return;
+        }
+        runReplay(false, null);
+    }
+
+    /**
+     * 대기열(또는 실패 목록 다시 시도)을 백그라운드에서 반영하고, 반영된 작업이 있으면 목록 새로 고침
+     * - afterReplay는 반영이 끝난 뒤 EDT에서 실행 (없으면 null)
+     */
+    private void runReplay(boolean retryFailed, Runnable afterReplay) {
+        OfflineWriteQueue queue = OfflineWriteQueue.getInstance();
+        new SwingWorker<Integer, Void>() {
+            @Override
+            @SuppressWarnings("try")
+            protected Integer doInBackground() {
+                try (DbScheduler.Scope ignored = DbScheduler.withPriority(DbScheduler.Priority.NORMAL)) {
+                    return retryFailed ? queue.retryFailed() : queue.replay();
+                }
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    if (get() > 0) {
+                        recipePanel.loadRecipes();
+                        ingredientPanel.loadIngredients();
+                    }
+                } catch (Exception ignored) {
+                    // 다음 주기에 다시 시도
+                }
+                updateOfflineLabel();
+                if (afterReplay != null) {
+                    afterReplay.run();
+                }
+            }
+        }.execute();
+    }
+
+    // 반영 대기/실패 작업 수와 스냅샷 오류를 상단에 표시
+    private void updateOfflineLabel() {
+        OfflineWriteQueue queue = OfflineWriteQueue.getInstance();
+        StringBuilder text = new StringBuilder();
+        if (queue.hasPending()) {
+            text.append("📴 오프라인 - 반영 대기 ").append(queue.size()).append("건");
+        }
+        int failed = queue.getFailed().size();
+        if (failed > 0) {
+            if (text.length() > 0) text.append(" / ");
+            text.append("⚠ 반영 실패 ").append(failed).append("건 (눌러서 확인)");
+        }
+        String snapshotError = CatalogSnapshot.getInstance().getLastError();
+        offlineLabel.setText(text.toString());
+        offlineLabel.setToolTipText(snapshotError);
+        if (snapshotError != null && text.length() == 0) {
+            offlineLabel.setText("⚠ 로컬 스냅샷 오류");
+        }
+        offlineLabel.setCursor(failed > 0 ? Cursor.getPredefinedCursor(Cursor.HAND_CURSOR) : Cursor.getDefaultCursor());
+    }
+
+    /**
+     * 반영에 실패한 오프라인 작업 목록을 보여 주고 다시 시도하거나 버림
+     */
+    private void showFailedWrites() {
+        OfflineWriteQueue queue = OfflineWriteQueue.getInstance();
+        List<OfflineWriteQueue.FailedWrite> failed = queue.getFailed();
+        if (failed.isEmpty()) return;
+        StringBuilder message = new StringBuilder("DB에 반영하지 못한 작업이 있습니다.\n\n");
+        for (OfflineWriteQueue.FailedWrite write : failed) {
+            message.append("• ").append(write.getOperation()).append(": ").append(write.getReason()).append("\n");
+        }
+        Object[] options = {"다시 시도", "버리기", "닫기"};
+        int choice = JOptionPane.showOptionDialog(this, message.toString(), "반영 실패한 작업",
+            JOptionPane.DEFAULT_OPTION, JOptionPane.WARNING_MESSAGE, null, options, options[0]);
+        if (choice == 0) {
+            runReplay(true, null);
+        } else if (choice == 1) {
+            queue.discardFailed();
+            recipePanel.loadRecipes();
+            ingredientPanel.loadIngredients();
+            updateOfflineLabel();
+        }
+    }
+
+    /**
+     * 창 닫기
+     * - 반영 대기/실패 작업이 없으면 바로 종료
+     * - 있으면 종료하면 사라진다고 알리고 "반영 후 종료"/"그냥 종료"/"취소" 중 선택
+     * - "반영 후 종료"는 대기열(실패 목록 포함)을 한 번 더 반영해 보고, 그래도 남으면 다시 물어봄
+     */
+    private void confirmExit() {
+        OfflineWriteQueue queue = OfflineWriteQueue.getInstance();
+        int pending = queue.size();
+        int failed = queue.getFailed().size();
+        if (pending == 0 && failed == 0) {
+            dispose();
+            System.exit(0);
+            return;
+        }
+        String message = "DB에 반영하지 못한 작업이 있습니다. (반영 대기 " + pending + "건, 반영 실패 " + failed + "건)\n"
+            + "지금 종료하면 이 작업들은 저장되지 않습니다.";
+        Object[] options = {"반영 후 종료", "그냥 종료", "취소"};
+        int choice = JOptionPane.showOptionDialog(this, message, "종료 확인",
+            JOptionPane.DEFAULT_OPTION, JOptionPane.WARNING_MESSAGE, null, options, options[0]);
+        if (choice == 0) {
+            runReplay(failed > 0, this::confirmExit);
+        } else if (choice == 1) {
+            dispose();
+            System.exit(0);
+        }
     }
 
     public static void main(String[] args) {
@@ -0,0 +1,46 @@
+package com.example.ui;
+
+import com.example.model.Price;
+
+/**
+ * 금액 셀 값 (원가/단가 컬럼)
+ * - 표시 문자열을 만들 때 한 번만 포맷해 두고, 정렬은 고정소수점 금액으로 비교
+ * - incomplete면 단가가 없는 재료가 빠진 금액이라 뒤에 "*"를 붙임
+ */
+final class PriceCell implements Comparable<PriceCell> {
+    private final long amount;
+    private final String text;
+
+    private PriceCell(long amount, String text) {
+        this.amount = amount;
+        this.text = text;
+    }
+
+    static PriceCell of(long amount, boolean incomplete) {
+        return new PriceCell(amount, incomplete ? Price.format(amount) + " *" : Price.format(amount));
+    }
+
+    long getAmount() {
+        return amount;
+    }
+
+    @Override
+    public int compareTo(PriceCell other) {
+        return Long.compare(amount, other.amount);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof PriceCell && ((PriceCell) o).amount == amount && ((PriceCell) o).text.equals(text);
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(amount);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
@@ -2,20 +2,44 @@ package com.example.ui;
 
 import com.example.dao.RecipeDAO;
 import com.example.dao.IngredientDAO;
+import com.example.dao.IngredientLotDAO;
 import com.example.dao.impl.RecipeDAOImpl;
 import com.example.dao.impl.IngredientDAOImpl;
+import com.example.dao.impl.IngredientLotDAOImpl;
+import com.example.dao.impl.SubstitutionDAOImpl;
+import com.example.db.CatalogSnapshot;
+import com.example.db.DbScheduler;
 import com.example.model.Recipe;
 import com.example.model.Ingredient;
+import com.example.model.IngredientLot;
+import com.example.service.IngredientNameTrie;
+import com.example.service.SimilarityIndex;
+import com.example.service.SimilarityIndex.SimilarRecipe;
+import com.example.service.SubstitutionGraph;
+import com.example.service.PhotoStore;
+import com.example.service.RecipeCostIndex;
+import com.example.service.ThumbnailCache;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import javax.swing.table.DefaultTableCellRenderer;
 import javax.swing.table.JTableHeader;
+import javax.swing.table.TableRowSorter;
 import javax.swing.border.EmptyBorder;
+import javax.swing.filechooser.FileNameExtensionFilter;
 import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.sql.Timestamp;
 import java.util.Map;
 import java.util.HashMap;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.function.IntPredicate;
 import java.text.SimpleDateFormat;
 import java.util.stream.Collectors;
 
@@ -24,14 +48,31 @@ import java.util.stream.Collectors;
  * - 테이블, 버튼, 다이얼로그 등 UI와 DB 연동을 담당
  */
 public class RecipePanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+    private static final int SIMILAR_LIMIT = 5; // 상세보기에 보여줄 유사 레시피 수
+    private static final int RECENT_PURCHASE_DAYS = 3; // "최근에 산 재료" 기준 (일)
+    private static final int DETAIL_PHOTO_SIZE = 200; // 상세보기 사진 최대 크기 (px)
+    // 사진이 없는 행도 이름 위치가 맞도록 쓰는 빈 아이콘
+    private static final Icon NO_PHOTO = new ImageIcon(new BufferedImage(ThumbnailCache.SIZE, ThumbnailCache.SIZE, BufferedImage.TYPE_INT_ARGB));
     // DAO 및 패널 참조
     private final RecipeDAO recipeDAO; // 레시피 DB 접근 객체
     private final IngredientDAO ingredientDAO; // 재료 DB 접근 객체
+    private final IngredientLotDAO ingredientLotDAO; // 재료 로트(구매 기록) DB 접근 객체
+    private final SimilarityIndex similarityIndex; // 재료 구성 유사도 인덱스
+    private final SubstitutionGraph substitutionGraph; // 대체 재료 관계
+    private final RecipeCostIndex costIndex; // 레시피 원가
+    private final IngredientNameTrie ingredientNameTrie; // 재료 이름 자동완성
     private final IngredientPanel ingredientPanel; // 재료 패널 참조
+    private final PhotoStore photoStore; // 레시피 사진 파일
+    private final ThumbnailCache thumbnails; // 사진 썸네일 캐시
+    private volatile Set<Integer> visibleRecipeIds = Collections.emptySet(); // 화면에 보이는 행의 레시피 id (썸네일 디코딩 여부 판단)
+    private boolean visibleUpdateQueued; // 보이는 행 갱신 예약 여부 (EDT에서만 사용)
     // UI 컴포넌트
-    private JTable recipeTable; // 레시피 테이블
+    private StripedTable recipeTable; // 레시피 테이블
+    private TableSearch recipeSearch; // 레시피 테이블 정렬/검색
     private DefaultTableModel tableModel; // 테이블 모델
-    private JButton addButton, editButton, deleteButton, cookButton, favoriteButton, viewDetailsButton; // 하단 버튼들
+    private ChunkedTableLoader<Recipe> recipeLoad; // 진행 중인 목록 조회 (새 조회가 시작되면 취소)
+    private JButton addButton, editButton, deleteButton, cookButton, favoriteButton, viewDetailsButton, reuseButton, photoButton; // 하단 버튼들
     private SimpleDateFormat dateFormat; // 날짜 포맷
 
     /**
@@ -40,13 +81,23 @@ public class RecipePanel extends JPanel {
     public RecipePanel(IngredientPanel ingredientPanel) {
         this.recipeDAO = new RecipeDAOImpl();
         this.ingredientDAO = new IngredientDAOImpl();
+        this.ingredientLotDAO = new IngredientLotDAOImpl();
+        this.similarityIndex = SimilarityIndex.getInstance();
+        this.substitutionGraph = SubstitutionGraph.getInstance();
+        this.costIndex = RecipeCostIndex.getInstance();
+        this.ingredientNameTrie = IngredientNameTrie.getInstance();
         this.ingredientPanel = ingredientPanel;
+        this.photoStore = PhotoStore.getInstance();
+        this.thumbnails = ThumbnailCache.getInstance();
         dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
         setLayout(new BorderLayout());
         setBackground(new Color(255, 245, 230));
         setBorder(new EmptyBorder(20, 20, 20, 20));
         initComponents(); // UI 컴포넌트 초기화
-        loadRecipes();    // 레시피 목록 불러오기
+        bootRecipes();    // 레시피 목록 불러오기 (스냅샷 우선)
+        loadIndexes(); // 재료 이름/유사 레시피/대체 재료/원가 인덱스 구성 (백그라운드)
+        // 단가가 바뀌면 영향받은 레시피의 원가 셀만 갱신
+        costIndex.addCostListener(recipeIds -> SwingUtilities.invokeLater(() -> refreshCosts(recipeIds)));
     }
 
     /**
@@ -54,39 +105,47 @@ public class RecipePanel extends JPanel {
      */
     private void initComponents() {
         // 테이블 모델 및 테이블 생성
-        String[] columnNames = {"ID", "이름", "재료", "평점", "즐겨찾기", "마지막 요리 일자"};
+        String[] columnNames = {"ID", "이름", "재료", "평점", "즐겨찾기", "마지막 요리 일자", "원가"};
         tableModel = new DefaultTableModel(columnNames, 0) {
             @Override
             public boolean isCellEditable(int row, int column) { return false; }
         };
-        recipeTable = new JTable(tableModel) {
-            // 행별 배경색 지정
-            public Component prepareRenderer(javax.swing.table.TableCellRenderer renderer, int row, int column) {
-                Component c = super.prepareRenderer(renderer, row, column);
-                if (!isRowSelected(row)) c.setBackground(row % 2 == 0 ? new Color(255, 255, 240) : new Color(255, 240, 220));
-                else c.setBackground(new Color(255, 220, 180));
-                return c;
-            }
-        };
+        recipeTable = new StripedTable(tableModel);
+        // 이름/재료로 검색, 헤더 클릭으로 정렬
+        recipeSearch = new TableSearch(recipeTable, tableModel, 1, 2);
         recipeTable.setFont(new Font("맑은 고딕", Font.PLAIN, 15));
-        recipeTable.setRowHeight(28);
+        recipeTable.setRowHeight(ThumbnailCache.SIZE + 4); // 썸네일이 들어가는 높이
         JTableHeader header = recipeTable.getTableHeader();
         header.setFont(new Font("맑은 고딕", Font.BOLD, 16));
         header.setBackground(new Color(255, 230, 200));
         header.setForeground(new Color(255, 140, 60));
         // 평점 컬럼에 별 아이콘 표시
-        recipeTable.getColumnModel().getColumn(3).setCellRenderer(new DefaultTableCellRenderer() {
+        recipeTable.getColumnModel().getColumn(3).setCellRenderer(new StarRatingRenderer());
+        DefaultTableCellRenderer costRenderer = new DefaultTableCellRenderer();
+        costRenderer.setHorizontalAlignment(SwingConstants.RIGHT);
+        costRenderer.setToolTipText("* 단가가 입력되지 않은 재료는 빼고 계산한 금액");
+        recipeTable.getColumnModel().getColumn(6).setCellRenderer(costRenderer);
+        // 이름 컬럼에 사진 썸네일 표시 (캐시에 없으면 빈 아이콘으로 그리고 백그라운드에서 준비되면 다시 그림)
+        IntPredicate isVisible = id -> visibleRecipeIds.contains(id);
+        Runnable repaintTable = () -> SwingUtilities.invokeLater(recipeTable::repaint);
+        DefaultTableCellRenderer nameRenderer = new DefaultTableCellRenderer() {
             @Override
-            public void setValue(Object value) {
-                if (value instanceof Number) {
-                    int rating = ((Number) value).intValue();
-                    StringBuilder stars = new StringBuilder();
-                    for (int i = 0; i < rating; i++) stars.append("★");
-                    for (int i = rating; i < 5; i++) stars.append("☆");
-                    setText(stars.toString());
-                } else setText("");
+            public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected, boolean hasFocus, int row, int column) {
+                super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+                Integer id = (Integer) tableModel.getValueAt(table.convertRowIndexToModel(row), 0);
+                Icon thumbnail = thumbnails.getIcon(id);
+                if (thumbnail == null && photoStore.hasPhoto(id)) {
+                    thumbnails.load(id, isVisible, repaintTable);
+                }
+                setIcon(thumbnail != null ? thumbnail : NO_PHOTO);
+                return this;
             }
-        });
+        };
+        nameRenderer.setIconTextGap(8);
+        recipeTable.getColumnModel().getColumn(1).setCellRenderer(nameRenderer);
+        // 스크롤하거나 행이 바뀌거나 정렬/검색으로 순서가 바뀌면 화면에 보이는 레시피 id 다시 계산
+        tableModel.addTableModelListener(e -> scheduleVisibleRowsUpdate());
+        recipeSearch.getSorter().addRowSorterListener(e -> scheduleVisibleRowsUpdate());
         // 하단 버튼 패널 및 버튼 생성
         JPanel buttonPanel = new JPanel();
         addButton = new JButton("새 레시피");
@@ -95,9 +154,12 @@ public class RecipePanel extends JPanel {
         cookButton = new JButton("요리하기");
         favoriteButton = new JButton("즐겨찾기");
         viewDetailsButton = new JButton("상세보기");
+        reuseButton = new JButton("산 재료 활용");
+        photoButton = new JButton("사진 등록");
         // 버튼 패널에 추가
         buttonPanel.add(addButton); buttonPanel.add(editButton); buttonPanel.add(deleteButton);
         buttonPanel.add(cookButton); buttonPanel.add(favoriteButton); buttonPanel.add(viewDetailsButton);
+        buttonPanel.add(reuseButton); buttonPanel.add(photoButton);
         // 버튼 이벤트 리스너 등록
         addButton.addActionListener(e -> addRecipe());
         editButton.addActionListener(e -> editRecipe());
@@ -105,14 +167,28 @@ public class RecipePanel extends JPanel {
         cookButton.addActionListener(e -> cookRecipe());
         favoriteButton.addActionListener(e -> toggleFavorite());
         viewDetailsButton.addActionListener(e -> viewRecipeDetails());
+        reuseButton.addActionListener(e -> showRecipesUsingRecentPurchases());
+        photoButton.addActionListener(e -> attachPhoto());
         // 레이아웃 배치
-        add(new JScrollPane(recipeTable), BorderLayout.CENTER);
+        JScrollPane tableScroll = new JScrollPane(recipeTable);
+        tableScroll.getViewport().addChangeListener(e -> scheduleVisibleRowsUpdate());
+        add(tableScroll, BorderLayout.CENTER);
+        JPanel searchPanel = createSearchPanel(recipeSearch);
+        // 즐겨찾기만 보기 (메모리 비트맵으로 거르므로 DB를 조회하지 않음)
+        JCheckBox favoritesOnly = new JCheckBox("♥ 즐겨찾기만");
+        favoritesOnly.setFont(new Font("맑은 고딕", Font.BOLD, 15));
+        favoritesOnly.setForeground(new Color(255, 140, 60));
+        favoritesOnly.setOpaque(false);
+        // 행의 즐겨찾기 컬럼으로 거름 (DAO 비트맵을 EDT에서 불러오지 않고, 목록을 다시 불러오면 새 행 값으로 다시 걸러짐)
+        favoritesOnly.addActionListener(e -> recipeSearch.setCondition(favoritesOnly.isSelected() ? this::isFavoriteRow : null));
+        searchPanel.add(favoritesOnly);
+        add(searchPanel, BorderLayout.NORTH);
         add(buttonPanel, BorderLayout.SOUTH);
         // 버튼 스타일 통일
         Color mainBtnColor = new Color(255, 180, 80);
         Color mainBorderColor = new Color(255, 140, 60);
         Font mainFont = new Font("맑은 고딕", Font.BOLD, 17);
-        JButton[] btns = {addButton, editButton, deleteButton, cookButton, favoriteButton, viewDetailsButton};
+        JButton[] btns = {addButton, editButton, deleteButton, cookButton, favoriteButton, viewDetailsButton, reuseButton, photoButton};
         for (JButton btn : btns) {
             btn.setBackground(mainBtnColor);
             btn.setForeground(Color.WHITE);
@@ -124,21 +200,162 @@ public class RecipePanel extends JPanel {
     }
 
     /**
-     * DB에서 레시피 목록을 불러와 테이블에 표시 (평점 컬럼은 숫자만 넣음)
+     * DB에서 레시피 목록을 불러와 테이블에 표시 (백그라운드, 평점 컬럼은 숫자만 넣음)
      */
-    private void loadRecipes() {
+    public void loadRecipes() {
+        loadRecipes(false);
+    }
+
+    /**
+     * 레시피 목록을 스트리밍으로 받아 묶음 단위로 표시 - 이전 조회가 아직 끝나지 않았으면 DB 쿼리까지 취소
+     * @param keepOnError 실패 시 알림 없이 현재 목록 유지 (스냅샷을 먼저 보여 준 경우)
+     */
+    private void loadRecipes(boolean keepOnError) {
+        if (recipeLoad != null) recipeLoad.cancel();
+        recipeLoad = new ChunkedTableLoader<Recipe>(tableModel, this::toRow, error -> {
+            if (!keepOnError) {
+                JOptionPane.showMessageDialog(this, ChunkedTableLoader.isTimeout(error)
+                    ? "레시피 목록 조회가 너무 오래 걸려 중단했습니다." : "레시피 목록을 불러오지 못했습니다.",
+                    "오류", JOptionPane.ERROR_MESSAGE);
+            }
+        }).start(recipeDAO.streamAll());
+    }
+
+    /**
+     * 로컬 스냅샷이 있으면 먼저 표시하고, DB 목록은 백그라운드에서 받아와 교체
+     */
+    private void bootRecipes() {
+        CatalogSnapshot snapshot = CatalogSnapshot.getInstance();
+        if (!snapshot.isLoaded()) {
+            loadRecipes();
+            return;
+        }
+        showRecipes(snapshot.getRecipes());
+        // DB 연결 실패 시 스냅샷 목록을 그대로 유지
+        loadRecipes(true);
+    }
+
+    /**
+     * 레시피 목록을 테이블에 표시
+     */
+    private void showRecipes(List<Recipe> recipes) {
         tableModel.setRowCount(0);
-        List<Recipe> recipes = recipeDAO.findAll();
-        for (Recipe recipe : recipes) {
-            String ingredientsStr = recipe.getRequiredIngredientNames().entrySet().stream()
-                .map(e -> e.getKey() + "(" + e.getValue() + ")")
-                .collect(Collectors.joining(", "));
-            // 평점 컬럼은 숫자만 넣음
-            int rating = recipe.getRating();
-            String favoriteStr = recipe.isFavorite() ? "♥" : "";
-            String lastCooked = recipe.getLastCookedAt() != null ? dateFormat.format(recipe.getLastCookedAt()) : "아직 요리하지 않음";
-            Object[] row = {recipe.getId(), recipe.getName(), ingredientsStr, rating, favoriteStr, lastCooked};
-            tableModel.addRow(row);
+        ChunkedTableLoader.appendRows(tableModel, recipes, this::toRow);
+    }
+
+    /**
+     * 레시피 한 건을 테이블 행으로 변환 (평점 컬럼은 숫자만 넣음)
+     */
+    private Object[] toRow(Recipe recipe) {
+        String ingredientsStr = recipe.getRequiredIngredientNames().entrySet().stream()
+            .map(e -> e.getKey() + "(" + e.getValue() + ")")
+            .collect(Collectors.joining(", "));
+        int rating = recipe.getRating();
+        String favoriteStr = recipe.isFavorite() ? "♥" : "";
+        String lastCooked = recipe.getLastCookedAt() != null ? dateFormat.format(recipe.getLastCookedAt()) : "아직 요리하지 않음";
+        return new Object[]{recipe.getId(), CollatedText.of(recipe.getName()), ingredientsStr, rating, favoriteStr, lastCooked,
+            costCell(recipe.getId())};
+    }
+
+    /**
+     * 모델 행이 즐겨찾기인지 (목록을 불러올 때 채운 즐겨찾기 컬럼 기준)
+     */
+    private boolean isFavoriteRow(int modelRow) {
+        return "♥".equals(tableModel.getValueAt(modelRow, 4));
+    }
+
+    /**
+     * 원가 컬럼 값 (원가 인덱스를 아직 불러오지 않았으면 null)
+     */
+    private PriceCell costCell(int recipeId) {
+        long cost = costIndex.getCost(recipeId);
+        return cost == RecipeCostIndex.UNKNOWN ? null : PriceCell.of(cost, costIndex.getUnpricedCount(recipeId) > 0);
+    }
+
+    /**
+     * 원가 셀 갱신 (recipeIds가 null이면 전체) - 셀마다 setValueAt으로 고치되, 그동안 정렬기의 자동 재정렬을 끄고
+     * 끝난 뒤 한 번만 다시 정렬
+     */
+    private void refreshCosts(int[] recipeIds) {
+        Set<Integer> targets = null;
+        if (recipeIds != null) {
+            targets = new HashSet<>();
+            for (int id : recipeIds) targets.add(id);
+        }
+        boolean changed = false;
+        TableRowSorter<DefaultTableModel> sorter = recipeSearch.getSorter();
+        sorter.setSortsOnUpdates(false);
+        try {
+            for (int row = 0; row < tableModel.getRowCount(); row++) {
+                Integer id = (Integer) tableModel.getValueAt(row, 0);
+                if (targets != null && !targets.contains(id)) continue;
+                tableModel.setValueAt(costCell(id), row, 6);
+                changed = true;
+            }
+        } finally {
+            sorter.setSortsOnUpdates(true);
+        }
+        if (changed) sorter.sort();
+    }
+
+    /**
+     * 테이블 위 검색 입력 줄
+     */
+    static JPanel createSearchPanel(TableSearch search) {
+        JPanel searchPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        searchPanel.setOpaque(false);
+        JLabel searchLabel = new JLabel("🔍 검색:");
+        searchLabel.setFont(new Font("맑은 고딕", Font.BOLD, 15));
+        JTextField field = search.getField();
+        field.setFont(new Font("맑은 고딕", Font.PLAIN, 15));
+        field.setBorder(BorderFactory.createLineBorder(new Color(255, 200, 120), 2, true));
+        searchPanel.add(searchLabel);
+        searchPanel.add(field);
+        return searchPanel;
+    }
+
+    /**
+     * 보이는 행 갱신을 한 번만 예약 (목록을 채우는 동안 행 추가 이벤트가 연달아 와도 계산은 한 번)
+     */
+    private void scheduleVisibleRowsUpdate() {
+        if (visibleUpdateQueued) return;
+        visibleUpdateQueued = true;
+        SwingUtilities.invokeLater(() -> {
+            visibleUpdateQueued = false;
+            Rectangle view = recipeTable.getVisibleRect();
+            int first = recipeTable.rowAtPoint(view.getLocation());
+            int last = recipeTable.rowAtPoint(new Point(view.x, view.y + view.height - 1));
+            if (first < 0) {
+                visibleRecipeIds = Collections.emptySet();
+                return;
+            }
+            if (last < 0) last = recipeTable.getRowCount() - 1;
+            Set<Integer> ids = new HashSet<>();
+            for (int row = first; row <= last; row++) {
+                ids.add((Integer) tableModel.getValueAt(recipeTable.convertRowIndexToModel(row), 0));
+            }
+            boolean changed = !ids.equals(visibleRecipeIds);
+            visibleRecipeIds = ids;
+            // 갱신 전에 렌더러가 요청한 썸네일은 "안 보임"으로 건너뛰었을 수 있으므로 다시 그려 새로 요청
+            if (changed) recipeTable.repaint(view);
+        });
+    }
+
+    /**
+     * 선택한 레시피에 사진 등록 (기존 사진은 교체)
+     */
+    private void attachPhoto() {
+        int selectedRow = recipeTable.getSelectedModelRow();
+        if (selectedRow < 0) return;
+        int id = (Integer) tableModel.getValueAt(selectedRow, 0);
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new FileNameExtensionFilter("이미지 파일", "jpg", "jpeg", "png", "gif", "bmp"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        try {
+            photoStore.attach(id, chooser.getSelectedFile().toPath());
+            recipeTable.repaint();
+        } catch (IOException e) {
+            JOptionPane.showMessageDialog(this, "사진을 저장하지 못했습니다: " + e.getMessage(), "오류", JOptionPane.ERROR_MESSAGE);
         }
     }
 
@@ -177,6 +394,8 @@ public class RecipePanel extends JPanel {
         addIngredientButton.addActionListener(e -> {
             JTextField ingNameField = new JTextField();
             ingNameField.setFont(new Font("맑은 고딕", Font.PLAIN, 15));
+            // 있는 재료 이름을 보유 수량과 함께 제안 (자모/초성 접두어)
+            IngredientAutoComplete.install(ingNameField, ingredientNameTrie);
             JSpinner ingQtySpinner = new JSpinner(new SpinnerNumberModel(1, 1, 1000, 1));
             JPanel ingPanel = new JPanel(new GridLayout(2, 2, 8, 8));
             ingPanel.setBackground(new Color(255, 245, 230));
@@ -253,60 +472,104 @@ public class RecipePanel extends JPanel {
 
     /**
      * 레시피 요리(재고 차감, 마지막 요리 일자 갱신, 안내)
+     * - 재고 확인과 차감은 백그라운드에서 하고, 확인/안내 다이얼로그만 EDT에서 띄움
+     * - 재고는 레시피 재료와 그 대체 재료만 읽으므로 판단 비용이 레시피 재료 수에 비례
      */
     private void cookRecipe() {
-        int selectedRow = recipeTable.getSelectedRow();
-        if (selectedRow >= 0) {
-            int id = (Integer) tableModel.getValueAt(selectedRow, 0);
-            Recipe recipe = recipeDAO.findById(id);
-            // 재고 부족 체크
-            java.util.List<String> 부족재료 = new ArrayList<>();
-            for (Map.Entry<String, Integer> entry : recipe.getRequiredIngredientNames().entrySet()) {
-                String ingName = entry.getKey();
-                int required = entry.getValue();
-                Ingredient myIng = ingredientDAO.findByName(ingName);
-                if (myIng == null || myIng.getAvailableQuantity() < required) {
-                    int 부족 = required - (myIng == null ? 0 : myIng.getAvailableQuantity());
-                    부족재료.add(ingName + "(" + 부족 + "개 부족)");
+        int selectedRow = recipeTable.getSelectedModelRow();
+        if (selectedRow < 0) return;
+        int id = (Integer) tableModel.getValueAt(selectedRow, 0);
+        cookButton.setEnabled(false);
+        new SwingWorker<SubstitutionGraph.CookPlan, Void>() {
+            @Override
+            protected SubstitutionGraph.CookPlan doInBackground() {
+                Recipe recipe = recipeDAO.findById(id);
+                if (recipe == null) return null;
+                // 재고 확인 (부족한 재료는 대체 재료로 채울 수 있는지까지 확인)
+                Map<String, Integer> required = recipe.getRequiredIngredientNames();
+                Map<String, Integer> stock = ingredientDAO.findStockByNames(substitutionGraph.stockNamesFor(required.keySet()));
+                return substitutionGraph.plan(required, stock);
+            }
+
+            @Override
+            protected void done() {
+                cookButton.setEnabled(true);
+                SubstitutionGraph.CookPlan plan;
+                try {
+                    plan = get();
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    JOptionPane.showMessageDialog(RecipePanel.this, cause.getMessage(), "요리하지 못했어요", JOptionPane.WARNING_MESSAGE);
+                    return;
+                }
+                if (plan == null) {
+                    // 그새 삭제된 레시피
+                    loadRecipes();
+                } else if (!plan.isFeasible()) {
+                    showInsufficientStockDialog();
+                } else {
+                    confirmCook(id, plan);
                 }
             }
-            if (!부족재료.isEmpty()) {
-                showInsufficientStockDialog();
-                return;
+        }.execute();
+    }
+
+    /**
+     * 요리 확인 후 재고 차감 (유통기한 빠른 로트부터)과 마지막 요리 일자 갱신을 백그라운드에서 한 트랜잭션으로 처리
+     */
+    private void confirmCook(int id, SubstitutionGraph.CookPlan plan) {
+        String message = "이 레시피로 요리하시겠습니까?\n필요한 재료가 자동으로 차감됩니다.";
+        if (!plan.getSubstitutions().isEmpty()) {
+            message += "\n\n대체 재료 사용:\n- " + String.join("\n- ", plan.getSubstitutions());
+        }
+        int confirm = JOptionPane.showConfirmDialog(this, message, "요리 확인", JOptionPane.YES_NO_OPTION);
+        if (confirm != JOptionPane.YES_OPTION) return;
+        Timestamp cookedAt = new Timestamp(System.currentTimeMillis());
+        cookButton.setEnabled(false);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                recipeDAO.cook(id, plan.getDeductions(), cookedAt);
+                return null;
             }
-            // 충분하면 재고 차감 및 안내
-            int confirm = JOptionPane.showConfirmDialog(this,
-                "이 레시피로 요리하시겠습니까?\n필요한 재료가 자동으로 차감됩니다.",
-                "요리 확인", JOptionPane.YES_NO_OPTION);
-            if (confirm == JOptionPane.YES_OPTION) {
-                for (Map.Entry<String, Integer> entry : recipe.getRequiredIngredientNames().entrySet()) {
-                    Ingredient myIng = ingredientDAO.findByName(entry.getKey());
-                    if (myIng == null || myIng.getAvailableQuantity() < entry.getValue()) {
+
+            @Override
+            protected void done() {
+                cookButton.setEnabled(true);
+                try {
+                    get();
+                } catch (Exception e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    if (cause instanceof IllegalStateException) {
+                        // 확인하는 사이 다른 곳에서 재고를 써 버림
                         showInsufficientStockDialog();
-                        return;
+                    } else {
+                        // DB에 연결할 수 없거나 오프라인 작업이 남아 있어 요리하지 못함
+                        JOptionPane.showMessageDialog(RecipePanel.this, cause.getMessage(), "요리하지 못했어요", JOptionPane.WARNING_MESSAGE);
                     }
-                    myIng.useQuantity(entry.getValue());
-                    ingredientDAO.update(myIng);
+                    return;
                 }
-                recipe.cookedNow();
-                // 마지막 요리 일자만 업데이트
-                recipeDAO.updateLastCookedAt(recipe.getId(), recipe.getLastCookedAt());
                 loadRecipes();
                 ingredientPanel.loadIngredients();
-                JOptionPane.showMessageDialog(this, "요리가 완료되었습니다!\n냉장고 속 재료가 차감되었습니다.");
+                JOptionPane.showMessageDialog(RecipePanel.this, "요리가 완료되었습니다!\n냉장고 속 재료가 차감되었습니다.");
             }
-        }
+        }.execute();
     }
 
     /**
      * 즐겨찾기 추가/해제 및 평점/메모 입력 (귀엽고 깔끔한 스타일 적용)
+     * - 여러 행을 선택하면 한꺼번에 처리 (toggleFavorites)
      */
     private void toggleFavorite() {
-        int selectedRow = recipeTable.getSelectedRow();
+        int[] selectedRows = recipeTable.getSelectedModelRows();
+        if (selectedRows.length > 1) {
+            toggleFavorites(selectedRows);
+            return;
+        }
+        int selectedRow = recipeTable.getSelectedModelRow();
         if (selectedRow >= 0) {
             int id = (Integer) tableModel.getValueAt(selectedRow, 0);
-            Recipe recipe = recipeDAO.findById(id);
-            if (recipe.isFavorite()) {
+            if (isFavoriteRow(selectedRow)) {
                 recipeDAO.removeFromFavorites(id);
             } else {
                 // 평점, 메모 입력 (리디자인)
@@ -343,22 +606,53 @@ public class RecipePanel extends JPanel {
                 UIManager.put("OptionPane.cancelButtonText", "Cancel");
                 int result = JOptionPane.showConfirmDialog(this, panel, "즐겨찾기 추가", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
                 if (result == JOptionPane.OK_OPTION) {
-                    recipe.setRating((Integer) ratingSpinner.getValue());
-                    recipe.setNote(noteArea.getText().trim());
-                    recipe.setFavorite(true);
-                    recipeDAO.addToFavorites(id);
-                    recipeDAO.update(recipe);
+                    recipeDAO.saveFavorite(id, (Integer) ratingSpinner.getValue(), noteArea.getText().trim());
                 }
             }
             loadRecipes();
         }
     }
 
+    /**
+     * 선택한 여러 레시피 즐겨찾기 일괄 처리
+     * - 모두 즐겨찾기면 한꺼번에 해제, 아니면 평점을 하나 입력받아 모두 등록/평점 변경 (메모는 그대로)
+     */
+    private void toggleFavorites(int[] selectedRows) {
+        List<Integer> ids = new ArrayList<>();
+        boolean allFavorite = true;
+        for (int row : selectedRows) {
+            int id = (Integer) tableModel.getValueAt(row, 0);
+            ids.add(id);
+            allFavorite &= isFavoriteRow(row);
+        }
+        if (allFavorite) {
+            int confirm = JOptionPane.showConfirmDialog(this, ids.size() + "개 레시피를 즐겨찾기에서 해제할까요?",
+                "즐겨찾기 해제", JOptionPane.YES_NO_OPTION);
+            if (confirm != JOptionPane.YES_OPTION) return;
+            recipeDAO.removeFromFavorites(ids);
+        } else {
+            JSpinner ratingSpinner = new JSpinner(new SpinnerNumberModel(5, 1, 5, 1));
+            ratingSpinner.setFont(new Font("맑은 고딕", Font.BOLD, 16));
+            JPanel inputPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+            inputPanel.setBackground(new Color(255, 245, 230));
+            inputPanel.add(new JLabel("⭐ " + ids.size() + "개 레시피 평점 (1-5):"));
+            inputPanel.add(ratingSpinner);
+            int result = JOptionPane.showConfirmDialog(this, inputPanel, "즐겨찾기 일괄 추가", JOptionPane.OK_CANCEL_OPTION, JOptionPane.PLAIN_MESSAGE);
+            if (result != JOptionPane.OK_OPTION) return;
+            Map<Integer, Integer> ratings = new LinkedHashMap<>();
+            for (int id : ids) {
+                ratings.put(id, (Integer) ratingSpinner.getValue());
+            }
+            recipeDAO.saveFavorites(ratings);
+        }
+        loadRecipes();
+    }
+
     /**
      * 레시피 상세 정보 다이얼로그 표시 (귀엽고 깔끔한 스타일 적용)
      */
     private void viewRecipeDetails() {
-        int selectedRow = recipeTable.getSelectedRow();
+        int selectedRow = recipeTable.getSelectedModelRow();
         if (selectedRow >= 0) {
             int id = (Integer) tableModel.getValueAt(selectedRow, 0);
             // 항상 최신 정보로 다시 불러오기
@@ -376,7 +670,19 @@ public class RecipePanel extends JPanel {
             for (Map.Entry<String, Integer> entry : recipe.getRequiredIngredientNames().entrySet()) {
                 details.append("- ").append(entry.getKey()).append("(").append(entry.getValue()).append(")\n");
             }
-            details.append("\n조리 방법:\n").append(recipe.getInstructions());
+            details.append("\n조리 방법:\n").append(recipe.getInstructions() != null ? recipe.getInstructions() : "(조리 방법을 불러오지 못했습니다)");
+            // 재료 구성이 비슷한 레시피 (인덱스가 준비된 경우만)
+            if (similarityIndex.isLoaded()) {
+                List<SimilarRecipe> similar = similarityIndex.findSimilar(id, SIMILAR_LIMIT);
+                if (!similar.isEmpty()) {
+                    details.append("\n\n비슷한 레시피:\n");
+                    for (SimilarRecipe similarRecipe : similar) {
+                        details.append("- ").append(similarRecipe.getRecipe().getName())
+                            .append(" (겹치는 재료 ").append(similarRecipe.getSharedCount()).append("개, 유사도 ")
+                            .append(Math.round(similarRecipe.getJaccard() * 100)).append("%)\n");
+                    }
+                }
+            }
             JTextArea detailsArea = new JTextArea(details.toString());
             detailsArea.setEditable(false);
             detailsArea.setLineWrap(true);
@@ -394,6 +700,29 @@ public class RecipePanel extends JPanel {
             JLabel iconLabel = new JLabel("🍳");
             iconLabel.setHorizontalAlignment(SwingConstants.CENTER);
             iconLabel.setVerticalAlignment(SwingConstants.CENTER);
+            if (photoStore.hasPhoto(id)) {
+                // 사진은 다이얼로그를 띄운 뒤 백그라운드에서 디코딩해 교체
+                iconLabel.setPreferredSize(new Dimension(DETAIL_PHOTO_SIZE + 16, DETAIL_PHOTO_SIZE));
+                new SwingWorker<BufferedImage, Void>() {
+                    @Override
+                    protected BufferedImage doInBackground() throws Exception {
+                        return thumbnails.decode(id, DETAIL_PHOTO_SIZE);
+                    }
+
+                    @Override
+                    protected void done() {
+                        try {
+                            BufferedImage photo = get();
+                            if (photo != null) {
+                                iconLabel.setText(null);
+                                iconLabel.setIcon(new ImageIcon(photo));
+                            }
+                        } catch (Exception ignored) {
+                            // 사진을 읽지 못하면 기본 아이콘 유지
+                        }
+                    }
+                }.execute();
+            }
             panel.add(iconLabel, BorderLayout.WEST);
             panel.add(scrollPane, BorderLayout.CENTER);
             UIManager.put("OptionPane.okButtonText", "OK");
@@ -401,11 +730,83 @@ public class RecipePanel extends JPanel {
         }
     }
 
+    /**
+     * 재료 이름 트라이, 유사 레시피 인덱스와 대체 재료 폐포 구성 (백그라운드)
+     */
+    private void loadIndexes() {
+        new SwingWorker<Void, Void>() {
+            @Override
+            @SuppressWarnings("try")
+            protected Void doInBackground() {
+                // 전체 테이블을 읽는 작업이라 사용자 조회/저장보다 뒤로
+                try (DbScheduler.Scope ignored = DbScheduler.withPriority(DbScheduler.Priority.BULK)) {
+                    ingredientNameTrie.load(ingredientDAO);
+                    substitutionGraph.load(new SubstitutionDAOImpl());
+                    similarityIndex.load(recipeDAO);
+                    costIndex.load(recipeDAO, ingredientDAO);
+                }
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                } catch (Exception e) {
+                    // 인덱스가 없으면 대체 재료 없이 요리 가능 여부를 판단하고, 상세보기에서 유사 레시피만 빠짐
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * 최근에 산 재료를 많이 쓰는 레시피 다이얼로그
+     * - 최근 입고 로트의 재료 이름을 기본값으로 채우고, 사용자가 쉼표로 고칠 수 있음
+     */
+    private void showRecipesUsingRecentPurchases() {
+        if (!similarityIndex.isLoaded()) {
+            JOptionPane.showMessageDialog(this, "레시피 인덱스를 준비하는 중이에요. 잠시 후 다시 시도해 주세요.", "알림", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        Map<Integer, String> names = new HashMap<>();
+        for (Ingredient ingredient : ingredientDAO.findAll()) {
+            names.put(ingredient.getId(), ingredient.getName());
+        }
+        Set<String> bought = new LinkedHashSet<>();
+        for (IngredientLot lot : ingredientLotDAO.findPurchasedWithin(RECENT_PURCHASE_DAYS)) {
+            String name = names.get(lot.getIngredientId());
+            if (name != null) bought.add(name);
+        }
+        String input = (String) JOptionPane.showInputDialog(this, "최근에 산 재료 (쉼표로 구분):", "산 재료 활용",
+            JOptionPane.PLAIN_MESSAGE, null, null, String.join(", ", bought));
+        if (input == null || input.trim().isEmpty()) return;
+        Set<String> query = new LinkedHashSet<>();
+        for (String name : input.split(",")) {
+            if (!name.trim().isEmpty()) query.add(name.trim());
+        }
+        List<SimilarRecipe> matches = similarityIndex.findUsing(query, SIMILAR_LIMIT * 2);
+        if (matches.isEmpty()) {
+            JOptionPane.showMessageDialog(this, "이 재료를 쓰는 레시피를 찾지 못했어요.", "산 재료 활용", JOptionPane.INFORMATION_MESSAGE);
+            return;
+        }
+        DefaultTableModel matchModel = new DefaultTableModel(new String[]{"레시피", "사용하는 재료 수", "유사도"}, 0);
+        for (SimilarRecipe match : matches) {
+            matchModel.addRow(new Object[]{match.getRecipe().getName(), match.getSharedCount() + " / " + query.size(),
+                Math.round(match.getJaccard() * 100) + "%"});
+        }
+        JTable matchTable = new JTable(matchModel);
+        matchTable.setFont(new Font("맑은 고딕", Font.PLAIN, 15));
+        matchTable.setRowHeight(26);
+        JScrollPane scrollPane = new JScrollPane(matchTable);
+        scrollPane.setPreferredSize(new Dimension(480, 260));
+        JOptionPane.showMessageDialog(this, scrollPane, "🛍 산 재료로 만들 수 있는 레시피", JOptionPane.PLAIN_MESSAGE);
+    }
+
     /**
      * 레시피 수정 다이얼로그 및 DB 반영 (귀엽고 깔끔한 스타일 적용)
      */
     private void editRecipe() {
-        int selectedRow = recipeTable.getSelectedRow();
+        int selectedRow = recipeTable.getSelectedModelRow();
         if (selectedRow >= 0) {
             int id = (Integer) tableModel.getValueAt(selectedRow, 0);
             Recipe recipe = recipeDAO.findById(id);
@@ -462,10 +863,10 @@ public class RecipePanel extends JPanel {
      * 레시피 삭제 (확인 다이얼로그)
      */
     private void deleteRecipe() {
-        int selectedRow = recipeTable.getSelectedRow();
+        int selectedRow = recipeTable.getSelectedModelRow();
         if (selectedRow >= 0) {
             int id = (Integer) tableModel.getValueAt(selectedRow, 0);
-            String name = (String) tableModel.getValueAt(selectedRow, 1);
+            String name = tableModel.getValueAt(selectedRow, 1).toString();
             int confirm = JOptionPane.showConfirmDialog(this, name + " 레시피를 정말로 삭제하시겠습니까?", "삭제 확인", JOptionPane.YES_NO_OPTION);
             if (confirm == JOptionPane.YES_OPTION) {
                 recipeDAO.delete(id);
@@ -0,0 +1,209 @@
+package com.example.ui;
+
+import com.example.dao.impl.IngredientDAOImpl;
+import com.example.dao.impl.NutritionDAOImpl;
+import com.example.dao.impl.RecipeDAOImpl;
+import com.example.model.CompactRecipe;
+import com.example.model.Nutrient;
+import com.example.service.NutritionIndex;
+import com.example.service.RecommendationService;
+import com.example.service.RecommendationService.Recommendation;
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.JTableHeader;
+import java.awt.*;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * 추천 패널 ("다음에 요리할 레시피" 상위 목록)
+ * - RecommendationService가 유지하는 상위 k개를 그대로 보여주므로 새로 고침은 즉시 끝남
+ * - 최초 인덱스 구성만 백그라운드에서 한 번 수행
+ * - "N kcal 이하, 지금 만들 수 있는 레시피"는 NutritionIndex가 미리 계산한 합계 배열로 바로 조회
+ */
+public class RecommendationPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+    private static final int TOP_K = 20;
+
+    private final RecommendationService recommendationService;
+    private final NutritionIndex nutritionIndex;
+    // UI 컴포넌트
+    private JTable recommendationTable;
+    private DefaultTableModel tableModel;
+    private JButton refreshButton, nutritionButton;
+    private JSpinner kcalSpinner;
+    private JLabel statusLabel;
+    // 영양 인덱스 구성 실패 메시지 (성공했거나 아직 구성 중이면 null)
+    private volatile String nutritionError;
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+    private boolean ready;
+
+    /**
+     * 생성자 - 추천 서비스 생성 후 백그라운드에서 인덱스 구성
+     */
+    public RecommendationPanel() {
+        recommendationService = new RecommendationService(new RecipeDAOImpl(), new IngredientDAOImpl(), TOP_K);
+        nutritionIndex = NutritionIndex.getInstance();
+        setLayout(new BorderLayout());
+        setBackground(new Color(255, 245, 230));
+        setBorder(new EmptyBorder(20, 20, 20, 20));
+        initComponents();
+        loadIndex();
+    }
+
+    /**
+     * UI 컴포넌트 초기화 및 스타일 적용
+     */
+    private void initComponents() {
+        String[] columnNames = {"순위", "이름", "추천 점수", "평점", "재료 보유율", "즐겨찾기", "마지막 요리 일자"};
+        tableModel = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) { return false; }
+        };
+        recommendationTable = new JTable(tableModel);
+        recommendationTable.setFont(new Font("맑은 고딕", Font.PLAIN, 15));
+        recommendationTable.setRowHeight(28);
+        JTableHeader header = recommendationTable.getTableHeader();
+        header.setFont(new Font("맑은 고딕", Font.BOLD, 16));
+        header.setBackground(new Color(255, 230, 200));
+        header.setForeground(new Color(255, 140, 60));
+        // 하단 버튼 패널
+        JPanel buttonPanel = new JPanel();
+        refreshButton = new JButton("추천 새로 고침");
+        nutritionButton = new JButton("만들 수 있는 레시피");
+        for (JButton btn : new JButton[]{refreshButton, nutritionButton}) {
+            btn.setBackground(new Color(255, 180, 80));
+            btn.setForeground(Color.WHITE);
+            btn.setFont(new Font("맑은 고딕", Font.BOLD, 17));
+            btn.setBorder(BorderFactory.createLineBorder(new Color(255, 140, 60), 2, true));
+            btn.setFocusPainted(false);
+            btn.setOpaque(true);
+        }
+        refreshButton.addActionListener(e -> refresh());
+        nutritionButton.addActionListener(e -> showCookableUnder());
+        kcalSpinner = new JSpinner(new SpinnerNumberModel(600, 0, 10000, 50));
+        kcalSpinner.setFont(new Font("맑은 고딕", Font.PLAIN, 15));
+        statusLabel = new JLabel("추천 목록을 준비하는 중...");
+        buttonPanel.add(statusLabel);
+        buttonPanel.add(refreshButton);
+        buttonPanel.add(new JLabel("🥗"));
+        buttonPanel.add(kcalSpinner);
+        buttonPanel.add(new JLabel("kcal 이하"));
+        buttonPanel.add(nutritionButton);
+        add(new JScrollPane(recommendationTable), BorderLayout.CENTER);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * 추천 인덱스 최초 구성 (전체 레시피 점수 계산은 백그라운드)
+     */
+    private void loadIndex() {
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                recommendationService.load();
+                try {
+                    nutritionIndex.load(new RecipeDAOImpl(), new IngredientDAOImpl(), new NutritionDAOImpl());
+                } catch (RuntimeException e) {
+                    // 영양 인덱스가 없어도 추천 목록은 보여 주고, 실패 상태는 상태 표시줄에 남김
+                    nutritionError = "영양 정보를 불러오지 못했습니다: " + e.getMessage();
+                }
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    ready = true;
+                    refresh();
+                } catch (Exception e) {
+                    statusLabel.setText("추천 목록을 불러오지 못했습니다.");
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * 유지 중인 상위 추천 목록을 테이블에 표시
+     */
+    public void refresh() {
+        if (!ready) return;
+        tableModel.setRowCount(0);
+        List<Recommendation> recommendations = recommendationService.topK();
+        int rank = 1;
+        for (Recommendation recommendation : recommendations) {
+            CompactRecipe recipe = recommendation.getRecipe();
+            String rating = recipe.getRating() > 0 ? "★".repeat(recipe.getRating()) : "";
+            String coverage = Math.round(recommendation.getStockCoverage() * 100) + "%";
+            String lastCooked = recipe.hasBeenCooked()
+                ? dateFormat.format(new Date(recipe.getLastCookedAtMillis())) : "아직 요리하지 않음";
+            Object[] row = {rank++, recipe.getName(), String.format("%.2f", recommendation.getScore()),
+                rating, coverage, recipe.isFavorite() ? "♥" : "", lastCooked};
+            tableModel.addRow(row);
+        }
+        String status = "🍽 지금 요리하기 좋은 레시피 " + recommendations.size() + "개";
+        if (nutritionError != null) {
+            status += "  |  ⚠ " + nutritionError;
+        }
+        statusLabel.setText(status);
+    }
+
+    /**
+     * 열량이 입력값 이하이면서 지금 재고로 만들 수 있는 레시피 목록 (열량 오름차순)
+     * - 재료 중 영양 정보가 없는 레시피는 열량을 알 수 없어 빠짐
+     */
+    private void showCookableUnder() {
+        if (nutritionError != null) {
+            JOptionPane.showMessageDialog(this, nutritionError, "영양 정보 없음", JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        if (!nutritionIndex.isLoaded()) {
+            JOptionPane.showMessageDialog(this, "영양 정보를 준비하는 중입니다. 잠시 후 다시 시도하세요.");
+            return;
+        }
+        int maxKcal = (Integer) kcalSpinner.getValue();
+        int[] recipeIds = nutritionIndex.findAtMost(Nutrient.KCAL, (long) maxKcal * Nutrient.KCAL.getScale(), true);
+        String[] columnNames = new String[Nutrient.COUNT + 1];
+        columnNames[0] = "이름";
+        for (Nutrient nutrient : Nutrient.values()) {
+            columnNames[nutrient.ordinal() + 1] = nutrient.getLabel() + " (" + nutrient.getUnit() + ")";
+        }
+        DefaultTableModel resultModel = new DefaultTableModel(columnNames, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) { return false; }
+        };
+        List<long[]> totals = new ArrayList<>(recipeIds.length);
+        List<String> names = new ArrayList<>(recipeIds.length);
+        for (int recipeId : recipeIds) {
+            CompactRecipe recipe = nutritionIndex.getRecipe(recipeId);
+            long[] values = nutritionIndex.getTotals(recipeId);
+            if (recipe == null || values == null) continue; // 조회 사이에 삭제된 레시피
+            names.add(recipe.getName());
+            totals.add(values);
+        }
+        Integer[] order = new Integer[totals.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, Comparator.comparingLong(i -> totals.get(i)[Nutrient.KCAL.ordinal()]));
+        for (int i : order) {
+            Object[] row = new Object[Nutrient.COUNT + 1];
+            row[0] = names.get(i);
+            for (Nutrient nutrient : Nutrient.values()) {
+                row[nutrient.ordinal() + 1] = nutrient.formatValue(totals.get(i)[nutrient.ordinal()]);
+            }
+            resultModel.addRow(row);
+        }
+        JTable resultTable = new JTable(resultModel);
+        resultTable.setFont(new Font("맑은 고딕", Font.PLAIN, 15));
+        resultTable.setRowHeight(26);
+        JScrollPane scrollPane = new JScrollPane(resultTable);
+        scrollPane.setPreferredSize(new Dimension(640, 320));
+        JOptionPane.showMessageDialog(this, scrollPane,
+            "🥗 " + maxKcal + "kcal 이하, 지금 만들 수 있는 레시피 " + resultModel.getRowCount() + "개", JOptionPane.PLAIN_MESSAGE);
+    }
+}
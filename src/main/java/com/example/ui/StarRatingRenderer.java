@@ -0,0 +1,20 @@
+package com.example.ui;
+
+import javax.swing.table.DefaultTableCellRenderer;
+
+/**
+ * 평점 컬럼 렌더러 (숫자 1~5를 ★☆ 다섯 개로 표시)
+ * - 표시 문자열을 미리 만들어 두어 그릴 때마다 문자열을 만들지 않음
+ */
+class StarRatingRenderer extends DefaultTableCellRenderer {
+    private static final long serialVersionUID = 1L;
+    private static final String[] STARS = {"☆☆☆☆☆", "★☆☆☆☆", "★★☆☆☆", "★★★☆☆", "★★★★☆", "★★★★★"};
+
+    @Override
+    public void setValue(Object value) {
+        if (value instanceof Number) {
+            int rating = ((Number) value).intValue();
+            setText(STARS[Math.max(0, Math.min(5, rating))]);
+        } else setText("");
+    }
+}
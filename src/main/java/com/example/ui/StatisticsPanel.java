@@ -0,0 +1,207 @@
+package com.example.ui;
+
+import com.example.dao.CookingHistoryDAO;
+import com.example.dao.impl.CookingHistoryDAOImpl;
+import com.example.dao.impl.RecipeDAOImpl;
+import com.example.db.DatabaseConnection;
+import com.example.db.DbScheduler;
+import com.example.db.InstructionCodec;
+import com.example.db.QueryScope;
+import com.example.model.CookingEvent;
+import com.example.model.RollupCount;
+import com.example.model.RollupPeriod;
+import com.example.model.TextArena;
+import com.example.service.ThumbnailCache;
+import javax.swing.*;
+import javax.swing.border.EmptyBorder;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.JTableHeader;
+import java.awt.*;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * 요리 통계 대시보드 패널
+ * - 이번 달 많이 만든 요리, 이번 주 재료 소비량, 최근 요리 기록을 표시
+ * - 모든 수치는 증분 유지되는 집계 테이블에서 읽으므로 기록이 쌓여도 조회 비용이 늘지 않음
+ */
+public class StatisticsPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+    private final CookingHistoryDAO cookingHistoryDAO;
+    // UI 컴포넌트
+    private DefaultTableModel mostCookedModel, consumptionModel, recentModel;
+    private JTextField ingredientField;
+    private JComboBox<RollupPeriod> periodCombo;
+    private JLabel consumptionLabel;
+    private JLabel cacheLabel; // 레시피 조회 캐시 / 읽기 분배 / 쿼리 시간 제한 / 썸네일 캐시 지표
+    private QueryScope refreshScope; // 진행 중인 새로 고침 (탭을 떠나거나 다시 새로 고치면 취소)
+    private final SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+
+    /**
+     * 생성자 - DAO 초기화 및 UI 세팅 (데이터는 탭을 열 때 불러옴)
+     */
+    public StatisticsPanel() {
+        cookingHistoryDAO = new CookingHistoryDAOImpl();
+        setLayout(new BorderLayout(12, 12));
+        setBackground(new Color(255, 245, 230));
+        setBorder(new EmptyBorder(20, 20, 20, 20));
+        initComponents();
+    }
+
+    /**
+     * UI 컴포넌트 초기화 및 스타일 적용
+     */
+    private void initComponents() {
+        mostCookedModel = createModel("레시피", "횟수");
+        consumptionModel = createModel("재료", "소비량");
+        recentModel = createModel("요리 일시", "레시피", "사용 재료");
+        JPanel tablesPanel = new JPanel(new GridLayout(1, 3, 12, 12));
+        tablesPanel.add(createSection("🏆 이번 달 가장 많이 만든 요리", mostCookedModel));
+        tablesPanel.add(createSection("🥕 이번 주 재료 소비", consumptionModel));
+        tablesPanel.add(createSection("🕒 최근 요리 기록", recentModel));
+        add(tablesPanel, BorderLayout.CENTER);
+        cacheLabel = new JLabel(" ");
+        cacheLabel.setFont(new Font("맑은 고딕", Font.PLAIN, 13));
+        cacheLabel.setForeground(Color.GRAY);
+        add(cacheLabel, BorderLayout.NORTH);
+        // 하단: 재료별 기간 소비량 조회
+        JPanel queryPanel = new JPanel();
+        ingredientField = new JTextField(10);
+        ingredientField.setFont(new Font("맑은 고딕", Font.PLAIN, 15));
+        periodCombo = new JComboBox<>(RollupPeriod.values());
+        periodCombo.setSelectedItem(RollupPeriod.WEEK);
+        periodCombo.setRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+                if (value instanceof RollupPeriod) setText("이번 " + ((RollupPeriod) value).getLabel());
+                return this;
+            }
+        });
+        JButton queryButton = new JButton("소비량 조회");
+        queryButton.setBackground(new Color(255, 180, 80));
+        queryButton.setForeground(Color.WHITE);
+        queryButton.setFont(new Font("맑은 고딕", Font.BOLD, 15));
+        queryButton.setBorder(BorderFactory.createLineBorder(new Color(255, 140, 60), 2, true));
+        queryButton.setFocusPainted(false);
+        queryButton.setOpaque(true);
+        queryButton.addActionListener(e -> queryConsumption());
+        consumptionLabel = new JLabel(" ");
+        queryPanel.add(new JLabel("재료:"));
+        queryPanel.add(ingredientField);
+        queryPanel.add(periodCombo);
+        queryPanel.add(queryButton);
+        queryPanel.add(consumptionLabel);
+        add(queryPanel, BorderLayout.SOUTH);
+    }
+
+    private DefaultTableModel createModel(String... columns) {
+        return new DefaultTableModel(columns, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) { return false; }
+        };
+    }
+
+    private JPanel createSection(String title, DefaultTableModel model) {
+        JTable table = new JTable(model);
+        table.setFont(new Font("맑은 고딕", Font.PLAIN, 14));
+        table.setRowHeight(26);
+        JTableHeader header = table.getTableHeader();
+        header.setFont(new Font("맑은 고딕", Font.BOLD, 15));
+        header.setBackground(new Color(255, 230, 200));
+        header.setForeground(new Color(255, 140, 60));
+        JLabel titleLabel = new JLabel(title);
+        titleLabel.setFont(new Font("맑은 고딕", Font.BOLD, 16));
+        titleLabel.setForeground(new Color(255, 140, 60));
+        JPanel section = new JPanel(new BorderLayout(4, 4));
+        section.add(titleLabel, BorderLayout.NORTH);
+        section.add(new JScrollPane(table), BorderLayout.CENTER);
+        return section;
+    }
+
+    /**
+     * 집계 테이블에서 대시보드 데이터 새로 고침 (백그라운드)
+     */
+    public void refresh() {
+        cacheLabel.setText(RecipeDAOImpl.getQueryCache() + "  |  " + DatabaseConnection.getInstance().getReadRoutingStats()
+            + "  |  " + QueryScope.getStats() + "  |  " + ThumbnailCache.getInstance().getStats());
+        List<String> details = new ArrayList<>(QueryScope.getStatsByOperation());
+        details.add(RecipeDAOImpl.getInstructionCache().toString());
+        details.add(InstructionCodec.getStats());
+        details.add(TextArena.getStats());
+        details.add(RecipeDAOImpl.getUsageIndexStats());
+        details.addAll(DbScheduler.getInstance().getStatsByPriority());
+        cacheLabel.setToolTipText("<html>" + String.join("<br>", details) + "</html>");
+        cancelRefresh();
+        QueryScope scope = QueryScope.open("statistics.refresh");
+        refreshScope = scope;
+        new SwingWorker<Object[], Void>() {
+            @Override
+            @SuppressWarnings("try")
+            protected Object[] doInBackground() {
+                LocalDate today = LocalDate.now();
+                // 세 조회가 하나의 시간 예산을 나눠 씀 (집계 조회는 일반 우선순위로)
+                try (QueryScope ignored = scope;
+                     DbScheduler.Scope priority = DbScheduler.withPriority(DbScheduler.Priority.NORMAL)) {
+                    return scope.run(() -> new Object[]{
+                        cookingHistoryDAO.findMostCooked(RollupPeriod.MONTH, today, 10),
+                        cookingHistoryDAO.findTopConsumption(RollupPeriod.WEEK, today, 10),
+                        cookingHistoryDAO.findRecentEvents(15)
+                    });
+                }
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            protected void done() {
+                if (scope != refreshScope || scope.isCancelled()) return; // 탭을 떠났거나 더 새로운 조회가 있음
+                try {
+                    Object[] result = get();
+                    fillCounts(mostCookedModel, (List<RollupCount>) result[0]);
+                    fillCounts(consumptionModel, (List<RollupCount>) result[1]);
+                    recentModel.setRowCount(0);
+                    for (CookingEvent event : (List<CookingEvent>) result[2]) {
+                        String items = event.getDeductions().entrySet().stream()
+                            .map(e -> e.getKey() + "(" + e.getValue() + ")")
+                            .collect(Collectors.joining(", "));
+                        recentModel.addRow(new Object[]{dateFormat.format(event.getCookedAt()),
+                            event.getRecipeName() == null ? "(삭제된 레시피)" : event.getRecipeName(), items});
+                    }
+                } catch (Exception e) {
+                    consumptionLabel.setText(scope.isTimedOut() ? "통계 조회가 너무 오래 걸려 중단했습니다." : "통계를 불러오지 못했습니다.");
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * 진행 중인 새로 고침 취소 (다른 탭으로 이동할 때)
+     */
+    public void cancelRefresh() {
+        if (refreshScope != null) {
+            refreshScope.cancel();
+        }
+    }
+
+    private void fillCounts(DefaultTableModel model, List<RollupCount> counts) {
+        model.setRowCount(0);
+        for (RollupCount count : counts) {
+            model.addRow(new Object[]{count.getLabel(), count.getCount()});
+        }
+    }
+
+    /**
+     * 재료 하나의 이번 일/주/월 소비량 조회
+     */
+    private void queryConsumption() {
+        String name = ingredientField.getText().trim();
+        if (name.isEmpty()) return;
+        RollupPeriod period = (RollupPeriod) periodCombo.getSelectedItem();
+        long consumed = cookingHistoryDAO.findConsumption(name, period, LocalDate.now());
+        consumptionLabel.setText(name + " 이번 " + period.getLabel() + " 소비량: " + consumed);
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.ui;
+
+import javax.swing.JTable;
+import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableModel;
+import java.awt.Color;
+import java.awt.Component;
+
+/**
+ * 줄무늬 배경 목록 테이블 (레시피/재료 패널 공용)
+ * - 행 배경색은 상수를 재사용하므로 셀을 그릴 때 Color 객체를 만들지 않음
+ * - 정렬/검색으로 화면 행과 모델 행이 달라도 getSelectedModelRow()로 선택한 모델 행을 얻음
+ */
+class StripedTable extends JTable {
+    private static final long serialVersionUID = 1L;
+    static final Color EVEN_ROW = new Color(255, 255, 240);
+    static final Color ODD_ROW = new Color(255, 240, 220);
+    static final Color SELECTED_ROW = new Color(255, 220, 180);
+
+    StripedTable(TableModel model) {
+        super(model);
+    }
+
+    // 행별 배경색 지정
+    @Override
+    public Component prepareRenderer(TableCellRenderer renderer, int row, int column) {
+        Component c = super.prepareRenderer(renderer, row, column);
+        c.setBackground(isRowSelected(row) ? SELECTED_ROW : row % 2 == 0 ? EVEN_ROW : ODD_ROW);
+        return c;
+    }
+
+    /** 선택한 행의 모델 행 번호 (선택이 없으면 -1) */
+    int getSelectedModelRow() {
+        int row = getSelectedRow();
+        return row < 0 ? -1 : convertRowIndexToModel(row);
+    }
+
+    /** 선택한 모든 행의 모델 행 번호 */
+    int[] getSelectedModelRows() {
+        int[] rows = getSelectedRows();
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = convertRowIndexToModel(rows[i]);
+        }
+        return rows;
+    }
+}
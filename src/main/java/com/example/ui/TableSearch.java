@@ -0,0 +1,189 @@
+package com.example.ui;
+
+import javax.swing.JTable;
+import javax.swing.JTextField;
+import javax.swing.RowFilter;
+import javax.swing.SwingWorker;
+import javax.swing.Timer;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+import javax.swing.event.TableModelEvent;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableRowSorter;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Vector;
+import java.util.function.IntPredicate;
+
+/**
+ * 목록 테이블 정렬/검색
+ * - 테이블에 TableRowSorter를 달고, 모든 컬럼을 값의 자연 순서로 정렬 (이름은 CollatedText의 미리 만든 CollationKey,
+ *   숫자는 숫자 크기) - 기본 정렬처럼 셀마다 toString + Collator.compare를 반복하지 않음
+ * - 검색어가 바뀌면 EDT에서는 행 참조 배열만 복사하고, 포함 여부 계산은 백그라운드(SwingWorker)에서 해서
+ *   결과 BitSet을 RowFilter로 적용 (EDT에서는 행마다 비트 하나만 확인)
+ * - 계산 뒤 끝에 추가된 행(스트리밍 로드 중)은 그 행만 EDT에서 직접 비교하고, 행 삭제/수정이 있으면 다시 계산을 예약
+ * - 입력 중에는 마지막 입력 후 FILTER_DELAY ms가 지나야 검색하며, 늦게 끝난 이전 계산 결과는 버림
+ * - 검색어와 별도로 행 조건(예: 즐겨찾기만)을 걸 수 있으며, 조건은 메모리 값만 보는 빠른 검사여야 함
+ */
+final class TableSearch {
+    private static final int FILTER_DELAY = 150;
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<Object> NATURAL_ORDER = (a, b) -> {
+        if (a == b) return 0;
+        if (a == null) return -1;
+        if (b == null) return 1;
+        if (a instanceof Comparable && a.getClass() == b.getClass()) return ((Comparable) a).compareTo(b);
+        return a.toString().compareTo(b.toString());
+    };
+
+    private final DefaultTableModel model;
+    private final TableRowSorter<DefaultTableModel> sorter;
+    private final int[] columns;
+    private final JTextField field = new JTextField(16);
+    private final Timer delay;
+    private String query = "";
+    // 검색어와 함께 적용할 모델 행 조건 (없으면 null)
+    private IntPredicate condition;
+    // 백그라운드 계산 결과 (모델 행 번호 기준, computedRows 행까지 유효)
+    private BitSet matches = new BitSet();
+    private int computedRows;
+    private long computedStamp = -1;
+    // 행 삭제/수정 때마다 증가 (끝에 추가는 제외)
+    private long modelStamp;
+    private int generation;
+
+    private final RowFilter<DefaultTableModel, Integer> filter = new RowFilter<DefaultTableModel, Integer>() {
+        @Override
+        public boolean include(Entry<? extends DefaultTableModel, ? extends Integer> entry) {
+            int row = entry.getIdentifier();
+            if (condition != null && !condition.test(row)) return false;
+            if (query.isEmpty()) return true;
+            if (computedStamp == modelStamp && row < computedRows) return matches.get(row);
+            return rowMatches(row, query);
+        }
+    };
+
+    /**
+     * @param searchColumns 검색어를 찾을 모델 컬럼
+     */
+    TableSearch(JTable table, DefaultTableModel model, int... searchColumns) {
+        this.model = model;
+        this.columns = searchColumns;
+        sorter = new TableRowSorter<>(model);
+        for (int column = 0; column < model.getColumnCount(); column++) {
+            sorter.setComparator(column, NATURAL_ORDER);
+        }
+        // 셀이 바뀌면(예: 원가 갱신) 정렬도 다시 맞춤 - 갱신하는 쪽은 묶어서 알림 한 번만 보냄
+        sorter.setSortsOnUpdates(true);
+        table.setRowSorter(sorter);
+        delay = new Timer(FILTER_DELAY, e -> refilter());
+        delay.setRepeats(false);
+        field.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) { delay.restart(); }
+            @Override
+            public void removeUpdate(DocumentEvent e) { delay.restart(); }
+            @Override
+            public void changedUpdate(DocumentEvent e) { delay.restart(); }
+        });
+        model.addTableModelListener(e -> {
+            boolean appended = e.getType() == TableModelEvent.INSERT && e.getFirstRow() >= computedRows;
+            if (!appended) {
+                modelStamp++;
+                if (!query.isEmpty()) delay.restart();
+            }
+        });
+    }
+
+    /** 검색어 입력 칸 */
+    JTextField getField() {
+        return field;
+    }
+
+    /** 테이블에 단 정렬기 (정렬 변경 알림 등록용) */
+    TableRowSorter<DefaultTableModel> getSorter() {
+        return sorter;
+    }
+
+    /**
+     * 검색어 설정 (입력 칸을 거치지 않고 바로 계산 시작)
+     */
+    void setQuery(String text) {
+        field.setText(text);
+        delay.stop();
+        refilter();
+    }
+
+    /**
+     * 모델 행 번호를 받는 행 조건 설정 (null이면 해제, 바로 다시 거름)
+     */
+    void setCondition(IntPredicate modelRowCondition) {
+        condition = modelRowCondition;
+        sorter.setRowFilter(condition == null && query.isEmpty() ? null : filter);
+    }
+
+    // 현재 입력으로 백그라운드 계산 시작 (EDT)
+    private void refilter() {
+        String text = field.getText().trim();
+        int current = ++generation;
+        if (text.isEmpty()) {
+            query = "";
+            sorter.setRowFilter(condition == null ? null : filter);
+            return;
+        }
+        long stamp = modelStamp;
+        // 행 Vector 참조만 한 번에 복사 (셀 값은 백그라운드에서 읽고, 그사이 행이 바뀌면 stamp로 걸러짐)
+        Object[] rowData = model.getDataVector().toArray();
+        int rows = rowData.length;
+        new SwingWorker<BitSet, Void>() {
+            @Override
+            protected BitSet doInBackground() {
+                BitSet result = new BitSet(rows);
+                for (int row = 0; row < rows; row++) {
+                    Vector<?> cells = (Vector<?>) rowData[row];
+                    for (int column : columns) {
+                        Object value = cells.get(column);
+                        if (value != null && containsIgnoreCase(value.toString(), text)) {
+                            result.set(row);
+                            break;
+                        }
+                    }
+                }
+                return result;
+            }
+
+            @Override
+            protected void done() {
+                if (current != generation) return; // 더 새 검색이 시작됨
+                try {
+                    matches = get();
+                } catch (Exception e) {
+                    return;
+                }
+                computedRows = rows;
+                computedStamp = stamp;
+                query = text;
+                sorter.setRowFilter(filter);
+                if (stamp != modelStamp) delay.restart(); // 계산 중에 모델이 바뀜
+            }
+        }.execute();
+    }
+
+    // 한 행을 EDT에서 직접 비교 (계산 뒤 추가된 행)
+    private boolean rowMatches(int row, String text) {
+        for (int column : columns) {
+            Object value = model.getValueAt(row, column);
+            if (value != null && containsIgnoreCase(value.toString(), text)) return true;
+        }
+        return false;
+    }
+
+    /** 대소문자 구분 없이 포함 여부 (새 문자열을 만들지 않음) */
+    static boolean containsIgnoreCase(String text, String needle) {
+        int last = text.length() - needle.length();
+        for (int i = 0; i <= last; i++) {
+            if (text.regionMatches(true, i, needle, 0, needle.length())) return true;
+        }
+        return false;
+    }
+}
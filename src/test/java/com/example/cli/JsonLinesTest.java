@@ -0,0 +1,61 @@
+package com.example.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * JsonLinesTest
+ * - 문자열 이스케이프와 숫자/중첩 값 표기
+ */
+class JsonLinesTest {
+
+    @Test
+    void escapesStrings() {
+        assertEquals("{\"s\":\"계란 \\\"말이\\\" \\\\ 끝\"}\n", line("s", "계란 \"말이\" \\ 끝"));
+        assertEquals("{\"s\":\"밥을 볶는다\\n끝\\r\\t.\"}\n", line("s", "밥을 볶는다\n끝\r\t."));
+        assertEquals("{\"s\":\"\\u0001\\u001f \"}\n", line("s", "\u0001\u001f "));
+    }
+
+    @Test
+    void writesNumbersWithoutExponentOrTrailingZeros() {
+        assertEquals("{\"n\":1.5}\n", line("n", 1.50));
+        assertEquals("{\"n\":1000000}\n", line("n", 1e6));
+        assertEquals("{\"n\":null}\n", line("n", Double.NaN));
+        assertEquals("{\"n\":null}\n", line("n", Double.POSITIVE_INFINITY));
+        assertEquals("{\"n\":0.120}\n", line("n", new BigDecimal("0.120")));
+        assertEquals("{\"n\":42}\n", line("n", 42L));
+    }
+
+    @Test
+    void writesNestedValuesInOrder() {
+        Map<String, Object> inner = new LinkedHashMap<>();
+        inner.put("김치", 2);
+        inner.put("ok", true);
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("type", "recipe");
+        row.put("ingredients", inner);
+        row.put("tags", Arrays.asList("a", null, 3));
+        assertEquals("{\"type\":\"recipe\",\"ingredients\":{\"김치\":2,\"ok\":true},\"tags\":[\"a\",null,3]}\n", write(row));
+    }
+
+    private static String line(String key, Object value) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put(key, value);
+        return write(row);
+    }
+
+    private static String write(Map<String, Object> row) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JsonLines out = new JsonLines(bytes);
+        out.write(row);
+        out.flush();
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
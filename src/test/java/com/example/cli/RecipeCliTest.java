@@ -0,0 +1,99 @@
+package com.example.cli;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.dao.IngredientDAO;
+import com.example.dao.RecipeDAO;
+import com.example.model.Ingredient;
+import com.example.model.Recipe;
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+/**
+ * RecipeCliTest
+ * - 명령 줄 나누기(따옴표, 이스케이프)와 명령 실행 결과 줄
+ * - DAO는 호출만 기록하는 스텁
+ */
+class RecipeCliTest {
+
+    @Test
+    void tokenizeSplitsOnWhitespace() {
+        assertEquals(Arrays.asList("list", "recipes"), RecipeCli.tokenize("  list \t recipes  "));
+        assertEquals(Collections.emptyList(), RecipeCli.tokenize("   "));
+    }
+
+    @Test
+    void tokenizeKeepsQuotedWhitespace() {
+        assertEquals(Arrays.asList("add", "ingredient", "name=양파 링", "quantity=3"),
+            RecipeCli.tokenize("add ingredient name=\"양파 링\" quantity=3"));
+        assertEquals(Arrays.asList("note=작은 \"따옴표\""), RecipeCli.tokenize("note='작은 \"따옴표\"'"));
+        assertEquals(Arrays.asList("a", ""), RecipeCli.tokenize("a \"\""));
+    }
+
+    @Test
+    void tokenizeUnescapesInsideDoubleQuotesOnly() {
+        assertEquals(Arrays.asList("instructions=밥을 볶는다\n끝"), RecipeCli.tokenize("instructions=\"밥을 볶는다\\n끝\""));
+        assertEquals(Arrays.asList("x=\"a\\b"), RecipeCli.tokenize("x=\"\\\"a\\\\b\""));
+        assertEquals(Arrays.asList("x=a\\nb"), RecipeCli.tokenize("x='a\\nb'"));
+    }
+
+    @Test
+    void tokenizeRejectsUnclosedQuote() {
+        RecipeCli.CommandException e = assertThrows(RecipeCli.CommandException.class,
+            () -> RecipeCli.tokenize("add recipe name=\"김치"));
+        assertEquals("따옴표가 닫히지 않았습니다.", e.getMessage());
+    }
+
+    @Test
+    void runWritesOneResultLinePerCommand() {
+        List<String> calls = new ArrayList<>();
+        List<Recipe> saved = new ArrayList<>();
+        RecipeDAO recipeDAO = (RecipeDAO) Proxy.newProxyInstance(RecipeDAO.class.getClassLoader(),
+            new Class<?>[]{RecipeDAO.class}, (proxy, method, args) -> {
+                if (method.getName().equals("save")) {
+                    Recipe recipe = (Recipe) args[0];
+                    recipe.setId(7);
+                    saved.add(recipe);
+                }
+                return null;
+            });
+        IngredientDAO ingredientDAO = (IngredientDAO) Proxy.newProxyInstance(IngredientDAO.class.getClassLoader(),
+            new Class<?>[]{IngredientDAO.class}, (proxy, method, args) -> {
+                if (method.getName().equals("save")) ((Ingredient) args[0]).setId(3);
+                calls.add(method.getName() + Arrays.toString(args));
+                return null;
+            });
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        RecipeCli cli = new RecipeCli(recipeDAO, ingredientDAO, new JsonLines(bytes));
+
+        assertTrue(cli.run("add ingredient name=\"양파 링\" quantity=3 price=1,250.5"));
+        assertEquals("updateUnitPrice[3, 125050]", calls.get(1));
+
+        assertTrue(cli.run("add recipe name=볶음밥 instructions=\"밥을 볶는다\\n끝\" ingredients=밥:1,양파:2"));
+        Recipe recipe = saved.get(0);
+        assertEquals("밥을 볶는다\n끝", recipe.getInstructions());
+        assertEquals(Map.of("밥", 1, "양파", 2), recipe.getRequiredIngredientNames());
+
+        assertFalse(cli.run("bogus command"));
+        assertFalse(cli.run("favorite id=2 rating=9"));
+        assertFalse(cli.run("add recipe name=\"김치"));
+
+        String[] lines = new String(bytes.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].startsWith("{\"type\":\"result\",\"command\":\"add ingredient name=\\\"양파 링\\\" quantity=3 price=1,250.5\",\"ok\":true,\"id\":3,"));
+        assertTrue(lines[1].contains("\"ok\":true,\"id\":7,"));
+        assertTrue(lines[2].contains("\"ok\":false,\"error\":\"알 수 없는 명령입니다: bogus command\""));
+        assertTrue(lines[3].contains("\"error\":\"평점은 1에서 5 사이여야 합니다.\""));
+        assertTrue(lines[4].contains("\"error\":\"따옴표가 닫히지 않았습니다.\""));
+    }
+}
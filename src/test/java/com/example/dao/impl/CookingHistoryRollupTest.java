@@ -0,0 +1,181 @@
+package com.example.dao.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.db.DatabaseConnection;
+import com.example.db.FakeDriver;
+import com.example.model.RollupCount;
+import com.example.model.RollupPeriod;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * CookingHistoryRollupTest
+ * - 요리 기록을 추가할 때 늘린 일/주/월 집계가 기록 전체를 다시 센 결과와 같은지 확인
+ * - 집계 테이블은 (기간, 시작일, 키) → 값 Map으로 흉내 내고 INSERT ... ON DUPLICATE KEY UPDATE는 더하기로 처리
+ * - 주는 월요일, 월은 1일에 시작 (주/월 경계를 넘는 90일치 무작위 기록)
+ */
+class CookingHistoryRollupTest {
+    private static final String[] NAMES = {"간장", "대파", "두부", "마늘", "버섯", "양파", "계란", "쌀"};
+    private static final LocalDate FIRST_DAY = LocalDate.of(2026, 1, 20);
+    // "기간|시작일|레시피 id" → 횟수, "기간|시작일|재료 이름" → 소비량
+    private static final Map<String, Long> RECIPE_ROLLUPS = Collections.synchronizedMap(new HashMap<>());
+    private static final Map<String, Long> INGREDIENT_ROLLUPS = Collections.synchronizedMap(new HashMap<>());
+
+    // 다시 세기용 원본 기록
+    private static final List<LocalDate> EVENT_DAYS = new ArrayList<>();
+    private static final List<Integer> EVENT_RECIPES = new ArrayList<>();
+    private static final List<Map<String, Integer>> EVENT_ITEMS = new ArrayList<>();
+
+    @BeforeAll
+    static void recordRandomCooks() throws SQLException {
+        FakeDriver.install(new FakeDriver.Handler() {
+            @Override
+            public List<Map<String, Object>> query(String sql, List<Object> params) {
+                List<Map<String, Object>> rows = new ArrayList<>();
+                if (sql.startsWith("SELECT consumed_quantity")) {
+                    Long value = INGREDIENT_ROLLUPS.get(params.get(0) + "|" + params.get(1) + "|" + params.get(2));
+                    if (value != null) rows.add(FakeDriver.row("consumed_quantity", value));
+                } else if (sql.startsWith("SELECT ingredient_name, consumed_quantity")) {
+                    top(INGREDIENT_ROLLUPS, params).forEach(e -> rows.add(
+                        FakeDriver.row("ingredient_name", e.getKey(), "consumed_quantity", e.getValue())));
+                } else if (sql.startsWith("SELECT r.name, c.cook_count")) {
+                    top(RECIPE_ROLLUPS, params).forEach(e -> rows.add(
+                        FakeDriver.row("name", "레시피" + e.getKey(), "cook_count", e.getValue())));
+                } else if (sql.startsWith("SELECT ingredient_name, SUM(consumed_quantity)")) {
+                    Map<String, Long> totals = new TreeMap<>();
+                    synchronized (INGREDIENT_ROLLUPS) {
+                        INGREDIENT_ROLLUPS.forEach((key, value) -> {
+                            String[] parts = key.split("\\|");
+                            if (parts[0].equals(params.get(0)) && !LocalDate.parse(parts[1]).isBefore((LocalDate) params.get(1))) {
+                                totals.merge(parts[2], value, Long::sum);
+                            }
+                        });
+                    }
+                    totals.forEach((name, total) -> rows.add(FakeDriver.row("ingredient_name", name, "total", total)));
+                }
+                return rows;
+            }
+
+            @Override
+            public int update(String sql, List<Object> params) {
+                if (!sql.contains("_rollups")) return 1;
+                String key = params.get(0) + "|" + params.get(1) + "|" + params.get(2);
+                if (sql.startsWith("INSERT INTO recipe_cook_rollups")) {
+                    RECIPE_ROLLUPS.merge(key, 1L, Long::sum);
+                } else if (sql.startsWith("INSERT INTO ingredient_consumption_rollups")) {
+                    INGREDIENT_ROLLUPS.merge(key, ((Number) params.get(3)).longValue(), Long::sum);
+                }
+                return 1;
+            }
+        });
+
+        CookingHistoryDAOImpl dao = new CookingHistoryDAOImpl();
+        Random random = new Random(30);
+        try (Connection conn = DatabaseConnection.getInstance().getConnection()) {
+            for (int i = 0; i < 600; i++) {
+                LocalDate day = FIRST_DAY.plusDays(random.nextInt(90));
+                int recipeId = 1 + random.nextInt(15);
+                Map<String, Integer> items = new LinkedHashMap<>();
+                for (int k = random.nextInt(4); k >= 0; k--) {
+                    items.merge(NAMES[random.nextInt(NAMES.length)], 1 + random.nextInt(50), Integer::sum);
+                }
+                dao.recordCook(conn, recipeId, Timestamp.valueOf(day.atTime(random.nextInt(24), 30)), items);
+                EVENT_DAYS.add(day);
+                EVENT_RECIPES.add(recipeId);
+                EVENT_ITEMS.add(items);
+            }
+        }
+    }
+
+    @Test
+    void periodStartsOnMondayAndFirstOfMonth() {
+        LocalDate sunday = LocalDate.of(2026, 3, 1);
+        assertEquals(LocalDate.of(2026, 2, 23), RollupPeriod.WEEK.startOf(sunday));
+        assertEquals(LocalDate.of(2026, 3, 2), RollupPeriod.WEEK.startOf(sunday.plusDays(1)));
+        assertEquals(LocalDate.of(2026, 3, 1), RollupPeriod.MONTH.startOf(LocalDate.of(2026, 3, 31)));
+        assertEquals(sunday, RollupPeriod.DAY.startOf(sunday));
+    }
+
+    @Test
+    void rollupsMatchRecountOfEveryEvent() {
+        CookingHistoryDAOImpl dao = new CookingHistoryDAOImpl();
+        for (RollupPeriod period : RollupPeriod.values()) {
+            for (int offset = 0; offset < 90; offset += 3) {
+                LocalDate date = FIRST_DAY.plusDays(offset);
+                Map<String, Long> consumed = new TreeMap<>();
+                Map<Integer, Long> cooked = new TreeMap<>();
+                for (int i = 0; i < EVENT_DAYS.size(); i++) {
+                    if (!period.startOf(EVENT_DAYS.get(i)).equals(period.startOf(date))) continue;
+                    cooked.merge(EVENT_RECIPES.get(i), 1L, Long::sum);
+                    EVENT_ITEMS.get(i).forEach((name, quantity) -> consumed.merge(name, (long) quantity, Long::sum));
+                }
+                for (String name : NAMES) {
+                    assertEquals(consumed.getOrDefault(name, 0L), dao.findConsumption(name, period, date),
+                        period + " " + date + " " + name);
+                }
+                assertEquals(top(consumed), counts(dao.findTopConsumption(period, date, 3)), period + " " + date);
+                Map<String, Long> cookedByName = cooked.entrySet().stream()
+                    .collect(Collectors.toMap(e -> "레시피" + e.getKey(), Map.Entry::getValue));
+                assertEquals(top(cookedByName).keySet().size(), dao.findMostCooked(period, date, 3).size());
+                for (RollupCount count : dao.findMostCooked(period, date, 3)) {
+                    assertEquals(cookedByName.get(count.getLabel()), count.getCount(), count.getLabel());
+                }
+            }
+        }
+    }
+
+    @Test
+    void consumptionSinceSumsDailyRows() {
+        CookingHistoryDAOImpl dao = new CookingHistoryDAOImpl();
+        LocalDate from = FIRST_DAY.plusDays(45);
+        Map<String, Long> expected = new TreeMap<>();
+        for (int i = 0; i < EVENT_DAYS.size(); i++) {
+            if (EVENT_DAYS.get(i).isBefore(from)) continue;
+            EVENT_ITEMS.get(i).forEach((name, quantity) -> expected.merge(name, (long) quantity, Long::sum));
+        }
+        assertEquals(expected, new TreeMap<>(dao.findConsumptionSince(from)));
+    }
+
+    // 집계 Map에서 (기간, 시작일)이 맞는 행을 값 내림차순으로 limit개
+    private static List<Map.Entry<String, Long>> top(Map<String, Long> rollups, List<Object> params) {
+        String prefix = params.get(0) + "|" + params.get(1) + "|";
+        List<Map.Entry<String, Long>> rows = new ArrayList<>();
+        synchronized (rollups) {
+            rollups.forEach((key, value) -> {
+                if (key.startsWith(prefix)) rows.add(Map.entry(key.substring(prefix.length()), value));
+            });
+        }
+        rows.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        return rows.subList(0, Math.min(rows.size(), (Integer) params.get(2)));
+    }
+
+    // 다시 센 결과의 상위 3개 (동률은 이름 순, 가짜 DB와 같은 규칙)
+    private static Map<String, Long> top(Map<String, Long> counts) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        counts.entrySet().stream()
+            .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+            .limit(3)
+            .forEach(e -> result.put(e.getKey(), e.getValue()));
+        return result;
+    }
+
+    private static Map<String, Long> counts(List<RollupCount> rows) {
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (RollupCount row : rows) result.put(row.getLabel(), row.getCount());
+        return result;
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.dao.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.db.FakeDriver;
+import com.example.model.Recipe;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * IngredientMergeTest
+ * - 재료 합치기: 재고 합산, recipe_ingredients 이름 변경(같은 레시피에 있으면 수량 합산), 역인덱스 반영
+ * - 바뀐 레시피는 레시피마다가 아니라 IN 조회 한 번으로 다시 읽음
+ */
+class IngredientMergeTest {
+    // 레시피 id → (재료 이름 → 필요 수량)
+    private static final Map<Integer, Map<String, Integer>> RECIPES = Collections.synchronizedMap(new TreeMap<>());
+    // 재료 이름 → {id, 보유 수량, 단가}
+    private static final Map<String, long[]> INGREDIENTS = Collections.synchronizedMap(new LinkedHashMap<>());
+    private static final AtomicInteger REREADS = new AtomicInteger();
+
+    @BeforeAll
+    static void installDriver() {
+        FakeDriver.install(new FakeDriver.Handler() {
+            @Override
+            public List<Map<String, Object>> query(String sql, List<Object> params) {
+                List<Map<String, Object>> rows = new ArrayList<>();
+                synchronized (RECIPES) {
+                    if (sql.startsWith("SELECT recipe_id, ingredient_name")) {
+                        RECIPES.forEach((id, uses) -> uses.forEach((name, quantity) ->
+                            rows.add(FakeDriver.row("recipe_id", id, "ingredient_name", name, "required_quantity", quantity))));
+                    } else if (sql.startsWith("SELECT r.id") && sql.contains("WHERE r.id IN")) {
+                        REREADS.incrementAndGet();
+                        for (Object id : params) {
+                            Map<String, Integer> uses = RECIPES.get((Integer) id);
+                            if (uses == null) continue;
+                            uses.forEach((name, quantity) -> rows.add(FakeDriver.row("id", id, "name", "레시피" + id,
+                                "ri_name", name, "ri_quantity", quantity)));
+                        }
+                    } else if (sql.startsWith("SELECT r.id")) {
+                        for (int id : RECIPES.keySet()) rows.add(FakeDriver.row("id", id, "name", "레시피" + id));
+                    } else if (sql.contains("FOR UPDATE")) {
+                        for (Object name : params) {
+                            long[] ingredient = INGREDIENTS.get((String) name);
+                            if (ingredient == null) continue;
+                            rows.add(FakeDriver.row("id", (int) ingredient[0], "name", name,
+                                "available_quantity", (int) ingredient[1], "unit_price", ingredient[2]));
+                        }
+                    }
+                }
+                return rows;
+            }
+
+            @Override
+            public int update(String sql, List<Object> params) throws SQLException {
+                synchronized (RECIPES) {
+                    if (sql.startsWith("UPDATE recipe_ingredients tgt")) {
+                        String source = (String) params.get(0);
+                        String target = (String) params.get(1);
+                        for (Map<String, Integer> uses : RECIPES.values()) {
+                            if (uses.containsKey(source) && uses.containsKey(target)) uses.merge(target, uses.get(source), Integer::sum);
+                        }
+                    } else if (sql.startsWith("DELETE src FROM recipe_ingredients")) {
+                        String target = (String) params.get(0);
+                        String source = (String) params.get(1);
+                        for (Map<String, Integer> uses : RECIPES.values()) {
+                            if (uses.containsKey(target)) uses.remove(source);
+                        }
+                    } else if (sql.startsWith("UPDATE recipe_ingredients SET ingredient_name")) {
+                        String target = (String) params.get(0);
+                        String source = (String) params.get(1);
+                        for (Map<String, Integer> uses : RECIPES.values()) {
+                            if (!uses.containsKey(source)) continue;
+                            // (recipe_id, ingredient_name) 기본 키
+                            if (uses.containsKey(target)) throw new SQLException("Duplicate entry", "23000");
+                            uses.put(target, uses.remove(source));
+                        }
+                    } else if (sql.startsWith("UPDATE ingredients SET available_quantity")) {
+                        for (long[] ingredient : INGREDIENTS.values()) {
+                            if (ingredient[0] == (Integer) params.get(2)) {
+                                ingredient[1] = (Integer) params.get(0);
+                                ingredient[2] = (Long) params.get(1);
+                            }
+                        }
+                    } else if (sql.startsWith("DELETE FROM ingredients")) {
+                        INGREDIENTS.values().removeIf(ingredient -> ingredient[0] == (Integer) params.get(0));
+                    }
+                }
+                return 1;
+            }
+        });
+        INGREDIENTS.put("양파", new long[]{1, 3, 0});
+        INGREDIENTS.put("양파 ", new long[]{2, 5, 1000});
+        INGREDIENTS.put("적양파", new long[]{3, 2, 800});
+        for (int id = 1; id <= 300; id++) {
+            Map<String, Integer> uses = new HashMap<>();
+            if (id % 2 == 0) uses.put("양파", 1);
+            if (id % 3 == 0) uses.put("양파 ", 2);
+            if (id % 5 == 0) uses.put("적양파", 4);
+            uses.put("당근", 1);
+            RECIPES.put(id, uses);
+        }
+    }
+
+    @Test
+    void mergeSumsStockAndQuantitiesAndRereadsInOneQuery() {
+        RecipeDAOImpl dao = new RecipeDAOImpl();
+        Map<String, Integer> counts = dao.findIngredientUsageCounts();
+        assertEquals(100, counts.get("양파 "));
+
+        // 바뀔 레시피의 기대값 (같은 레시피에 있던 수량은 더함)
+        Map<Integer, Integer> expected = new TreeMap<>();
+        RECIPES.forEach((id, uses) -> {
+            int sum = uses.getOrDefault("양파", 0) + uses.getOrDefault("양파 ", 0) + uses.getOrDefault("적양파", 0);
+            if (sum > 0) expected.put(id, sum);
+        });
+
+        int before = REREADS.get();
+        dao.mergeIngredients(List.of("양파 ", "적양파"), "양파");
+        assertEquals(1, REREADS.get() - before, "바뀐 레시피는 IN 조회 한 번으로 다시 읽음");
+
+        // 재고: 보유 수량은 합산, 단가는 target에 없으면 첫 재료의 단가
+        assertEquals(List.of("양파"), new ArrayList<>(INGREDIENTS.keySet()));
+        assertEquals(10, INGREDIENTS.get("양파")[1]);
+        assertEquals(1000, INGREDIENTS.get("양파")[2]);
+        assertTrue(List.of("commit").equals(FakeDriver.transactions()));
+
+        // 역인덱스는 DB를 다시 읽지 않고 맞춰짐
+        assertTrue(dao.findRecipesUsing("양파 ").isEmpty());
+        assertTrue(dao.findRecipesUsing("적양파").isEmpty());
+        Map<Integer, Integer> actual = new TreeMap<>();
+        for (Recipe recipe : dao.findRecipesUsing("양파")) {
+            actual.put(recipe.getId(), recipe.getRequiredIngredientNames().get("양파"));
+        }
+        assertEquals(expected, actual);
+        assertEquals(300, dao.findIngredientUsageCounts().get("당근"));
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.dao.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.model.IngredientLot;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+
+/**
+ * LotIndexTest
+ * - 무작위 로트/차감/확정/취소를 인덱스와 단순 목록(매번 정렬해 앞에서부터 차감)에 똑같이 적용해 비교
+ * - 사용 순서: 유통기한 빠른 순(없으면 맨 뒤) → 구매일 → id
+ * - 만료 임박/최근 입고 조회는 전체 목록을 거른 결과와 비교
+ */
+class LotIndexTest {
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 15);
+
+    @Test
+    void usageOrderPutsLotsWithoutExpiryLast() {
+        LotIndex index = new LotIndex();
+        index.reset(List.of(
+            lot(1, 7, 5, TODAY.minusDays(3), null),
+            lot(2, 7, 5, TODAY.minusDays(9), TODAY.plusDays(4)),
+            lot(3, 7, 5, TODAY.minusDays(1), TODAY.plusDays(2)),
+            lot(4, 7, 5, TODAY.minusDays(2), TODAY.plusDays(2))));
+        assertEquals(List.of(4, 3, 2, 1), ids(index.lotsOf(7)));
+
+        // 두 로트에 걸쳐 차감: 첫 로트는 다 쓰고 둘째는 일부만
+        List<LotIndex.Taken> taken = index.take(7, 8);
+        assertEquals(2, taken.size());
+        assertEquals(5, taken.get(0).amount);
+        assertEquals(3, taken.get(1).amount);
+        assertEquals(List.of(2, 1), ids(index.lotsOf(7)), "꺼낸 로트는 확정 전까지 인덱스에 없음");
+        index.commit(taken);
+        assertEquals(List.of(3, 2, 1), ids(index.lotsOf(7)));
+        assertEquals(2, index.lotsOf(7).get(0).getQuantity());
+
+        // 취소하면 원래 수량 그대로 돌아옴
+        taken = index.take(7, 6);
+        index.rollback(taken);
+        assertEquals(List.of(3, 2, 1), ids(index.lotsOf(7)));
+        assertEquals(List.of(2, 5, 5), index.lotsOf(7).stream().map(IngredientLot::getQuantity).collect(Collectors.toList()));
+    }
+
+    @Test
+    void randomOperationsMatchSortedList() {
+        Random random = new Random(29);
+        List<IngredientLot> expected = new ArrayList<>();
+        int nextId = 1;
+        for (; nextId <= 300; nextId++) expected.add(randomLot(random, nextId));
+        LotIndex index = new LotIndex();
+        index.reset(copies(expected));
+
+        for (int step = 0; step < 2000; step++) {
+            int ingredientId = 1 + random.nextInt(10);
+            switch (random.nextInt(4)) {
+                case 0: {
+                    IngredientLot lot = randomLot(random, nextId++);
+                    expected.add(lot.copy());
+                    index.add(lot);
+                    break;
+                }
+                case 1: {
+                    // 취소: 인덱스만 꺼냈다가 되돌리므로 기대값은 그대로
+                    index.rollback(index.take(ingredientId, 1 + random.nextInt(40)));
+                    break;
+                }
+                default: {
+                    int quantity = 1 + random.nextInt(40);
+                    index.commit(index.take(ingredientId, quantity));
+                    deduct(expected, ingredientId, quantity);
+                }
+            }
+            if (step % 100 == 0) assertSame(expected, index);
+        }
+        assertSame(expected, index);
+    }
+
+    private static void assertSame(List<IngredientLot> expected, LotIndex index) {
+        for (int ingredientId = 1; ingredientId <= 10; ingredientId++) {
+            int id = ingredientId;
+            List<IngredientLot> lots = expected.stream().filter(l -> l.getIngredientId() == id)
+                .sorted(LotIndex.USE_ORDER).collect(Collectors.toList());
+            assertEquals(describe(lots), describe(index.lotsOf(ingredientId)), "재료 " + ingredientId);
+        }
+        for (int days = -5; days <= 30; days += 7) {
+            LocalDate limit = TODAY.plusDays(days);
+            List<IngredientLot> expiring = expected.stream()
+                .filter(l -> l.getExpiresAt() != null && !l.getExpiresAt().isAfter(limit))
+                .sorted(LotIndex.USE_ORDER).collect(Collectors.toList());
+            assertEquals(describe(expiring), describe(index.expiringOnOrBefore(limit)), "만료 " + limit);
+
+            LocalDate since = TODAY.minusDays(days + 5);
+            List<IngredientLot> purchased = expected.stream().filter(l -> !l.getPurchasedAt().isBefore(since))
+                .sorted(Comparator.comparingInt(IngredientLot::getId)).collect(Collectors.toList());
+            List<IngredientLot> found = new ArrayList<>(index.purchasedOnOrAfter(since));
+            found.sort(Comparator.comparingInt(IngredientLot::getId));
+            assertEquals(describe(purchased), describe(found), "입고 " + since);
+        }
+    }
+
+    // 단순 구현: 사용 순서로 정렬해 앞에서부터 차감하고 다 쓴 로트는 제거
+    private static void deduct(List<IngredientLot> lots, int ingredientId, int quantity) {
+        List<IngredientLot> mine = lots.stream().filter(l -> l.getIngredientId() == ingredientId)
+            .sorted(LotIndex.USE_ORDER).collect(Collectors.toList());
+        for (IngredientLot lot : mine) {
+            if (quantity == 0) break;
+            int amount = Math.min(quantity, lot.getQuantity());
+            lot.setQuantity(lot.getQuantity() - amount);
+            quantity -= amount;
+            if (lot.getQuantity() == 0) lots.remove(lot);
+        }
+    }
+
+    private static IngredientLot randomLot(Random random, int id) {
+        LocalDate purchased = TODAY.minusDays(random.nextInt(20));
+        LocalDate expires = random.nextInt(5) == 0 ? null : purchased.plusDays(random.nextInt(30));
+        return lot(id, 1 + random.nextInt(10), 1 + random.nextInt(30), purchased, expires);
+    }
+
+    private static IngredientLot lot(int id, int ingredientId, int quantity, LocalDate purchased, LocalDate expires) {
+        IngredientLot lot = new IngredientLot(ingredientId, quantity, purchased, expires);
+        lot.setId(id);
+        return lot;
+    }
+
+    private static List<IngredientLot> copies(List<IngredientLot> lots) {
+        return lots.stream().map(IngredientLot::copy).collect(Collectors.toList());
+    }
+
+    private static List<Integer> ids(List<IngredientLot> lots) {
+        return lots.stream().map(IngredientLot::getId).collect(Collectors.toList());
+    }
+
+    private static List<String> describe(List<IngredientLot> lots) {
+        return lots.stream().map(l -> l.getId() + ":" + l.getQuantity()).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.dao.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.db.FakeDriver;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * RecipeCookTest
+ * - 요리하기는 필요한 재료 행을 IN 조회 한 번으로 id 순서대로 잠금 (호출자 Map 순서와 무관)
+ * - 재고가 부족하면 롤백은 한 번만 하고 부족한 재료를 모두 알려 줌
+ * - 로트는 유통기한이 빠른 것부터 재료 id 순서로 차감하며, DB 로트가 인덱스와 다르면 한 번 다시 읽어 재시도
+ */
+class RecipeCookTest {
+    private static final LocalDate TODAY = LocalDate.now();
+    // 재료 이름 → {id, 보유 수량}
+    private static final Map<String, int[]> INGREDIENTS = Collections.synchronizedMap(new TreeMap<>());
+    private static final List<String> LOCKS = Collections.synchronizedList(new ArrayList<>());
+    private static final List<String> LOT_WRITES = Collections.synchronizedList(new ArrayList<>());
+    private static final AtomicInteger LOT_READS = new AtomicInteger();
+    private static final AtomicInteger STALE_WRITES = new AtomicInteger();
+
+    @BeforeEach
+    void installDriver() {
+        INGREDIENTS.clear();
+        INGREDIENTS.put("간장", new int[]{30, 100});
+        INGREDIENTS.put("두부", new int[]{10, 3});
+        INGREDIENTS.put("양파", new int[]{20, 5});
+        LOCKS.clear();
+        LOT_WRITES.clear();
+        FakeDriver.install(new FakeDriver.Handler() {
+            @Override
+            public List<Map<String, Object>> query(String sql, List<Object> params) {
+                List<Map<String, Object>> rows = new ArrayList<>();
+                if (sql.contains("FOR UPDATE")) {
+                    LOCKS.add(sql + " " + params);
+                    // DB처럼 ORDER BY id 순서로 돌려줌
+                    INGREDIENTS.entrySet().stream()
+                        .filter(e -> params.contains(e.getKey()))
+                        .sorted((a, b) -> Integer.compare(a.getValue()[0], b.getValue()[0]))
+                        .forEach(e -> rows.add(FakeDriver.row("id", e.getValue()[0], "name", e.getKey(),
+                            "available_quantity", e.getValue()[1])));
+                } else if (sql.startsWith("SELECT * FROM ingredient_lots")) {
+                    LOT_READS.incrementAndGet();
+                    // 두부(10): 유통기한 모레 2개, 내일 1개 / 양파(20): 유통기한 없는 5개
+                    rows.add(lot(101, 10, 2, TODAY.plusDays(2)));
+                    rows.add(lot(102, 10, 1, TODAY.plusDays(1)));
+                    rows.add(lot(201, 20, 5, null));
+                }
+                return rows;
+            }
+
+            @Override
+            public int update(String sql, List<Object> params) {
+                if (sql.contains("ingredient_lots")) {
+                    if (STALE_WRITES.get() > 0) {
+                        STALE_WRITES.decrementAndGet();
+                        return 0;
+                    }
+                    LOT_WRITES.add(sql.substring(0, sql.indexOf(' ')) + " " + params);
+                }
+                return 1;
+            }
+        });
+    }
+
+    @Test
+    void locksAllRowsOnceInIdOrder() {
+        RecipeDAOImpl dao = new RecipeDAOImpl();
+        Map<String, Integer> deductions = new LinkedHashMap<>();
+        deductions.put("양파", 2);
+        deductions.put("두부", 2);
+        int transactions = FakeDriver.transactions().size();
+
+        dao.cook(1, deductions, new Timestamp(System.currentTimeMillis()));
+
+        assertEquals(1, LOCKS.size(), LOCKS.toString());
+        assertTrue(LOCKS.get(0).contains("WHERE name IN (?, ?) ORDER BY id FOR UPDATE"), LOCKS.get(0));
+        assertTrue(LOCKS.get(0).endsWith("[두부, 양파]"), LOCKS.get(0));
+        // 두부(10) 먼저: 내일 만료 로트를 다 쓰고 모레 로트에서 1개, 그다음 양파(20)
+        assertEquals(List.of("DELETE [102, 1]", "UPDATE [1, 101, 1]", "UPDATE [2, 201, 2]"), LOT_WRITES);
+        assertEquals(List.of("commit"), newTransactions(transactions));
+    }
+
+    @Test
+    void shortageRollsBackOnceAndListsEveryMissingIngredient() {
+        RecipeDAOImpl dao = new RecipeDAOImpl();
+        Map<String, Integer> deductions = new LinkedHashMap<>();
+        deductions.put("양파", 9);
+        deductions.put("간장", 1);
+        deductions.put("버터", 2);
+        int transactions = FakeDriver.transactions().size();
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+            () -> dao.cook(1, deductions, new Timestamp(System.currentTimeMillis())));
+
+        assertEquals("다음 재료가 부족합니다:\n양파 (4개 부족)\n버터 (2개 부족)", e.getMessage());
+        assertEquals(List.of("rollback"), newTransactions(transactions));
+        assertTrue(LOT_WRITES.isEmpty());
+    }
+
+    @Test
+    void staleLotIndexIsReloadedAndRetriedOnce() {
+        RecipeDAOImpl dao = new RecipeDAOImpl();
+        dao.cook(1, Collections.singletonMap("양파", 1), new Timestamp(System.currentTimeMillis()));
+        int reads = LOT_READS.get();
+        int transactions = FakeDriver.transactions().size();
+        LOT_WRITES.clear();
+
+        STALE_WRITES.set(1);
+        dao.cook(1, Collections.singletonMap("양파", 1), new Timestamp(System.currentTimeMillis()));
+
+        assertEquals(reads + 1, LOT_READS.get(), "무효화된 인덱스를 한 번 다시 읽음");
+        assertEquals(List.of("rollback", "commit"), newTransactions(transactions));
+        assertEquals(List.of("UPDATE [1, 201, 1]"), LOT_WRITES);
+    }
+
+    private static List<String> newTransactions(int from) {
+        List<String> all = FakeDriver.transactions();
+        return all.subList(from, all.size());
+    }
+
+    private static Map<String, Object> lot(int id, int ingredientId, int quantity, LocalDate expiresAt) {
+        return FakeDriver.row("id", id, "ingredient_id", ingredientId, "quantity", quantity,
+            "purchased_at", TODAY.minusDays(3), "expires_at", expiresAt);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.dao.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.db.FakeDriver;
+import com.example.model.Recipe;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * RecipeFavoritesTest
+ * - 즐겨찾기 비트맵: 조회는 처음 한 번만 DB에서 채우고, 여러 건 저장/해제는 배치 한 번과 커밋 한 번
+ * - DB 쪽 favorite_recipes는 메모리 집합으로 흉내 냄
+ */
+class RecipeFavoritesTest {
+    private static final Set<Integer> FAVORITES = Collections.synchronizedSet(new TreeSet<>());
+    private static final List<String> BATCHES = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeAll
+    static void installDriver() {
+        FakeDriver.install(new FakeDriver.Handler() {
+            @Override
+            public List<Map<String, Object>> query(String sql, List<Object> params) {
+                List<Map<String, Object>> rows = new ArrayList<>();
+                synchronized (FAVORITES) {
+                    if (sql.startsWith("SELECT recipe_id FROM favorite_recipes")) {
+                        for (int id : FAVORITES) rows.add(FakeDriver.row("recipe_id", id));
+                    } else if (sql.contains("JOIN favorite_recipes f")) {
+                        for (int id : FAVORITES) {
+                            for (int k = 0; k < 2; k++) {
+                                rows.add(FakeDriver.row("id", id, "name", "레시피" + id, "rating", 4, "note", "메모",
+                                    "is_favorite", 1, "ri_name", "재료" + k, "ri_quantity", k + 1));
+                            }
+                        }
+                    }
+                }
+                return rows;
+            }
+
+            @Override
+            public int update(String sql, List<Object> params) {
+                if (!sql.contains("favorite_recipes")) return 1;
+                BATCHES.add(sql);
+                int id = (Integer) params.get(0);
+                if (sql.startsWith("DELETE")) FAVORITES.remove(id);
+                else FAVORITES.add(id);
+                return 1;
+            }
+        });
+        for (int id = 1; id <= 1000; id += 7) FAVORITES.add(id);
+    }
+
+    @Test
+    void favoritesAreLoadedOnceAndKeptInSync() {
+        RecipeDAOImpl dao = new RecipeDAOImpl();
+
+        int before = FakeDriver.queries();
+        int hits = 0;
+        for (int id = 1; id <= 1000; id++) {
+            if (dao.isFavorite(id)) hits++;
+        }
+        assertEquals(FAVORITES.size(), hits);
+        assertEquals(1, FakeDriver.queries() - before, "비트맵은 한 번만 읽음");
+
+        // 여러 건 저장: 배치 한 번, 커밋 한 번
+        Map<Integer, Integer> ratings = new LinkedHashMap<>();
+        for (int id = 2000; id < 2500; id++) ratings.put(id, 3);
+        int commits = FakeDriver.transactions().size();
+        BATCHES.clear();
+        dao.saveFavorites(ratings);
+        assertEquals(ratings.size(), BATCHES.size());
+        assertEquals(List.of("commit"), FakeDriver.transactions().subList(commits, FakeDriver.transactions().size()));
+        assertTrue(dao.isFavorite(2100));
+        assertEquals(FAVORITES.size(), dao.getFavoriteCount());
+
+        // 여러 건 해제
+        dao.removeFromFavorites(ratings.keySet());
+        assertFalse(dao.isFavorite(2100));
+        assertEquals(FAVORITES.size(), dao.getFavoriteCount());
+
+        // 다른 클라이언트가 추가한 즐겨찾기는 전체 조회로 맞춰짐
+        FAVORITES.add(999_999);
+        before = FakeDriver.queries();
+        List<Recipe> list = dao.findAllFavorites();
+        assertEquals(1, FakeDriver.queries() - before, "재료까지 JOIN 한 번");
+        assertEquals(FAVORITES.size(), list.size());
+        assertTrue(dao.isFavorite(999_999));
+        Recipe first = list.get(0);
+        assertEquals(4, first.getRating());
+        assertEquals(2, first.getRequiredIngredientNames().size());
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.dao.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.db.FakeDriver;
+import com.example.model.Recipe;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * RecipeUsageIndexTest
+ * - 재료 역인덱스 조회를 recipe_ingredients를 처음부터 훑은 결과와 비교 (DB 쪽은 메모리 맵으로 흉내 냄)
+ * - 레시피 삭제, 재료 추가/제거는 DB를 다시 읽지 않고 반영, 다른 클라이언트의 변경은 reconcile로 맞춤
+ */
+class RecipeUsageIndexTest {
+    private static final int INGREDIENTS = 200;
+    // 레시피 id → (재료 이름 → 필요 수량)
+    private static final Map<Integer, Map<String, Integer>> DB = Collections.synchronizedMap(new TreeMap<>());
+
+    @BeforeAll
+    static void installDriver() {
+        FakeDriver.install(new FakeDriver.Handler() {
+            @Override
+            public List<Map<String, Object>> query(String sql, List<Object> params) {
+                List<Map<String, Object>> rows = new ArrayList<>();
+                synchronized (DB) {
+                    if (sql.startsWith("SELECT recipe_id, ingredient_name")) {
+                        DB.forEach((id, uses) -> uses.forEach((name, quantity) ->
+                            rows.add(FakeDriver.row("recipe_id", id, "ingredient_name", name, "required_quantity", quantity))));
+                    } else if (sql.startsWith("SELECT r.id")) {
+                        for (int id : DB.keySet()) rows.add(FakeDriver.row("id", id, "name", "레시피" + id));
+                    } else if (sql.startsWith("SELECT name FROM ingredients")) {
+                        rows.add(FakeDriver.row("name", "재료" + params.get(0)));
+                    }
+                }
+                return rows;
+            }
+
+            @Override
+            public int update(String sql, List<Object> params) {
+                int recipeId = (Integer) params.get(0);
+                if (sql.startsWith("DELETE FROM recipes")) {
+                    DB.remove(recipeId);
+                } else if (sql.startsWith("INSERT INTO recipe_ingredients")) {
+                    return DB.get(recipeId).putIfAbsent((String) params.get(1), 1) == null ? 1 : 0;
+                } else if (sql.startsWith("DELETE FROM recipe_ingredients")) {
+                    DB.get(recipeId).remove((String) params.get(1));
+                }
+                return 1;
+            }
+        });
+        Random random = new Random(3);
+        for (int id = 1; id <= 5000; id++) {
+            Map<String, Integer> uses = new HashMap<>();
+            int count = 2 + random.nextInt(6);
+            while (uses.size() < count) uses.put("재료" + random.nextInt(INGREDIENTS), 1 + random.nextInt(5));
+            DB.put(id, uses);
+        }
+    }
+
+    @Test
+    void lookupsMatchBruteForceAcrossWrites() {
+        RecipeDAOImpl dao = new RecipeDAOImpl();
+        dao.loadUsageIndex();
+        assertAllMatch(dao);
+
+        // 적재 뒤의 조회와 쓰기는 DB 전체를 다시 읽지 않음
+        int before = FakeDriver.queries();
+        dao.delete(5);
+        dao.addIngredientToRecipe(6, 999);
+        dao.removeIngredientFromRecipe(7, Integer.parseInt(DB.get(7).keySet().iterator().next().substring(2)));
+        for (int i = 0; i < INGREDIENTS; i++) dao.findRecipesUsing("재료" + i);
+        assertEquals(2, FakeDriver.queries() - before, "재료 이름 확인 두 번만 조회");
+        assertAllMatch(dao);
+        assertEquals(List.of(6), ids(dao.findRecipesUsing("재료999")));
+
+        // 다른 클라이언트의 변경은 DB와 비교해 맞춤
+        DB.get(8).put("재료888", 2);
+        DB.remove(9);
+        RecipeUsageIndex index = RecipeUsageIndex.getInstance();
+        long stamp = index.stamp();
+        assertEquals(2, index.reconcile(dao.findAllCompact(), stamp));
+        assertAllMatch(dao);
+        assertEquals(List.of(8), ids(dao.findRecipesUsing("재료888")));
+    }
+
+    private static void assertAllMatch(RecipeDAOImpl dao) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < INGREDIENTS; i++) names.add("재료" + i);
+        names.add("재료999");
+        for (String name : names) {
+            List<Integer> expected = new ArrayList<>();
+            DB.forEach((id, uses) -> {
+                if (uses.containsKey(name)) expected.add(id);
+            });
+            List<Recipe> found = dao.findRecipesUsing(name);
+            assertEquals(expected, ids(found), name);
+            for (Recipe recipe : found) {
+                assertEquals(DB.get(recipe.getId()).get(name), recipe.getRequiredIngredientNames().get(name));
+            }
+        }
+    }
+
+    private static List<Integer> ids(List<Recipe> recipes) {
+        List<Integer> ids = new ArrayList<>();
+        for (Recipe recipe : recipes) ids.add(recipe.getId());
+        return ids;
+    }
+}
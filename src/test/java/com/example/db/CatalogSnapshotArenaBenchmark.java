@@ -0,0 +1,150 @@
+package com.example.db;
+
+import com.example.model.Recipe;
+import com.example.model.TextArena;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * CatalogSnapshotArenaBenchmark
+ * - 레시피 10만 개(조리 방법 약 1KB, 메모 약 100B)를 힙 밖 영역에 둔 스냅샷에서 CatalogSnapshot이 하는 두 작업을
+ *   힙 복사본 방식(이전)과 영역 참조 방식(지금)으로 비교 (테스트가 아니라 수동 실행용, mvn test에서는 돌지 않음)
+ * - 내주기(getRecipes): copy() + moveTextOnHeap() vs copy(share()) — 걸린 시간, 할당량, 내준 목록이 잡고 있는 힙
+ * - 세대 교체(renewArena): 전부 힙으로 되돌리고 닫은 뒤 새 영역에 넣기 vs 새 영역으로 바이트째 복사한 뒤 닫기
+ *   — 걸린 시간과 할당량 (새 방식은 옮기는 동안 두 세대의 힙 밖 메모리를 함께 씀)
+ * - 같은 시드라 매번 같은 카탈로그, 각 항목은 워밍업 뒤 세 번 잰 값의 중앙값. 할당량은 측정 스레드 기준
+ * - 실행: mvn -B test-compile 후
+ *   java -Xmx1g -Dfile.encoding=UTF-8 -cp target/classes:target/test-classes com.example.db.CatalogSnapshotArenaBenchmark [레시피 수]
+ */
+public final class CatalogSnapshotArenaBenchmark {
+    private static final String[] WORDS = {"양파를", "잘게", "썰고", "중불에서", "5분", "볶는다.", "간장 2큰술", "add", "salt", "\n"};
+
+    private CatalogSnapshotArenaBenchmark() {}
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        TextArena.setLimitBytes(768L << 20);
+        List<Recipe> recipes = recipes(count);
+        TextArena arena = TextArena.open();
+        for (Recipe recipe : recipes) recipe.moveTextOffHeap(arena);
+        System.out.println(TextArena.getStats());
+
+        // 내주기
+        for (boolean heapCopy : new boolean[]{true, false}) {
+            String label = heapCopy ? "내주기 (힙 복사본)      " : "내주기 (영역 참조 공유) ";
+            long[] millis = new long[3];
+            long[] allocated = new long[3];
+            long retained = 0;
+            for (int round = -1; round < 3; round++) {
+                long baseline = round == 2 ? liveHeap() : 0;
+                long allocatedBefore = allocatedBytes();
+                long started = System.nanoTime();
+                List<Recipe> handedOut = handOut(recipes, arena, heapCopy);
+                if (round < 0) continue;
+                millis[round] = (System.nanoTime() - started) / 1_000_000;
+                allocated[round] = allocatedBytes() - allocatedBefore;
+                if (round == 2) {
+                    retained = liveHeap() - baseline;
+                    if (handedOut.get(count - 1).getInstructions() == null) throw new IllegalStateException();
+                }
+            }
+            System.out.printf("%s: %4d ms, 할당 %6.1f MB, 내준 목록이 잡은 힙 %6.1f MB%n",
+                label, median(millis), median(allocated) / 1048576.0, retained / 1048576.0);
+        }
+
+        // 세대 교체
+        for (boolean heapPull : new boolean[]{true, false}) {
+            String label = heapPull ? "세대 교체 (힙으로 되돌림)" : "세대 교체 (바이트째 복사)";
+            long[] millis = new long[3];
+            long[] allocated = new long[3];
+            for (int round = -1; round < 3; round++) {
+                long allocatedBefore = allocatedBytes();
+                long started = System.nanoTime();
+                arena = renew(recipes, arena, heapPull);
+                if (round < 0) continue;
+                millis[round] = (System.nanoTime() - started) / 1_000_000;
+                allocated[round] = allocatedBytes() - allocatedBefore;
+            }
+            System.out.printf("%s: %4d ms, 할당 %6.1f MB%n", label, median(millis), median(allocated) / 1048576.0);
+        }
+        System.out.println(TextArena.getStats());
+        arena.close();
+    }
+
+    // 이전 getRecipes(heapCopy)와 지금 getRecipes
+    private static List<Recipe> handOut(List<Recipe> recipes, TextArena arena, boolean heapCopy) {
+        List<Recipe> result = new ArrayList<>(recipes.size());
+        TextArena view = heapCopy ? null : arena.share();
+        for (Recipe recipe : recipes) {
+            Recipe copy = heapCopy ? recipe.copy() : recipe.copy(view);
+            if (heapCopy) copy.moveTextOnHeap();
+            result.add(copy);
+        }
+        return result;
+    }
+
+    // 이전 renewArena(모두 힙으로 되돌린 뒤 닫고 새로 넣음)와 지금 renewArena
+    private static TextArena renew(List<Recipe> recipes, TextArena previous, boolean heapPull) {
+        if (heapPull) {
+            for (Recipe recipe : recipes) recipe.moveTextOnHeap();
+            previous.close();
+        }
+        TextArena next = TextArena.open();
+        for (Recipe recipe : recipes) recipe.moveTextOffHeap(next);
+        if (!heapPull) previous.close();
+        return next;
+    }
+
+    private static List<Recipe> recipes(int count) {
+        Random random = new Random(50);
+        List<Recipe> recipes = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            Recipe recipe = new Recipe("레시피 " + id, text(random, 1024));
+            recipe.setId(id);
+            recipe.setNote(text(random, 100));
+            recipes.add(recipe);
+        }
+        return recipes;
+    }
+
+    // 한글과 영문이 섞인 약 bytes 바이트(UTF-8)의 글
+    private static String text(Random random, int bytes) {
+        StringBuilder text = new StringBuilder();
+        int size = 0;
+        while (size < bytes) {
+            String word = WORDS[random.nextInt(WORDS.length)];
+            text.append(word).append(' ');
+            size += word.getBytes(StandardCharsets.UTF_8).length + 1;
+        }
+        return text.toString();
+    }
+
+    private static long median(long[] values) {
+        long[] sorted = values.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    // 전체 GC 뒤 힙 사용량 (바뀌지 않을 때까지 몇 번 반복)
+    private static long liveHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = memory.getHeapMemoryUsage().getUsed();
+            if (now >= used) break;
+            used = now;
+        }
+        return used;
+    }
+}
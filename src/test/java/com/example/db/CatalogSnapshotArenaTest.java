@@ -0,0 +1,122 @@
+package com.example.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import com.example.model.Recipe;
+import com.example.model.TextArena;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+/**
+ * CatalogSnapshotArenaTest
+ * - 스냅샷은 전체 갱신마다 긴 문자열을 새 영역 하나로 옮기고, 밖으로 내준 레시피가 없으면 이전 영역을 바로 해제
+ * - 밖으로 내준 레시피는 힙 복사본이 아니라 영역 참조를 들고 있어, 그 레시피가 남아 있는 동안 이전 세대 영역도 남고
+ *   레시피가 모두 사라지면(GC) 해제됨
+ * - 테스트 설정은 recipe.text.offheap.mb를 정하지 않으므로 기본 한도(64MB)로 켜져 있음
+ * - 각 테스트는 이전 테스트가 내준 레시피의 영역이 해제될 때까지 기다린 뒤 시작
+ */
+class CatalogSnapshotArenaTest {
+    private static final Pattern OPEN_ARENAS = Pattern.compile("영역 (\\d+)개");
+
+    @Test
+    void keepsOneArenaPerGenerationWhenNothingIsHandedOut() {
+        CatalogSnapshot snapshot = CatalogSnapshot.getInstance();
+        snapshot.updateRecipes(recipes("첫 세대"));
+        awaitOpenArenas(1);
+        for (int generation = 0; generation < 5; generation++) {
+            snapshot.updateRecipes(recipes("세대 " + generation));
+            assertEquals(1, openArenas(), "GC를 기다리지 않고 바로 해제: " + TextArena.getStats());
+        }
+
+        // 목록 조회(조리 방법 없음)로 갱신해도 이전 세대의 조리 방법을 이어받음
+        List<Recipe> withoutInstructions = recipes("목록");
+        for (Recipe recipe : withoutInstructions) recipe.setInstructions(null);
+        snapshot.updateRecipes(withoutInstructions);
+        assertEquals("세대 4 조리 방법 7", snapshot.findRecipe(7).getInstructions());
+        assertEquals("목록 메모 7", snapshot.findRecipe(7).getNote());
+    }
+
+    @Test
+    void handedOutRecipesKeepTheirGenerationUntilCollected() {
+        CatalogSnapshot snapshot = CatalogSnapshot.getInstance();
+        snapshot.updateRecipes(recipes("첫 세대"));
+        awaitOpenArenas(1);
+        List<Recipe> handedOut = snapshot.getRecipes();
+        Recipe one = snapshot.findRecipe(1);
+
+        for (int generation = 0; generation < 3; generation++) {
+            snapshot.updateRecipes(recipes("세대 " + generation));
+        }
+        // 첫 세대 영역은 내준 레시피가 잡고 있고, 중간 세대는 내준 것이 없어 바로 해제
+        assertEquals(2, openArenas(), TextArena.getStats());
+        assertEquals("첫 세대 조리 방법 1", one.getInstructions());
+        assertEquals("첫 세대 메모 1", one.getNote());
+        assertEquals("첫 세대 조리 방법 100", handedOut.get(99).getInstructions());
+        assertEquals("세대 2 조리 방법 100", snapshot.getRecipes().get(99).getInstructions());
+
+        // 복사본의 복사본도 같은 참조를 씀
+        Recipe copy = handedOut.get(0).copy();
+        handedOut = null;
+        one = null;
+        assertEquals("첫 세대 조리 방법 1", copy.getInstructions());
+        copy = null;
+        awaitOpenArenas(1);
+    }
+
+    @Test
+    void recipePutBackFromAnOlderGenerationMovesOnRenew() {
+        CatalogSnapshot snapshot = CatalogSnapshot.getInstance();
+        snapshot.updateRecipes(recipes("첫 세대"));
+        awaitOpenArenas(1);
+        Recipe stale = snapshot.findRecipe(3);
+        snapshot.updateRecipes(recipes("둘째 세대"));
+        // 오프라인 저장 반영처럼 이전 세대 참조를 든 레시피가 다시 들어와도 그 세대의 글을 읽음
+        snapshot.putRecipe(stale);
+        stale = null;
+        assertEquals("첫 세대 조리 방법 3", snapshot.findRecipe(3).getInstructions());
+        assertEquals("둘째 세대 조리 방법 4", snapshot.findRecipe(4).getInstructions());
+
+        List<Recipe> withoutInstructions = recipes("셋째 세대");
+        for (Recipe recipe : withoutInstructions) recipe.setInstructions(null);
+        snapshot.updateRecipes(withoutInstructions);
+        assertEquals("첫 세대 조리 방법 3", snapshot.findRecipe(3).getInstructions());
+        assertEquals("셋째 세대 메모 3", snapshot.findRecipe(3).getNote());
+        awaitOpenArenas(1);
+    }
+
+    // 내준 레시피가 모두 사라질 때까지 GC를 부르며 기다림
+    private static void awaitOpenArenas(int expected) {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (openArenas() != expected) {
+            if (System.currentTimeMillis() > deadline) fail("영역이 해제되지 않음: " + TextArena.getStats());
+            System.gc();
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+
+    private static int openArenas() {
+        Matcher matcher = OPEN_ARENAS.matcher(TextArena.getStats());
+        if (!matcher.find()) throw new AssertionError(TextArena.getStats());
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private static List<Recipe> recipes(String generation) {
+        List<Recipe> recipes = new ArrayList<>();
+        for (int id = 1; id <= 100; id++) {
+            Recipe recipe = new Recipe("레시피 " + id, generation + " 조리 방법 " + id);
+            recipe.setId(id);
+            recipe.setNote(generation + " 메모 " + id);
+            recipes.add(recipe);
+        }
+        return recipes;
+    }
+}
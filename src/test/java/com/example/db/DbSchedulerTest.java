@@ -0,0 +1,169 @@
+package com.example.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * DbSchedulerTest
+ * - 테스트 설정: 커넥션 4개, 대화형 전용 1개 (일반 최대 3개, 대량 최대 1개), 대기 최대 500ms
+ * - 커넥션은 스레드마다 잡고 있어야 하므로 Holder 스레드가 받아 두었다가 release()에서 닫음
+ */
+class DbSchedulerTest {
+    private static final DbScheduler.Connector CONNECTOR = () -> (Connection) Proxy.newProxyInstance(
+        DbSchedulerTest.class.getClassLoader(), new Class<?>[]{Connection.class},
+        (proxy, method, args) -> method.getReturnType() == boolean.class ? false : null);
+
+    private final DbScheduler scheduler = DbScheduler.getInstance();
+    private final List<Holder> holders = new ArrayList<>();
+
+    @AfterEach
+    void releaseAll() throws Exception {
+        for (Holder holder : holders) holder.release();
+        assertTrue(scheduler.getStats().startsWith("DB 스케줄러: 사용 0/4"), scheduler.getStats());
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    void nestedAdmitDoesNotTakeAnotherSlot() throws SQLException {
+        try (Connection outer = scheduler.admit(CONNECTOR);
+             Connection inner = scheduler.admit(CONNECTOR)) {
+            assertInUse(1);
+        }
+        assertInUse(0);
+    }
+
+    @Test
+    void lastSlotIsReservedForInteractive() throws Exception {
+        for (int i = 0; i < 3; i++) hold(DbScheduler.Priority.NORMAL);
+        assertInUse(3);
+
+        SQLTimeoutException timeout = assertThrows(SQLTimeoutException.class, () -> admitOnNewThread(DbScheduler.Priority.NORMAL));
+        assertEquals("HYT00", timeout.getSQLState());
+
+        hold(DbScheduler.Priority.INTERACTIVE);
+        assertInUse(4);
+    }
+
+    @Test
+    void bulkIsLimitedAndLeavesRoomForOthers() throws Exception {
+        hold(DbScheduler.Priority.BULK);
+        assertThrows(SQLTimeoutException.class, () -> admitOnNewThread(DbScheduler.Priority.BULK));
+        hold(DbScheduler.Priority.NORMAL);
+        hold(DbScheduler.Priority.NORMAL);
+        assertInUse(3);
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    void groupIsClampedAndCoversCapturedThreads() throws Exception {
+        try (DbScheduler.Scope group = scheduler.admitGroup(8)) {
+            // 일반 작업이 한 번에 가질 수 있는 3개로 줄임
+            assertInUse(3);
+            DbScheduler.Context context = DbScheduler.capture();
+            // 자리가 없어도 묶음 안의 샤드 스레드는 기다리지 않음
+            CompletableFuture.runAsync(() -> {
+                DbScheduler.Context previous = DbScheduler.enter(context);
+                try (Connection conn = scheduler.admit(CONNECTOR)) {
+                    assertInUse(3);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                } finally {
+                    DbScheduler.enter(previous);
+                }
+            }).get(200, TimeUnit.MILLISECONDS);
+        }
+        assertInUse(0);
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    void groupWaitsForAllSlotsWithoutHoldingAny() throws Exception {
+        Holder single = hold(DbScheduler.Priority.NORMAL);
+        CountDownLatch admitted = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(1);
+        Thread groupThread = new Thread(() -> {
+            try (DbScheduler.Scope group = scheduler.admitGroup(3)) {
+                admitted.countDown();
+                done.await();
+            } catch (SQLException | InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        groupThread.start();
+        // 자리 2개가 비어 있어도 3개를 한꺼번에 받을 때까지 아무것도 잡지 않음
+        assertFalse(admitted.await(150, TimeUnit.MILLISECONDS));
+        assertEquals("DB 스케줄러: 사용 1/4, 대화형 대기 0, 일반 대기 1, 대량 대기 0", scheduler.getStats());
+
+        single.release();
+        assertTrue(admitted.await(200, TimeUnit.MILLISECONDS));
+        assertInUse(3);
+        done.countDown();
+        groupThread.join();
+    }
+
+    private void assertInUse(int slots) {
+        assertTrue(scheduler.getStats().startsWith("DB 스케줄러: 사용 " + slots + "/4,"), scheduler.getStats());
+    }
+
+    private Holder hold(DbScheduler.Priority priority) throws Exception {
+        Holder holder = new Holder(priority);
+        holders.add(holder);
+        holder.admitted.get(200, TimeUnit.MILLISECONDS);
+        return holder;
+    }
+
+    // 새 스레드에서 허가를 받아 바로 닫음 (기다리다 실패하면 그 예외를 던짐)
+    private void admitOnNewThread(DbScheduler.Priority priority) throws Exception {
+        Holder holder = new Holder(priority);
+        try {
+            holder.admitted.get(2, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            throw (Exception) e.getCause();
+        } finally {
+            holder.release();
+        }
+    }
+
+    /**
+     * 커넥션을 받아 release()까지 잡고 있는 스레드
+     */
+    private final class Holder {
+        final CompletableFuture<Void> admitted = new CompletableFuture<>();
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread thread;
+
+        @SuppressWarnings("try")
+        Holder(DbScheduler.Priority priority) {
+            thread = new Thread(() -> {
+                try (DbScheduler.Scope ignored = DbScheduler.withPriority(priority);
+                     Connection conn = scheduler.admit(CONNECTOR)) {
+                    admitted.complete(null);
+                    done.await();
+                } catch (SQLException | InterruptedException e) {
+                    admitted.completeExceptionally(e);
+                }
+            });
+            thread.start();
+        }
+
+        void release() throws InterruptedException {
+            done.countDown();
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,299 @@
+package com.example.db;
+
+import java.io.StringReader;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * FakeDriver
+ * - 테스트용 JDBC 드라이버 (테스트 database.properties의 db.url처럼 jdbc:fake로 시작하는 URL을 받음)
+ * - 조회/변경 결과는 install()로 넣은 Handler가 SQL 문자열과 바인딩한 값을 보고 정함
+ * - 커넥션/문장/결과 집합은 동적 프록시라 Handler가 다루지 않는 메서드는 기본값(null, 0, false)을 돌려줌
+ * - Statement.cancel()은 실행 중인 execute* 호출 스레드를 인터럽트함 (Handler가 기다리는 중이면 InterruptedException을
+ *   SQLException으로 바꿔 던지면 실제 드라이버의 쿼리 중단처럼 동작)
+ * - 테스트 클래스마다 JVM을 따로 쓰므로(surefire reuseForks=false) Handler와 집계는 클래스 안에서만 공유됨
+ */
+public final class FakeDriver implements Driver {
+
+    /**
+     * SQL 하나의 결과를 정하는 쪽
+     */
+    public interface Handler {
+        /** executeQuery 결과 행 (열 이름 → 값, 번호로 읽으면 넣은 순서) */
+        List<Map<String, Object>> query(String sql, List<Object> params) throws SQLException;
+
+        /** executeUpdate와 배치 한 건의 변경 행 수 */
+        default int update(String sql, List<Object> params) throws SQLException {
+            return 1;
+        }
+    }
+
+    private static volatile Handler handler = (sql, params) -> Collections.emptyList();
+    private static final AtomicInteger CONNECTS = new AtomicInteger();
+    private static final AtomicInteger QUERIES = new AtomicInteger();
+    private static final List<String> COMMITS = Collections.synchronizedList(new ArrayList<>());
+    private static final AtomicInteger GENERATED_KEYS = new AtomicInteger(1000);
+    private static final AtomicInteger CANCELS = new AtomicInteger();
+    private static final AtomicInteger ROWS_READ = new AtomicInteger();
+
+    static {
+        try {
+            DriverManager.registerDriver(new FakeDriver());
+        } catch (SQLException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private FakeDriver() {}
+
+    /** 이후 모든 커넥션의 결과를 정할 Handler */
+    public static void install(Handler handler) {
+        FakeDriver.handler = handler;
+    }
+
+    /** 열 이름과 값을 번갈아 넣은 행 */
+    public static Map<String, Object> row(Object... namesAndValues) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            row.put((String) namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return row;
+    }
+
+    /** 지금까지 연 커넥션 수 */
+    public static int connects() {
+        return CONNECTS.get();
+    }
+
+    /** 지금까지 실행한 조회 수 */
+    public static int queries() {
+        return QUERIES.get();
+    }
+
+    /** 지금까지 ResultSet.next()로 읽은 행 수 */
+    public static int rowsRead() {
+        return ROWS_READ.get();
+    }
+
+    /** 지금까지 Statement.cancel()이 불린 횟수 */
+    public static int cancels() {
+        return CANCELS.get();
+    }
+
+    /** commit/rollback 기록 (순서대로) */
+    public static List<String> transactions() {
+        synchronized (COMMITS) {
+            return new ArrayList<>(COMMITS);
+        }
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) {
+        if (!acceptsURL(url)) return null;
+        CONNECTS.incrementAndGet();
+        boolean[] closed = {false};
+        boolean[] autoCommit = {true};
+        return proxy(Connection.class, (method, args) -> {
+            switch (method.getName()) {
+                case "close": closed[0] = true; return null;
+                case "isClosed": return closed[0];
+                case "isValid": return !closed[0];
+                case "getAutoCommit": return autoCommit[0];
+                case "setAutoCommit": autoCommit[0] = (Boolean) args[0]; return null;
+                case "commit": COMMITS.add("commit"); return null;
+                case "rollback": COMMITS.add("rollback"); return null;
+                case "createStatement": return statement(null);
+                case "prepareStatement": return statement((String) args[0]);
+                case "toString": return url;
+                default: return null;
+            }
+        });
+    }
+
+    // sql이 null이면 Statement, 아니면 PreparedStatement
+    private static Statement statement(String preparedSql) {
+        List<Object> params = new ArrayList<>();
+        List<List<Object>> batch = new ArrayList<>();
+        Object[] generatedKey = {null};
+        Class<? extends Statement> type = preparedSql == null ? Statement.class : PreparedStatement.class;
+        // 실행 중인 스레드와 cancel()이 인터럽트를 걸었는지 (이 객체로 동기화)
+        Thread[] running = {null};
+        boolean[] interrupted = {false};
+        return proxy(type, (method, args) -> {
+            String name = method.getName();
+            if (name.startsWith("set") && args != null && args.length == 2 && args[0] instanceof Integer) {
+                int index = (Integer) args[0];
+                while (params.size() < index) params.add(null);
+                params.set(index - 1, args[1]);
+                return null;
+            }
+            if (name.equals("cancel")) {
+                CANCELS.incrementAndGet();
+                synchronized (running) {
+                    if (running[0] != null) {
+                        interrupted[0] = true;
+                        running[0].interrupt();
+                    }
+                }
+                return null;
+            }
+            if (!name.startsWith("execute")) {
+                return statementCall(preparedSql, params, batch, generatedKey, name, args);
+            }
+            synchronized (running) {
+                running[0] = Thread.currentThread();
+            }
+            try {
+                return statementCall(preparedSql, params, batch, generatedKey, name, args);
+            } finally {
+                synchronized (running) {
+                    running[0] = null;
+                    // 실행이 끝난 뒤 도착한 인터럽트가 호출 스레드에 남지 않도록
+                    if (interrupted[0]) {
+                        interrupted[0] = false;
+                        Thread.interrupted();
+                    }
+                }
+            }
+        });
+    }
+
+    // Statement 메서드 하나의 결과 (cancel 제외)
+    private static Object statementCall(String preparedSql, List<Object> params, List<List<Object>> batch,
+                                        Object[] generatedKey, String name, Object[] args) throws SQLException {
+        switch (name) {
+            case "executeQuery": {
+                QUERIES.incrementAndGet();
+                String sql = preparedSql != null ? preparedSql : (String) args[0];
+                return resultSet(handler.query(sql, new ArrayList<>(params)));
+            }
+            case "executeUpdate": {
+                String sql = preparedSql != null ? preparedSql : (String) args[0];
+                int updated = handler.update(sql, new ArrayList<>(params));
+                generatedKey[0] = GENERATED_KEYS.incrementAndGet();
+                return updated;
+            }
+            case "execute":
+                handler.update(preparedSql != null ? preparedSql : (String) args[0], new ArrayList<>(params));
+                return false;
+            case "addBatch": batch.add(new ArrayList<>(params)); return null;
+            case "clearParameters": params.clear(); return null;
+            case "executeBatch": {
+                int[] counts = new int[batch.size()];
+                for (int i = 0; i < counts.length; i++) {
+                    counts[i] = handler.update(preparedSql, batch.get(i));
+                }
+                batch.clear();
+                return counts;
+            }
+            case "getGeneratedKeys":
+                return resultSet(generatedKey[0] == null ? Collections.emptyList()
+                    : Collections.singletonList(row("GENERATED_KEY", generatedKey[0])));
+            case "getUpdateCount": return -1;
+            default: return null;
+        }
+    }
+
+    private static ResultSet resultSet(List<Map<String, Object>> rows) {
+        int[] cursor = {-1};
+        Object[] last = {null};
+        return proxy(ResultSet.class, (method, args) -> {
+            String name = method.getName();
+            if (name.equals("next")) {
+                if (++cursor[0] >= rows.size()) return false;
+                ROWS_READ.incrementAndGet();
+                return true;
+            }
+            if (name.equals("wasNull")) return last[0] == null;
+            if (!name.startsWith("get") || args == null || args.length == 0) return null;
+            Map<String, Object> row = rows.get(cursor[0]);
+            Object value = args[0] instanceof Integer
+                ? new ArrayList<>(row.values()).get((Integer) args[0] - 1)
+                : row.get(args[0]);
+            last[0] = value;
+            switch (name) {
+                case "getInt": return value == null ? 0 : ((Number) value).intValue();
+                case "getLong": return value == null ? 0L : ((Number) value).longValue();
+                case "getDouble": return value == null ? 0.0 : ((Number) value).doubleValue();
+                case "getBoolean":
+                    return value instanceof Number ? ((Number) value).intValue() != 0 : Boolean.TRUE.equals(value);
+                case "getString": return value == null ? null : value.toString();
+                case "getCharacterStream": return value == null ? null : new StringReader(value.toString());
+                default: return value;
+            }
+        });
+    }
+
+    /**
+     * 프록시 한 메서드의 동작
+     */
+    private interface Behavior {
+        Object invoke(Method method, Object[] args) throws Throwable;
+    }
+
+    private static <T> T proxy(Class<T> type, Behavior behavior) {
+        return type.cast(Proxy.newProxyInstance(FakeDriver.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode": return System.identityHashCode(proxy);
+                case "equals": return proxy == args[0];
+                case "unwrap": return null;
+                case "isWrapperFor": return false;
+                default: break;
+            }
+            Object result = behavior.invoke(method, args);
+            if (result != null || !method.getReturnType().isPrimitive()) return result;
+            Class<?> returns = method.getReturnType();
+            if (returns == boolean.class) return false;
+            if (returns == int.class) return 0;
+            if (returns == long.class) return 0L;
+            if (returns == double.class) return 0.0;
+            return null;
+        }));
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url != null && url.startsWith("jdbc:fake");
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() {
+        return Logger.getGlobal();
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.db;
+
+import java.sql.Connection;
+
+/**
+ * FakeLagProbe
+ * - 테스트 database.properties의 db.replica.lag.probe로 지정하는 복제 지연 대역 (복제 서버에 조회를 보내지 않음)
+ * - 기본은 알 수 없음(UNKNOWN)이라 복제 서버가 제외되고, 분배를 보는 테스트만 setLag로 지연을 정함
+ */
+public final class FakeLagProbe implements ReplicaLagProbe {
+    private static volatile long lag = UNKNOWN;
+
+    /** 이후 확인에서 돌려줄 지연 (ms) */
+    public static void setLag(long lagMillis) {
+        lag = lagMillis;
+    }
+
+    @Override
+    public long lagMillis(String replicaUrl, Connection replica) {
+        return lag;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.dao.impl.RecipeDAOImpl;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * InstructionCodecTest
+ * - 인코딩한 값을 문자열/Reader(한 글자씩 주는 Reader 포함) 어느 쪽으로 풀어도 원문과 같은지 확인
+ * - 짧은 본문과 표시가 없는 기존 행은 평문 그대로, "~z1:"로 시작하는 평문은 압축해 두어 표시와 구분
+ * - 조리 방법 조회는 가짜 DB 컬럼의 Reader를 풀면서 읽어도 원문을 돌려줌
+ */
+class InstructionCodecTest {
+    private static final String[] SAMPLES = {
+        "", "a", "양파 볶기", "~", "~z", "~z1", "~z1:", "~z1:abc", "~z1:" + "가".repeat(500), "~z2:평문",
+        "1. 물을 끓인다\n2. ~z1: 표시가 가운데 있어도 평문\n", "이모지 🍳🥘 와 줄바꿈\r\n탭\t",
+    };
+
+    @Test
+    void samplesRoundTrip() throws IOException {
+        for (String text : SAMPLES) {
+            assertRoundTrip(text);
+        }
+        assertNull(InstructionCodec.encode(null));
+        assertNull(InstructionCodec.decode(null));
+    }
+
+    @Test
+    void randomTextsRoundTrip() throws IOException {
+        Random random = new Random(40);
+        String[] words = {"양파를", "잘게", "썰고", "중불에서", "5분", "볶는다.", "간장 2큰술", "~z1:", "\n", "🍳"};
+        for (int i = 0; i < 300; i++) {
+            StringBuilder text = new StringBuilder();
+            int length = random.nextInt(4) == 0 ? random.nextInt(5) : random.nextInt(2000);
+            for (int w = 0; w < length; w++) {
+                if (random.nextInt(10) == 0) {
+                    text.append((char) (0xAC00 + random.nextInt(11172)));
+                } else {
+                    text.append(words[random.nextInt(words.length)]).append(' ');
+                }
+            }
+            assertRoundTrip(text.toString());
+        }
+    }
+
+    @Test
+    void shortAndLegacyTextStaysPlain() throws IOException {
+        String plain = "양파 볶기";
+        assertSame(plain, InstructionCodec.encode(plain));
+        assertEquals("기존 평문 행", InstructionCodec.decode("기존 평문 행"));
+        assertEquals("~z", InstructionCodec.readAll(InstructionCodec.decoding(new StringReader("~z"))));
+
+        String repeated = "양파를 잘게 썰어 중불에서 볶는다. ".repeat(200);
+        String stored = InstructionCodec.encode(repeated);
+        assertTrue(stored.startsWith(InstructionCodec.MARKER));
+        assertTrue(stored.length() * 5 < repeated.length(), "반복되는 본문은 크게 줄어듦: " + stored.length());
+    }
+
+    @Test
+    void plainTextStartingWithMarkerIsCompressed() {
+        for (String text : new String[]{"~z1:", "~z1:abc", "~z1:" + InstructionCodec.encode("가".repeat(300))}) {
+            String stored = InstructionCodec.encode(text);
+            assertTrue(stored.startsWith(InstructionCodec.MARKER), text);
+            assertNotEquals(text, stored);
+            assertEquals(text, InstructionCodec.decode(stored));
+        }
+    }
+
+    @Test
+    void findInstructionsDecodesColumnReader() {
+        Map<Integer, String> originals = new HashMap<>();
+        Map<Integer, String> stored = new HashMap<>();
+        List<String> texts = new ArrayList<>(List.of(SAMPLES));
+        texts.add("양파를 잘게 썰어 중불에서 볶는다. ".repeat(100));
+        for (int i = 0; i < texts.size(); i++) {
+            originals.put(i + 1, texts.get(i));
+            stored.put(i + 1, InstructionCodec.encode(texts.get(i)));
+        }
+        FakeDriver.install((sql, params) -> sql.startsWith("SELECT instructions FROM recipes")
+            ? List.of(FakeDriver.row("instructions", stored.get((Integer) params.get(0))))
+            : List.of());
+        RecipeDAOImpl dao = new RecipeDAOImpl();
+        for (Map.Entry<Integer, String> entry : originals.entrySet()) {
+            assertEquals(entry.getValue(), dao.findInstructions(entry.getKey()), "레시피 " + entry.getKey());
+        }
+    }
+
+    private static void assertRoundTrip(String text) throws IOException {
+        String stored = InstructionCodec.encode(text);
+        assertEquals(text, InstructionCodec.decode(stored));
+        assertEquals(text, InstructionCodec.readAll(InstructionCodec.decoding(new StringReader(stored))));
+        assertEquals(text, InstructionCodec.readAll(InstructionCodec.decoding(new OneCharReader(stored))));
+    }
+
+    /**
+     * 한 번에 한 글자씩만 주는 Reader (DB 드라이버의 작은 버퍼 흉내)
+     */
+    private static class OneCharReader extends Reader {
+        private final String text;
+        private int position;
+
+        OneCharReader(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) {
+            if (position >= text.length()) return -1;
+            if (length == 0) return 0;
+            buffer[offset] = text.charAt(position++);
+            return 1;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
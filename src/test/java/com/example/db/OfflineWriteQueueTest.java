@@ -0,0 +1,184 @@
+package com.example.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.dao.impl.IngredientDAOImpl;
+import com.example.model.Ingredient;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * OfflineWriteQueueTest
+ * - 연결 오류(SQLState 08)면 대기열에 넣고, 대기 중인 작업이 있으면 DB가 살아 있어도 뒤에 붙여 순서를 지킴
+ * - 임시 id로 쌓인 수정은 재실행 때 앞선 저장이 bindId()로 연결한 실제 id를 씀 (큐 단독, 재료 DAO + FakeDriver)
+ * - 재실행 중 연결 오류면 그 작업부터 남기고, 그 외 실패는 실패 목록으로 옮김
+ * - 재실행 중인 DB 작업은 큐 락 밖에서 돌므로 다른 스레드의 run()/size()가 기다리지 않음
+ */
+class OfflineWriteQueueTest {
+    private final OfflineWriteQueue queue = OfflineWriteQueue.getInstance();
+    private final List<String> log = Collections.synchronizedList(new ArrayList<>());
+    private volatile boolean down;
+
+    @AfterEach
+    void drain() {
+        down = false;
+        FakeDriver.install((sql, params) -> Collections.emptyList());
+        queue.replay();
+        queue.discardFailed();
+        assertFalse(queue.hasPending());
+    }
+
+    @Test
+    void queuedUpdateUsesIdBoundByQueuedInsert() {
+        int[] temporaryId = {0};
+        down = true;
+        queue.run("저장", () -> {
+            write("insert");
+            if (temporaryId[0] < 0) queue.bindId(temporaryId[0], 1000);
+        }, () -> temporaryId[0] = queue.nextTemporaryId());
+        assertTrue(temporaryId[0] < 0);
+        assertEquals(temporaryId[0], queue.resolve(temporaryId[0]));
+
+        // DB가 돌아와도 앞선 작업이 대기 중이면 바로 실행하지 않고 뒤에 붙임
+        down = false;
+        int id = temporaryId[0];
+        queue.run("수정", () -> write("update " + queue.resolve(id)));
+        assertEquals(2, queue.size());
+        assertTrue(log.isEmpty());
+
+        assertEquals(2, queue.replay());
+        assertEquals(List.of("insert", "update 1000"), log);
+        assertEquals(1000, queue.resolve(id));
+        assertEquals(7, queue.resolve(7));
+    }
+
+    @Test
+    void connectionFailureStopsReplayAndKeepsOrder() {
+        down = true;
+        for (String name : List.of("a", "b", "c")) queue.run(name, () -> write(name));
+        assertEquals(3, queue.size());
+
+        down = false;
+        boolean[] failOnce = {true};
+        queue.run("d", () -> {
+            if (failOnce[0]) {
+                failOnce[0] = false;
+                throw new SQLException("연결 끊김", "08S01");
+            }
+            write("d");
+        });
+        queue.run("e", () -> write("e"));
+        assertEquals(3, queue.replay());
+        assertEquals(List.of("a", "b", "c"), log);
+        assertEquals(2, queue.size());
+
+        assertEquals(2, queue.replay());
+        assertEquals(List.of("a", "b", "c", "d", "e"), log);
+    }
+
+    @Test
+    void otherFailuresMoveToFailedListAndCanBeRetried() {
+        down = true;
+        boolean[] broken = {true};
+        queue.run("깨진 작업", () -> {
+            write("시도");
+            if (broken[0]) throw new SQLException("중복 키", "23000");
+            log.add("fixed");
+        });
+        queue.run("다음 작업", () -> write("next"));
+
+        down = false;
+        assertEquals(2, queue.replay());
+        assertEquals(List.of("시도", "next"), log);
+        assertEquals(1, queue.getFailed().size());
+        assertEquals("깨진 작업", queue.getFailed().get(0).getOperation());
+        assertEquals("중복 키", queue.getFailed().get(0).getReason());
+
+        broken[0] = false;
+        assertEquals(1, queue.retryFailed());
+        assertEquals(List.of("시도", "next", "시도", "fixed"), log);
+        assertTrue(queue.getFailed().isEmpty());
+    }
+
+    @Test
+    void replayDoesNotHoldQueueLockDuringWrites() throws Exception {
+        down = true;
+        CountDownLatch otherThreadDone = new CountDownLatch(1);
+        boolean[] waited = {false};
+        queue.run("느린 작업", () -> {
+            write("slow");
+            // 재실행 중 다른 스레드가 큐를 쓸 수 있어야 이 기다림이 풀림
+            try {
+                waited[0] = otherThreadDone.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new SQLException(e);
+            }
+        });
+        down = false;
+
+        CompletableFuture<Integer> replay = CompletableFuture.supplyAsync(queue::replay);
+        while (log.isEmpty()) Thread.sleep(1);
+        CompletableFuture.runAsync(() -> {
+            queue.run("뒤에 온 작업", () -> write("late"));
+            assertEquals(2, queue.size());
+            otherThreadDone.countDown();
+        }).get(5, TimeUnit.SECONDS);
+
+        assertEquals(2, replay.get(5, TimeUnit.SECONDS));
+        assertTrue(waited[0]);
+        assertEquals(List.of("slow", "late"), log);
+    }
+
+    @Test
+    void ingredientSavedOfflineIsUpdatedByItsRealId() {
+        List<String> updates = Collections.synchronizedList(new ArrayList<>());
+        FakeDriver.install(new FakeDriver.Handler() {
+            @Override
+            public List<Map<String, Object>> query(String sql, List<Object> params) {
+                return Collections.emptyList();
+            }
+
+            @Override
+            public int update(String sql, List<Object> params) throws SQLException {
+                if (down) throw new SQLException("연결 끊김", "08S01");
+                updates.add(sql.substring(0, sql.indexOf(' ')) + " " + params);
+                return 1;
+            }
+        });
+        IngredientDAOImpl ingredientDAO = new IngredientDAOImpl();
+
+        down = true;
+        Ingredient ingredient = new Ingredient();
+        ingredient.setName("두부");
+        ingredient.setAvailableQuantity(2);
+        ingredientDAO.save(ingredient);
+        int temporaryId = ingredient.getId();
+        assertTrue(temporaryId < 0);
+        ingredient.setAvailableQuantity(5);
+        ingredientDAO.update(ingredient);
+        assertEquals(2, queue.size());
+
+        down = false;
+        assertEquals(2, queue.replay());
+        int realId = queue.resolve(temporaryId);
+        assertTrue(realId > 0);
+        assertEquals(2, updates.size());
+        assertTrue(updates.get(0).startsWith("INSERT [두부, 2"), updates.get(0));
+        assertEquals("UPDATE [두부, 5, " + realId + "]", updates.get(1));
+    }
+
+    private void write(String entry) throws SQLException {
+        if (down) throw new SQLException("연결 끊김", "08S01");
+        log.add(entry);
+    }
+}
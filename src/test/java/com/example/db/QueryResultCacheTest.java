@@ -0,0 +1,133 @@
+package com.example.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.example.dao.impl.RecipeDAOImpl;
+import com.example.model.Recipe;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * QueryResultCacheTest
+ * - 무게 한도 LRU: 무작위 저장/조회를 접근 순서 목록으로 흉내 낸 결과와 비교 (가장 오래 안 쓴 항목부터 제거)
+ * - TTL이 지난 항목과 저장 당시 테이블 버전이 현재와 다른 항목은 버림
+ * - 레시피 전체 조회는 버전이 그대로인 동안 DB에 다시 가지 않고, 관련 테이블 버전이 오르면 다시 읽음
+ */
+class QueryResultCacheTest {
+
+    @Test
+    void evictsLeastRecentlyUsedUntilWeightFits() {
+        QueryResultCache<String> cache = new QueryResultCache<>("테스트", 10);
+        cache.put("a", 0, "A", 4);
+        cache.put("b", 0, "B", 3);
+        cache.put("c", 0, "C", 3);
+        assertEquals("A", cache.get("a", 0));
+        cache.put("d", 0, "D", 2);
+        // 접근 순서 b, c, a, d → b만 빼면 한도 안
+        assertNull(cache.get("b", 0));
+        assertEquals(1, cache.getEvictions());
+        assertEquals(9, cache.getTotalWeight());
+
+        // 같은 키에 다시 저장하면 무게를 바꿔 셈, 한도를 넘는 항목 하나는 보관하지 않음
+        cache.put("a", 0, "A2", 1);
+        assertEquals(6, cache.getTotalWeight());
+        cache.put("big", 0, "BIG", 11);
+        assertNull(cache.get("big", 0));
+        assertEquals(3, cache.getSize());
+    }
+
+    @Test
+    void randomOperationsMatchAccessOrderList() {
+        Random random = new Random(34);
+        QueryResultCache<Integer> cache = new QueryResultCache<>("테스트", 50);
+        // 가장 오래 안 쓴 키가 앞 (키 → 무게)
+        List<String> order = new ArrayList<>();
+        Map<String, Integer> weights = new HashMap<>();
+        for (int step = 0; step < 5000; step++) {
+            String key = "k" + random.nextInt(30);
+            if (random.nextBoolean()) {
+                Integer value = cache.get(key, 0);
+                assertEquals(weights.get(key), value, "조회 " + step);
+                if (value != null) {
+                    order.remove(key);
+                    order.add(key);
+                }
+            } else {
+                int weight = 1 + random.nextInt(12);
+                cache.put(key, 0, weight, weight);
+                order.remove(key);
+                order.add(key);
+                weights.put(key, weight);
+                int total = weights.values().stream().mapToInt(Integer::intValue).sum();
+                while (total > 50) {
+                    total -= weights.remove(order.remove(0));
+                }
+            }
+            assertEquals(weights.size(), cache.getSize(), "단계 " + step);
+            assertEquals(weights.values().stream().mapToInt(Integer::intValue).sum(), cache.getTotalWeight());
+        }
+    }
+
+    @Test
+    void entriesOlderThanTtlAreDropped() throws InterruptedException {
+        QueryResultCache<String> cache = new QueryResultCache<>("테스트", 10, 50);
+        cache.put("a", 0, "A", 1);
+        assertEquals("A", cache.get("a", 0));
+        Thread.sleep(120);
+        assertNull(cache.get("a", 0));
+        assertEquals(1, cache.getStaleCount());
+        assertEquals(0, cache.getTotalWeight());
+    }
+
+    @Test
+    void writeToAnyStampedTableInvalidates() {
+        TableVersions versions = TableVersions.getInstance();
+        QueryResultCache<String> cache = new QueryResultCache<>("테스트", 10);
+        long stamp = versions.stamp("cache_t1", "cache_t2");
+        cache.put("q", stamp, "결과", 1);
+        versions.bump("cache_other");
+        assertEquals("결과", cache.get("q", versions.stamp("cache_t1", "cache_t2")), "관계없는 테이블");
+        versions.bump("cache_t2");
+        assertNull(cache.get("q", versions.stamp("cache_t1", "cache_t2")));
+
+        // 조회 도중 쓰기가 있었으면 조회 전에 읽은 stamp로 저장한 결과는 바로 버려짐
+        stamp = versions.stamp("cache_t1", "cache_t2");
+        versions.bump("cache_t1");
+        cache.put("q", stamp, "쓰기 전 결과", 1);
+        assertNull(cache.get("q", versions.stamp("cache_t1", "cache_t2")));
+        assertEquals(2, cache.getStaleCount());
+    }
+
+    @Test
+    void recipeListIsServedFromCacheUntilRecipeTablesChange() {
+        FakeDriver.install((sql, params) -> {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            if (sql.startsWith("SELECT r.id")) {
+                for (int id = 1; id <= 3; id++) rows.add(FakeDriver.row("id", id, "name", "레시피" + id, "is_favorite", 0));
+            } else if (sql.startsWith("SELECT ingredient_name")) {
+                rows.add(FakeDriver.row("ingredient_name", "양파", "required_quantity", 1));
+            }
+            return rows;
+        });
+        RecipeDAOImpl dao = new RecipeDAOImpl();
+        assertEquals(3, dao.findAll().size());
+
+        int before = FakeDriver.queries();
+        List<Recipe> cached = dao.findAll();
+        assertEquals(3, cached.size());
+        assertEquals(0, FakeDriver.queries() - before, "버전이 그대로면 DB에 가지 않음");
+        // 돌려준 목록은 복사본
+        cached.get(0).setName("바꾼 이름");
+        assertEquals("레시피1", dao.findAll().get(0).getName());
+
+        TableVersions.getInstance().bump("recipe_ingredients");
+        before = FakeDriver.queries();
+        assertEquals(3, dao.findAll().size());
+        assertEquals(1 + 3, FakeDriver.queries() - before, "목록 한 번 + 레시피별 재료");
+    }
+}
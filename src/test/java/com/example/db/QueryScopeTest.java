@@ -0,0 +1,124 @@
+package com.example.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * QueryScopeTest
+ * - "SELECT SLEEP"은 cancel()로 중단될 때까지(최대 10초) 돌아오지 않는 쿼리 (FakeDriver의 cancel은 실행 스레드를 인터럽트)
+ * - 시간 예산이 지나거나 다른 스레드에서 취소하면 실행 중인 쿼리가 바로 멈추고, 같은 범위의 다음 쿼리는 시작하지 않음
+ * - pause()~resume() 사이의 시간은 예산에서 빠지고, 안쪽 범위는 바깥 범위의 마감과 취소를 따름
+ */
+class QueryScopeTest {
+    private static final CountDownLatch SLEEPING = new CountDownLatch(1);
+
+    @BeforeAll
+    static void installDriver() {
+        FakeDriver.install((sql, params) -> {
+            if (sql.startsWith("SELECT SLEEP")) {
+                SLEEPING.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    throw new SQLException("쿼리가 중단되었습니다.", "70100", e);
+                }
+            }
+            return List.of();
+        });
+    }
+
+    @Test
+    void budgetStopsRunningQueryAndRefusesTheNext() {
+        long started = System.nanoTime();
+        try (QueryScope scope = QueryScope.open("test.timeout", 200)) {
+            IllegalStateException stopped = assertThrows(IllegalStateException.class,
+                () -> scope.run(() -> query("SELECT SLEEP(10)")));
+            assertEquals("70100", ((SQLException) stopped.getCause()).getSQLState());
+            long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+            assertTrue(elapsed >= 190 && elapsed < 2000, "중단까지 " + elapsed + "ms");
+            assertTrue(scope.isTimedOut());
+            assertEquals(0, scope.remainingMillis());
+
+            IllegalStateException next = assertThrows(IllegalStateException.class, () -> scope.run(() -> query("SELECT 1")));
+            assertTrue(next.getCause() instanceof SQLTimeoutException, next.toString());
+        }
+    }
+
+    @Test
+    void cancelFromAnotherThreadStopsQueryAndNestedScopes() throws Exception {
+        int cancels = FakeDriver.cancels();
+        QueryScope scope = QueryScope.open("test.cancel", 10_000);
+        QueryScope[] nested = {null};
+        CompletableFuture<Void> running = CompletableFuture.runAsync(() -> scope.run(() -> {
+            nested[0] = QueryScope.open("test.cancel.nested", 10_000);
+            return nested[0].run(() -> query("SELECT SLEEP(10)"));
+        }));
+        assertTrue(SLEEPING.await(5, TimeUnit.SECONDS));
+        long cancelledAt = System.nanoTime();
+        scope.cancel();
+
+        ExecutionException e = assertThrows(ExecutionException.class, () -> running.get(5, TimeUnit.SECONDS));
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - cancelledAt) < 1000);
+        assertEquals("70100", ((SQLException) e.getCause().getCause()).getSQLState());
+        assertTrue(FakeDriver.cancels() > cancels, "실행 중인 Statement를 cancel함");
+        assertTrue(scope.isCancelled());
+        assertTrue(nested[0].isCancelled(), "안쪽 범위도 취소됨");
+
+        IllegalStateException next = assertThrows(IllegalStateException.class, () -> scope.run(() -> query("SELECT 1")));
+        assertEquals("70100", ((SQLException) next.getCause()).getSQLState());
+        scope.close();
+    }
+
+    @Test
+    void pausedTimeIsNotCharged() throws InterruptedException {
+        try (QueryScope scope = QueryScope.open("test.pause", 300)) {
+            scope.pause();
+            Thread.sleep(500);
+            scope.resume();
+            assertFalse(scope.isTimedOut());
+            assertTrue(scope.remainingMillis() > 150, "남은 시간 " + scope.remainingMillis());
+            assertEquals(0, (int) scope.run(() -> query("SELECT 1")));
+
+            // 다시 돌기 시작한 시계는 남은 예산이 지나면 마감
+            Thread.sleep(500);
+            assertTrue(scope.isTimedOut());
+        }
+    }
+
+    @Test
+    void nestedScopeCannotOutliveItsParent() {
+        try (QueryScope parent = QueryScope.open("test.parent", 200)) {
+            parent.run(() -> {
+                try (QueryScope child = QueryScope.open("test.child", 10_000)) {
+                    assertTrue(child.remainingMillis() <= 200, "안쪽 남은 시간 " + child.remainingMillis());
+                }
+                return null;
+            });
+        }
+    }
+
+    // 주 서버에서 쿼리 하나 실행 (실패는 호출한 쪽 범위 밖으로 던짐)
+    private static int query(String sql) {
+        try (Connection conn = DatabaseConnection.getInstance().getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeQuery(sql).close();
+            return 0;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.dao.impl.IngredientDAOImpl;
+import com.example.dao.impl.RecipeDAOImpl;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ReadRoutingTest
+ * - 테스트 설정의 복제 서버(jdbc:fake:replica) 하나로 읽기 분배와 read-your-writes 확인 (지연 0으로 설정)
+ * - 쓰기 시각은 주 서버 커넥션에서 쓰기를 실행한 뒤의 commit/close에만 기록되고, 조회만 한 주 서버 커넥션은 남기지 않음
+ * - 쓰기 시각에서 read.your.writes(테스트 설정 300ms) 안의 읽기는 주 서버로 가고, 그사이 복제 서버에서 읽은 결과는 캐시하지 않음
+ */
+class ReadRoutingTest {
+    private static final long READ_YOUR_WRITES_MS = 300;
+    private final DatabaseConnection db = DatabaseConnection.getInstance();
+
+    @BeforeAll
+    static void replicaIsCurrent() {
+        FakeLagProbe.setLag(0);
+        DatabaseConnection.getInstance().setLagProbe(new FakeLagProbe());
+        FakeDriver.install((sql, params) -> {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            if (sql.startsWith("SELECT * FROM ingredients WHERE id")) {
+                rows.add(FakeDriver.row("id", params.get(0), "name", "양파", "available_quantity", 3, "unit_price", 100L));
+            }
+            return rows;
+        });
+    }
+
+    @BeforeEach
+    void waitOutPreviousWrites() throws InterruptedException {
+        Thread.sleep(READ_YOUR_WRITES_MS + 50);
+        assertEquals("jdbc:fake:replica", readTarget());
+    }
+
+    @Test
+    void primaryReadsDoNotStampWrites() throws SQLException {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("SELECT 1 FROM recipes WHERE id = ?")) {
+            pstmt.setInt(1, 1);
+            pstmt.executeQuery().close();
+        }
+        // 잠금 조회만 하고 커밋한 트랜잭션도 쓰기가 아님
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try (Statement stmt = conn.createStatement()) {
+                stmt.executeQuery("SELECT id FROM ingredients WHERE name IN ('양파') ORDER BY id FOR UPDATE").close();
+            }
+            conn.commit();
+        }
+        assertEquals("jdbc:fake:replica", readTarget());
+
+        DatabaseConnection.ReadMark mark = db.markRead();
+        assertEquals("jdbc:fake:replica", readTarget());
+        assertTrue(mark.isCacheable());
+    }
+
+    @Test
+    void writeIsStampedAtCommitNotBefore() throws SQLException {
+        try (Connection conn = db.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement pstmt = conn.prepareStatement("UPDATE ingredients SET available_quantity = ? WHERE id = ?")) {
+                pstmt.setInt(1, 1);
+                pstmt.setInt(2, 7);
+                pstmt.executeUpdate();
+            }
+            assertEquals("jdbc:fake:replica", readTarget(), "커밋 전에는 다른 읽기가 쓰기를 볼 수 없음");
+            conn.commit();
+            assertEquals("jdbc:fake:primary", readTarget(), "커밋 직후에는 주 서버");
+        }
+    }
+
+    @Test
+    void autoCommitBatchIsStampedAtClose() throws SQLException {
+        try (Connection conn = db.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement("DELETE FROM favorite_recipes WHERE recipe_id = ?")) {
+            pstmt.setInt(1, 1);
+            pstmt.addBatch();
+            pstmt.executeBatch();
+        }
+        assertEquals("jdbc:fake:primary", readTarget());
+    }
+
+    @Test
+    void replicaReadStartedBeforeWriteIsNotCacheable() throws SQLException {
+        DatabaseConnection.ReadMark mark = db.markRead();
+        assertEquals("jdbc:fake:replica", readTarget());
+        new IngredientDAOImpl().updateUnitPrice(7, 150);
+        assertFalse(mark.isCacheable(), "복제 서버가 그 쓰기를 아직 받지 못했을 수 있음");
+        assertEquals("jdbc:fake:primary", readTarget());
+    }
+
+    @Test
+    void cookRolledBackForShortageLeavesReadsOnReplica() {
+        // 잠금 조회에 행이 없어 모든 재료가 부족: 쓰기 없이 롤백
+        assertThrows(IllegalStateException.class,
+            () -> new RecipeDAOImpl().cook(1, Map.of("버터", 1), new Timestamp(System.currentTimeMillis())));
+        assertEquals("jdbc:fake:replica", readTarget());
+    }
+
+    private String readTarget() {
+        try (Connection conn = db.getReadConnection()) {
+            return conn.toString();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
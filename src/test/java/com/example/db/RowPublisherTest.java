@@ -0,0 +1,236 @@
+package com.example.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.dao.impl.IngredientDAOImpl;
+import com.example.model.Ingredient;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * RowPublisherTest
+ * - 조회는 구독자가 요청한 만큼만 앞서 나가고(요청이 없으면 sink에서 멈춤), 요청을 더하면 이어서 순서대로 전달
+ * - 취소하면 조회가 멈추고 신호를 더 보내지 않음. 요청 없이 query.stream.idle.ms(테스트 0.5초)가 지나면 오류로 끝냄
+ * - 요청을 기다린 시간은 작업 예산(test.idle 0.2초)에 넣지 않으므로 유휴 종료는 시간 초과가 아닌 유휴 오류
+ * - onSubscribe 뒤의 신호는 모두 조회 스레드 하나에서 onNext* → onComplete | onError 순서
+ * - 재료 전체 스트리밍은 가짜 드라이버의 ResultSet에서도 요청보다 한 행까지만 앞서 읽고, 취소하면 더 읽지 않음
+ */
+class RowPublisherTest {
+
+    @Test
+    void producerRunsOnlyAsFarAsDemand() throws InterruptedException {
+        AtomicInteger produced = new AtomicInteger();
+        Recorder recorder = subscribe("test.demand", sink -> {
+            for (int i = 0; i < 10_000; i++) {
+                produced.incrementAndGet();
+                sink.accept(i);
+            }
+        });
+        recorder.subscription.request(5);
+        recorder.awaitItems(5);
+        Thread.sleep(100);
+        // 여섯 번째 결과를 만든 뒤 요청을 기다리는 중
+        assertEquals(6, produced.get());
+        assertEquals(5, recorder.items.size());
+
+        recorder.subscription.request(10);
+        recorder.awaitItems(15);
+        Thread.sleep(100);
+        assertEquals(16, produced.get());
+
+        recorder.subscription.request(Long.MAX_VALUE);
+        recorder.awaitEnd();
+        assertEquals(10_000, recorder.items.size());
+        for (int i = 0; i < recorder.items.size(); i++) assertEquals(i, recorder.items.get(i));
+        assertEquals(List.of("onSubscribe", "onNext", "onComplete"), recorder.kinds());
+        assertEquals(1, recorder.threads().size(), "신호는 조회 스레드 하나에서");
+    }
+
+    @Test
+    void cancelStopsProducerWithoutFurtherSignals() throws InterruptedException {
+        CountDownLatch stopped = new CountDownLatch(1);
+        Recorder recorder = subscribe("test.cancel", sink -> {
+            try {
+                for (int i = 0; ; i++) sink.accept(i);
+            } finally {
+                stopped.countDown();
+            }
+        });
+        recorder.subscription.request(3);
+        recorder.awaitItems(3);
+        recorder.subscription.cancel();
+        assertTrue(stopped.await(2, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(List.of("onSubscribe", "onNext"), recorder.kinds());
+        assertEquals(3, recorder.items.size());
+    }
+
+    @Test
+    void idleSubscriberEndsStreamWithoutChargingBudget() throws InterruptedException {
+        CountDownLatch stopped = new CountDownLatch(1);
+        Recorder recorder = subscribe("test.idle", sink -> {
+            try {
+                for (int i = 0; ; i++) sink.accept(i);
+            } finally {
+                stopped.countDown();
+            }
+        });
+        recorder.subscription.request(1);
+        assertTrue(stopped.await(3, TimeUnit.SECONDS), "유휴 구독의 조회가 끝나야 함");
+        recorder.awaitEnd();
+        assertEquals(1, recorder.items.size());
+        assertTrue(recorder.error instanceof IllegalStateException, String.valueOf(recorder.error));
+    }
+
+    @Test
+    void invalidRequestAndProducerFailureEndWithError() throws InterruptedException {
+        Recorder invalid = subscribe("test.invalid", sink -> {
+            for (int i = 0; ; i++) sink.accept(i);
+        });
+        invalid.subscription.request(0);
+        invalid.awaitEnd();
+        assertTrue(invalid.error instanceof IllegalArgumentException, String.valueOf(invalid.error));
+
+        SQLException failure = new SQLException("연결 끊김", "08S01");
+        Recorder failed = subscribe("test.failure", sink -> {
+            sink.accept(1);
+            throw failure;
+        });
+        failed.subscription.request(10);
+        failed.awaitEnd();
+        assertEquals(List.of(1), failed.items);
+        assertSame(failure, failed.error);
+    }
+
+    @Test
+    void producerUsesSubscriberPriority() throws InterruptedException {
+        DbScheduler.Priority[] seen = {null};
+        DbScheduler.Scope bulk = DbScheduler.withPriority(DbScheduler.Priority.BULK);
+        Recorder recorder;
+        try {
+            recorder = subscribe("test.priority", sink -> seen[0] = DbScheduler.currentPriority());
+        } finally {
+            bulk.close();
+        }
+        recorder.subscription.request(1);
+        recorder.awaitEnd();
+        assertEquals(DbScheduler.Priority.BULK, seen[0]);
+    }
+
+    @Test
+    void ingredientStreamReadsAtMostOneRowAheadOfDemand() throws InterruptedException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int id = 1; id <= 50_000; id++) {
+            rows.add(FakeDriver.row("id", id, "name", "재료" + id, "available_quantity", id % 10, "unit_price", 100L));
+        }
+        FakeDriver.install((sql, params) -> sql.startsWith("SELECT * FROM ingredients") ? rows : List.of());
+        int before = FakeDriver.rowsRead();
+        List<Integer> ids = Collections.synchronizedList(new ArrayList<>());
+        Flow.Subscription[] subscription = {null};
+        new IngredientDAOImpl().streamAll().subscribe(new Flow.Subscriber<Ingredient>() {
+            @Override public void onSubscribe(Flow.Subscription s) { subscription[0] = s; }
+            @Override public void onNext(Ingredient item) { ids.add(item.getId()); }
+            @Override public void onError(Throwable throwable) { }
+            @Override public void onComplete() { }
+        });
+        subscription[0].request(200);
+        long until = System.currentTimeMillis() + 5000;
+        while (ids.size() < 200 && System.currentTimeMillis() < until) Thread.sleep(5);
+        Thread.sleep(100);
+        assertEquals(200, ids.size());
+        assertEquals(201, FakeDriver.rowsRead() - before, "요청 200건 + 기다리는 1건");
+        assertEquals(200, (int) ids.get(199));
+
+        subscription[0].cancel();
+        Thread.sleep(100);
+        assertEquals(201, FakeDriver.rowsRead() - before, "취소 뒤에는 읽지 않음");
+    }
+
+    private static Recorder subscribe(String operation, RowPublisher.Producer<Integer> producer) {
+        Recorder recorder = new Recorder();
+        new RowPublisher<>(operation, producer).subscribe(recorder);
+        return recorder;
+    }
+
+    /**
+     * 받은 신호를 (종류, 스레드)로 기록하는 구독자
+     */
+    private static class Recorder implements Flow.Subscriber<Integer> {
+        final List<Integer> items = Collections.synchronizedList(new ArrayList<>());
+        final List<String[]> signals = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch ended = new CountDownLatch(1);
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            record("onSubscribe");
+        }
+
+        @Override
+        public void onNext(Integer item) {
+            items.add(item);
+            record("onNext");
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            record("onError");
+            ended.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            record("onComplete");
+            ended.countDown();
+        }
+
+        private void record(String kind) {
+            signals.add(new String[]{kind, Thread.currentThread().getName()});
+        }
+
+        void awaitItems(int count) throws InterruptedException {
+            long until = System.currentTimeMillis() + 5000;
+            while (items.size() < count && System.currentTimeMillis() < until) Thread.sleep(5);
+            assertEquals(count, items.size());
+        }
+
+        void awaitEnd() throws InterruptedException {
+            assertTrue(ended.await(5, TimeUnit.SECONDS), "끝 신호가 없음");
+        }
+
+        // 연속한 같은 종류는 하나로 묶은 신호 순서
+        List<String> kinds() {
+            List<String> kinds = new ArrayList<>();
+            synchronized (signals) {
+                for (String[] signal : signals) {
+                    if (kinds.isEmpty() || !kinds.get(kinds.size() - 1).equals(signal[0])) kinds.add(signal[0]);
+                }
+            }
+            return kinds;
+        }
+
+        // onSubscribe(구독한 스레드) 뒤의 신호를 보낸 스레드들
+        List<String> threads() {
+            List<String> threads = new ArrayList<>();
+            synchronized (signals) {
+                for (String[] signal : signals.subList(1, signals.size())) {
+                    if (!threads.contains(signal[1])) threads.add(signal[1]);
+                }
+            }
+            return threads;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * ShardRouterTest
+ * - 가짜 샤드 3개(jdbc:fake:shard0..2)를 둔 라우터로 scatterGather 확인. 조회는 커넥션 URL로 어느 샤드인지 구분
+ * - 병합 결과는 모든 샤드 결과의 정렬된 합집합이고, 여러 샤드에 있는 같은 키(재배치 중)는 한 번만 나옴
+ * - 한 샤드가 실패하거나 sink가 예외를 던지면 그 예외를 그대로 던지고, 끝없이 결과를 내던 다른 샤드 조회도 멈춤
+ */
+class ShardRouterTest {
+    private static final int SHARDS = 3;
+    private final ShardRouter router = new ShardRouter(
+        List.of("jdbc:fake:shard0", "jdbc:fake:shard1", "jdbc:fake:shard2"), SHARDS);
+
+    @BeforeAll
+    static void registerDriver() {
+        // 조회는 테스트가 커넥션마다 직접 만들어 냄
+        FakeDriver.install((sql, params) -> List.of());
+    }
+
+    @Test
+    void mergeIsSortedUnionWithoutDuplicates() throws SQLException {
+        Random random = new Random(36);
+        List<List<Integer>> perShard = new ArrayList<>();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int shard = 0; shard < SHARDS; shard++) {
+            List<Integer> rows = new ArrayList<>();
+            // 샤드마다 대기열(256)보다 훨씬 많이, id마다 1/3 확률이라 여러 샤드에 있는 id도 많음
+            for (int id = 1; id <= 20_000; id++) {
+                if (random.nextInt(3) == 0) rows.add(id);
+            }
+            perShard.add(rows);
+            expected.addAll(rows);
+        }
+        List<Integer> merged = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> router.scatterGather(
+            (conn, sink) -> perShard.get(shardOf(conn)).forEach(sink), Comparator.<Integer>naturalOrder()));
+        assertEquals(new ArrayList<>(expected), merged);
+    }
+
+    @Test
+    void failingShardCancelsTheOthers() {
+        CountDownLatch stopped = new CountDownLatch(SHARDS - 1);
+        SQLException failure = new SQLException("샤드 1 연결 끊김", "08S01");
+        List<Integer> received = new ArrayList<>();
+        SQLException thrown = assertThrows(SQLException.class, () -> assertTimeoutPreemptively(Duration.ofSeconds(10),
+            () -> router.scatterGather((conn, sink) -> {
+                if (shardOf(conn) == 1) {
+                    for (int i = 0; i < 10; i++) sink.accept(i);
+                    throw failure;
+                }
+                endless(sink, stopped);
+            }, Comparator.<Integer>naturalOrder(), received::add)));
+        assertSame(failure, thrown);
+        // 실패한 샤드의 마지막 결과(9)까지는 순서대로 전달됨
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8), received.subList(0, 9));
+        assertAllStopped(stopped);
+    }
+
+    @Test
+    void runtimeFailureIsRethrownInsteadOfHanging() {
+        CountDownLatch stopped = new CountDownLatch(SHARDS - 1);
+        IllegalArgumentException failure = new IllegalArgumentException("잘못된 행");
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+            () -> assertTimeoutPreemptively(Duration.ofSeconds(10), () -> router.scatterGather((conn, sink) -> {
+                if (shardOf(conn) == 2) throw failure;
+                endless(sink, stopped);
+            }, Comparator.<Integer>naturalOrder(), row -> { })));
+        assertSame(failure, thrown);
+        assertAllStopped(stopped);
+    }
+
+    @Test
+    void sinkFailureCancelsEveryShard() {
+        CountDownLatch stopped = new CountDownLatch(SHARDS);
+        IllegalStateException failure = new IllegalStateException("화면이 닫힘");
+        int[] accepted = {0};
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+            () -> assertTimeoutPreemptively(Duration.ofSeconds(10), () -> router.scatterGather(
+                (conn, sink) -> endless(sink, stopped), Comparator.<Integer>naturalOrder(), row -> {
+                    if (++accepted[0] == 100) throw failure;
+                })));
+        assertSame(failure, thrown);
+        assertAllStopped(stopped);
+    }
+
+    // 취소(인터럽트)될 때까지 0, 1, 2 ... 를 계속 내보냄
+    private static void endless(Consumer<Integer> sink, CountDownLatch stopped) {
+        try {
+            for (int i = 0; ; i++) sink.accept(i);
+        } finally {
+            stopped.countDown();
+        }
+    }
+
+    private static void assertAllStopped(CountDownLatch stopped) {
+        try {
+            assertTrue(stopped.await(5, TimeUnit.SECONDS), "남은 샤드 조회 " + stopped.getCount() + "개가 멈추지 않음");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AssertionError(e);
+        }
+    }
+
+    private static int shardOf(Connection conn) {
+        return Integer.parseInt(conn.toString().substring("jdbc:fake:shard".length()));
+    }
+}
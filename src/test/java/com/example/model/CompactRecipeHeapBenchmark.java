@@ -0,0 +1,77 @@
+package com.example.model;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * CompactRecipeHeapBenchmark
+ * - 레시피 10만 개 카탈로그를 Recipe(HashMap + Timestamp)와 CompactRecipe + IngredientDictionary로 각각 올렸을 때의
+ *   살아 있는 힙 크기 비교 (테스트가 아니라 수동 실행용, 이름이 *Test가 아니므로 mvn test에서는 돌지 않음)
+ * - 레시피마다 재료 4-9개, 재료 이름 800종, 이름은 JDBC가 돌려주듯 매번 새 String 인스턴스
+ * - 측정값은 System.gc()를 여러 번 부른 뒤의 힙 사용량 차이 (같은 시드라 매번 같은 카탈로그)
+ * - 실행: mvn -B test-compile 후
+ *   java -Xmx1g -cp target/classes:target/test-classes com.example.model.CompactRecipeHeapBenchmark [레시피 수]
+ */
+public final class CompactRecipeHeapBenchmark {
+    private static final int NAMES = 800;
+
+    private CompactRecipeHeapBenchmark() {}
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        long baseline = liveHeap();
+        List<Recipe> recipes = recipes(count);
+        long recipeBytes = liveHeap() - baseline;
+        System.out.printf("Recipe (HashMap + Timestamp):   %,d개 %6.1f MB%n", recipes.size(), recipeBytes / 1048576.0);
+
+        // 변환에 쓴 Recipe 목록은 측정 전에 버림 (사전과 CompactRecipe만 남김)
+        IngredientDictionary dictionary = new IngredientDictionary();
+        List<CompactRecipe> compact = new ArrayList<>(count);
+        for (Recipe recipe : recipes) {
+            compact.add(CompactRecipe.from(recipe, dictionary));
+        }
+        recipes = null;
+        long compactBytes = liveHeap() - baseline;
+        System.out.printf("CompactRecipe + dictionary:     %,d개 %6.1f MB (재료 이름 %d종)%n",
+            compact.size(), compactBytes / 1048576.0, dictionary.size());
+    }
+
+    // JDBC 목록 조회가 만드는 것과 같은 모양의 Recipe (이름 문자열은 행마다 새로 만들어짐)
+    private static List<Recipe> recipes(int count) {
+        Random random = new Random(42);
+        List<Recipe> recipes = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            Recipe recipe = new Recipe();
+            recipe.setId(id);
+            recipe.setName(new String("레시피 " + id));
+            recipe.setRating(1 + random.nextInt(5));
+            if (random.nextInt(3) > 0) {
+                recipe.setLastCookedAt(new Timestamp(1_700_000_000_000L + random.nextInt(1_000_000_000)));
+            }
+            int ingredients = 4 + random.nextInt(6);
+            for (int i = 0; i < ingredients; i++) {
+                recipe.addIngredientNameAndQuantity(new String("재료" + random.nextInt(NAMES)), 1 + random.nextInt(500));
+            }
+            recipes.add(recipe);
+        }
+        return recipes;
+    }
+
+    // 전체 GC 뒤 힙 사용량 (바뀌지 않을 때까지 몇 번 반복)
+    private static long liveHeap() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 10; i++) {
+            System.gc();
+            long now = memory.getHeapMemoryUsage().getUsed();
+            if (now >= used) break;
+            used = now;
+        }
+        return used;
+    }
+}
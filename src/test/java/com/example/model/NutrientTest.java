@@ -0,0 +1,52 @@
+package com.example.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * NutrientTest
+ * - 성분별 고정소수점 단위로 읽고 표시
+ */
+class NutrientTest {
+
+    @Test
+    void parseScalesAndStripsUnit() {
+        assertEquals(125, Nutrient.KCAL.parse("12.5"));
+        assertEquals(12000, Nutrient.KCAL.parse("1,200kcal"));
+        assertEquals(31, Nutrient.PROTEIN.parse("3.1 g"));
+        assertEquals(1200, Nutrient.SODIUM.parse("1,200mg"));
+    }
+
+    @Test
+    void parseRoundsHalfUp() {
+        assertEquals(13, Nutrient.FAT.parse("1.25"));
+        assertEquals(12, Nutrient.FAT.parse("1.24"));
+        assertEquals(3, Nutrient.SODIUM.parse("2.5"));
+    }
+
+    @Test
+    void parseRejectsNegativeAndGarbage() {
+        assertThrows(IllegalArgumentException.class, () -> Nutrient.CARBS.parse("-1"));
+        assertThrows(IllegalArgumentException.class, () -> Nutrient.CARBS.parse("많음"));
+    }
+
+    @Test
+    void formatOmitsZeroFraction() {
+        assertEquals("12.5", Nutrient.KCAL.formatValue(125));
+        assertEquals("1,200", Nutrient.KCAL.formatValue(12000));
+        assertEquals("12.5kcal", Nutrient.KCAL.format(125));
+        assertEquals("1,200mg", Nutrient.SODIUM.format(1200));
+        assertEquals("0.3g", Nutrient.PROTEIN.format(3));
+    }
+
+    @Test
+    void parseAndFormatRoundTrip() {
+        for (Nutrient nutrient : Nutrient.values()) {
+            for (long value : new long[]{0, 7, 125, 12000, 123456}) {
+                assertEquals(value, nutrient.parse(nutrient.format(value)), nutrient.name());
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * PriceTest
+ * - 입력 문자열 → 1/100원 고정소수점 → 표시 문자열
+ */
+class PriceTest {
+
+    @Test
+    void parseAcceptsSeparatorsAndUnit() {
+        assertEquals(125050, Price.parse("1,250.5"));
+        assertEquals(125000, Price.parse(" 1250원 "));
+        assertEquals(0, Price.parse("0"));
+    }
+
+    @Test
+    void parseRoundsHalfUpAtThirdDecimal() {
+        assertEquals(101, Price.parse("1.005"));
+        assertEquals(100, Price.parse("1.004"));
+    }
+
+    @Test
+    void parseRejectsNegativeAndGarbage() {
+        assertThrows(IllegalArgumentException.class, () -> Price.parse("-1"));
+        assertThrows(IllegalArgumentException.class, () -> Price.parse("천원"));
+        assertThrows(IllegalArgumentException.class, () -> Price.parse("99999999999999999999"));
+    }
+
+    @Test
+    void formatShowsCentsOnlyWhenPresent() {
+        assertEquals("1,250원", Price.format(125000));
+        assertEquals("1,250.50원", Price.format(125050));
+        assertEquals("0.05원", Price.format(5));
+        assertEquals("-0.50원", Price.format(-50));
+        assertEquals("-3.25원", Price.format(-325));
+    }
+
+    @Test
+    void parseAndFormatRoundTrip() {
+        for (long amount : new long[]{0, 1, 99, 100, 123456789}) {
+            String text = Price.format(amount);
+            assertEquals(amount, Price.parse(text));
+        }
+    }
+
+    @Test
+    void timesOverflowFails() {
+        assertEquals(375150, Price.times(125050, 3));
+        assertThrows(ArithmeticException.class, () -> Price.times(Long.MAX_VALUE / 2, 3));
+    }
+}
@@ -0,0 +1,191 @@
+package com.example.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * TextArenaTest
+ * - 핸들 = 덩어리 번호(20비트 위) | 위치(20비트) | 길이(20비트)
+ * - 덩어리 끝까지 꽉 찬 경우, 빈 문자열, 너무 긴 문자열, 닫은 뒤 읽기
+ * - share()로 받은 참조가 남아 있으면 연 쪽이 닫아도 읽을 수 있고, 마지막 참조를 닫을 때 해제
+ * - 다른 영역으로 옮길 때는 바이트째 복사
+ */
+class TextArenaTest {
+    private static final int MB = 1 << 20;
+
+    private TextArena arena;
+
+    @BeforeEach
+    void open() {
+        TextArena.setLimitBytes(16L * MB);
+        arena = TextArena.open();
+    }
+
+    @AfterEach
+    void close() {
+        arena.close();
+    }
+
+    @Test
+    void roundTripsUtf8() {
+        String text = "양파를 잘게 썰고 🧅 \"볶는다\"\n";
+        long handle = arena.put(text);
+        assertEquals(text, arena.get(handle));
+        assertEquals(text.getBytes(java.nio.charset.StandardCharsets.UTF_8).length, handle & (MB - 1));
+    }
+
+    @Test
+    void packsChunkPositionAndLength() {
+        // 64KB, 128KB, 256KB, 512KB 덩어리를 정확히 채우면 다음 글은 다음 덩어리 처음에
+        int size = 64 * 1024;
+        for (int chunk = 0; chunk < 4; chunk++, size *= 2) {
+            long handle = arena.put("a".repeat(size));
+            assertEquals(chunk, chunk(handle));
+            assertEquals(0, position(handle));
+            assertEquals(size, length(handle));
+        }
+        long first = arena.put("b");
+        assertEquals(4, chunk(first));
+        assertEquals(0, position(first));
+        assertEquals(1, length(first));
+        long second = arena.put("cd");
+        assertEquals(4, chunk(second));
+        assertEquals(1, position(second));
+        assertEquals("cd", arena.get(second));
+    }
+
+    @Test
+    void fillsTheLastPositionOfAFullMegabyteChunk() {
+        // 64KB ~ 512KB 덩어리를 채워 다음 덩어리가 최대 크기(1MB)가 되게
+        for (int size = 64 * 1024; size < MB; size *= 2) arena.put("a".repeat(size));
+        long big = arena.put("x".repeat(MB - 1));
+        assertEquals(0, position(big));
+        long last = arena.put("y");
+        // 1MB 덩어리의 마지막 바이트 (위치 2^20 - 1은 20비트에 들어감)
+        assertEquals(chunk(big), chunk(last));
+        assertEquals(MB - 1, position(last));
+        // 꽉 찬 덩어리 끝(위치 2^20)은 핸들에 담을 수 없으므로 빈 문자열은 길이 0 핸들, 다음 글은 새 덩어리
+        long empty = arena.put("");
+        assertEquals(0L, empty);
+        assertEquals("", arena.get(empty));
+        long next = arena.put("z");
+        assertEquals(chunk(last) + 1, chunk(next));
+        assertEquals(0, position(next));
+        assertEquals("y", arena.get(last));
+        assertEquals("z", arena.get(next));
+        assertEquals(MB - 1, arena.get(big).length());
+    }
+
+    @Test
+    void rejectsNullAndTooLongText() {
+        assertEquals(TextArena.NONE, arena.put(null));
+        assertEquals(TextArena.NONE, arena.put("x".repeat(MB)));
+        assertNull(arena.get(TextArena.NONE));
+    }
+
+    @Test
+    void readingAfterCloseFails() {
+        long handle = arena.put("메모");
+        long empty = arena.put("");
+        arena.close();
+        assertThrows(IllegalStateException.class, () -> arena.get(handle));
+        assertThrows(IllegalStateException.class, () -> arena.get(empty));
+        assertEquals(TextArena.NONE, arena.put("더"));
+        // 여러 번 닫아도 됨
+        arena.close();
+    }
+
+    @Test
+    void sharedReferenceKeepsArenaUntilLastClose() {
+        long handle = arena.put("양파 볶기");
+        TextArena view = arena.share();
+        arena.close();
+        arena.close();
+        assertEquals("양파 볶기", view.get(handle));
+        view.close();
+        assertThrows(IllegalStateException.class, () -> view.get(handle));
+        assertThrows(IllegalStateException.class, arena::share);
+    }
+
+    @Test
+    void copiesBytesBetweenArenas() {
+        long handle = arena.put("간장 2큰술 🧂");
+        long empty = arena.put("");
+        TextArena next = TextArena.open();
+        long copied = next.copy(arena, handle);
+        assertEquals("간장 2큰술 🧂", next.get(copied));
+        assertEquals("", next.get(next.copy(arena, empty)));
+        assertEquals(TextArena.NONE, next.copy(arena, TextArena.NONE));
+        // 같은 영역의 참조끼리는 핸들 그대로
+        TextArena view = next.share();
+        assertEquals(copied, view.copy(next, copied));
+        arena.close();
+        next.close();
+        assertEquals("간장 2큰술 🧂", view.get(copied));
+        view.close();
+    }
+
+    @Test
+    void recipeTextMovesBetweenArenasAndSharesWithHandedOutCopies() {
+        Recipe recipe = new Recipe("볶음밥", "밥을 볶는다");
+        recipe.setNote("메모");
+        recipe.moveTextOffHeap(arena);
+        Recipe handedOut = recipe.copy(arena.share());
+        TextArena next = TextArena.open();
+        recipe.moveTextOffHeap(next);
+        arena.close();
+        assertEquals("밥을 볶는다", recipe.getInstructions());
+        assertEquals("메모", handedOut.getNote());
+
+        // 조리 방법 없이 읽은 새 레시피는 핸들을 이어받음
+        Recipe latest = new Recipe("볶음밥", null);
+        latest.inheritInstructions(recipe);
+        next.close();
+        assertThrows(IllegalStateException.class, latest::getInstructions);
+    }
+
+    @Test
+    void zeroLimitDisablesNewArenas() {
+        TextArena.setLimitBytes(0);
+        assertNull(TextArena.open());
+        // 이미 연 영역도 새 덩어리를 잡지 못함
+        assertEquals(TextArena.NONE, arena.put("한도 초과"));
+        TextArena.setLimitBytes(16L * MB);
+        assertNotNull(TextArena.open());
+    }
+
+    @Test
+    void recipeTextMovesOffAndBackOnHeap() {
+        Recipe recipe = new Recipe("볶음밥", "밥을 볶는다");
+        recipe.setNote("");
+        recipe.moveTextOffHeap(arena);
+        assertEquals("밥을 볶는다", recipe.getInstructions());
+        assertEquals("", recipe.getNote());
+        Recipe copy = recipe.copy();
+        copy.moveTextOnHeap();
+        arena.close();
+        assertEquals("밥을 볶는다", copy.getInstructions());
+        assertEquals("", copy.getNote());
+        assertThrows(IllegalStateException.class, recipe::getInstructions);
+        assertTrue(TextArena.getStats().startsWith("힙 밖 텍스트:"));
+    }
+
+    private static int chunk(long handle) {
+        return (int) (handle >>> 40);
+    }
+
+    private static int position(long handle) {
+        return (int) (handle >>> 20) & (MB - 1);
+    }
+
+    private static int length(long handle) {
+        return (int) handle & (MB - 1);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * DuplicateIngredientFinderTest
+ * - 2-gram 역인덱스로 찾은 후보를 모든 쌍의 Dice 계수를 직접 계산한 결과와 비교
+ */
+class DuplicateIngredientFinderTest {
+
+    @Test
+    void findsSpellingVariants() {
+        List<DuplicateIngredientFinder.Candidate> found = new DuplicateIngredientFinder().find(Arrays.asList(
+            "양파", "양파 ", "적양파", "대파", "감자", "고구마", "간장", "진간장", "Garlic", "garlic", "마늘"));
+        Set<String> pairs = new HashSet<>();
+        for (DuplicateIngredientFinder.Candidate candidate : found) {
+            pairs.add(candidate.getName() + "|" + candidate.getSimilarName());
+        }
+        assertTrue(pairs.contains("양파|양파 "));
+        assertTrue(pairs.contains("양파|적양파"));
+        assertTrue(pairs.contains("간장|진간장"));
+        assertTrue(pairs.contains("Garlic|garlic"));
+        assertTrue(pairs.stream().noneMatch(pair -> pair.contains("마늘") || pair.contains("감자")));
+        // 정규화한 이름이 같은 쌍이 먼저
+        assertEquals(1.0, found.get(0).getSimilarity());
+    }
+
+    @Test
+    void normalizeDropsWhitespaceAndCase() {
+        assertEquals("적양파", DuplicateIngredientFinder.normalize(" 적 양파\t"));
+        assertEquals("garlic", DuplicateIngredientFinder.normalize("GarLic"));
+    }
+
+    @Test
+    void matchesAllPairsBruteForce() {
+        Random random = new Random(1);
+        String syllables = "가나다라마바사아자차카타파하고구두부소주";
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            StringBuilder name = new StringBuilder();
+            int length = 2 + random.nextInt(4);
+            for (int j = 0; j < length; j++) name.append(syllables.charAt(random.nextInt(syllables.length())));
+            // 일부는 띄어쓰기만 다른 이름
+            if (i % 40 == 0) name.insert(1, ' ');
+            names.add(name.toString());
+        }
+        for (double threshold : new double[]{0.5, 0.8}) {
+            TreeMap<String, Double> expected = bruteForce(names, threshold);
+            TreeMap<String, Double> actual = new TreeMap<>();
+            for (DuplicateIngredientFinder.Candidate candidate : new DuplicateIngredientFinder(threshold).find(names)) {
+                actual.put(candidate.getName() + "|" + candidate.getSimilarName(), candidate.getSimilarity());
+            }
+            assertEquals(expected.keySet(), actual.keySet(), "threshold=" + threshold);
+            for (String pair : expected.keySet()) {
+                assertEquals(expected.get(pair), actual.get(pair), 1e-9, pair);
+            }
+        }
+    }
+
+    private static TreeMap<String, Double> bruteForce(List<String> names, double threshold) {
+        List<String> distinct = new ArrayList<>(new LinkedHashSet<>(names));
+        TreeMap<String, Double> pairs = new TreeMap<>();
+        for (int i = 0; i < distinct.size(); i++) {
+            for (int j = i + 1; j < distinct.size(); j++) {
+                String a = DuplicateIngredientFinder.normalize(distinct.get(i));
+                String b = DuplicateIngredientFinder.normalize(distinct.get(j));
+                Set<String> gramsA = bigrams(a);
+                Set<String> gramsB = bigrams(b);
+                Set<String> shared = new HashSet<>(gramsA);
+                shared.retainAll(gramsB);
+                if (shared.isEmpty()) continue;
+                double similarity = a.equals(b) ? 1.0 : 2.0 * shared.size() / (gramsA.size() + gramsB.size());
+                if (similarity >= threshold) pairs.put(distinct.get(i) + "|" + distinct.get(j), similarity);
+            }
+        }
+        return pairs;
+    }
+
+    private static Set<String> bigrams(String normalized) {
+        String padded = "^" + normalized + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 2 <= padded.length(); i++) grams.add(padded.substring(i, i + 2));
+        return grams;
+    }
+}
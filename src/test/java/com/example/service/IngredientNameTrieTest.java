@@ -0,0 +1,136 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.IngredientDAO;
+import com.example.model.Ingredient;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * IngredientNameTrieTest
+ * - 자모/초성 키 만들기, 입력 중인 글자와 초성으로 찾기, 재료 변경 알림 반영
+ * - 임의의 접두어에 대한 결과를 전체 이름을 훑은 결과와 비교
+ */
+class IngredientNameTrieTest {
+    private static final String[] NAMES = {"양파", "양배추", "적양파", "닭가슴살", "과자", "Garlic", "대파", "달걀"};
+    private static final List<Ingredient> ALL = new ArrayList<>();
+
+    @BeforeAll
+    static void load() {
+        for (int i = 0; i < NAMES.length; i++) {
+            Ingredient ingredient = new Ingredient(NAMES[i], i);
+            ingredient.setId(i + 1);
+            ALL.add(ingredient);
+        }
+        Random random = new Random(2);
+        for (int i = 0; i < 3000; i++) {
+            StringBuilder name = new StringBuilder();
+            int length = 2 + random.nextInt(3);
+            // 음절 수를 줄여 접두어가 겹치게
+            for (int j = 0; j < length; j++) name.append((char) (0xAC00 + random.nextInt(40) * 28 + random.nextInt(3)));
+            Ingredient ingredient = new Ingredient(name.toString(), random.nextInt(5));
+            ingredient.setId(100 + i);
+            ALL.add(ingredient);
+        }
+        IngredientDAO dao = (IngredientDAO) Proxy.newProxyInstance(IngredientDAO.class.getClassLoader(),
+            new Class<?>[]{IngredientDAO.class}, (proxy, method, args) -> method.getName().equals("findAll") ? ALL : null);
+        IngredientNameTrie.getInstance().load(dao);
+    }
+
+    @Test
+    void jamoKeySplitsSyllablesAndCompounds() {
+        assertEquals("ㅇㅑㅇㅍㅏ", IngredientNameTrie.jamoKey("양파"));
+        assertEquals("ㄷㅏㄹㄱ", IngredientNameTrie.jamoKey("닭"));
+        assertEquals("ㄱㅗㅏ", IngredientNameTrie.jamoKey("과"));
+        assertEquals("ㄱㅗㅏ", IngredientNameTrie.jamoKey("ㄱㅘ"));
+        assertEquals("ㄷㅏㄹㄱ", IngredientNameTrie.jamoKey("다ㄺ"));
+        assertEquals("garlic", IngredientNameTrie.jamoKey(" Gar lic"));
+    }
+
+    @Test
+    void choseongKeyKeepsInitialsOnly() {
+        assertEquals("ㄷㄱㅅㅅ", IngredientNameTrie.choseongKey("닭가슴살"));
+        assertEquals("ㅈㅇㅍ", IngredientNameTrie.choseongKey("적 양파"));
+        assertEquals("garlic", IngredientNameTrie.choseongKey("Garlic"));
+    }
+
+    @Test
+    void suggestsFromPartialSyllablesAndInitials() {
+        assertEquals(Set.of("양파", "양배추"), knownNames("야"));
+        assertEquals(Set.of("양배추"), knownNames("양ㅂ"));
+        assertEquals(Set.of("닭가슴살", "달걀"), knownNames("달"));
+        // 입력 중인 "닭"은 "달걀"의 "달" + "ㄱ"일 수도 있음
+        assertEquals(Set.of("닭가슴살", "달걀"), knownNames("닭"));
+        assertEquals(Set.of("닭가슴살"), knownNames("닭가"));
+        assertEquals(Set.of("양파"), knownNames("ㅇㅍ"));
+        assertEquals(Set.of("닭가슴살", "달걀"), knownNames("ㄷㄱ"));
+        assertEquals(Set.of("적양파"), knownNames("ㅈㅇㅍ"));
+        assertEquals(Set.of("Garlic"), knownNames("GA"));
+        assertEquals(3, IngredientNameTrie.getInstance().suggest("ㄱ", 3).size());
+        assertTrue(IngredientNameTrie.getInstance().suggest("", 10).isEmpty());
+    }
+
+    @Test
+    void matchesScanOfAllNames() {
+        Random random = new Random(5);
+        IngredientNameTrie trie = IngredientNameTrie.getInstance();
+        for (int q = 0; q < 300; q++) {
+            String name = ALL.get(random.nextInt(ALL.size())).getName();
+            String prefix = name.substring(0, 1 + random.nextInt(name.length()));
+            boolean initials = q % 2 == 0;
+            String query = initials ? IngredientNameTrie.choseongKey(prefix) : prefix;
+            Set<Integer> expected = new TreeSet<>();
+            for (Ingredient ingredient : ALL) {
+                String key = initials ? IngredientNameTrie.choseongKey(ingredient.getName())
+                    : IngredientNameTrie.jamoKey(ingredient.getName());
+                String wanted = initials ? query : IngredientNameTrie.jamoKey(query);
+                if (key.startsWith(wanted)) expected.add(ingredient.getId());
+            }
+            Set<Integer> actual = new TreeSet<>();
+            for (IngredientNameTrie.Suggestion suggestion : trie.suggest(query, Integer.MAX_VALUE)) {
+                actual.add(suggestion.getIngredientId());
+            }
+            assertEquals(expected, actual, query);
+        }
+    }
+
+    @Test
+    void followsRenameAndDelete() {
+        DataChangeNotifier notifier = DataChangeNotifier.getInstance();
+        IngredientNameTrie trie = IngredientNameTrie.getInstance();
+        int size = trie.size();
+        Ingredient renamed = new Ingredient("흰양파", 7);
+        renamed.setId(1);
+        notifier.fireIngredientSaved(renamed);
+        assertEquals(Set.of("흰양파"), knownNames("흰양"));
+        assertEquals(7, trie.suggest("흰양", 1).get(0).getAvailableQuantity());
+        assertTrue(!knownNames("양파").contains("양파"));
+
+        notifier.fireIngredientDeleted(1);
+        assertTrue(knownNames("흰양").isEmpty());
+        assertEquals(size - 1, trie.size());
+
+        Ingredient restored = new Ingredient("양파", 0);
+        restored.setId(1);
+        notifier.fireIngredientSaved(restored);
+        assertEquals(size, trie.size());
+    }
+
+    // 테스트용 이름(id < 100) 중 결과에 든 것
+    private static Set<String> knownNames(String prefix) {
+        Set<String> names = new TreeSet<>();
+        for (IngredientNameTrie.Suggestion suggestion : IngredientNameTrie.getInstance().suggest(prefix, Integer.MAX_VALUE)) {
+            if (suggestion.getIngredientId() < 100) names.add(suggestion.getName());
+        }
+        return names;
+    }
+}
@@ -0,0 +1,132 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.IngredientDAO;
+import com.example.dao.NutritionDAO;
+import com.example.dao.RecipeDAO;
+import com.example.model.CompactRecipe;
+import com.example.model.Ingredient;
+import com.example.model.IngredientDictionary;
+import com.example.model.Nutrient;
+import com.example.model.Nutrition;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * NutritionIndexTest
+ * - 재고/영양 정보 변경 알림을 받은 뒤의 findAtMost 결과를 레시피마다 처음부터 다시 더한 값과 비교
+ */
+class NutritionIndexTest {
+    private static final int RECIPES = 5000;
+    private static final int INGREDIENTS = 400;
+
+    @Test
+    void findAtMostMatchesBruteForce() {
+        IngredientDictionary dictionary = IngredientDictionary.getInstance();
+        Random random = new Random(2);
+        int[][] perUnit = new int[INGREDIENTS][];
+        int[] stock = new int[INGREDIENTS];
+        List<Ingredient> ingredients = new ArrayList<>();
+        Map<String, Nutrition> nutrition = new HashMap<>();
+        for (int i = 0; i < INGREDIENTS; i++) {
+            stock[i] = random.nextInt(10);
+            Ingredient ingredient = new Ingredient("재료" + i, stock[i]);
+            ingredient.setId(i + 1);
+            ingredients.add(ingredient);
+            // 일부 재료는 영양 정보가 없음
+            if (i % 50 != 0) {
+                perUnit[i] = randomValues(random);
+                nutrition.put("재료" + i, new Nutrition(perUnit[i]));
+            }
+        }
+        int[][] uses = new int[RECIPES][];
+        int[][] quantities = new int[RECIPES][];
+        List<CompactRecipe> recipes = new ArrayList<>();
+        for (int r = 0; r < RECIPES; r++) {
+            Set<Integer> picked = new LinkedHashSet<>();
+            int count = 2 + random.nextInt(5);
+            while (picked.size() < count) picked.add(random.nextInt(INGREDIENTS));
+            uses[r] = picked.stream().mapToInt(Integer::intValue).toArray();
+            quantities[r] = new int[count];
+            int[] dictIds = new int[count];
+            for (int j = 0; j < count; j++) {
+                quantities[r][j] = 1 + random.nextInt(3);
+                dictIds[j] = dictionary.intern("재료" + uses[r][j]);
+            }
+            recipes.add(new CompactRecipe(r + 1, "레시피" + r, dictIds, quantities[r],
+                CompactRecipe.NEVER_COOKED, 0, false, null));
+        }
+
+        NutritionIndex index = NutritionIndex.getInstance();
+        index.load(stub(RecipeDAO.class, "findAllCompact", recipes), stub(IngredientDAO.class, "findAll", ingredients),
+            stub(NutritionDAO.class, "findAll", nutrition));
+
+        DataChangeNotifier notifier = DataChangeNotifier.getInstance();
+        for (int change = 0; change < 300; change++) {
+            int i = random.nextInt(INGREDIENTS);
+            switch (change % 3) {
+                case 0:
+                    stock[i] = random.nextInt(10);
+                    Ingredient ingredient = new Ingredient("재료" + i, stock[i]);
+                    ingredient.setId(i + 1);
+                    notifier.fireIngredientSaved(ingredient);
+                    break;
+                case 1:
+                    perUnit[i] = randomValues(random);
+                    notifier.fireNutritionSaved("재료" + i, new Nutrition(perUnit[i]));
+                    break;
+                default:
+                    perUnit[i] = null;
+                    notifier.fireNutritionDeleted("재료" + i);
+                    break;
+            }
+        }
+
+        for (long max : new long[]{0, 10_000, 60_000, Long.MAX_VALUE}) {
+            for (boolean cookableOnly : new boolean[]{true, false}) {
+                assertArrayEquals(bruteForce(perUnit, stock, uses, quantities, max, cookableOnly),
+                    index.findAtMost(Nutrient.KCAL, max, cookableOnly), "max=" + max + " cookable=" + cookableOnly);
+            }
+        }
+    }
+
+    // 영양 정보가 모두 있는 레시피 중 열량이 max 이하인 것 (id 순)
+    private static int[] bruteForce(int[][] perUnit, int[] stock, int[][] uses, int[][] quantities,
+                                    long max, boolean cookableOnly) {
+        List<Integer> expected = new ArrayList<>();
+        for (int r = 0; r < uses.length; r++) {
+            long kcal = 0;
+            boolean known = true;
+            boolean cookable = true;
+            for (int j = 0; j < uses[r].length; j++) {
+                int i = uses[r][j];
+                if (perUnit[i] == null) known = false;
+                else kcal += (long) perUnit[i][Nutrient.KCAL.ordinal()] * quantities[r][j];
+                if (stock[i] < quantities[r][j]) cookable = false;
+            }
+            if (known && (cookable || !cookableOnly) && kcal <= max) expected.add(r + 1);
+        }
+        return expected.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static int[] randomValues(Random random) {
+        int[] values = new int[Nutrient.COUNT];
+        for (int n = 0; n < values.length; n++) values[n] = random.nextInt(2000);
+        return values;
+    }
+
+    // 메서드 하나만 결과를 돌려주는 DAO
+    private static <T> T stub(Class<T> type, String method, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+            (proxy, m, args) -> m.getName().equals(method) ? result : null));
+    }
+}
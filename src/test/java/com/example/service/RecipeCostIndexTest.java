@@ -0,0 +1,85 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.IngredientDAO;
+import com.example.dao.RecipeDAO;
+import com.example.model.CompactRecipe;
+import com.example.model.Ingredient;
+import com.example.model.IngredientDictionary;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+/**
+ * RecipeCostIndexTest
+ * - 단가 변경 알림으로 고친 원가가 레시피마다 처음부터 다시 더한 값과 같은지 비교
+ */
+class RecipeCostIndexTest {
+    private static final int RECIPES = 5000;
+    private static final int INGREDIENTS = 300;
+
+    @Test
+    void incrementalCostsMatchBruteForce() {
+        IngredientDictionary dictionary = IngredientDictionary.getInstance();
+        Random random = new Random(1);
+        long[] prices = new long[INGREDIENTS];
+        List<Ingredient> ingredients = new ArrayList<>();
+        for (int i = 0; i < INGREDIENTS; i++) {
+            Ingredient ingredient = new Ingredient("재료" + i, 1);
+            ingredient.setId(i + 1);
+            prices[i] = i % 7 == 0 ? 0 : random.nextInt(100_000) + 1;
+            ingredient.setUnitPrice(prices[i]);
+            ingredients.add(ingredient);
+        }
+        int[][] uses = new int[RECIPES][];
+        int[][] quantities = new int[RECIPES][];
+        List<CompactRecipe> recipes = new ArrayList<>();
+        for (int r = 0; r < RECIPES; r++) {
+            Set<Integer> picked = new LinkedHashSet<>();
+            int count = 3 + random.nextInt(6);
+            while (picked.size() < count) picked.add(random.nextInt(INGREDIENTS));
+            uses[r] = picked.stream().mapToInt(Integer::intValue).toArray();
+            quantities[r] = new int[count];
+            int[] dictIds = new int[count];
+            for (int j = 0; j < count; j++) {
+                quantities[r][j] = 1 + random.nextInt(9);
+                dictIds[j] = dictionary.intern("재료" + uses[r][j]);
+            }
+            recipes.add(new CompactRecipe(r + 1, "레시피" + r, dictIds, quantities[r],
+                CompactRecipe.NEVER_COOKED, 0, false, null));
+        }
+
+        RecipeCostIndex index = RecipeCostIndex.getInstance();
+        index.load(stub(RecipeDAO.class, "findAllCompact", recipes), stub(IngredientDAO.class, "findAll", ingredients));
+        assertCostsMatch(index, prices, uses, quantities);
+
+        for (int change = 0; change < 200; change++) {
+            int i = random.nextInt(INGREDIENTS);
+            prices[i] = random.nextInt(100_000);
+            DataChangeNotifier.getInstance().fireIngredientPriced(i + 1, "재료" + i, prices[i]);
+        }
+        assertCostsMatch(index, prices, uses, quantities);
+    }
+
+    private static void assertCostsMatch(RecipeCostIndex index, long[] prices, int[][] uses, int[][] quantities) {
+        for (int r = 0; r < uses.length; r++) {
+            long expected = 0;
+            for (int j = 0; j < uses[r].length; j++) {
+                expected += prices[uses[r][j]] * quantities[r][j];
+            }
+            assertEquals(expected, index.getCost(r + 1), "레시피 " + (r + 1));
+        }
+    }
+
+    // 메서드 하나만 결과를 돌려주는 DAO
+    private static <T> T stub(Class<T> type, String method, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+            (proxy, m, args) -> m.getName().equals(method) ? result : null));
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.RecipeDAO;
+import com.example.model.CompactRecipe;
+import com.example.model.IngredientDictionary;
+import com.example.model.Recipe;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeSet;
+import org.junit.jupiter.api.Test;
+
+/**
+ * SimilarityIndexTest
+ * - 기본 레시피 하나에 재료를 한두 개만 바꾼 변형들을 섞은 카탈로그로 MinHash/LSH 조회를 정확한 자카드와 비교
+ * - 돌려준 유사도는 정확한 값이어야 하고, 자카드 0.5 이상인 가장 비슷한 레시피는 놓치지 않아야 함
+ *   (밴드 32개 x 2행이면 자카드 0.5 쌍이 후보에서 빠질 확률은 0.75^32 ≈ 0.0001, 고정 시드라 매번 같은 결과)
+ * - 저장/삭제 알림 뒤에는 바뀐 레시피만 다시 버킷에 들어감
+ */
+class SimilarityIndexTest {
+    private static final int NAMES = 400;
+    private static final int BASES = 300;
+    private static final int VARIANTS = 5;
+
+    private final IngredientDictionary dictionary = IngredientDictionary.getInstance();
+    private final Map<Integer, Set<String>> catalog = new HashMap<>();
+
+    @Test
+    void similarRecipesMatchExactJaccard() {
+        SimilarityIndex index = loadCatalog();
+        int checked = 0;
+        for (int id : catalog.keySet()) {
+            if (id % 7 != 0) continue;
+            List<SimilarityIndex.SimilarRecipe> found = index.findSimilar(id, 10);
+            double previous = 1.0;
+            for (SimilarityIndex.SimilarRecipe similar : found) {
+                int other = similar.getRecipe().getId();
+                assertTrue(other != id, "자기 자신 제외");
+                assertEquals(jaccard(catalog.get(id), catalog.get(other)), similar.getJaccard(), 1e-9);
+                assertEquals(shared(catalog.get(id), catalog.get(other)), similar.getSharedCount());
+                assertTrue(similar.getJaccard() <= previous, "유사도 내림차순");
+                previous = similar.getJaccard();
+            }
+            double best = bestJaccard(id);
+            if (best >= 0.5) {
+                assertFalse(found.isEmpty(), "레시피 " + id);
+                assertEquals(best, found.get(0).getJaccard(), 1e-9, "레시피 " + id);
+                checked++;
+            }
+        }
+        assertTrue(checked > 100, "비교한 레시피 수 " + checked);
+    }
+
+    @Test
+    void findUsingRanksByIngredientsUsed() {
+        SimilarityIndex index = loadCatalog();
+        for (int id = 1; id <= catalog.size(); id += 37) {
+            Set<String> names = catalog.get(id);
+            List<SimilarityIndex.SimilarRecipe> found = index.findUsing(names, 5);
+            // 같은 재료 구성은 서명이 같아 반드시 후보가 되고, 겹치는 재료 수가 가장 많음
+            assertEquals(names.size(), found.get(0).getSharedCount());
+            assertEquals(names, catalog.get(found.get(0).getRecipe().getId()));
+            for (SimilarityIndex.SimilarRecipe similar : found) {
+                assertEquals(shared(names, catalog.get(similar.getRecipe().getId())), similar.getSharedCount());
+            }
+        }
+        assertTrue(index.findUsing(List.of("없는 재료"), 5).isEmpty());
+    }
+
+    @Test
+    void savedAndDeletedRecipesAreRebucketed() {
+        SimilarityIndex index = loadCatalog();
+        DataChangeNotifier notifier = DataChangeNotifier.getInstance();
+        int base = 1;
+        int moved = 2;
+        int target = 1 + VARIANTS * 10 + 10;
+        assertTrue(ids(index.findSimilar(base, 20)).contains(moved));
+
+        // 변형 하나를 다른 기본 레시피와 같은 재료로 바꾸면 원래 무리에서 빠지고 새 무리에 들어감
+        Recipe recipe = new Recipe();
+        recipe.setId(moved);
+        recipe.setName("옮긴 레시피");
+        for (String name : catalog.get(target)) recipe.addIngredientNameAndQuantity(name, 1);
+        notifier.fireRecipeSaved(recipe);
+        catalog.put(moved, new TreeSet<>(catalog.get(target)));
+        assertFalse(ids(index.findSimilar(base, 20)).contains(moved));
+        assertEquals(1.0, index.findSimilar(moved, 1).get(0).getJaccard(), 1e-9);
+        assertEquals(target, index.findSimilar(moved, 1).get(0).getRecipe().getId());
+
+        notifier.fireRecipeDeleted(target);
+        assertFalse(ids(index.findSimilar(moved, 20)).contains(target));
+        assertTrue(index.findSimilar(target, 5).isEmpty());
+    }
+
+    // 기본 레시피(재료 6-9개)마다 재료 1-2개를 바꾼 변형 VARIANTS개, id는 1부터 연속
+    private SimilarityIndex loadCatalog() {
+        Random random = new Random(32);
+        List<CompactRecipe> recipes = new ArrayList<>();
+        int id = 1;
+        for (int b = 0; b < BASES; b++) {
+            Set<String> base = new TreeSet<>();
+            int size = 6 + random.nextInt(4);
+            while (base.size() < size) base.add("재료" + random.nextInt(NAMES));
+            for (int v = 0; v <= VARIANTS; v++) {
+                Set<String> names = new TreeSet<>(base);
+                if (v > 0) {
+                    List<String> list = new ArrayList<>(names);
+                    for (int k = 1 + random.nextInt(2); k > 0; k--) names.remove(list.get(random.nextInt(list.size())));
+                    while (names.size() < size) names.add("재료" + random.nextInt(NAMES));
+                }
+                catalog.put(id, names);
+                recipes.add(compact(id++, names));
+            }
+        }
+        SimilarityIndex index = SimilarityIndex.getInstance();
+        index.load(stub(RecipeDAO.class, "findAllCompact", recipes));
+        return index;
+    }
+
+    private CompactRecipe compact(int id, Set<String> names) {
+        int[] dictIds = names.stream().mapToInt(dictionary::intern).toArray();
+        return new CompactRecipe(id, "레시피" + id, dictIds, new int[dictIds.length], CompactRecipe.NEVER_COOKED, 0, false, null);
+    }
+
+    private double bestJaccard(int id) {
+        double best = 0;
+        for (Map.Entry<Integer, Set<String>> entry : catalog.entrySet()) {
+            if (entry.getKey() != id) best = Math.max(best, jaccard(catalog.get(id), entry.getValue()));
+        }
+        return best;
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        int shared = shared(a, b);
+        return (double) shared / (a.size() + b.size() - shared);
+    }
+
+    private static int shared(Set<String> a, Set<String> b) {
+        int shared = 0;
+        for (String name : a) if (b.contains(name)) shared++;
+        return shared;
+    }
+
+    private static Set<Integer> ids(List<SimilarityIndex.SimilarRecipe> list) {
+        Set<Integer> ids = new TreeSet<>();
+        for (SimilarityIndex.SimilarRecipe similar : list) ids.add(similar.getRecipe().getId());
+        return ids;
+    }
+
+    // 메서드 하나만 결과를 돌려주는 DAO
+    private static <T> T stub(Class<T> type, String method, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+            (proxy, m, args) -> m.getName().equals(method) ? result : null));
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.dao.DataChangeNotifier;
+import com.example.dao.SubstitutionDAO;
+import com.example.model.Substitution;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import org.junit.jupiter.api.Test;
+
+/**
+ * SubstitutionGraphTest
+ * - 무작위 대체 관계 그래프의 폐포를 길이 3 이하 경로를 모두 훑은 결과(가장 짧은 경로, 같으면 가장 작은 비율)와 비교
+ * - 저장/삭제 알림으로 일부 행만 다시 계산한 그래프가 같은 관계를 처음부터 읽은 그래프와 같은지 확인
+ * - 레시피 재료와 대체 재료 재고만으로 세운 요리 계획이 전체 재고로 세운 계획과 같은지 확인
+ */
+class SubstitutionGraphTest {
+    private static final int NAMES = 40;
+
+    // 원재료 → 대체 재료 → 비율 (테스트가 기억하는 현재 관계)
+    private final Map<String, Map<String, Double>> edges = new TreeMap<>();
+    private final SubstitutionGraph graph = SubstitutionGraph.getInstance();
+
+    @Test
+    void closureMatchesEveryPathUpToThreeSteps() {
+        Random random = new Random(33);
+        for (int i = 0; i < 70; i++) addRandomEdge(random);
+        load();
+        assertClosures();
+    }
+
+    @Test
+    void incrementalRebuildMatchesFullLoad() {
+        Random random = new Random(330);
+        for (int i = 0; i < 50; i++) addRandomEdge(random);
+        load();
+        DataChangeNotifier notifier = DataChangeNotifier.getInstance();
+        for (int step = 0; step < 200; step++) {
+            List<String> sources = new ArrayList<>(edges.keySet());
+            if (random.nextInt(3) == 0 && !sources.isEmpty()) {
+                String from = sources.get(random.nextInt(sources.size()));
+                List<String> tos = new ArrayList<>(edges.get(from).keySet());
+                String to = tos.get(random.nextInt(tos.size()));
+                edges.get(from).remove(to);
+                if (edges.get(from).isEmpty()) edges.remove(from);
+                notifier.fireSubstitutionDeleted(from, to);
+            } else {
+                notifier.fireSubstitutionSaved(addRandomEdge(random));
+            }
+            if (step % 20 == 0) assertClosures();
+        }
+        assertClosures();
+
+        // 같은 관계를 처음부터 읽어도 순서까지 같은 행
+        Map<String, List<String>> incremental = rows();
+        load();
+        assertEquals(incremental, rows());
+    }
+
+    @Test
+    void planWithRecipeStockMatchesPlanWithFullStock() {
+        Random random = new Random(3300);
+        for (int i = 0; i < 60; i++) addRandomEdge(random);
+        load();
+        Map<String, Integer> fullStock = new HashMap<>();
+        for (int n = 0; n < NAMES; n++) {
+            if (random.nextInt(3) > 0) fullStock.put(name(n), random.nextInt(20));
+        }
+        for (int trial = 0; trial < 300; trial++) {
+            Map<String, Integer> required = new LinkedHashMap<>();
+            for (int k = 1 + random.nextInt(6); k > 0; k--) {
+                required.put(name(random.nextInt(NAMES)), 1 + random.nextInt(15));
+            }
+            Set<String> names = graph.stockNamesFor(required.keySet());
+            assertTrue(names.containsAll(required.keySet()));
+            for (String name : required.keySet()) {
+                for (Substitution substitution : graph.substitutesOf(name)) {
+                    assertTrue(names.contains(substitution.getSubstituteName()), name + " → " + substitution);
+                }
+            }
+            Map<String, Integer> stock = new HashMap<>();
+            for (String name : names) {
+                if (fullStock.containsKey(name)) stock.put(name, fullStock.get(name));
+            }
+            SubstitutionGraph.CookPlan expected = graph.plan(required, fullStock);
+            SubstitutionGraph.CookPlan actual = graph.plan(required, stock);
+            assertEquals(expected.getDeductions(), actual.getDeductions());
+            assertEquals(expected.getSubstitutions(), actual.getSubstitutions());
+            assertEquals(expected.getMissing(), actual.getMissing());
+        }
+    }
+
+    private Substitution addRandomEdge(Random random) {
+        int from = random.nextInt(NAMES);
+        int to = random.nextInt(NAMES - 1);
+        if (to >= from) to++;
+        double ratio = 0.5 + random.nextInt(8) * 0.25;
+        edges.computeIfAbsent(name(from), k -> new TreeMap<>()).put(name(to), ratio);
+        return new Substitution(name(from), name(to), ratio);
+    }
+
+    private void load() {
+        List<Substitution> all = new ArrayList<>();
+        edges.forEach((from, tos) -> tos.forEach((to, ratio) -> all.add(new Substitution(from, to, ratio))));
+        graph.load(stub(SubstitutionDAO.class, "findAll", all));
+    }
+
+    private void assertClosures() {
+        for (int n = 0; n < NAMES; n++) {
+            String source = name(n);
+            Map<String, double[]> expected = new TreeMap<>();
+            walk(source, source, 0, 1.0, expected);
+            List<Substitution> row = graph.substitutesOf(source);
+            assertEquals(expected.size(), row.size(), source);
+            double[] previous = {0, 0};
+            for (Substitution substitution : row) {
+                double[] best = expected.get(substitution.getSubstituteName());
+                assertTrue(best != null, source + " → " + substitution);
+                assertEquals(best[1], substitution.getRatio(), 1e-9, source + " → " + substitution);
+                // 가까운 것부터, 같은 단계 안에서는 비율이 작은 것부터
+                assertTrue(best[0] > previous[0] || (best[0] == previous[0] && best[1] >= previous[1] - 1e-9),
+                    source + " 순서 " + row);
+                previous = best;
+            }
+        }
+    }
+
+    // 길이 3 이하의 모든 경로를 따라가며 대상별 {가장 짧은 길이, 그 길이에서 가장 작은 비율}을 기록
+    private void walk(String source, String node, int depth, double ratio, Map<String, double[]> best) {
+        if (depth == 3) return;
+        for (Map.Entry<String, Double> edge : edges.getOrDefault(node, Map.of()).entrySet()) {
+            String target = edge.getKey();
+            double next = ratio * edge.getValue();
+            if (!target.equals(source)) {
+                double[] current = best.get(target);
+                if (current == null || depth + 1 < current[0] || (depth + 1 == current[0] && next < current[1])) {
+                    best.put(target, new double[]{depth + 1, next});
+                }
+            }
+            walk(source, target, depth + 1, next, best);
+        }
+    }
+
+    private Map<String, List<String>> rows() {
+        Map<String, List<String>> rows = new TreeMap<>();
+        for (int n = 0; n < NAMES; n++) {
+            List<String> row = new ArrayList<>();
+            for (Substitution substitution : graph.substitutesOf(name(n))) row.add(substitution.toString());
+            rows.put(name(n), row);
+        }
+        return rows;
+    }
+
+    private static String name(int n) {
+        return "대체재료" + n;
+    }
+
+    // 메서드 하나만 결과를 돌려주는 DAO
+    private static <T> T stub(Class<T> type, String method, Object result) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+            (proxy, m, args) -> m.getName().equals(method) ? result : null));
+    }
+}
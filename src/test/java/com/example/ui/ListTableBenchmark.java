@@ -0,0 +1,185 @@
+package com.example.ui;
+
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.text.Collator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import javax.swing.JTable;
+import javax.swing.RowSorter;
+import javax.swing.SortOrder;
+import javax.swing.SwingUtilities;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.DefaultTableModel;
+import javax.swing.table.TableCellRenderer;
+import javax.swing.table.TableRowSorter;
+
+/**
+ * ListTableBenchmark
+ * - 레시피 목록 테이블(행 10만 개)을 기존 방식과 StripedTable/StarRatingRenderer/ChunkedTableLoader 방식으로 비교
+ *   (테스트가 아니라 수동 실행용, 이름이 *Test가 아니므로 mvn test에서는 돌지 않음)
+ * - 다시 그리기: 화면 높이(30행)만큼을 스크롤하며 그린 한 번당 시간과 EDT 할당량
+ *   (기존: 셀마다 new Color, 별 문자열을 StringBuilder로 조립)
+ * - 이름 정렬: String + Collator 비교 vs CollatedText(미리 만든 CollationKey) 자연 순서
+ * - 전체 다시 채우기(정렬이 걸린 테이블): 행마다 addRow vs 200행 묶음마다 appendRows 한 번
+ * - 모든 작업은 EDT에서 실행하고, 같은 시드라 매번 같은 행. 각 항목은 워밍업 뒤 측정
+ * - 실행: mvn -B test-compile 후
+ *   java -Djava.awt.headless=true -Dfile.encoding=UTF-8 -cp target/classes:target/test-classes com.example.ui.ListTableBenchmark [행 수]
+ */
+public final class ListTableBenchmark {
+    private static final String[] COLUMNS = {"ID", "이름", "재료", "평점", "즐겨찾기", "마지막 요리 일자"};
+    private static final int VISIBLE_ROWS = 30;
+    private static final int WIDTH = 900;
+
+    private ListTableBenchmark() {}
+
+    public static void main(String[] args) throws Exception {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        List<Object[]> plainRows = rows(count, false);
+        List<Object[]> collatedRows = rows(count, true);
+        SwingUtilities.invokeAndWait(() -> {
+            repaint("기존 JTable + 셀마다 색/별 문자열", legacyTable(model(plainRows)));
+            repaint("StripedTable + StarRatingRenderer", stripedTable(model(collatedRows)));
+            sort("이름 정렬 (String + Collator)      ", model(plainRows), Collator.getInstance(Locale.KOREAN));
+            sort("이름 정렬 (CollatedText)           ", model(collatedRows), null);
+            reload("다시 채우기 (행마다 addRow)       ", collatedRows, false);
+            reload("다시 채우기 (200행 묶음 appendRows)", collatedRows, true);
+        });
+    }
+
+    // 화면 높이만큼 잘라 스크롤하며 그림: 한 번당 평균 시간과 할당량
+    private static void repaint(String label, JTable table) {
+        int rowHeight = table.getRowHeight();
+        table.setSize(WIDTH, rowHeight * table.getRowCount());
+        table.doLayout();
+        BufferedImage image = new BufferedImage(WIDTH, rowHeight * VISIBLE_ROWS, BufferedImage.TYPE_INT_RGB);
+        int frames = 2000;
+        paintFrames(table, image, frames); // 워밍업
+        long allocated = allocatedBytes();
+        long started = System.nanoTime();
+        paintFrames(table, image, frames);
+        double millis = (System.nanoTime() - started) / 1e6 / frames;
+        double kb = (allocatedBytes() - allocated) / 1024.0 / frames;
+        System.out.printf("%s: 다시 그리기 %.3f ms, 할당 %.1f KB (화면 %d행)%n", label, millis, kb, VISIBLE_ROWS);
+    }
+
+    private static void paintFrames(JTable table, BufferedImage image, int frames) {
+        int rowHeight = table.getRowHeight();
+        int viewport = rowHeight * VISIBLE_ROWS;
+        for (int frame = 0; frame < frames; frame++) {
+            int top = (frame * 7 % (table.getRowCount() - VISIBLE_ROWS)) * rowHeight;
+            Graphics2D g = image.createGraphics();
+            g.translate(0, -top);
+            g.setClip(0, top, WIDTH, viewport);
+            table.paint(g);
+            g.dispose();
+        }
+    }
+
+    // 이름 열 오름차순 정렬 시간 (collator가 null이면 값의 자연 순서, TableSearch와 같은 방식)
+    private static void sort(String label, DefaultTableModel model, Collator collator) {
+        for (int round = 0; round < 4; round++) {
+            TableRowSorter<DefaultTableModel> sorter = new TableRowSorter<>(model);
+            if (collator != null) {
+                sorter.setComparator(1, collator);
+            } else {
+                sorter.setComparator(1, (a, b) -> ((CollatedText) a).compareTo((CollatedText) b));
+            }
+            long started = System.nanoTime();
+            sorter.setSortKeys(List.of(new RowSorter.SortKey(1, SortOrder.ASCENDING)));
+            double millis = (System.nanoTime() - started) / 1e6;
+            if (round == 3) System.out.printf("%s: %.0f ms%n", label, millis);
+        }
+    }
+
+    // 정렬이 걸린 빈 테이블에 전체 행을 다시 채우는 시간
+    private static void reload(String label, List<Object[]> rows, boolean chunked) {
+        // 행마다 addRow는 한 번에 수십 초가 걸려 한 번만 잼
+        int rounds = chunked ? 3 : 1;
+        for (int round = 0; round < rounds; round++) {
+            DefaultTableModel model = new DefaultTableModel(COLUMNS, 0);
+            JTable table = new StripedTable(model);
+            TableRowSorter<DefaultTableModel> sorter = new TableRowSorter<>(model);
+            sorter.setComparator(1, (a, b) -> ((CollatedText) a).compareTo((CollatedText) b));
+            sorter.setSortKeys(List.of(new RowSorter.SortKey(1, SortOrder.ASCENDING)));
+            table.setRowSorter(sorter);
+            long started = System.nanoTime();
+            if (chunked) {
+                for (int from = 0; from < rows.size(); from += ChunkedTableLoader.CHUNK) {
+                    List<Object[]> chunk = rows.subList(from, Math.min(rows.size(), from + ChunkedTableLoader.CHUNK));
+                    ChunkedTableLoader.appendRows(model, chunk, row -> row);
+                }
+            } else {
+                for (Object[] row : rows) model.addRow(row);
+            }
+            double millis = (System.nanoTime() - started) / 1e6;
+            if (round == rounds - 1) System.out.printf("%s: %.0f ms (%,d행)%n", label, millis, model.getRowCount());
+        }
+    }
+
+    private static JTable stripedTable(DefaultTableModel model) {
+        JTable table = new StripedTable(model);
+        table.getColumnModel().getColumn(3).setCellRenderer(new StarRatingRenderer());
+        return table;
+    }
+
+    // user-041 이전 RecipePanel의 테이블과 평점 렌더러
+    private static JTable legacyTable(DefaultTableModel model) {
+        JTable table = new JTable(model) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public Component prepareRenderer(TableCellRenderer renderer, int row, int column) {
+                Component c = super.prepareRenderer(renderer, row, column);
+                if (!isRowSelected(row)) c.setBackground(row % 2 == 0 ? new Color(255, 255, 240) : new Color(255, 240, 220));
+                else c.setBackground(new Color(255, 220, 180));
+                return c;
+            }
+        };
+        table.getColumnModel().getColumn(3).setCellRenderer(new DefaultTableCellRenderer() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public void setValue(Object value) {
+                if (value instanceof Integer) {
+                    int rating = (Integer) value;
+                    StringBuilder stars = new StringBuilder();
+                    for (int i = 0; i < rating; i++) stars.append("★");
+                    for (int i = rating; i < 5; i++) stars.append("☆");
+                    setText(stars.toString());
+                } else setText("");
+            }
+        });
+        return table;
+    }
+
+    private static DefaultTableModel model(List<Object[]> rows) {
+        DefaultTableModel model = new DefaultTableModel(COLUMNS, 0);
+        ChunkedTableLoader.appendRows(model, rows, row -> row);
+        return model;
+    }
+
+    // 레시피 목록과 같은 모양의 행 (이름은 한글 2-6음절, collated면 이름 칸이 CollatedText)
+    private static List<Object[]> rows(int count, boolean collated) {
+        Random random = new Random(41);
+        List<Object[]> rows = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            StringBuilder name = new StringBuilder();
+            for (int i = 2 + random.nextInt(5); i > 0; i--) name.append((char) (0xAC00 + random.nextInt(11172)));
+            String ingredients = "양파(" + (1 + random.nextInt(3)) + "), 대파(1), 간장(" + (1 + random.nextInt(5)) + ")";
+            rows.add(new Object[]{id, collated ? CollatedText.of(name.toString()) : name.toString(), ingredients,
+                random.nextInt(6), random.nextInt(4) == 0 ? "♥" : "", "2026-0" + (1 + random.nextInt(9)) + "-1" + random.nextInt(10)});
+        }
+        return rows;
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+            .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}